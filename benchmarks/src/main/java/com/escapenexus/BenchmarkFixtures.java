@@ -0,0 +1,138 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic content for the benchmarks. Games are chains of rooms, each
+ * locked by a key a puzzle in the room before it provides, with a door per
+ * link and a few loose items; everything comes from a fixed seed, so packs are
+ * identical across builds. Packs on disk are streamed out by
+ * {@link ContentGenerator}. The build writes the packs with {@link #main};
+ * benchmarks run outside the build generate any missing pack on first use.
+ */
+public final class BenchmarkFixtures {
+
+    /** Games per pack written at build time. */
+    static final int[] PACK_SIZES = {1, 10, 100, 1000};
+    static final int ROOMS_PER_GAME = 8;
+    static final int ITEMS_PER_ROOM = 3;
+    static final long SEED = 0x5EEDL;
+
+    private static final String DIRECTORY_PROPERTY = "escapenexus.fixtures";
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Writes every pack to {@code args[0]}, or to {@code fixtures} in the working directory. */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "fixtures");
+        for (int size : PACK_SIZES) {
+            Path file = writePack(directory, size);
+            System.out.println("Wrote " + file + " (" + Files.size(file) + " bytes)");
+        }
+    }
+
+    /** Path of the pack with {@code gameCount} games, generating it if it is missing. */
+    static Path pack(int gameCount) throws IOException {
+        Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, "fixtures"));
+        Path file = packFile(directory, gameCount);
+        return Files.exists(file) ? file : writePack(directory, gameCount);
+    }
+
+    private static Path packFile(Path directory, int gameCount) {
+        return directory.resolve("pack-" + gameCount + ".json");
+    }
+
+    private static Path writePack(Path directory, int gameCount) throws IOException {
+        Path file = packFile(directory, gameCount);
+        ContentGenerator generator = new ContentGenerator();
+        generator.setGames(gameCount);
+        generator.setRoomsPerGame(ROOMS_PER_GAME);
+        generator.setItemsPerRoom(ITEMS_PER_ROOM);
+        generator.setSeed(SEED);
+        generator.write(file);
+        return file;
+    }
+
+    static Game game(int roomCount) {
+        return game(new Random(SEED), 0, roomCount);
+    }
+
+    private static Game game(Random random, int index, int roomCount) {
+        Game game = new Game(uuid(random), "Synthetic Run " + index, "Generated benchmark game " + index + ".",
+                Difficulty.values()[index % Difficulty.values().length], 30, 1);
+        Room previous = null;
+        Item previousKey = null;
+        for (int r = 0; r < roomCount; r++) {
+            Room room = new Room(uuid(random), "Room " + index + "-" + r, "Synthetic room " + r + ".");
+            room.setHintLimit(2);
+            room.setLocked(previous != null);
+            if (previousKey != null) {
+                room.setKeyRequired(previousKey);
+            }
+            for (int k = 0; k < ITEMS_PER_ROOM; k++) {
+                room.addItem(new Item(uuid(random), "Crate " + r + "-" + k, "Nothing much inside.",
+                        true, false, ItemState.NEW));
+            }
+
+            Item key = new Item(uuid(random), "Key " + index + "-" + r, "Opens room " + (r + 1) + ".",
+                    true, true, ItemState.NEW);
+            game.addItem(key);
+            long x = 1 + random.nextInt(50);
+            MathPuzzle math = new MathPuzzle(uuid(random), "Dial " + r, "Set the dial.", "x * 3 + " + r,
+                    Map.of("x", Rational.of(x)), 0.0);
+            math.setKeyProvided(key);
+            room.addPuzzle(math);
+            Puzzle console = new Puzzle(uuid(random), "Console " + r, "Wake the console.");
+            for (int h = 0; h < 4; h++) {
+                console.addHint("Hint " + h + " for console " + r + ".");
+            }
+            room.addPuzzle(console);
+            game.addRoom(room);
+
+            if (previous != null) {
+                Door door = new Door(uuid(random), "Door " + r, "Heavy door.", previous.getId(), room.getId());
+                door.setKeyRequired(previousKey);
+                game.addDoor(door);
+            }
+            previous = room;
+            previousKey = key;
+        }
+        return game;
+    }
+
+    /** {@code count} users who have each solved the first half of {@code game}'s puzzles. */
+    static List<User> users(int count, Game game) {
+        Random random = new Random(SEED);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User(uuid(random), "player" + i, "player" + i + "@example.com");
+            user.setDifficulty(Difficulty.values()[i % Difficulty.values().length]);
+            List<Room> rooms = game.getRooms();
+            for (int r = 0; r < rooms.size(); r++) {
+                Room room = rooms.get(r);
+                Progress progress = user.getOrCreateProgress(room.getId());
+                for (Puzzle puzzle : room.getPuzzles()) {
+                    progress.setPuzzleSolved(puzzle.getId(), r < rooms.size() / 2);
+                    progress.setHintCount(puzzle.getId(), r % 2);
+                }
+                if (r == rooms.size() / 2) {
+                    progress.setCurrentPuzzleId(room.getPuzzles().get(0).getId());
+                }
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static UUID uuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,51 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** {@link DataLoader#loadGames} and {@link DataWriter#toJson} over packs of 1, 10, 100 and 1000 games. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int packSize;
+
+    private Path pack;
+    private List<Game> games;
+    private final DataWriter writer = new DataWriter();
+
+    @Setup
+    public void setUp() throws IOException {
+        pack = BenchmarkFixtures.pack(packSize);
+        games = new DataLoader().loadGames(pack);
+    }
+
+    @Benchmark
+    public List<Game> loadGames() throws IOException {
+        return new DataLoader().loadGames(pack);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return writer.toJson(games);
+    }
+}
@@ -0,0 +1,64 @@
+package com.escapenexus;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Game#getRoom} and {@link Game#getItem}, looking up the last room and
+ * the items that are found last: a game-level key and an item lying in the
+ * last room.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLookupBenchmark {
+
+    @Param({"8", "64"})
+    int roomCount;
+
+    private Game game;
+    private UUID lastRoom;
+    private UUID lastKey;
+    private UUID lastRoomItem;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkFixtures.game(roomCount);
+        List<Room> rooms = game.getRooms();
+        Room last = rooms.get(rooms.size() - 1);
+        lastRoom = last.getId();
+        lastKey = game.getItems().get(game.getItems().size() - 1).getId();
+        lastRoomItem = last.getItems().get(last.getItems().size() - 1).getId();
+    }
+
+    @Benchmark
+    public Room getRoom() {
+        return game.getRoom(lastRoom);
+    }
+
+    @Benchmark
+    public Item getItemKey() {
+        return game.getItem(lastKey);
+    }
+
+    @Benchmark
+    public Item getItemInRoom() {
+        return game.getItem(lastRoomItem);
+    }
+}
@@ -0,0 +1,82 @@
+package com.escapenexus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One shared {@link GameManager} under a read/attempt mix: three threads read
+ * through {@link GameManager#withGame} for every thread making wrong
+ * {@link GameManager#attemptPuzzle} calls. With one game every thread fights
+ * over the same lock; with more, each thread stays on its own game and only
+ * lock stripes are shared. Run with {@code -t} to scale the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class GameManagerContentionBenchmark {
+
+    @Param({"1", "64"})
+    int gameCount;
+
+    private GameManager manager;
+    private String[] gameIds;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        manager = new GameManager();
+        gameIds = new String[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            Room lab = new Room("Lab", "");
+            lab.addPuzzle(new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river")));
+            gameIds[i] = manager.createGameFromRooms(List.of(lab), Duration.ofHours(1)).getId().toString();
+        }
+    }
+
+    /** The game each benchmark thread plays. */
+    @State(Scope.Thread)
+    public static class Player {
+        String gameId;
+
+        @Setup
+        public void setUp(GameManagerContentionBenchmark shared) {
+            gameId = shared.gameIds[shared.nextThread.getAndIncrement() % shared.gameIds.length];
+        }
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(3)
+    public int read(Player player) {
+        return manager.withGame(player.gameId, game -> game.getCurrentRoom().getHintLimit()).orElse(0);
+    }
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public boolean attempt(Player player) {
+        return manager.attemptPuzzle(player.gameId, "Riddle", "lake");
+    }
+}
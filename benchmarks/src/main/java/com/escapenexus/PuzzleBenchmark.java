@@ -0,0 +1,89 @@
+package com.escapenexus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Puzzle#attempt} for each puzzle type. Wrong answers leave the puzzle
+ * as it was; right answers reset it first so every call does the full check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PuzzleBenchmark {
+
+    private Puzzle plain;
+    private MathPuzzle math;
+    private RiddlePuzzle riddle;
+    private LightPatternPuzzle lights;
+    private String lightsAnswer;
+    private String lightsWrong;
+
+    @Setup
+    public void setUp() {
+        plain = new Puzzle(UUID.randomUUID(), "Console", "Wake the console.");
+        math = new MathPuzzle(UUID.randomUUID(), "Dial", "Set the dial.", "x * 3 + 4",
+                Map.of("x", Rational.of(7)), 0.0);
+        riddle = new RiddlePuzzle(UUID.randomUUID(), "Riddle", "What runs but never walks?",
+                List.of("river", "a river", "stream"));
+        lights = new LightPatternPuzzle(UUID.randomUUID(), "Lights", "Repeat the lights.",
+                BenchmarkFixtures.SEED, 1);
+        lightsAnswer = lights.getCurrentSequence().get(0).name();
+        lightsWrong = LightColor.values()[(lights.getColorIndex(0) + 1) % LightColor.values().length].name();
+    }
+
+    @Benchmark
+    public boolean plainRight() {
+        plain.reset();
+        return plain.attempt("anything");
+    }
+
+    @Benchmark
+    public boolean mathRight() {
+        math.reset();
+        return math.attempt("25");
+    }
+
+    @Benchmark
+    public boolean mathWrong() {
+        return math.attempt("26");
+    }
+
+    @Benchmark
+    public boolean riddleRight() {
+        riddle.reset();
+        return riddle.attempt("  The River ");
+    }
+
+    @Benchmark
+    public boolean riddleWrong() {
+        return riddle.attempt("mountain");
+    }
+
+    @Benchmark
+    public boolean lightsRight() {
+        lights.reset();
+        return lights.attempt(lightsAnswer);
+    }
+
+    @Benchmark
+    public boolean lightsWrong() {
+        return lights.attempt(lightsWrong);
+    }
+}
@@ -0,0 +1,69 @@
+package com.escapenexus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SessionRegistry} costs for the default game. {@code fill} opens
+ * {@value #SESSIONS} sessions into a new registry, so the GC profiler's
+ * {@code gc.alloc.rate.norm} is the footprint of one session, map growth and
+ * id included. {@code openClose} is the steady-state cost of a session that
+ * comes and goes; {@code attemptWrong} a wrong answer on an open session.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionRegistryBenchmark {
+
+    static final int SESSIONS = 10_000;
+
+    private GameTemplate template;
+    private SessionRegistry registry;
+    private PlayerSession session;
+    private List<LightColor> wrongLights;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        registry = new SessionRegistry();
+        session = registry.open("player", template, BenchmarkFixtures.SEED);
+        LightColor first = session.getState().getLightColor(0, 0);
+        wrongLights = List.of(LightColor.values()[(first.ordinal() + 1) % LightColor.values().length]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSIONS)
+    public SessionRegistry fill() {
+        SessionRegistry filled = new SessionRegistry();
+        for (int i = 0; i < SESSIONS; i++) {
+            filled.open("player" + (i & 7), template, seed++);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public boolean openClose() {
+        return registry.close(registry.open("visitor", template, seed++).getId());
+    }
+
+    @Benchmark
+    public boolean attemptWrong() {
+        return registry.attempt(session, wrongLights);
+    }
+}
@@ -0,0 +1,55 @@
+package com.escapenexus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link UserStorage} save/load round trip and progress restore. The round
+ * trip writes {@code saves/users.json} under the working directory, which is
+ * {@code target/} when run from the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserStorageBenchmark {
+
+    @Param({"10", "1000"})
+    int userCount;
+
+    private final UserStorage storage = new UserStorage();
+    private Game game;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkFixtures.game(BenchmarkFixtures.ROOMS_PER_GAME);
+        users = BenchmarkFixtures.users(userCount, game);
+    }
+
+    @Benchmark
+    public List<User> saveAndLoad() {
+        storage.saveUsers(users);
+        return storage.loadUsers();
+    }
+
+    @Benchmark
+    public Game applyUserProgressToGame() {
+        storage.applyUserProgressToGame(users.get(0), game);
+        return game;
+    }
+}
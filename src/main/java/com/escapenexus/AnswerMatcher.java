@@ -0,0 +1,244 @@
+package com.escapenexus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Accepted answers of a riddle, compiled into an array-backed trie.
+ *
+ * <p>Answers and guesses go through the same normalization: case is folded,
+ * punctuation and runs of whitespace become one space, a leading "a", "an"
+ * or "the" is dropped and a plural "s"/"es" is cut from the last word. A guess
+ * then matches if it equals an accepted answer, or, for answers of at least
+ * {@link #MIN_FUZZY_LENGTH} characters, is one insertion, deletion,
+ * substitution or adjacent swap away from one. Numeric answers, such as
+ * keypad codes, only match exactly: one digit off is a different code.
+ *
+ * <p>Lookups walk the trie along the guess, so their cost depends on the guess
+ * and not on how many answers were compiled. Guesses are normalized into a
+ * per-thread scratch buffer; matching a {@link CharSequence} allocates nothing
+ * unless it is longer than any guess seen before on that thread. Instances are
+ * immutable and thread-safe.
+ */
+public final class AnswerMatcher {
+
+    /** Shortest normalized answer that still accepts a one-character typo. */
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final int ROOT = 0;
+    private static final String[] ARTICLES = {"a ", "an ", "the "};
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[64]);
+
+    private final int[] childStart;
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] depth;
+    private final boolean[] terminal;
+    private final boolean[] exactOnly;
+
+    private AnswerMatcher(int[] childStart, char[] labels, int[] targets, int[] depth, boolean[] terminal,
+                          boolean[] exactOnly) {
+        this.childStart = childStart;
+        this.labels = labels;
+        this.targets = targets;
+        this.depth = depth;
+        this.terminal = terminal;
+        this.exactOnly = exactOnly;
+    }
+
+    public static AnswerMatcher compile(Collection<String> answers) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        List<Boolean> numeric = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(false);
+        numeric.add(false);
+        char[] buffer = new char[64];
+        for (String answer : answers) {
+            if (answer == null) {
+                continue;
+            }
+            if (buffer.length < answer.length()) {
+                buffer = new char[answer.length()];
+            }
+            int length = normalize(answer, buffer);
+            int node = ROOT;
+            for (int i = 0; i < length; i++) {
+                Integer next = children.get(node).get(buffer[i]);
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(buffer[i], next);
+                    children.add(new TreeMap<>());
+                    ends.add(false);
+                    numeric.add(false);
+                }
+                node = next;
+            }
+            ends.set(node, true);
+            numeric.set(node, isNumeric(buffer, length));
+        }
+
+        int nodes = children.size();
+        int[] childStart = new int[nodes + 1];
+        char[] labels = new char[nodes - 1];
+        int[] targets = new int[nodes - 1];
+        int[] depth = new int[nodes];
+        boolean[] terminal = new boolean[nodes];
+        boolean[] exactOnly = new boolean[nodes];
+        int edge = 0;
+        for (int node = 0; node < nodes; node++) {
+            childStart[node] = edge;
+            terminal[node] = ends.get(node);
+            exactOnly[node] = numeric.get(node);
+            for (var entry : children.get(node).entrySet()) {
+                labels[edge] = entry.getKey();
+                targets[edge] = entry.getValue();
+                depth[entry.getValue()] = depth[node] + 1;
+                edge++;
+            }
+        }
+        childStart[nodes] = edge;
+        return new AnswerMatcher(childStart, labels, targets, depth, terminal, exactOnly);
+    }
+
+    /** Digits only, in one or more groups. */
+    private static boolean isNumeric(char[] text, int length) {
+        boolean digit = false;
+        for (int i = 0; i < length; i++) {
+            if (Character.isDigit(text[i])) {
+                digit = true;
+            } else if (text[i] != ' ') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    public boolean matches(CharSequence guess) {
+        if (guess == null) {
+            return false;
+        }
+        char[] buffer = SCRATCH.get();
+        if (buffer.length < guess.length()) {
+            buffer = new char[Math.max(guess.length(), buffer.length * 2)];
+            SCRATCH.set(buffer);
+        }
+        int length = normalize(guess, buffer);
+        return walk(ROOT, buffer, 0, length, false) || fuzzy(buffer, length);
+    }
+
+    /** Number of trie nodes, the root included. */
+    int size() {
+        return terminal.length;
+    }
+
+    private boolean fuzzy(char[] guess, int length) {
+        if (length < MIN_FUZZY_LENGTH - 1) {
+            return false;
+        }
+        int node = ROOT;
+        for (int i = 0; i <= length && node >= 0; i++) {
+            if (i < length && walk(node, guess, i + 1, length, true)) {
+                return true;
+            }
+            for (int edge = childStart[node]; edge < childStart[node + 1]; edge++) {
+                int child = targets[edge];
+                if (walk(child, guess, i, length, true)) {
+                    return true;
+                }
+                if (i < length && labels[edge] != guess[i] && walk(child, guess, i + 1, length, true)) {
+                    return true;
+                }
+            }
+            if (i + 1 < length && guess[i] != guess[i + 1]) {
+                int swapped = child(child(node, guess[i + 1]), guess[i]);
+                if (walk(swapped, guess, i + 2, length, true)) {
+                    return true;
+                }
+            }
+            node = i < length ? child(node, guess[i]) : -1;
+        }
+        return false;
+    }
+
+    /** Follows {@code guess[from, to)} exactly from {@code node}; an edited match must be a long, non-numeric answer. */
+    private boolean walk(int node, char[] guess, int from, int to, boolean edited) {
+        for (int i = from; i < to && node >= 0; i++) {
+            node = child(node, guess[i]);
+        }
+        return node >= 0 && terminal[node] && (!edited || (depth[node] >= MIN_FUZZY_LENGTH && !exactOnly[node]));
+    }
+
+    private int child(int node, char label) {
+        if (node < 0) {
+            return -1;
+        }
+        int edge = Arrays.binarySearch(labels, childStart[node], childStart[node + 1], label);
+        return edge >= 0 ? targets[edge] : -1;
+    }
+
+    /** Writes the normalized form of {@code text} into {@code out}, which must be at least as long; returns its length. */
+    static int normalize(CharSequence text, char[] out) {
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && length > 0) {
+                    out[length++] = ' ';
+                }
+                pendingSpace = false;
+                out[length++] = Character.toLowerCase(c);
+            } else if (c != '\'') {
+                pendingSpace = true;
+            }
+        }
+
+        int start = 0;
+        for (String article : ARTICLES) {
+            if (length > article.length() && startsWith(out, length, article)) {
+                start = article.length();
+                break;
+            }
+        }
+        if (start > 0) {
+            System.arraycopy(out, start, out, 0, length - start);
+            length -= start;
+        }
+        return stripPlural(out, length);
+    }
+
+    private static boolean startsWith(char[] text, int length, String prefix) {
+        if (length < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int stripPlural(char[] text, int length) {
+        int wordStart = length;
+        while (wordStart > 0 && text[wordStart - 1] != ' ') {
+            wordStart--;
+        }
+        if (length - wordStart < 4 || text[length - 1] != 's' || text[length - 2] == 's') {
+            return length;
+        }
+        if (text[length - 2] == 'e') {
+            char before = text[length - 3];
+            boolean sibilant = before == 's' || before == 'x' || before == 'z'
+                    || ((before == 'h') && (text[length - 4] == 'c' || text[length - 4] == 's'));
+            if (sibilant) {
+                return length - 2;
+            }
+        }
+        return length - 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.escapenexus;
+
+import java.util.Arrays;
+
+/**
+ * A list of (game, puzzle, input) attempts for {@link GameManager#attemptAll},
+ * kept in parallel arrays. Results come back as one byte per attempt, in the
+ * order the attempts were added.
+ */
+public final class AttemptBatch {
+
+    /** The puzzle rejected the input. */
+    public static final byte WRONG = 0;
+    /** The input was right but the puzzle has more rounds to go. */
+    public static final byte CORRECT = 1;
+    /** The input solved the puzzle, or it was already solved. */
+    public static final byte SOLVED = 2;
+    public static final byte UNKNOWN_GAME = 3;
+    /** No such puzzle in the game's current room. */
+    public static final byte UNKNOWN_PUZZLE = 4;
+    /** The game is out of attempts on this puzzle; see {@link AttemptLimiter}. */
+    public static final byte RATE_LIMITED = 5;
+
+    private static final String[] NAMES = {"WRONG", "CORRECT", "SOLVED", "UNKNOWN_GAME", "UNKNOWN_PUZZLE",
+            "RATE_LIMITED"};
+
+    private String[] games;
+    private String[] puzzles;
+    private Object[] inputs;
+    private int size;
+
+    public AttemptBatch() {
+        this(16);
+    }
+
+    public AttemptBatch(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        games = new String[capacity];
+        puzzles = new String[capacity];
+        inputs = new Object[capacity];
+    }
+
+    /** Adds one attempt; {@code puzzleIdOrTitle} is resolved as in {@link GameManager#attemptPuzzle}. */
+    public AttemptBatch add(String gameId, String puzzleIdOrTitle, Object input) {
+        if (size == games.length) {
+            int capacity = size * 2;
+            games = Arrays.copyOf(games, capacity);
+            puzzles = Arrays.copyOf(puzzles, capacity);
+            inputs = Arrays.copyOf(inputs, capacity);
+        }
+        games[size] = gameId;
+        puzzles[size] = puzzleIdOrTitle;
+        inputs[size] = input;
+        size++;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    String gameId(int index) {
+        return games[index];
+    }
+
+    String puzzle(int index) {
+        return puzzles[index];
+    }
+
+    Object input(int index) {
+        return inputs[index];
+    }
+
+    /** Name of a result code, e.g. {@code "SOLVED"}. */
+    public static String name(byte result) {
+        return result >= 0 && result < NAMES.length ? NAMES[result] : "UNKNOWN";
+    }
+}
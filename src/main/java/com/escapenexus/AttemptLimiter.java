@@ -0,0 +1,245 @@
+package com.escapenexus;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limit on puzzle attempts, one bucket per player and puzzle, so
+ * an answer cannot be brute-forced in a tight loop. Each {@link Difficulty}
+ * has its own {@link Limit}: a burst of attempts, then one more per refill
+ * period.
+ *
+ * <p>A bucket is a single {@code long}, the time at which it will be full
+ * again, updated with a CAS (the GCRA form of a token bucket), so checks
+ * never lock. A full bucket carries no information, so buckets are dropped
+ * once they have refilled: every {@link #DEFAULT_SWEEP_INTERVAL}, the first
+ * caller past the deadline sweeps the map. At most {@code maxKeys} buckets
+ * exist at once; while the map is full, attempts on new keys are rejected
+ * rather than tracked until the next sweep makes room, so a flood of new keys
+ * costs one scan per interval, not one per key. An attempt racing the sweep that
+ * drops its bucket may land on the dropped copy, so a sweep can let one extra
+ * attempt per key through.
+ */
+public final class AttemptLimiter {
+
+    public static final int DEFAULT_MAX_KEYS = 1 << 20;
+    public static final Duration DEFAULT_SWEEP_INTERVAL = Duration.ofSeconds(10);
+
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final EnumMap<Difficulty, Limit> limits = new EnumMap<>(Difficulty.class);
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweep;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /** Limits from {@link Difficulty#getAttemptBurst()} and {@link Difficulty#getAttemptRefill()}. */
+    public AttemptLimiter() {
+        this(defaultLimits(), DEFAULT_MAX_KEYS, System::nanoTime);
+    }
+
+    /** @param limits one per difficulty; missing difficulties use the defaults */
+    public AttemptLimiter(Map<Difficulty, Limit> limits, int maxKeys) {
+        this(limits, maxKeys, System::nanoTime);
+    }
+
+    AttemptLimiter(Map<Difficulty, Limit> limits, int maxKeys, LongSupplier clock) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.limits.putAll(defaultLimits());
+        this.limits.putAll(limits);
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = DEFAULT_SWEEP_INTERVAL.toNanos();
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.nextSweep = new AtomicLong(clock.getAsLong() + sweepIntervalNanos);
+    }
+
+    private static Map<Difficulty, Limit> defaultLimits() {
+        Map<Difficulty, Limit> defaults = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            defaults.put(difficulty, new Limit(difficulty.getAttemptBurst(), difficulty.getAttemptRefill()));
+        }
+        return defaults;
+    }
+
+    /**
+     * Takes one attempt from the bucket of {@code owner} (a session, game or
+     * user id) on {@code puzzle}; returns false, without taking anything, if
+     * it is empty.
+     */
+    public boolean tryAcquire(String owner, Object puzzle, Difficulty difficulty) {
+        return acquire(owner, puzzle, difficulty) == 0;
+    }
+
+    /**
+     * Like {@link #tryAcquire} but throws when the bucket is empty, for front
+     * ends that report the rejection to the player.
+     *
+     * @throws RateLimitedException with the time until the next attempt is allowed
+     */
+    public void check(String owner, Object puzzle, Difficulty difficulty) {
+        long wait = acquire(owner, puzzle, difficulty);
+        if (wait != 0) {
+            throw new RateLimitedException(Duration.ofNanos(Math.max(0, wait)));
+        }
+    }
+
+    /** 0 if allowed, else nanos until the next attempt would be (one refill period when the key cannot be tracked). */
+    private long acquire(String owner, Object puzzle, Difficulty difficulty) {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(puzzle, "puzzle");
+        Limit limit = limits.get(difficulty != null ? difficulty : Difficulty.MEDIUM);
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+
+        Key key = new Key(owner, puzzle);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                rejected.increment();
+                return limit.intervalNanos;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        AtomicLong state = bucket.full;
+        while (true) {
+            long full = state.get();
+            long earliest = full - limit.toleranceNanos;
+            if (now - earliest < 0) {
+                rejected.increment();
+                return earliest - now;
+            }
+            long next = Math.max(full - now, 0) + now + limit.intervalNanos;
+            if (state.compareAndSet(full, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            sweep(now);
+        }
+    }
+
+    /** Drops every bucket that has refilled; returns how many went. */
+    int sweep(long now) {
+        int removed = 0;
+        for (Iterator<Map.Entry<Key, Bucket>> it = buckets.entrySet().iterator(); it.hasNext(); ) {
+            if (now - it.next().getValue().full.get() >= 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    /** Attempts turned away since the limiter was created. */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public Limit getLimit(Difficulty difficulty) {
+        return limits.get(difficulty);
+    }
+
+    /** A burst of attempts, then one more each {@code refill}. */
+    public static final class Limit {
+        private final int burst;
+        private final Duration refill;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        public Limit(int burst, Duration refill) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be positive");
+            }
+            Objects.requireNonNull(refill, "refill");
+            if (refill.isNegative() || refill.isZero()) {
+                throw new IllegalArgumentException("refill must be positive");
+            }
+            this.burst = burst;
+            this.refill = refill;
+            this.intervalNanos = refill.toNanos();
+            this.toleranceNanos = (burst - 1) * intervalNanos;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public Duration getRefill() {
+            return refill;
+        }
+    }
+
+    /** Thrown by {@link #check} when a player is out of attempts. */
+    public static final class RateLimitedException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        private final Duration retryAfter;
+
+        RateLimitedException(Duration retryAfter) {
+            super("Too many attempts; try again in " + Math.max(1, (retryAfter.toMillis() + 999) / 1000) + "s");
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+
+    private static final class Bucket {
+        /** Time at which the bucket is full again; at or before now means full. */
+        private final AtomicLong full;
+
+        Bucket(long full) {
+            this.full = new AtomicLong(full);
+        }
+    }
+
+    private static final class Key {
+        private final String owner;
+        private final Object puzzle;
+
+        Key(String owner, Object puzzle) {
+            this.owner = owner;
+            this.puzzle = puzzle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return owner.equals(key.owner) && puzzle.equals(key.puzzle);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * owner.hashCode() + puzzle.hashCode();
+        }
+    }
+}
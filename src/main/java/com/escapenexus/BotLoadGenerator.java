@@ -0,0 +1,528 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Headless load generator that plays the default game through a
+ * {@link GameManager} with simulated players. Each bot starts a game, then
+ * picks actions from a weighted {@link Mix}: right or wrong answers to the
+ * current puzzle, hints, saves and switching between its two users. A bot
+ * that finishes its game ends it and starts another.
+ *
+ * <p>Bots are not threads: each one runs a single action, then schedules its
+ * next action after its {@link ThinkTime} on a shared pool, so thousands of
+ * mostly idle players need only a few threads. The report covers throughput,
+ * latency per action, heap and GC time over the run.
+ *
+ * <pre>
+ * java com.escapenexus.BotLoadGenerator [bots] [actions per bot] [mean think time ms]
+ * </pre>
+ */
+public final class BotLoadGenerator {
+
+    /** Something a bot does; {@link #START_GAME} happens on its own when a bot has no game. */
+    public enum Action {
+        START_GAME, RIGHT_ANSWER, WRONG_ANSWER, HINT, SAVE, SWITCH_USER
+    }
+
+    private static final String WRONG_ANSWER = "PURPLE";
+
+    private final GameManager manager;
+    private int bots = 100;
+    private int actionsPerBot = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    private Mix mix = Mix.DEFAULT;
+    private ThinkTime thinkTime = ThinkTime.none();
+    private long seed = 42;
+    private Path saveDirectory;
+
+    public BotLoadGenerator(GameManager manager) {
+        this.manager = Objects.requireNonNull(manager, "manager");
+    }
+
+    public static void main(String[] args) throws Exception {
+        BotLoadGenerator generator = new BotLoadGenerator(new GameManager());
+        generator.setBots(args.length > 0 ? Integer.parseInt(args[0]) : 1_000);
+        generator.setActionsPerBot(args.length > 1 ? Integer.parseInt(args[1]) : 200);
+        long thinkMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        if (thinkMillis > 0) {
+            generator.setThinkTime(ThinkTime.exponential(Duration.ofMillis(thinkMillis)));
+        }
+        System.out.println(generator.run());
+    }
+
+    public void setBots(int bots) {
+        this.bots = positive(bots, "bots");
+    }
+
+    public void setActionsPerBot(int actionsPerBot) {
+        this.actionsPerBot = positive(actionsPerBot, "actionsPerBot");
+    }
+
+    /** Threads the bots share; defaults to one per processor. */
+    public void setThreads(int threads) {
+        this.threads = positive(threads, "threads");
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = Objects.requireNonNull(difficulty, "difficulty");
+    }
+
+    public void setMix(Mix mix) {
+        this.mix = Objects.requireNonNull(mix, "mix");
+    }
+
+    public void setThinkTime(ThinkTime thinkTime) {
+        this.thinkTime = Objects.requireNonNull(thinkTime, "thinkTime");
+    }
+
+    /** Seeds every bot's choices, so runs with one thread are repeatable. */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** Where bots save their games; without one, a temporary directory is used and removed afterwards. */
+    public void setSaveDirectory(Path saveDirectory) {
+        this.saveDirectory = saveDirectory;
+    }
+
+    /** Runs every bot to the end of its actions and reports on the run. */
+    public Report run() throws IOException, InterruptedException {
+        Path directory = saveDirectory != null ? saveDirectory : Files.createTempDirectory("escapenexus-bots");
+        Run run = new Run(directory);
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+        long[] gcBefore = gcTotals();
+        ScheduledExecutorService pool = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bot-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < bots; i++) {
+                pool.execute(new Bot(run, pool, i));
+            }
+            run.done.await();
+            long elapsed = System.nanoTime() - start;
+            if (run.failure.get() != null) {
+                throw new IllegalStateException("Bot failed", run.failure.get());
+            }
+            long[] gcAfter = gcTotals();
+            long heapUsed = 0;
+            long heapPeak = 0;
+            for (MemoryPoolMXBean heapPool : heapPools) {
+                heapUsed += heapPool.getUsage().getUsed();
+                heapPeak += heapPool.getPeakUsage().getUsed();
+            }
+            return new Report(bots, elapsed, run.latencies, run.gamesStarted.sum(), run.gamesCompleted.sum(),
+                    run.rateLimited.sum(), heapUsed, heapPeak, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+        } finally {
+            pool.shutdownNow();
+            if (saveDirectory == null) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static int positive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    /** State shared by the bots of one run. */
+    private final class Run {
+        final Path directory;
+        final Map<Action, LatencyHistogram> latencies = new EnumMap<>(Action.class);
+        final LongAdder gamesStarted = new LongAdder();
+        final LongAdder gamesCompleted = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+        final CountDownLatch done = new CountDownLatch(bots);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Run(Path directory) {
+            this.directory = directory;
+            for (Action action : Action.values()) {
+                latencies.put(action, new LatencyHistogram());
+            }
+        }
+    }
+
+    /** One simulated player; only ever runs on one thread at a time. */
+    private final class Bot implements Runnable {
+        private final Run run;
+        private final ScheduledExecutorService pool;
+        private final Random random;
+        private final User[] users;
+        private final Path saveFile;
+        private int user;
+        private int remaining = actionsPerBot;
+        private String gameId;
+
+        Bot(Run run, ScheduledExecutorService pool, int index) {
+            this.run = run;
+            this.pool = pool;
+            this.random = new Random(seed * 31 + index);
+            this.users = new User[] {new User("bot" + index + "a"), new User("bot" + index + "b")};
+            for (User one : users) {
+                one.setDifficulty(difficulty);
+            }
+            this.saveFile = run.directory.resolve("bot" + index + ".json");
+        }
+
+        @Override
+        public void run() {
+            if (run.failure.get() != null) {
+                run.done.countDown();
+                return;
+            }
+            try {
+                if (gameId == null) {
+                    long start = System.nanoTime();
+                    gameId = manager.startNewGame(difficulty).getId().toString();
+                    run.latencies.get(Action.START_GAME).recordSince(start);
+                    run.gamesStarted.increment();
+                }
+                Action action = mix.pick(random);
+                long start = System.nanoTime();
+                perform(action);
+                run.latencies.get(action).recordSince(start);
+                if (--remaining == 0) {
+                    manager.endGame(gameId);
+                    run.done.countDown();
+                    return;
+                }
+                pool.schedule(this, thinkTime.nextNanos(random), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException stopped) {
+                run.done.countDown();
+            } catch (RuntimeException | Error failure) {
+                run.failure.compareAndSet(null, failure);
+                run.done.countDown();
+            }
+        }
+
+        private void perform(Action action) {
+            switch (action) {
+                case RIGHT_ANSWER:
+                case WRONG_ANSWER:
+                    attempt(action == Action.RIGHT_ANSWER);
+                    break;
+                case HINT:
+                    manager.withGame(gameId, game -> users[user].requestHint(game.getCurrentRoom()));
+                    break;
+                case SAVE:
+                    manager.saveGame(gameId, saveFile);
+                    break;
+                case SWITCH_USER:
+                    manager.withGame(gameId, game -> {
+                        UserStorage storage = new UserStorage();
+                        storage.captureUserProgressFromGame(users[user], game);
+                        user = 1 - user;
+                        storage.applyUserProgressToGame(users[user], game);
+                        return null;
+                    });
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a bot action: " + action);
+            }
+        }
+
+        private void attempt(boolean right) {
+            try {
+                Optional<Boolean> finished = manager.withGame(gameId, game -> {
+                    Puzzle puzzle = nextPuzzle(game);
+                    if (puzzle == null) {
+                        return true;
+                    }
+                    manager.attemptPuzzle(gameId, puzzle.getId().toString(), right ? answerFor(puzzle) : WRONG_ANSWER);
+                    return false;
+                });
+                if (finished.orElse(true)) {
+                    manager.endGame(gameId);
+                    if (finished.isPresent()) {
+                        run.gamesCompleted.increment();
+                    }
+                    gameId = null;
+                }
+            } catch (AttemptLimiter.RateLimitedException limited) {
+                run.rateLimited.increment();
+            }
+        }
+    }
+
+    /** First unsolved puzzle, moving on from cleared rooms; null once the game is won. */
+    static Puzzle nextPuzzle(Game game) {
+        while (true) {
+            Room room = game.getCurrentRoom();
+            if (room == null) {
+                return null;
+            }
+            for (Puzzle puzzle : room.getPuzzles()) {
+                if (!puzzle.isSolved()) {
+                    return puzzle;
+                }
+            }
+            if (!game.advanceIfSolved()) {
+                return null;
+            }
+        }
+    }
+
+    /** An answer that solves, or for light patterns advances, {@code puzzle}. */
+    static Object answerFor(Puzzle puzzle) {
+        if (puzzle instanceof LightPatternPuzzle lights) {
+            return List.copyOf(lights.getCurrentSequence());
+        }
+        if (puzzle instanceof RiddlePuzzle riddle) {
+            return riddle.getAcceptableAnswers().isEmpty() ? WRONG_ANSWER : riddle.getAcceptableAnswers().get(0);
+        }
+        if (puzzle instanceof MathPuzzle math) {
+            StringBuilder answer = new StringBuilder();
+            for (Rational value : math.getExpectedAnswer()) {
+                if (answer.length() > 0) {
+                    answer.append(',');
+                }
+                answer.append(value.getNumerator());
+                if (value.getDenominator() != 1) {
+                    answer.append(':').append(value.getDenominator());
+                }
+            }
+            return answer.toString();
+        }
+        return WRONG_ANSWER;
+    }
+
+    /** Relative weights of the actions bots choose between. */
+    public static final class Mix {
+        private static final Action[] CHOICES = {
+                Action.RIGHT_ANSWER, Action.WRONG_ANSWER, Action.HINT, Action.SAVE, Action.SWITCH_USER};
+
+        public static final Mix DEFAULT = new Mix(40, 40, 10, 5, 5);
+
+        private final int[] cumulative = new int[CHOICES.length];
+
+        public Mix(int rightAnswers, int wrongAnswers, int hints, int saves, int userSwitches) {
+            int[] weights = {rightAnswers, wrongAnswers, hints, saves, userSwitches};
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException("Weights must not be negative");
+                }
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("At least one weight must be positive");
+            }
+        }
+
+        Action pick(Random random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            int i = 0;
+            while (roll >= cumulative[i]) {
+                i++;
+            }
+            return CHOICES[i];
+        }
+    }
+
+    /** Pause a bot takes between two actions. */
+    @FunctionalInterface
+    public interface ThinkTime {
+
+        long nextNanos(Random random);
+
+        static ThinkTime none() {
+            return random -> 0;
+        }
+
+        static ThinkTime fixed(Duration pause) {
+            long nanos = nonNegative(pause);
+            return random -> nanos;
+        }
+
+        /** Evenly spread between {@code min} and {@code max}. */
+        static ThinkTime uniform(Duration min, Duration max) {
+            long low = nonNegative(min);
+            long high = nonNegative(max);
+            if (high < low) {
+                throw new IllegalArgumentException("max must not be below min");
+            }
+            return random -> low + (long) (random.nextDouble() * (high - low));
+        }
+
+        /** Exponentially distributed around {@code mean}, like arrivals of independent players. */
+        static ThinkTime exponential(Duration mean) {
+            long nanos = nonNegative(mean);
+            return random -> (long) (-nanos * Math.log(1.0 - random.nextDouble()));
+        }
+
+        private static long nonNegative(Duration duration) {
+            if (duration == null || duration.isNegative()) {
+                throw new IllegalArgumentException("Think time must not be negative");
+            }
+            return duration.toNanos();
+        }
+    }
+
+    /** Outcome of one {@link #run()}; latencies are in nanoseconds. */
+    public static final class Report {
+        private final int bots;
+        private final long elapsedNanos;
+        private final Map<Action, LatencyHistogram> latencies;
+        private final LatencyHistogram all = new LatencyHistogram();
+        private final long gamesStarted;
+        private final long gamesCompleted;
+        private final long rateLimited;
+        private final long heapUsedBytes;
+        private final long heapPeakBytes;
+        private final long gcCount;
+        private final long gcMillis;
+
+        Report(int bots, long elapsedNanos, Map<Action, LatencyHistogram> latencies, long gamesStarted,
+               long gamesCompleted, long rateLimited, long heapUsedBytes, long heapPeakBytes, long gcCount,
+               long gcMillis) {
+            this.bots = bots;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            this.gamesStarted = gamesStarted;
+            this.gamesCompleted = gamesCompleted;
+            this.rateLimited = rateLimited;
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapPeakBytes = heapPeakBytes;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            for (LatencyHistogram histogram : latencies.values()) {
+                all.merge(histogram);
+            }
+        }
+
+        public int getBots() {
+            return bots;
+        }
+
+        /** Actions run, game starts included. */
+        public long getActions() {
+            return all.getCount();
+        }
+
+        public double getActionsPerSecond() {
+            return getActions() * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        }
+
+        public long getP50Nanos() {
+            return all.getValueAtPercentile(50);
+        }
+
+        public long getP99Nanos() {
+            return all.getValueAtPercentile(99);
+        }
+
+        public long getMaxNanos() {
+            return all.getMaxNanos();
+        }
+
+        public LatencyHistogram getLatency(Action action) {
+            return latencies.get(action);
+        }
+
+        public long getGamesStarted() {
+            return gamesStarted;
+        }
+
+        public long getGamesCompleted() {
+            return gamesCompleted;
+        }
+
+        /** Attempts refused by the manager's {@link AttemptLimiter}. */
+        public long getRateLimited() {
+            return rateLimited;
+        }
+
+        /** Heap in use when the run ended. */
+        public long getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+
+        /** Sum of the heap pools' peaks during the run. */
+        public long getHeapPeakBytes() {
+            return heapPeakBytes;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        /** Time the collectors report spending during the run, pauses and concurrent work alike. */
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "%d bots, %d actions: %.0f actions/s, p50 %.1f us, p99 %.1f us, max %.1f us%n"
+                            + "games %d started, %d completed; %d attempts rate limited%n"
+                            + "heap %d MB at end, %d MB peak; %d collections, %d ms GC%n",
+                    bots, getActions(), getActionsPerSecond(), getP50Nanos() / 1000.0, getP99Nanos() / 1000.0,
+                    getMaxNanos() / 1000.0, gamesStarted, gamesCompleted, rateLimited, heapUsedBytes >> 20,
+                    heapPeakBytes >> 20, gcCount, gcMillis));
+            for (Map.Entry<Action, LatencyHistogram> entry : latencies.entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                text.append(String.format("  %-12s %9d  p50 %9.1f us  p99 %9.1f us%n", entry.getKey(),
+                        histogram.getCount(), histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.escapenexus;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes seeded synthetic content packs in the format {@link DataLoader}
+ * reads, at any size. Output is streamed game by game and room by room, so
+ * memory use depends on the rooms in one game, not on the pack; the same
+ * settings and seed always produce the same bytes.
+ *
+ * <p>Each game's first room is open. Every other room hangs off an earlier
+ * room by a door, and unless the {@link Topology} is {@link Topology#OPEN}
+ * both the room and the door need that room's key. Keys are always found in
+ * an earlier room, on a puzzle while it has puzzles left and loose on the
+ * floor after that, so every generated game can be finished. Puzzles are math
+ * puzzles or plain hinted ones, in the configured share.
+ *
+ * <pre>
+ * java com.escapenexus.ContentGenerator file [games] [rooms per game] [items per room] [topology] [seed]
+ * </pre>
+ */
+public final class ContentGenerator {
+
+    /** How the rooms of a game are connected and locked. */
+    public enum Topology {
+        /** Each room opens off the previous one with the key found there. */
+        CHAIN,
+        /** Binary tree: each room opens off its parent with the key found in the parent. */
+        TREE,
+        /** Every room opens off the first, but needs the key found in the room before it. */
+        HUB,
+        /** Each room opens off a random earlier room with the key from another random earlier room. */
+        RANDOM,
+        /** A chain of unlocked rooms. */
+        OPEN
+    }
+
+    private int games = 1;
+    private int roomsPerGame = 8;
+    private int itemsPerRoom = 3;
+    private int puzzlesPerRoom = 2;
+    private int hintsPerPuzzle = 2;
+    private double mathShare = 0.5;
+    private Topology topology = Topology.CHAIN;
+    private long seed = 0x5EEDL;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ContentGenerator file [games] [rooms per game] [items per room] [topology] [seed]");
+            return;
+        }
+        ContentGenerator generator = new ContentGenerator();
+        generator.setGames(args.length > 1 ? Integer.parseInt(args[1]) : 1_000);
+        generator.setRoomsPerGame(args.length > 2 ? Integer.parseInt(args[2]) : 100);
+        generator.setItemsPerRoom(args.length > 3 ? Integer.parseInt(args[3]) : 10);
+        if (args.length > 4) {
+            generator.setTopology(Topology.valueOf(args[4].toUpperCase(Locale.ROOT)));
+        }
+        if (args.length > 5) {
+            generator.setSeed(Long.parseLong(args[5]));
+        }
+        long start = System.nanoTime();
+        Summary summary = generator.write(Path.of(args[0]));
+        System.out.printf("Wrote %s: %s in %d ms%n", args[0], summary, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void setGames(int games) {
+        this.games = atLeast(games, 0, "games");
+    }
+
+    public void setRoomsPerGame(int roomsPerGame) {
+        this.roomsPerGame = atLeast(roomsPerGame, 1, "roomsPerGame");
+    }
+
+    /** Loose items per room, besides any keys found there. */
+    public void setItemsPerRoom(int itemsPerRoom) {
+        this.itemsPerRoom = atLeast(itemsPerRoom, 0, "itemsPerRoom");
+    }
+
+    public void setPuzzlesPerRoom(int puzzlesPerRoom) {
+        this.puzzlesPerRoom = atLeast(puzzlesPerRoom, 0, "puzzlesPerRoom");
+    }
+
+    public void setHintsPerPuzzle(int hintsPerPuzzle) {
+        this.hintsPerPuzzle = atLeast(hintsPerPuzzle, 0, "hintsPerPuzzle");
+    }
+
+    /** Fraction of puzzles, from 0 to 1, that are math puzzles; the rest are plain hinted puzzles. */
+    public void setMathShare(double mathShare) {
+        if (!(mathShare >= 0.0 && mathShare <= 1.0)) {
+            throw new IllegalArgumentException("mathShare must be between 0 and 1");
+        }
+        this.mathShare = mathShare;
+    }
+
+    public void setTopology(Topology topology) {
+        if (topology == null) {
+            throw new IllegalArgumentException("topology");
+        }
+        this.topology = topology;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** Writes the pack to {@code file}, creating parent directories as needed. */
+    public Summary write(Path file) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return write(out);
+        }
+    }
+
+    /** Writes the pack to {@code out}, which is flushed but left open. */
+    public Summary write(Writer out) throws IOException {
+        CountingWriter counted = new CountingWriter(out);
+        Summary summary = new Summary();
+        counted.write("{\"games\":[\n");
+        for (int g = 0; g < games; g++) {
+            if (g > 0) {
+                counted.write(",\n");
+            }
+            writeGame(counted, g, summary);
+        }
+        counted.write("\n]}\n");
+        counted.flush();
+        summary.bytes = counted.count;
+        return summary;
+    }
+
+    private void writeGame(Writer out, int g, Summary summary) throws IOException {
+        Layout layout = new Layout(g);
+        String prefix = "g" + g;
+        out.write("{\"id\":\"" + prefix + "\",\"title\":\"Generated Run " + g
+                + "\",\"description\":\"Generated game " + g + " with " + roomsPerGame + " rooms.\",\"difficulty\":\""
+                + Difficulty.values()[g % Difficulty.values().length] + "\",\"timeLimitMinutes\":60,\"maxPlayers\":4");
+
+        out.write(",\"items\":[");
+        boolean first = true;
+        for (int r = 1; r < roomsPerGame; r++) {
+            if (layout.keyFrom[r] >= 0) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("{\"id\":\"" + keyId(prefix, r) + "\",\"name\":\"Key " + g + "-" + r
+                        + "\",\"description\":\"Opens room " + r + ".\",\"portable\":true,\"key\":true,\"state\":\"NEW\"}");
+                summary.items++;
+            }
+        }
+        for (int r = 0; r < roomsPerGame; r++) {
+            for (int i = 0; i < itemsPerRoom; i++) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("{\"id\":\"" + itemId(prefix, r, i) + "\",\"name\":\"Crate " + r + "-" + i
+                        + "\",\"description\":\"Nothing much inside.\",\"portable\":" + (i % 4 != 3)
+                        + ",\"key\":false,\"state\":\"NEW\"}");
+                summary.items++;
+            }
+        }
+
+        out.write("],\"rooms\":[");
+        for (int r = 0; r < roomsPerGame; r++) {
+            out.write(r == 0 ? "\n" : ",\n");
+            writeRoom(out, g, r, prefix, layout, summary);
+        }
+
+        out.write("],\"doors\":[");
+        for (int r = 1; r < roomsPerGame; r++) {
+            out.write(r == 1 ? "\n" : ",\n");
+            boolean locked = layout.keyFrom[r] >= 0;
+            out.write("{\"id\":\"" + prefix + "-d" + r + "\",\"name\":\"Door " + r
+                    + "\",\"description\":\"Heavy door.\",\"from\":\"" + roomId(prefix, layout.parent[r])
+                    + "\",\"to\":\"" + roomId(prefix, r) + "\",\"locked\":" + locked
+                    + (locked ? ",\"keyRequired\":\"" + keyId(prefix, r) + "\"" : "") + "}");
+            summary.doors++;
+        }
+        out.write("]}");
+        summary.games++;
+    }
+
+    private void writeRoom(Writer out, int g, int r, String prefix, Layout layout, Summary summary)
+            throws IOException {
+        Random random = new Random(mix(seed, g, r));
+        boolean locked = layout.keyFrom[r] >= 0;
+        out.write("{\"id\":\"" + roomId(prefix, r) + "\",\"name\":\"Room " + g + "-" + r
+                + "\",\"description\":\"Generated room " + r + ".\",\"locked\":" + locked
+                + ",\"hintLimit\":" + (1 + random.nextInt(3)));
+        if (locked) {
+            out.write(",\"keyRequired\":\"" + keyId(prefix, r) + "\"");
+        }
+
+        int keys = layout.keyStart[r + 1] - layout.keyStart[r];
+        out.write(",\"items\":[");
+        for (int i = 0; i < itemsPerRoom; i++) {
+            out.write((i == 0 ? "\"" : ",\"") + itemId(prefix, r, i) + "\"");
+        }
+        for (int k = puzzlesPerRoom; k < keys; k++) {
+            out.write((itemsPerRoom == 0 && k == puzzlesPerRoom ? "\"" : ",\"")
+                    + keyId(prefix, layout.keyRooms[layout.keyStart[r] + k]) + "\"");
+        }
+
+        out.write("],\"puzzles\":[");
+        for (int p = 0; p < puzzlesPerRoom; p++) {
+            out.write(p == 0 ? "\n" : ",\n");
+            out.write("{\"id\":\"" + roomId(prefix, r) + "-p" + p + "\"");
+            if (random.nextDouble() < mathShare) {
+                long x = 1 + random.nextInt(50);
+                long y = 1 + random.nextInt(9);
+                out.write(",\"title\":\"Dial " + r + "-" + p + "\",\"description\":\"Set the dial to x * y + "
+                        + p + ".\",\"type\":\"math\",\"answer\":\"x * y + " + p + "\",\"variables\":{\"x\":\"" + x
+                        + "\",\"y\":\"" + y + "\"}");
+            } else {
+                out.write(",\"title\":\"Console " + r + "-" + p + "\",\"description\":\"Wake the console.\"");
+            }
+            out.write(",\"hints\":[");
+            for (int h = 0; h < hintsPerPuzzle; h++) {
+                out.write((h == 0 ? "\"Hint " : ",\"Hint ") + h + " for puzzle " + r + "-" + p + ".\"");
+            }
+            out.write("]");
+            if (p < keys) {
+                out.write(",\"keyProvided\":\"" + keyId(prefix, layout.keyRooms[layout.keyStart[r] + p]) + "\"");
+            }
+            out.write("}");
+            summary.puzzles++;
+        }
+        out.write("]}");
+        summary.rooms++;
+    }
+
+    private static String roomId(String prefix, int r) {
+        return prefix + "-r" + r;
+    }
+
+    private static String keyId(String prefix, int r) {
+        return prefix + "-k" + r;
+    }
+
+    private static String itemId(String prefix, int r, int i) {
+        return prefix + "-r" + r + "-i" + i;
+    }
+
+    /** SplitMix64 finalizer over the seed and coordinates, so every room has its own stream. */
+    private static long mix(long seed, long g, long r) {
+        long z = seed + 0x9E3779B97F4A7C15L * (1 + g) + 0xC2B2AE3D27D4EB4FL * (1 + r);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int atLeast(int value, int min, String name) {
+        if (value < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min);
+        }
+        return value;
+    }
+
+    /**
+     * Where each room of one game opens from and whose key it needs, and the
+     * rooms whose keys each room holds: keyRooms[keyStart[r] .. keyStart[r + 1]).
+     */
+    private final class Layout {
+        final int[] parent = new int[roomsPerGame];
+        final int[] keyFrom = new int[roomsPerGame];
+        final int[] keyStart = new int[roomsPerGame + 1];
+        final int[] keyRooms;
+
+        Layout(int g) {
+            Random random = new Random(mix(seed, g, -1));
+            parent[0] = -1;
+            keyFrom[0] = -1;
+            int locks = 0;
+            for (int r = 1; r < roomsPerGame; r++) {
+                switch (topology) {
+                    case CHAIN:
+                        parent[r] = r - 1;
+                        keyFrom[r] = r - 1;
+                        break;
+                    case TREE:
+                        parent[r] = (r - 1) / 2;
+                        keyFrom[r] = parent[r];
+                        break;
+                    case HUB:
+                        parent[r] = 0;
+                        keyFrom[r] = r - 1;
+                        break;
+                    case RANDOM:
+                        parent[r] = random.nextInt(r);
+                        keyFrom[r] = random.nextInt(r);
+                        break;
+                    default:
+                        parent[r] = r - 1;
+                        keyFrom[r] = -1;
+                        break;
+                }
+                if (keyFrom[r] >= 0) {
+                    keyStart[keyFrom[r] + 1]++;
+                    locks++;
+                }
+            }
+            for (int r = 0; r < roomsPerGame; r++) {
+                keyStart[r + 1] += keyStart[r];
+            }
+            keyRooms = new int[locks];
+            int[] fill = keyStart.clone();
+            for (int r = 1; r < roomsPerGame; r++) {
+                if (keyFrom[r] >= 0) {
+                    keyRooms[fill[keyFrom[r]]++] = r;
+                }
+            }
+        }
+    }
+
+    /** Counts what a {@link #write} produced. */
+    public static final class Summary {
+        private long games;
+        private long rooms;
+        private long items;
+        private long puzzles;
+        private long doors;
+        private long bytes;
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getRooms() {
+            return rooms;
+        }
+
+        /** Items including keys. */
+        public long getItems() {
+            return items;
+        }
+
+        public long getPuzzles() {
+            return puzzles;
+        }
+
+        public long getDoors() {
+            return doors;
+        }
+
+        /** Size of the output; it is all ASCII, so characters and bytes agree. */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %d rooms, %d items, %d puzzles, %d doors, %d bytes",
+                    games, rooms, items, puzzles, doors, bytes);
+        }
+    }
+
+    private static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            super.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            super.write(text, offset, length);
+            count += length;
+        }
+    }
+}
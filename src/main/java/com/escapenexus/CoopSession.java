@@ -0,0 +1,353 @@
+package com.escapenexus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * One play-through of a {@link GameTemplate} shared by a team of up to
+ * {@link GameTemplate#getMaxPlayers()} players. Solves, unlocked rooms, the
+ * inventory and hint budgets belong to the team; only the current room is
+ * per player. The layout follows {@link SessionState}:
+ *
+ * <pre>
+ * bits:     [solved: puzzles][locked: rooms][inventory: items] | [light colors: 3 bits each, per slot]
+ * counters: [hints left: rooms][hint cursor: puzzles][light round: slots][solved by: puzzles]
+ * </pre>
+ *
+ * Every update is a single atomic read-modify-write on a flag word or counter,
+ * so players never block each other. When several players answer the same
+ * puzzle at once, the first one to claim its solver slot wins and the others
+ * get {@link Outcome#TOO_LATE}. Instances are thread-safe.
+ */
+public final class CoopSession {
+
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final AtomicReferenceFieldUpdater<CoopSession, GameStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(CoopSession.class, GameStatus.class, "status");
+    private static final String NO_HINTS = "No hints left.";
+
+    /** Result of one player's attempt. */
+    public enum Outcome {
+        /** The answer is wrong, or the puzzle's room is still locked. */
+        WRONG,
+        /** A light-pattern round was passed; the puzzle is not solved yet. */
+        PROGRESS,
+        /** This player solved the puzzle. */
+        SOLVED,
+        /** A teammate solved the puzzle or passed the round first. */
+        TOO_LATE
+    }
+
+    private final GameTemplate template;
+    private final long[] bits;
+    private final AtomicIntegerArray counters;
+    private final AtomicReferenceArray<String> players;
+    private final AtomicIntegerArray playerRoom;
+    private final int lightWordBase;
+    private volatile GameStatus status = GameStatus.NOT_STARTED;
+
+    CoopSession(GameTemplate template, long seed) {
+        this.template = template;
+        int rooms = template.getRoomCount();
+        int puzzles = template.getPuzzleCount();
+        int items = template.getItemCount();
+        this.lightWordBase = (puzzles + rooms + items + 63) >>> 6;
+        this.bits = new long[lightWordBase + template.lightWordCount()];
+        this.counters = new AtomicIntegerArray(rooms + puzzles + template.lightSlotCount() + puzzles);
+        this.players = new AtomicReferenceArray<>(template.getMaxPlayers());
+        this.playerRoom = new AtomicIntegerArray(template.getMaxPlayers());
+
+        for (int r = 0; r < rooms; r++) {
+            if (template.isRoomInitiallyLocked(r)) {
+                int bit = lockedBit(r);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            counters.set(r, template.getRoomHintLimit(r));
+        }
+        for (int p = 0; p < puzzles; p++) {
+            counters.set(solvedByCounter(p), -1);
+        }
+        for (int slot = 0; slot < template.lightSlotCount(); slot++) {
+            long slotSeed = seed ^ (slot * 0x9E3779B97F4A7C15L);
+            LightPatternPuzzle.fillSequence(slotSeed, bits, lightWord(slot), template.lightRounds(slot));
+        }
+        // The AtomicIntegerArray writes above are volatile and publish the plain writes to bits.
+    }
+
+    public GameTemplate getTemplate() {
+        return template;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public void start() {
+        status = GameStatus.IN_PROGRESS;
+    }
+
+    /** Completes a session that is being played; a lost session stays lost. */
+    public void end() {
+        STATUS.compareAndSet(this, GameStatus.IN_PROGRESS, GameStatus.COMPLETED);
+    }
+
+    /** Marks a session that is still being played as lost; returns false if it had already ended. */
+    public boolean expire() {
+        return STATUS.compareAndSet(this, GameStatus.IN_PROGRESS, GameStatus.LOST);
+    }
+
+    /**
+     * Adds a player to the team and returns their slot, or the existing slot if
+     * they already joined. Returns -1 when the team is full.
+     */
+    public int join(String username) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("username is required");
+        }
+        for (int slot = 0; slot < players.length(); slot++) {
+            if (username.equals(players.get(slot))) {
+                return slot;
+            }
+        }
+        for (int slot = 0; slot < players.length(); slot++) {
+            if (players.get(slot) == null && players.compareAndSet(slot, null, username)) {
+                playerRoom.set(slot, 0);
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /** Frees the slot; the team keeps everything the player solved or collected. */
+    public void leave(int player) {
+        checkPlayer(player);
+        players.set(player, null);
+    }
+
+    /** Username in the slot, or null if it is free. */
+    public String getPlayer(int player) {
+        return players.get(player);
+    }
+
+    public int getPlayerCount() {
+        int count = 0;
+        for (int slot = 0; slot < players.length(); slot++) {
+            if (players.get(slot) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getMaxPlayers() {
+        return players.length();
+    }
+
+    public int getCurrentRoom(int player) {
+        checkPlayer(player);
+        return playerRoom.get(player);
+    }
+
+    /** Moves the player through an exit of their room, if the target room is unlocked. */
+    public boolean move(int player, int room) {
+        int from = getCurrentRoom(player);
+        for (int e = template.exitsStart(from); e < template.exitsEnd(from); e++) {
+            if (template.exit(e) == room && !isLocked(room)) {
+                playerRoom.set(player, room);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks a player's answer. Light-pattern rounds advance by compare-and-set
+     * on the shared round counter, so an answer to the round a teammate just
+     * passed is {@link Outcome#TOO_LATE}. A solve puts the puzzle's key into the
+     * team inventory and opens every room that needs it.
+     */
+    public Outcome attempt(int player, int puzzle, Object input) {
+        long start = System.nanoTime();
+        EngineEvents.PuzzleAttempt event = new EngineEvents.PuzzleAttempt();
+        event.begin();
+        Outcome outcome = tryAttempt(player, puzzle, input);
+        EngineMetrics.attempt(template.getDifficulty(), start, outcome == Outcome.SOLVED);
+        if (event.shouldCommit()) {
+            EngineEvents.commitAttempt(event, template.getId(), template.getRoomName(template.roomOf(puzzle)),
+                    template.puzzle(puzzle).getTitle(), outcome == Outcome.PROGRESS || outcome == Outcome.SOLVED,
+                    outcome == Outcome.SOLVED);
+        }
+        return outcome;
+    }
+
+    private Outcome tryAttempt(int player, int puzzle, Object input) {
+        checkPlayer(player);
+        if (isSolved(puzzle)) {
+            return Outcome.TOO_LATE;
+        }
+        if (isLocked(template.roomOf(puzzle))) {
+            return Outcome.WRONG;
+        }
+        int slot = template.lightSlot(puzzle);
+        if (slot >= 0) {
+            int roundCounter = lightRoundCounter(slot);
+            int round = counters.get(roundCounter);
+            if (!LightPatternPuzzle.matchesSequence(input, bits, lightWord(slot), round + 1)) {
+                boolean stale = round > 0 && LightPatternPuzzle.matchesSequence(input, bits, lightWord(slot), round);
+                return stale || counters.get(roundCounter) != round ? Outcome.TOO_LATE : Outcome.WRONG;
+            }
+            if (round + 1 < template.lightRounds(slot)) {
+                return counters.compareAndSet(roundCounter, round, round + 1) ? Outcome.PROGRESS : Outcome.TOO_LATE;
+            }
+        } else if (!template.puzzle(puzzle).matches(input)) {
+            return Outcome.WRONG;
+        }
+
+        // Claiming the solver slot picks the winner; the solved bit goes last so
+        // anyone who sees it also sees the solver, the key and the opened rooms.
+        if (!counters.compareAndSet(solvedByCounter(puzzle), -1, player)) {
+            return Outcome.TOO_LATE;
+        }
+        int key = template.getPuzzleKeyProvided(puzzle);
+        if (key >= 0 && template.isItemPortable(key)) {
+            setBit(inventoryBit(key));
+            unlockWith(key);
+        }
+        setBit(puzzle);
+        if (isComplete()) {
+            end();
+        }
+        return Outcome.SOLVED;
+    }
+
+    /**
+     * Spends one hint from the team's budget for the puzzle's room. The budget
+     * is decremented by compare-and-set and never goes below zero, however many
+     * players ask at once.
+     */
+    public String requestHint(int player, int puzzle) {
+        checkPlayer(player);
+        int room = template.roomOf(puzzle);
+        int left;
+        do {
+            left = counters.get(room);
+            if (left <= 0) {
+                return NO_HINTS;
+            }
+        } while (!counters.compareAndSet(room, left, left - 1));
+        EngineMetrics.hint(template.getDifficulty());
+
+        List<String> hints = template.getHints(puzzle);
+        int cursor = counters.getAndIncrement(hintCursorCounter(puzzle));
+        if (cursor < hints.size()) {
+            return hints.get(cursor);
+        }
+        return template.puzzle(puzzle).fallbackHint(Math.max(0, getLightRound(puzzle)));
+    }
+
+    public int getHintsRemaining(int room) {
+        return counters.get(room);
+    }
+
+    public boolean isSolved(int puzzle) {
+        return getBit(puzzle);
+    }
+
+    /** Slot of the player who solved the puzzle, or -1. */
+    public int getSolvedBy(int puzzle) {
+        return isSolved(puzzle) ? counters.get(solvedByCounter(puzzle)) : -1;
+    }
+
+    public boolean isLocked(int room) {
+        return getBit(lockedBit(room));
+    }
+
+    public boolean hasItem(int item) {
+        return getBit(inventoryBit(item));
+    }
+
+    public boolean isCleared(int room) {
+        for (int p = template.puzzleStart(room); p < template.puzzleEnd(room); p++) {
+            if (!isSolved(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Whether every puzzle of the game is solved. */
+    public boolean isComplete() {
+        for (int p = 0; p < template.getPuzzleCount(); p++) {
+            if (!isSolved(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Light round the team is on (0-based), or -1 for other puzzle types. */
+    public int getLightRound(int puzzle) {
+        int slot = template.lightSlot(puzzle);
+        return slot >= 0 ? counters.get(lightRoundCounter(slot)) : -1;
+    }
+
+    /** Color the light-pattern puzzle flashes at {@code position} of its sequence. */
+    public LightColor getLightColor(int puzzle, int position) {
+        int slot = template.lightSlot(puzzle);
+        if (slot < 0 || position < 0 || position >= template.lightRounds(slot)) {
+            throw new IndexOutOfBoundsException("position " + position);
+        }
+        return LightColor.fromIndex(LightPatternPuzzle.colorAt(bits, lightWord(slot), position));
+    }
+
+    private void unlockWith(int item) {
+        for (int k = template.keyRoomsStart(item); k < template.keyRoomsEnd(item); k++) {
+            int bit = lockedBit(template.keyRoom(k));
+            BITS.getAndBitwiseAnd(bits, bit >>> 6, ~(1L << bit));
+        }
+    }
+
+    private void checkPlayer(int player) {
+        if (player < 0 || player >= players.length() || players.get(player) == null) {
+            throw new IllegalArgumentException("No player in slot " + player);
+        }
+    }
+
+    private int lockedBit(int room) {
+        return template.getPuzzleCount() + room;
+    }
+
+    private int inventoryBit(int item) {
+        return template.getPuzzleCount() + template.getRoomCount() + item;
+    }
+
+    private int hintCursorCounter(int puzzle) {
+        return template.getRoomCount() + puzzle;
+    }
+
+    private int lightRoundCounter(int slot) {
+        return template.getRoomCount() + template.getPuzzleCount() + slot;
+    }
+
+    private int solvedByCounter(int puzzle) {
+        return template.getRoomCount() + template.getPuzzleCount() + template.lightSlotCount() + puzzle;
+    }
+
+    private int lightWord(int slot) {
+        return lightWordBase + template.lightWordOffset(slot);
+    }
+
+    private boolean getBit(int index) {
+        return ((long) BITS.getAcquire(bits, index >>> 6) & (1L << index)) != 0;
+    }
+
+    /** Sets the bit and returns whether this call was the one that set it. */
+    private boolean setBit(int index) {
+        long mask = 1L << index;
+        return ((long) BITS.getAndBitwiseOr(bits, index >>> 6, mask) & mask) == 0;
+    }
+}
@@ -5,10 +5,12 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -28,8 +30,18 @@ public final class DataLoader {
 
     public List<Game> loadGames(Path file) throws IOException {
         Objects.requireNonNull(file, "file");
+        long start = System.nanoTime();
+        EngineEvents.ContentLoad event = new EngineEvents.ContentLoad();
+        event.begin();
+        List<Game> games = null;
         try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-            return parseGames(reader);
+            games = parseGames(reader);
+            return games;
+        } finally {
+            EngineMetrics.LOAD_GAMES.recordSince(start);
+            if (event.shouldCommit()) {
+                commit(event, file.toString(), EngineEvents.sizeOf(file), games);
+            }
         }
     }
 
@@ -40,19 +52,53 @@ public final class DataLoader {
     public List<Game> loadGamesFromResource(String resourcePath) throws IOException {
         Objects.requireNonNull(resourcePath, "resourcePath");
         ClassLoader classLoader = DataLoader.class.getClassLoader();
+        long start = System.nanoTime();
+        EngineEvents.ContentLoad event = new EngineEvents.ContentLoad();
+        event.begin();
+        EngineEvents.CountingInputStream counted = null;
+        List<Game> games = null;
         try (InputStream inputStream = classLoader.getResourceAsStream(resourcePath)) {
             if (inputStream == null) {
                 throw new IOException("Resource not found: " + resourcePath);
             }
-            try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
-                return parseGames(reader);
+            InputStream source = inputStream;
+            if (event.isEnabled()) {
+                source = counted = new EngineEvents.CountingInputStream(inputStream);
+            }
+            try (Reader reader = new InputStreamReader(source, StandardCharsets.UTF_8)) {
+                games = parseGames(reader);
+                return games;
             }
+        } finally {
+            EngineMetrics.LOAD_GAMES.recordSince(start);
+            if (event.shouldCommit()) {
+                commit(event, resourcePath, counted != null ? counted.getCount() : -1, games);
+            }
+        }
+    }
+
+    /** Editors on Windows like to start UTF-8 files with a byte order mark, which json-simple rejects. */
+    private static Reader skipByteOrderMark(Reader reader) throws IOException {
+        BufferedReader buffered = reader instanceof BufferedReader alreadyBuffered
+                ? alreadyBuffered : new BufferedReader(reader);
+        buffered.mark(1);
+        if (buffered.read() != '\uFEFF') {
+            buffered.reset();
         }
+        return buffered;
+    }
+
+    private static void commit(EngineEvents.ContentLoad event, String source, long bytes, List<Game> games) {
+        event.source = source;
+        event.bytes = bytes;
+        event.gameId = EngineEvents.firstGameId(games);
+        event.games = games != null ? games.size() : 0;
+        event.commit();
     }
 
     private List<Game> parseGames(Reader reader) throws IOException {
         try {
-            Object parsed = parser.parse(reader);
+            Object parsed = parser.parse(skipByteOrderMark(reader));
             if (!(parsed instanceof JSONObject jsonObject)) {
                 return List.of();
             }
@@ -74,6 +120,8 @@ public final class DataLoader {
             return games;
         } catch (ParseException ex) {
             throw new IOException("Failed to parse game data", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid game data: " + ex.getMessage(), ex);
         }
     }
 
@@ -94,6 +142,9 @@ public final class DataLoader {
 
         Map<String, Item> itemsById = loadItems(game, getArray(gameJson, "items"));
         loadRooms(game, getArray(gameJson, "rooms"), itemsById);
+        loadDoors(game, getArray(gameJson, "doors"), itemsById);
+        game.getNavigation();
+        game.getKeyLockIndex();
         return game;
     }
 
@@ -130,6 +181,48 @@ public final class DataLoader {
         }
     }
 
+    private void loadDoors(Game game, JSONArray doorsArray, Map<String, Item> itemsById) {
+        if (doorsArray == null) {
+            return;
+        }
+        for (Object element : doorsArray) {
+            if (!(element instanceof JSONObject doorJson)) {
+                continue;
+            }
+            Door door = toDoor(doorJson, itemsById);
+            if (door != null) {
+                game.addDoor(door);
+            }
+        }
+    }
+
+    private Door toDoor(JSONObject doorJson, Map<String, Item> itemsById) {
+        String fromRef = getString(doorJson, "from");
+        String toRef = getString(doorJson, "to");
+        if (fromRef == null || fromRef.isBlank() || toRef == null || toRef.isBlank()) {
+            return null;
+        }
+        String idRef = getString(doorJson, "id");
+        String name = getString(doorJson, "name");
+        String description = getString(doorJson, "description");
+        Door door = new Door(toUuid(idRef, fromRef + "->" + toRef), name, description,
+                toUuid(fromRef, null), toUuid(toRef, null));
+
+        Boolean locked = getBooleanObject(doorJson.get("locked"));
+        if (locked != null) {
+            door.setLocked(locked);
+        }
+
+        String keyRequiredRef = getString(doorJson, "keyRequired");
+        if (keyRequiredRef != null) {
+            Item keyRequired = itemsById.get(keyRequiredRef);
+            if (keyRequired != null) {
+                door.setKeyRequired(keyRequired);
+            }
+        }
+        return door;
+    }
+
     private Item toItem(JSONObject itemJson) {
         String idRef = getString(itemJson, "id");
         String name = getString(itemJson, "name");
@@ -203,7 +296,9 @@ public final class DataLoader {
             return null;
         }
         String description = getString(puzzleJson, "description");
-        Puzzle puzzle = new Puzzle(toUuid(idRef, title), title, description);
+        Puzzle puzzle = "math".equalsIgnoreCase(getString(puzzleJson, "type"))
+                ? toMathPuzzle(puzzleJson, toUuid(idRef, title), title, description)
+                : new Puzzle(toUuid(idRef, title), title, description);
 
         JSONArray hints = getArray(puzzleJson, "hints");
         if (hints != null) {
@@ -224,6 +319,31 @@ public final class DataLoader {
         return puzzle;
     }
 
+    private MathPuzzle toMathPuzzle(JSONObject puzzleJson, UUID id, String title, String description) {
+        String answer = getString(puzzleJson, "answer");
+        Map<String, Rational> variables = new HashMap<>();
+        Object variablesValue = puzzleJson.get("variables");
+        if (variablesValue instanceof JSONObject variablesJson) {
+            for (Object entry : variablesJson.entrySet()) {
+                Map.Entry<?, ?> variable = (Map.Entry<?, ?>) entry;
+                variables.put(String.valueOf(variable.getKey()), toRational(variable.getValue()));
+            }
+        }
+        Object tolerance = puzzleJson.get("tolerance");
+        double toleranceValue = tolerance instanceof Number number ? number.doubleValue() : 0.0;
+        return new MathPuzzle(id, title, description, answer, variables, toleranceValue);
+    }
+
+    private Rational toRational(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return Rational.of(((Number) value).longValue());
+        }
+        if (value instanceof Number number) {
+            return Rational.parse(BigDecimal.valueOf(number.doubleValue()).toPlainString());
+        }
+        return Rational.parse(String.valueOf(value));
+    }
+
     private UUID toUuid(String idRef, String fallback) {
         String seed = idRef != null && !idRef.isBlank() ? idRef : fallback;
         if (seed == null || seed.isBlank()) {
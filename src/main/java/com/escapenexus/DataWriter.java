@@ -21,14 +21,28 @@ public final class DataWriter {
         Objects.requireNonNull(file, "file");
         Objects.requireNonNull(games, "games");
 
-        JSONObject root = toRootObject(games);
-        Path parent = file.getParent();
-        if (parent != null) {
-            Files.createDirectories(parent);
-        }
+        long start = System.nanoTime();
+        EngineEvents.ContentSave event = new EngineEvents.ContentSave();
+        event.begin();
+        try {
+            JSONObject root = toRootObject(games);
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
 
-        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
-            writer.write(root.toJSONString());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(root.toJSONString());
+            }
+        } finally {
+            EngineMetrics.WRITE_GAMES.recordSince(start);
+            if (event.shouldCommit()) {
+                event.path = file.toString();
+                event.gameId = EngineEvents.firstGameId(games);
+                event.games = games.size();
+                event.bytes = EngineEvents.sizeOf(file);
+                event.commit();
+            }
         }
     }
 
@@ -39,7 +53,12 @@ public final class DataWriter {
 
     public String toJson(List<Game> games) {
         Objects.requireNonNull(games, "games");
-        return toRootObject(games).toJSONString();
+        long start = System.nanoTime();
+        try {
+            return toRootObject(games).toJSONString();
+        } finally {
+            EngineMetrics.TO_JSON.recordSince(start);
+        }
     }
 
     private JSONObject toRootObject(List<Game> games) {
@@ -66,11 +85,14 @@ public final class DataWriter {
         Duration timeLimit = game.getTimeLimit();
         long minutes = timeLimit != null ? timeLimit.toMinutes() : 0;
         gameJson.put("timeLimitMinutes", minutes);
-        gameJson.put("maxPlayers", 1);
+        gameJson.put("maxPlayers", game.getMaxPlayers());
 
         Map<UUID, Item> itemsById = collectAllItems(game);
         gameJson.put("items", toItemsArray(itemsById));
         gameJson.put("rooms", toRoomsArray(game.getRooms(), itemsById));
+        if (!game.getDoors().isEmpty()) {
+            gameJson.put("doors", toDoorsArray(game.getDoors()));
+        }
         return gameJson;
     }
 
@@ -93,6 +115,9 @@ public final class DataWriter {
                 }
             }
         }
+        for (Door door : game.getDoors()) {
+            putItem(items, door.getKeyRequired());
+        }
         return items;
     }
 
@@ -162,11 +187,45 @@ public final class DataWriter {
         return roomJson;
     }
 
+    private JSONArray toDoorsArray(List<Door> doors) {
+        JSONArray doorsArray = new JSONArray();
+        for (Door door : doors) {
+            if (door == null) {
+                continue;
+            }
+            JSONObject doorJson = new JSONObject();
+            doorJson.put("id", uuidToString(door.getId()));
+            doorJson.put("name", door.getName());
+            doorJson.put("description", door.getDescription());
+            doorJson.put("from", uuidToString(door.getFromRoomId()));
+            doorJson.put("to", uuidToString(door.getToRoomId()));
+            doorJson.put("locked", door.isLocked());
+            Item keyRequired = door.getKeyRequired();
+            if (keyRequired != null) {
+                doorJson.put("keyRequired", uuidToString(keyRequired.getId()));
+            }
+            doorsArray.add(doorJson);
+        }
+        return doorsArray;
+    }
+
     private JSONObject toPuzzleObject(Puzzle puzzle, Map<UUID, Item> itemsById) {
         JSONObject puzzleJson = new JSONObject();
         puzzleJson.put("id", uuidToString(puzzle.getId()));
         puzzleJson.put("title", puzzle.getTitle());
         puzzleJson.put("description", puzzle.getDescription());
+        if (puzzle instanceof MathPuzzle mathPuzzle) {
+            puzzleJson.put("type", "math");
+            puzzleJson.put("answer", mathPuzzle.getAnswerExpression());
+            if (!mathPuzzle.getVariables().isEmpty()) {
+                JSONObject variables = new JSONObject();
+                mathPuzzle.getVariables().forEach((name, value) -> variables.put(name, value.toString()));
+                puzzleJson.put("variables", variables);
+            }
+            if (mathPuzzle.getTolerance() > 0.0) {
+                puzzleJson.put("tolerance", mathPuzzle.getTolerance());
+            }
+        }
 
         JSONArray hints = new JSONArray();
         for (String hint : puzzle.getHints()) {
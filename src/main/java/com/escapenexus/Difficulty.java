@@ -1,17 +1,33 @@
 package com.escapenexus;
 
+import java.time.Duration;
+
 public enum Difficulty {
-    EASY(3),
-    MEDIUM(2),
-    HARD(1);
+    EASY(3, 10, Duration.ofSeconds(1)),
+    MEDIUM(2, 6, Duration.ofSeconds(2)),
+    HARD(1, 4, Duration.ofSeconds(5));
 
     private final int hintLimit;
+    private final int attemptBurst;
+    private final Duration attemptRefill;
 
-    Difficulty(int hintLimit) {
+    Difficulty(int hintLimit, int attemptBurst, Duration attemptRefill) {
         this.hintLimit = hintLimit;
+        this.attemptBurst = attemptBurst;
+        this.attemptRefill = attemptRefill;
     }
 
     public int getHintLimit() {
         return hintLimit;
     }
+
+    /** Attempts a player may make on one puzzle back to back; see {@link AttemptLimiter}. */
+    public int getAttemptBurst() {
+        return attemptBurst;
+    }
+
+    /** Time for one more attempt to become available once the burst is used up. */
+    public Duration getAttemptRefill() {
+        return attemptRefill;
+    }
 }
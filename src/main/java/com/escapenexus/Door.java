@@ -30,6 +30,7 @@ public class Door {
     public UUID getFromRoomId() { return fromRoomId; }
     public UUID getToRoomId() { return toRoomId; }
     public boolean isLocked() { return locked; }
+    public void setLocked(boolean locked) { this.locked = locked; }
     public boolean isOpen() { return open; }
     public Item getKeyRequired() { return keyRequired; }
     public void setKeyRequired(Item keyRequired) { this.keyRequired = keyRequired; }
@@ -0,0 +1,245 @@
+package com.escapenexus;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the engine's persistence and gameplay, so a
+ * recording shows loads, saves, attempts and room changes next to GC and I/O.
+ * Every event is disabled unless a recording turns it on, and then costs only
+ * a flag check; {@link #configuration()} is the shipped profile that does,
+ * also available as {@value #PROFILE} on the class path, e.g. for
+ * {@code -XX:StartFlightRecording:settings=escapenexus.jfc}.
+ *
+ * <p>Usage is the usual JFR pattern: create, {@code begin()}, do the work,
+ * then fill in and commit the event only if {@code shouldCommit()}, so ids
+ * are turned into strings and files are sized only while recording.
+ */
+public final class EngineEvents {
+
+    public static final String PROFILE = "com/escapenexus/escapenexus.jfc";
+
+    private static final String CATEGORY = "Escape Nexus";
+
+    private EngineEvents() {
+    }
+
+    /** The shipped recording profile: every engine event plus GC, I/O, locking and CPU samples. */
+    public static Configuration configuration() throws IOException {
+        InputStream in = EngineEvents.class.getClassLoader().getResourceAsStream(PROFILE);
+        if (in == null) {
+            throw new IOException("Resource not found: " + PROFILE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (ParseException e) {
+            throw new IOException("Invalid recording profile " + PROFILE, e);
+        }
+    }
+
+    /** Size of {@code file}, or -1 if it cannot be read. */
+    static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException | SecurityException e) {
+            return -1;
+        }
+    }
+
+    /** First game's id, for events that cover a whole pack. */
+    static String firstGameId(List<Game> games) {
+        return games == null || games.isEmpty() || games.get(0) == null ? null : String.valueOf(games.get(0).getId());
+    }
+
+    static void commitAttempt(PuzzleAttempt event, Object gameId, String room, String puzzle, boolean correct,
+                              boolean solved) {
+        if (event.shouldCommit()) {
+            event.gameId = gameId == null ? null : gameId.toString();
+            event.room = room;
+            event.puzzle = puzzle;
+            event.correct = correct;
+            event.solved = solved;
+            event.commit();
+        }
+    }
+
+    static void roomTransition(Object gameId, String from, String to) {
+        RoomTransition event = new RoomTransition();
+        if (event.shouldCommit()) {
+            event.gameId = gameId == null ? null : gameId.toString();
+            event.fromRoom = from;
+            event.toRoom = to;
+            event.commit();
+        }
+    }
+
+    @Name("com.escapenexus.ContentLoad")
+    @Label("Content Load")
+    @Description("Game content parsed by DataLoader")
+    @Category({CATEGORY, "Persistence"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ContentLoad extends Event {
+        @Label("Source")
+        String source;
+        @Label("Game Id")
+        @Description("First game in the pack")
+        String gameId;
+        @Label("Games")
+        int games;
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.escapenexus.ContentSave")
+    @Label("Content Save")
+    @Description("Game content written by DataWriter")
+    @Category({CATEGORY, "Persistence"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ContentSave extends Event {
+        @Label("Path")
+        String path;
+        @Label("Game Id")
+        @Description("First game in the pack")
+        String gameId;
+        @Label("Games")
+        int games;
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.escapenexus.UserLoad")
+    @Label("User Load")
+    @Description("Users read by UserStorage")
+    @Category({CATEGORY, "Persistence"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class UserLoad extends Event {
+        @Label("Path")
+        String path;
+        @Label("Users")
+        int users;
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.escapenexus.UserSave")
+    @Label("User Save")
+    @Description("Users written by UserStorage")
+    @Category({CATEGORY, "Persistence"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class UserSave extends Event {
+        @Label("Path")
+        String path;
+        @Label("Users")
+        int users;
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.escapenexus.ProgressApply")
+    @Label("Apply User Progress")
+    @Description("UserStorage.applyUserProgressToGame")
+    @Category({CATEGORY, "Persistence"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ProgressApply extends Event {
+        @Label("Game Id")
+        String gameId;
+        @Label("Username")
+        String username;
+        @Label("Room")
+        @Description("Room the user was moved to")
+        String room;
+    }
+
+    @Name("com.escapenexus.PuzzleAttempt")
+    @Label("Puzzle Attempt")
+    @Category({CATEGORY, "Gameplay"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class PuzzleAttempt extends Event {
+        @Label("Game Id")
+        @Description("Game, or session template for sessions")
+        String gameId;
+        @Label("Room")
+        String room;
+        @Label("Puzzle")
+        String puzzle;
+        @Label("Correct")
+        boolean correct;
+        @Label("Solved")
+        @Description("This attempt solved the puzzle")
+        boolean solved;
+    }
+
+    @Name("com.escapenexus.RoomTransition")
+    @Label("Room Transition")
+    @Category({CATEGORY, "Gameplay"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class RoomTransition extends Event {
+        @Label("Game Id")
+        @Description("Game, or session template for sessions")
+        String gameId;
+        @Label("From Room")
+        String fromRoom;
+        @Label("To Room")
+        String toRoom;
+    }
+
+    /** Counts bytes read through it, for content loaded from the class path. */
+    static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.escapenexus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** The engine's own metrics in {@link MetricsRegistry#global()}, looked up once. */
+final class EngineMetrics {
+
+    static final LatencyHistogram LOAD_GAMES = histogram("dataLoader.loadGames");
+    static final LatencyHistogram WRITE_GAMES = histogram("dataWriter.writeGames");
+    static final LatencyHistogram TO_JSON = histogram("dataWriter.toJson");
+    static final LatencyHistogram LOAD_USERS = histogram("userStorage.loadUsers");
+    static final LatencyHistogram SAVE_USERS = histogram("userStorage.saveUsers");
+    static final LatencyHistogram APPLY_PROGRESS = histogram("userStorage.applyUserProgressToGame");
+    static final LatencyHistogram GAME_LOAD = histogram("gameManager.loadGame");
+    static final LatencyHistogram GAME_SAVE = histogram("gameManager.saveGame");
+    static final LatencyHistogram ATTEMPT = histogram("puzzle.attempt");
+
+    static final LongAdder GAMES_STARTED = counter("gameManager.gamesStarted");
+    /** Games held by every {@link GameManager}. */
+    static final LongAdder LIVE_GAMES = counter("gameManager.liveGames");
+    /** Sessions held by every {@link SessionRegistry}, resident or spilled. */
+    static final LongAdder LIVE_SESSIONS = counter("sessions.live");
+    /** Timer tasks that threw on a {@link TimingWheel} worker. */
+    static final LongAdder TIMER_TASK_FAILURES = counter("timingWheel.taskFailures");
+
+    private static final Map<Difficulty, LongAdder> SOLVED = perDifficulty("puzzle.solved.");
+    private static final Map<Difficulty, LongAdder> HINTS = perDifficulty("hints.used.");
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * Records one attempt that started at {@code startNanos}; {@code solvedNow} counts a solve.
+     * The attempt count is {@code puzzle.attempt.count}.
+     */
+    static void attempt(Difficulty difficulty, long startNanos, boolean solvedNow) {
+        ATTEMPT.recordSince(startNanos);
+        if (solvedNow) {
+            SOLVED.get(difficulty != null ? difficulty : Difficulty.MEDIUM).increment();
+        }
+    }
+
+    static void hint(Difficulty difficulty) {
+        HINTS.get(difficulty != null ? difficulty : Difficulty.MEDIUM).increment();
+    }
+
+    private static LatencyHistogram histogram(String name) {
+        return MetricsRegistry.global().histogram(name);
+    }
+
+    private static LongAdder counter(String name) {
+        return MetricsRegistry.global().counter(name);
+    }
+
+    private static Map<Difficulty, LongAdder> perDifficulty(String prefix) {
+        Map<Difficulty, LongAdder> adders = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            adders.put(difficulty, counter(prefix + difficulty.name()));
+        }
+        return adders;
+    }
+}
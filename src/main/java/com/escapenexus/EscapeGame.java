@@ -5,12 +5,25 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-
+import java.util.UUID;
+
+/**
+ * Single-player facade used by the terminal and JavaFX front ends: one
+ * logged-in {@link User} playing one {@link Game}. Servers hosting many players
+ * should use {@link SessionRegistry} instead.
+ *
+ * <p>With an {@link EventBus} set, every side effect of play (solving,
+ * hints, picked-up keys, unlocked rooms and doors, entered rooms,
+ * completion) is also published as a {@link GameEvent}. With an {@link AttemptLimiter} set,
+ * attempts are limited per user and puzzle.
+ */
 public final class EscapeGame {
 
     private static EscapeGame instance;
     private User user;
     private Game game;
+    private EventBus events;
+    private AttemptLimiter limiter;
 
     private EscapeGame() {
     }
@@ -38,6 +51,24 @@ public final class EscapeGame {
         return game;
     }
 
+    public EventBus getEventBus() {
+        return events;
+    }
+
+    /** Where gameplay events go from now on; null stops publishing. */
+    public void setEventBus(EventBus events) {
+        this.events = events;
+    }
+
+    public AttemptLimiter getAttemptLimiter() {
+        return limiter;
+    }
+
+    /** Limits {@link #attemptCurrentPuzzle(Object)}; null removes the limit. */
+    public void setAttemptLimiter(AttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
     public Puzzle getNextPuzzle() {
         return Optional.ofNullable(user)
                 .map(User::getCurrentRoom)
@@ -71,9 +102,11 @@ public final class EscapeGame {
         List<Room> rooms = game.getRooms();
         if (!rooms.isEmpty()) {
             user.moveTo(rooms.get(0));
+            game.setCurrentRoom(rooms.get(0));
         }
     }
 
+    /** @throws AttemptLimiter.RateLimitedException if the user is out of attempts on the current puzzle */
     public boolean attemptCurrentPuzzle(Object input) {
         if (user == null || game == null) {
             return false;
@@ -85,33 +118,92 @@ public final class EscapeGame {
         }
 
         Puzzle puzzle = currentRoom.getPuzzles().get(0);
+        boolean solvedBefore = puzzle.isSolved();
+        if (limiter != null && !solvedBefore) {
+            limiter.check(user.getUsername(), puzzle.getId(), game.getDifficulty());
+        }
+        long start = System.nanoTime();
+        EngineEvents.PuzzleAttempt event = new EngineEvents.PuzzleAttempt();
+        event.begin();
         boolean success = puzzle.attempt(input);
+        boolean solved = !solvedBefore && puzzle.isSolved();
+        EngineMetrics.attempt(game.getDifficulty(), start, solved);
+        EngineEvents.commitAttempt(event, game.getId(), currentRoom.getName(), puzzle.getTitle(), success, solved);
         if (!success) {
             return false;
         }
 
         Progress progress = user.getOrCreateProgress(currentRoom.getId());
         progress.setPuzzleSolved(puzzle.getId(), true);
+        if (solved) {
+            publish(GameEvent.Type.PUZZLE_SOLVED, currentRoom.getId(), puzzle.getId());
+        }
 
         Item providedKey = puzzle.getKeyProvided();
         if (providedKey != null) {
-            user.pickUp(providedKey);
-            Room nextRoom = findNextRoom(currentRoom);
-            if (nextRoom != null) {
-                nextRoom.unlock(providedKey);
+            if (user.pickUp(providedKey)) {
+                publish(GameEvent.Type.ITEM_PICKED_UP, currentRoom.getId(), providedKey.getId());
             }
-        }
-
-        if (currentRoom.isCleared()) {
-            Room nextRoom = game.advanceRoom();
+            game.unlockWith(providedKey, new KeyLockIndex.Unlocks() {
+                @Override
+                public void roomUnlocked(Room room) {
+                    publish(GameEvent.Type.ROOM_UNLOCKED, room.getId(), providedKey.getId());
+                }
+
+                @Override
+                public void doorUnlocked(Door door) {
+                    publish(GameEvent.Type.DOOR_UNLOCKED, door.getToRoomId(), door.getId());
+                }
+            });
+        }
+
+        if (allRoomsCleared()) {
+            if (solved) {
+                publish(GameEvent.Type.GAME_COMPLETED, currentRoom.getId(), null);
+            }
+        } else if (currentRoom.isCleared()) {
+            Room nextRoom = game.advanceRoom(currentRoom);
             if (nextRoom != null && nextRoom != currentRoom) {
                 user.moveTo(nextRoom);
+                game.setCurrentRoom(nextRoom);
+                publish(GameEvent.Type.ROOM_ENTERED, nextRoom.getId(), null);
             }
         }
 
         return true;
     }
 
+    /** Gives the logged-in user a hint for the current puzzle, within the room's hint limit. */
+    public String requestHint() {
+        if (user == null) {
+            return "No hints available.";
+        }
+        Room room = user.getCurrentRoom();
+        Puzzle puzzle = room == null || room.getPuzzles().isEmpty() ? null : room.getPuzzles().get(0);
+        int usedBefore = puzzle == null ? 0 : user.getOrCreateProgress(room.getId()).getHintsUsed(puzzle.getId());
+        String hint = user.requestHint(room);
+        if (puzzle != null && user.getOrCreateProgress(room.getId()).getHintsUsed(puzzle.getId()) > usedBefore) {
+            publish(GameEvent.Type.HINT_USED, room.getId(), puzzle.getId());
+        }
+        return hint;
+    }
+
+    private boolean allRoomsCleared() {
+        for (Room room : game.getRooms()) {
+            if (!room.isCleared()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void publish(GameEvent.Type type, UUID roomId, UUID subjectId) {
+        EventBus bus = events;
+        if (bus != null) {
+            bus.publish(type, user.getUsername(), game.getId(), roomId, subjectId);
+        }
+    }
+
     public void resetProgress() {
         if (user != null) {
             user.clearProgress();
@@ -146,16 +238,4 @@ public final class EscapeGame {
             throw new IllegalStateException("Failed to save game data", exception);
         }
     }
-
-    private Room findNextRoom(Room currentRoom) {
-        if (game == null || currentRoom == null) {
-            return null;
-        }
-        List<Room> rooms = game.getRooms();
-        int index = rooms.indexOf(currentRoom);
-        if (index >= 0 && index + 1 < rooms.size()) {
-            return rooms.get(index + 1);
-        }
-        return null;
-    }
 }
@@ -0,0 +1,213 @@
+package com.escapenexus;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process publisher of {@link GameEvent}s over a preallocated ring.
+ *
+ * <p>Any number of threads may publish. A publisher claims the next sequence
+ * with a CAS, fills that slot's event in place and marks the slot published;
+ * nothing is allocated and nothing waits. Each subscriber runs on its own
+ * daemon thread and sees every event published after it subscribed, in
+ * sequence order. A publisher that would overwrite an event some subscriber
+ * has not read yet drops its event instead and returns false, so a stalled
+ * consumer costs events (see {@link #getDroppedCount()}), never gameplay
+ * latency. With no subscribers, publishing is a no-op.
+ *
+ * <p>Closing stops new events, lets subscribers finish the ones already
+ * published and joins their threads. An event published while the bus is
+ * closing may be missed.
+ */
+public final class EventBus implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final Subscriber[] NONE = new Subscriber[0];
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 100_000;
+
+    private final GameEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongSupplier clock;
+    private volatile Subscriber[] subscribers = NONE;
+    private volatile boolean closed;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity slots in the ring, rounded up to a power of two */
+    public EventBus(int capacity) {
+        this(capacity, System::nanoTime);
+    }
+
+    EventBus(int capacity, LongSupplier clock) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new GameEvent[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.clock = Objects.requireNonNull(clock, "clock");
+        for (int i = 0; i < size; i++) {
+            slots[i] = new GameEvent();
+            published.set(i, -1);
+        }
+    }
+
+    public interface Listener {
+        /** Runs on the subscriber's thread; {@code event} is reused once this returns. */
+        void onEvent(GameEvent event);
+    }
+
+    /**
+     * Starts a daemon thread named {@code event-<name>} that hands {@code listener}
+     * every event published from now on. Exceptions from the listener are
+     * counted and skipped.
+     */
+    public synchronized void subscribe(String name, Listener listener) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(listener, "listener");
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        Subscriber subscriber = new Subscriber(listener, claimed.get());
+        Subscriber[] current = subscribers;
+        Subscriber[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = subscriber;
+        subscribers = next;
+        subscriber.thread = new Thread(subscriber, "event-" + name);
+        subscriber.thread.setDaemon(true);
+        subscriber.thread.start();
+    }
+
+    /**
+     * Publishes one event without allocating or blocking. Returns false if
+     * there are no subscribers, the bus is closed, or the ring is full.
+     */
+    public boolean publish(GameEvent.Type type, String username, UUID gameId, UUID roomId, UUID subjectId) {
+        Subscriber[] current = subscribers;
+        if (current.length == 0 || closed) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            if (sequence - slowest(current) > slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+        int index = (int) sequence & mask;
+        slots[index].set(sequence, type, username, gameId, roomId, subjectId, clock.getAsLong());
+        published.setRelease(index, sequence);
+        return true;
+    }
+
+    /** Events published since the bus was created. */
+    public long getPublishedCount() {
+        return claimed.get() + 1;
+    }
+
+    /** Events refused because a subscriber was a full ring behind. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Listener calls that threw. */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.length;
+    }
+
+    @Override
+    public void close() {
+        Subscriber[] current;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current = subscribers;
+        }
+        for (Subscriber subscriber : current) {
+            LockSupport.unpark(subscriber.thread);
+        }
+        try {
+            for (Subscriber subscriber : current) {
+                subscriber.thread.join(5000);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long slowest(Subscriber[] current) {
+        long min = Long.MAX_VALUE;
+        for (Subscriber subscriber : current) {
+            min = Math.min(min, subscriber.consumed.get());
+        }
+        return min;
+    }
+
+    private final class Subscriber implements Runnable {
+        private final Listener listener;
+        /** Last sequence this subscriber has finished with; publishers gate on it. */
+        private final AtomicLong consumed;
+        private Thread thread;
+
+        Subscriber(Listener listener, long start) {
+            this.listener = listener;
+            this.consumed = new AtomicLong(start);
+        }
+
+        @Override
+        public void run() {
+            long next = consumed.get() + 1;
+            int idle = 0;
+            while (true) {
+                int index = (int) next & mask;
+                if (published.getAcquire(index) == next) {
+                    try {
+                        listener.onEvent(slots[index]);
+                    } catch (RuntimeException exception) {
+                        failures.increment();
+                    }
+                    consumed.setRelease(next);
+                    next++;
+                    idle = 0;
+                } else if (closed && next > claimed.get()) {
+                    return;
+                } else if (idle < SPINS) {
+                    idle++;
+                    Thread.onSpinWait();
+                } else if (idle < SPINS + YIELDS) {
+                    idle++;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        }
+    }
+}
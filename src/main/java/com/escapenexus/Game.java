@@ -9,14 +9,26 @@ import java.util.UUID;
 
 public class Game {
 
+    /** Largest team that can share one game; see {@link CoopSession}. */
+    public static final int MAX_PLAYERS = 8;
+
     private final UUID id;
     private String title;
     private String description;
     private final List<String> story = new ArrayList<>();
     private Difficulty difficulty;
     private Duration timeLimit;
+    private int maxPlayers = 1;
     private final List<Room> rooms = new ArrayList<>();
     private final List<Item> items = new ArrayList<>();
+    private final List<Door> doors = new ArrayList<>();
+    // Read-only views handed out by the getters, made once so lookups never allocate.
+    private final List<Room> roomsView = Collections.unmodifiableList(rooms);
+    private final List<Item> itemsView = Collections.unmodifiableList(items);
+    private final List<Door> doorsView = Collections.unmodifiableList(doors);
+    private NavigationGraph navigation;
+    private KeyLockIndex keyLocks;
+    private Room currentRoom;
     private GameStatus status = GameStatus.NOT_STARTED;
     private final List<GameResults> leaderboard = new ArrayList<>();
 
@@ -30,11 +42,16 @@ public class Game {
         this.description = description;
         this.difficulty = difficulty;
         this.timeLimit = Duration.ofMinutes(timeLimitMinutes);
+        setMaxPlayers(maxPlayers);
     }
 
-    public Game(String gameId, List<Room> safeRooms, Duration timeLimit2) {
-        this.id = null;
-        //TODO Auto-generated constructor stub
+    /** Game made of {@code rooms} in order; {@code gameId} must be a UUID string. */
+    public Game(String gameId, List<Room> rooms, Duration timeLimit) {
+        this(UUID.fromString(gameId), null, null, Difficulty.MEDIUM, 0, 1);
+        this.timeLimit = timeLimit;
+        for (Room room : rooms) {
+            addRoom(room);
+        }
     }
 
     public UUID getId() {
@@ -69,18 +86,70 @@ public class Game {
         this.timeLimit = timeLimit;
     }
 
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    /** Clamped to 1..{@link #MAX_PLAYERS}. */
+    public void setMaxPlayers(int maxPlayers) {
+        this.maxPlayers = Math.max(1, Math.min(MAX_PLAYERS, maxPlayers));
+    }
+
     public List<Room> getRooms() {
-        return Collections.unmodifiableList(rooms);
+        return roomsView;
     }
 
     public void addRoom(Room room) {
         if (room != null) {
             rooms.add(room);
+            navigation = null;
+            keyLocks = null;
+        }
+    }
+
+    public List<Door> getDoors() {
+        return doorsView;
+    }
+
+    public void addDoor(Door door) {
+        if (door != null) {
+            doors.add(door);
+            navigation = null;
+            keyLocks = null;
+        }
+    }
+
+    /** Room adjacency built from the doors (or the room order when there are none); rebuilt after rooms or doors change. */
+    public NavigationGraph getNavigation() {
+        if (navigation == null) {
+            navigation = NavigationGraph.build(rooms, doors);
         }
+        return navigation;
+    }
+
+    /**
+     * Rooms and doors by the key they require. Rebuilt after rooms or doors are
+     * added; set each lock's key before adding it to the game.
+     */
+    public KeyLockIndex getKeyLockIndex() {
+        if (keyLocks == null) {
+            keyLocks = KeyLockIndex.build(rooms, doors);
+        }
+        return keyLocks;
+    }
+
+    /** Opens every room and door that needs {@code key}; returns how many locks opened. */
+    public int unlockWith(Item key) {
+        return getKeyLockIndex().unlockAll(key);
+    }
+
+    /** Like {@link #unlockWith(Item)}, telling {@code unlocks} about each lock that opens. */
+    public int unlockWith(Item key, KeyLockIndex.Unlocks unlocks) {
+        return getKeyLockIndex().unlockAll(key, unlocks);
     }
 
     public List<Item> getItems() {
-        return Collections.unmodifiableList(items);
+        return itemsView;
     }
 
     public void addItem(Item item) {
@@ -115,10 +184,7 @@ public class Game {
         if (roomId == null) {
             return null;
         }
-        return rooms.stream()
-                .filter(room -> roomId.equals(room.getId()))
-                .findFirst()
-                .orElse(null);
+        return getNavigation().getRoom(roomId);
     }
 
     public Item getItem(UUID itemId) {
@@ -135,31 +201,29 @@ public class Game {
                         .orElse(null));
     }
 
+    /** Room to continue in from this game's current room; see {@link #advanceRoom(Room)}. */
     public Room advanceRoom() {
-        EscapeGame escapeGame = EscapeGame.getInstance();
-        User currentUser = escapeGame.getUser();
-        if (currentUser == null) {
-            return null;
-        }
-
-        Room currentRoom = currentUser.getCurrentRoom();
-        if (currentRoom == null) {
-            return rooms.isEmpty() ? null : rooms.get(0);
-        }
+        return advanceRoom(getCurrentRoom());
+    }
 
-        int index = rooms.indexOf(currentRoom);
-        if (index < 0) {
+    /**
+     * Room a player standing in {@code from} should continue in: {@code from}
+     * itself until it is cleared, then the next room through an unlocked door,
+     * preferring one with puzzles left, or {@code from} again while every way
+     * out is locked. A room outside this game restarts at the first room. Does
+     * not move anyone.
+     */
+    public Room advanceRoom(Room from) {
+        if (from == null || getNavigation().indexOf(from) < 0) {
             return rooms.isEmpty() ? null : rooms.get(0);
         }
 
-        if (!currentRoom.isCleared()) {
-            return currentRoom;
+        if (!from.isCleared()) {
+            return from;
         }
 
-        if (index + 1 < rooms.size()) {
-            return rooms.get(index + 1);
-        }
-        return currentRoom;
+        Room next = getNavigation().nextTraversableRoom(from);
+        return next != null ? next : from;
     }
 
     @Override
@@ -178,13 +242,40 @@ public class Game {
         return Objects.hash(id);
     }
 
+    /**
+     * Moves this session to the next traversable room once the current room is
+     * cleared. Returns false when the room still has unsolved puzzles or every
+     * way out is locked.
+     */
     public boolean advanceIfSolved() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'advanceIfSolved'");
+        Room room = getCurrentRoom();
+        if (room == null || !room.isCleared()) {
+            return false;
+        }
+        Room next = getNavigation().nextTraversableRoom(room);
+        if (next == null) {
+            return false;
+        }
+        currentRoom = next;
+        EngineEvents.roomTransition(id, room.getName(), next.getName());
+        return true;
     }
 
+    /** Room this session is in; the first room until something moves it. */
     public Room getCurrentRoom() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getCurrentRoom'");
+        if (currentRoom == null && !rooms.isEmpty()) {
+            currentRoom = rooms.get(0);
+        }
+        return currentRoom;
+    }
+
+    public void setCurrentRoom(Room room) {
+        if (room != null && getNavigation().indexOf(room) >= 0) {
+            Room previous = currentRoom;
+            this.currentRoom = room;
+            if (previous != room) {
+                EngineEvents.roomTransition(id, previous != null ? previous.getName() : null, room.getName());
+            }
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.escapenexus;
+
+import java.util.UUID;
+
+/**
+ * One slot of an {@link EventBus} ring. Slots are allocated once and reused,
+ * so an event is only valid inside {@link EventBus.Listener#onEvent}; copy
+ * out anything kept beyond that call.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        /** Subject is the puzzle. */
+        PUZZLE_SOLVED,
+        /** Subject is the puzzle the hint was for. */
+        HINT_USED,
+        /** Room is the room that opened; subject is the key used. */
+        ROOM_UNLOCKED,
+        /** Room is the room the door leads to; subject is the door. */
+        DOOR_UNLOCKED,
+        /** Subject is the item. */
+        ITEM_PICKED_UP,
+        /** Room is the room entered; no subject. */
+        ROOM_ENTERED,
+        /** Room is the last room cleared; no subject. */
+        GAME_COMPLETED
+    }
+
+    private long sequence = -1;
+    private Type type;
+    private String username;
+    private UUID gameId;
+    private UUID roomId;
+    private UUID subjectId;
+    private long timestampNanos;
+
+    GameEvent() {
+    }
+
+    void set(long sequence, Type type, String username, UUID gameId, UUID roomId, UUID subjectId,
+             long timestampNanos) {
+        this.sequence = sequence;
+        this.type = type;
+        this.username = username;
+        this.gameId = gameId;
+        this.roomId = roomId;
+        this.subjectId = subjectId;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /** Position in the bus, counting from 0; consecutive for every subscriber. */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public UUID getRoomId() {
+        return roomId;
+    }
+
+    /** Puzzle or item the event is about, or null; see {@link Type}. */
+    public UUID getSubjectId() {
+        return subjectId;
+    }
+
+    /** {@link System#nanoTime()} (or the bus's clock) when the event was published. */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "GameEvent{" + sequence + " " + type + " user=" + username + " room=" + roomId
+                + " subject=" + subjectId + "}";
+    }
+}
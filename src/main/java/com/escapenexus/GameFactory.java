@@ -1,14 +1,34 @@
 package com.escapenexus;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 
 public final class GameFactory {
 
+    private static final Map<Difficulty, GameTemplate> DEFAULT_TEMPLATES = new EnumMap<>(Difficulty.class);
+
+    static {
+        for (Difficulty difficulty : Difficulty.values()) {
+            DEFAULT_TEMPLATES.put(difficulty, GameTemplate.compile(createDefaultThreeRoomGame(difficulty)));
+        }
+    }
+
     private GameFactory() {
     }
 
+    /** Shared template of the default game; build sessions from it instead of rebuilding the game. */
+    public static GameTemplate defaultTemplate(Difficulty difficulty) {
+        return DEFAULT_TEMPLATES.get(difficulty != null ? difficulty : Difficulty.MEDIUM);
+    }
+
     public static Game createDefaultThreeRoomGame(Difficulty difficulty) {
+        return createDefaultThreeRoomGame(difficulty, System.nanoTime());
+    }
+
+    /** Builds the default game with {@code lightSeed} driving its light sequences, so runs can be repeated. */
+    public static Game createDefaultThreeRoomGame(Difficulty difficulty, long lightSeed) {
         Difficulty resolvedDifficulty = difficulty != null ? difficulty : Difficulty.MEDIUM;
         Game game = new Game(
                 "Escape Nexus: Singularity Run",
@@ -52,7 +72,7 @@ public final class GameFactory {
                 UUID.fromString("bbbbbbb1-bbbb-bbbb-bbbb-bbbbbbbbbbb1"),
                 "Reboot Sequence",
                 "Replay each flashing sequence on the cryo console.",
-                System.nanoTime()
+                lightSeed
         );
         rebootSequence.addHint("Watch carefully - each new flash extends the full sequence.");
         rebootSequence.addHint("Group colors in pairs or triples to memorize faster.");
@@ -6,18 +6,40 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * GameManager acts as a simple facade for common game lifecycle operations:
  * start a new game, load a saved game, and save the current game.
+ *
+ * <p>It is safe to share between threads. Games live in a concurrent map and
+ * every operation on one game holds that game's lock, taken from a fixed set
+ * of striped locks so unrelated games rarely contend. The "current game" is
+ * one shared reference, the game most recently started or loaded by any
+ * caller, for the single-player menus; servers should name games by id.
+ *
+ * <p>With an {@link AttemptLimiter}, attempts are limited per game and puzzle.
  */
 public class GameManager {
-    private final Map<String, Game> games = new HashMap<>();
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final SessionRegistry sessions = new SessionRegistry();
 
     // Facade state and collaborators
     private final DataLoader loader = new DataLoader();
     private final DataWriter writer = new DataWriter();
-    private Game currentGame;
+    private final AtomicReference<String> currentGameId = new AtomicReference<>();
+    private volatile AttemptLimiter limiter;
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
 
     // Default save location (relative to project root)
     private static final Path DEFAULT_SAVE_PATH = Paths.get("saves", "current-game.json");
@@ -26,66 +48,208 @@ public class GameManager {
         String gameId = UUID.randomUUID().toString();
         List<Room> safeRooms = (rooms == null) ? new ArrayList<Room>() : new ArrayList<Room>(rooms);
         Game game = new Game(gameId, safeRooms, timeLimit);
-        games.put(gameId, game);
-        this.currentGame = game;
-        return game;
+        EngineMetrics.GAMES_STARTED.increment();
+        return register(gameId, game);
     }
 
     public Optional<Game> getGame(String gameId) {
-        return Optional.ofNullable(games.get(gameId));
+        return gameId == null ? Optional.empty() : Optional.ofNullable(games.get(gameId));
     }
 
+    /** Game last started or loaded, unless it has been ended or exited since. */
     public Optional<Game> getCurrentGame() {
-        return Optional.ofNullable(currentGame);
+        return getGame(currentGameId.get());
+    }
+
+    /**
+     * Runs {@code action} on the game while holding its lock, so it never
+     * overlaps another operation on the same game. Returns empty if there is
+     * no such game.
+     */
+    public <T> Optional<T> withGame(String gameId, Function<Game, T> action) {
+        if (gameId == null) {
+            return Optional.empty();
+        }
+        synchronized (lockFor(gameId)) {
+            Game game = games.get(gameId);
+            return game == null ? Optional.empty() : Optional.ofNullable(action.apply(game));
+        }
     }
 
+    /** @throws AttemptLimiter.RateLimitedException if the game is out of attempts on that puzzle */
     public boolean attemptPuzzle(String gameId, String puzzleIdOrTitle, Object attempt) {
-        Game game = games.get(gameId);
-        if (game == null) return false;
+        return withGame(gameId, game -> attemptPuzzle(game, puzzleIdOrTitle, attempt)).orElse(false);
+    }
 
-        // NOTE: Game#getCurrentRoom is not implemented in this codebase yet.
-        // This method remains for future use; facade methods below do not depend on it.
-        try {
-            Room room = game.getCurrentRoom();
-            if (room == null) return false;
-
-            Puzzle puzzle = null;
-            if (puzzleIdOrTitle != null) {
-                try {
-                    UUID pid = UUID.fromString(puzzleIdOrTitle);
-                    puzzle = room.findPuzzleById(pid);
-                } catch (IllegalArgumentException ignored) {
-                    puzzle = room.findPuzzle(puzzleIdOrTitle);
+    private boolean attemptPuzzle(Game game, String puzzleIdOrTitle, Object attempt) {
+        Room room = game.getCurrentRoom();
+        if (room == null) return false;
+
+        Puzzle puzzle = findPuzzle(room, puzzleIdOrTitle);
+        if (puzzle == null) return false;
+        AttemptLimiter current = limiter;
+        if (current != null && !puzzle.isSolved()) {
+            current.check(game.getId().toString(), puzzle.getId(), game.getDifficulty());
+        }
+        return apply(game, room, puzzle, attempt);
+    }
+
+    /**
+     * Runs every attempt in {@code batch} and returns one {@link AttemptBatch}
+     * result code per attempt, in batch order. Attempts are grouped by game:
+     * each game's lock is taken once and its attempts run in the order they
+     * were added. Each puzzle id or title is looked up once per room rather
+     * than once per attempt. Attempts over the limit come back as
+     * {@link AttemptBatch#RATE_LIMITED} instead of throwing.
+     */
+    public byte[] attemptAll(AttemptBatch batch) {
+        int size = batch.size();
+        byte[] results = new byte[size];
+        Map<String, Integer> groupOf = new HashMap<>();
+        int[] group = new int[size];
+        int[] starts = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            String gameId = batch.gameId(i);
+            if (gameId == null) {
+                group[i] = -1;
+                results[i] = AttemptBatch.UNKNOWN_GAME;
+                continue;
+            }
+            int g = groupOf.computeIfAbsent(gameId, id -> groupOf.size());
+            group[i] = g;
+            starts[g + 1]++;
+        }
+        int groups = groupOf.size();
+        for (int g = 0; g < groups; g++) {
+            starts[g + 1] += starts[g];
+        }
+        int[] order = new int[starts[groups]];
+        int[] fill = Arrays.copyOf(starts, groups);
+        for (int i = 0; i < size; i++) {
+            if (group[i] >= 0) {
+                order[fill[group[i]]++] = i;
+            }
+        }
+
+        Map<String, Puzzle> resolved = new HashMap<>();
+        for (int g = 0; g < groups; g++) {
+            String gameId = batch.gameId(order[starts[g]]);
+            synchronized (lockFor(gameId)) {
+                Game game = games.get(gameId);
+                resolved.clear();
+                Room resolvedIn = null;
+                for (int k = starts[g]; k < starts[g + 1]; k++) {
+                    int i = order[k];
+                    Room room = game == null ? null : game.getCurrentRoom();
+                    if (room != resolvedIn) {
+                        resolved.clear();
+                        resolvedIn = room;
+                    }
+                    results[i] = game == null ? AttemptBatch.UNKNOWN_GAME
+                            : attemptOne(game, room, resolved, batch.puzzle(i), batch.input(i));
                 }
             }
+        }
+        return results;
+    }
 
-            if (puzzle == null) return false;
-            boolean solvedNow = puzzle.attempt(attempt);
+    private byte attemptOne(Game game, Room room, Map<String, Puzzle> resolved, String puzzleKey, Object input) {
+        if (room == null || puzzleKey == null) {
+            return AttemptBatch.UNKNOWN_PUZZLE;
+        }
+        Puzzle puzzle = resolved.get(puzzleKey);
+        if (puzzle == null && !resolved.containsKey(puzzleKey)) {
+            puzzle = findPuzzle(room, puzzleKey);
+            resolved.put(puzzleKey, puzzle);
+        }
+        if (puzzle == null) {
+            return AttemptBatch.UNKNOWN_PUZZLE;
+        }
+        AttemptLimiter current = limiter;
+        if (current != null && !puzzle.isSolved()
+                && !current.tryAcquire(game.getId().toString(), puzzle.getId(), game.getDifficulty())) {
+            return AttemptBatch.RATE_LIMITED;
+        }
+        if (!apply(game, room, puzzle, input)) {
+            return AttemptBatch.WRONG;
+        }
+        return puzzle.isSolved() ? AttemptBatch.SOLVED : AttemptBatch.CORRECT;
+    }
 
-            if (solvedNow && room.isCleared()) {
-                game.advanceIfSolved();
+    private static Puzzle findPuzzle(Room room, String puzzleIdOrTitle) {
+        if (puzzleIdOrTitle == null) {
+            return null;
+        }
+        if (mayBeUuid(puzzleIdOrTitle)) {
+            try {
+                return room.findPuzzleById(UUID.fromString(puzzleIdOrTitle));
+            } catch (IllegalArgumentException ignored) {
+                // not an id after all
             }
-            return solvedNow;
-        } catch (UnsupportedOperationException ex) {
-            return false;
         }
+        return room.findPuzzle(puzzleIdOrTitle);
     }
 
-    public boolean advanceIfSolved(String gameId) {
-        Game game = games.get(gameId);
-        try {
-            return game != null && game.advanceIfSolved();
-        } catch (UnsupportedOperationException ex) {
+    /**
+     * False for text {@link UUID#fromString} is sure to reject, which needs
+     * exactly four dashes, so looking puzzles up by title does not build an
+     * exception each time.
+     */
+    private static boolean mayBeUuid(String text) {
+        if (text.length() > 36) {
             return false;
         }
+        int dashes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '-') {
+                dashes++;
+            }
+        }
+        return dashes == 4;
+    }
+
+    private static boolean apply(Game game, Room room, Puzzle puzzle, Object attempt) {
+        boolean solvedBefore = puzzle.isSolved();
+        long start = System.nanoTime();
+        EngineEvents.PuzzleAttempt event = new EngineEvents.PuzzleAttempt();
+        event.begin();
+        boolean solvedNow = puzzle.attempt(attempt);
+        boolean solved = !solvedBefore && puzzle.isSolved();
+        EngineMetrics.attempt(game.getDifficulty(), start, solved);
+        EngineEvents.commitAttempt(event, game.getId(), room.getName(), puzzle.getTitle(), solvedNow, solved);
+
+        if (solved && puzzle.getKeyProvided() != null) {
+            game.unlockWith(puzzle.getKeyProvided());
+        }
+        if (solvedNow && room.isCleared()) {
+            game.advanceIfSolved();
+        }
+        return solvedNow;
+    }
+
+    public Optional<AttemptLimiter> getAttemptLimiter() {
+        return Optional.ofNullable(limiter);
+    }
+
+    /** Limits {@link #attemptPuzzle}; null removes the limit. */
+    public void setAttemptLimiter(AttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public boolean advanceIfSolved(String gameId) {
+        return withGame(gameId, Game::advanceIfSolved).orElse(false);
     }
 
     public void endGame(String gameId) {
-        games.remove(gameId);
-        if (currentGame != null && gameId != null && currentGame.getId() != null
-                && gameId.equals(currentGame.getId().toString())) {
-            currentGame = null;
+        if (gameId == null) {
+            return;
         }
+        synchronized (lockFor(gameId)) {
+            if (games.remove(gameId) != null) {
+                EngineMetrics.LIVE_GAMES.decrement();
+            }
+        }
+        currentGameId.compareAndSet(gameId, null);
     }
 
     // ===== Facade methods =====
@@ -99,22 +263,44 @@ public class GameManager {
     public Game startNewGame(Difficulty difficulty) {
         Difficulty d = (difficulty != null) ? difficulty : Difficulty.MEDIUM;
         Game game = GameFactory.createDefaultThreeRoomGame(d);
-        games.put(game.getId().toString(), game);
-        this.currentGame = game;
-        return game;
+        EngineMetrics.GAMES_STARTED.increment();
+        return register(game);
+    }
+
+    /**
+     * Start a lightweight session of the default game. Unlike {@link #startNewGame(Difficulty)}
+     * this shares the game content with every other session and only allocates the
+     * per-session state; the returned id is used with {@link #getSession(String)}.
+     */
+    public String startNewSession(Difficulty difficulty) {
+        return sessions.open("player", difficulty).getId();
+    }
+
+    public Optional<SessionState> getSession(String sessionId) {
+        return sessions.get(sessionId).map(PlayerSession::getState);
+    }
+
+    public void endSession(String sessionId) {
+        sessions.close(sessionId);
     }
 
     /** Load a game from the default save file, or fallback to resources/default. */
     public Game loadGame() {
+        long start = System.nanoTime();
+        try {
+            return loadDefaultGame();
+        } finally {
+            EngineMetrics.GAME_LOAD.recordSince(start);
+        }
+    }
+
+    private Game loadDefaultGame() {
         // Try default save file first
         if (Files.exists(DEFAULT_SAVE_PATH)) {
             try {
                 List<Game> loaded = loader.loadGames(DEFAULT_SAVE_PATH);
                 if (!loaded.isEmpty()) {
-                    Game game = loaded.get(0);
-                    games.put(game.getId().toString(), game);
-                    this.currentGame = game;
-                    return game;
+                    return register(loaded.get(0));
                 }
             } catch (IOException e) {
                 // fall through to resource/default
@@ -125,60 +311,58 @@ public class GameManager {
         try {
             List<Game> fromResource = loader.loadGamesFromResource();
             if (!fromResource.isEmpty()) {
-                Game game = fromResource.get(0);
-                games.put(game.getId().toString(), game);
-                this.currentGame = game;
-                return game;
+                return register(fromResource.get(0));
             }
         } catch (IOException ignored) {
         }
 
-        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.MEDIUM);
-        games.put(game.getId().toString(), game);
-        this.currentGame = game;
-        return game;
+        return register(GameFactory.createDefaultThreeRoomGame(Difficulty.MEDIUM));
     }
 
     /** Load a game from the specified file path. */
     public Game loadGame(Path file) {
         Objects.requireNonNull(file, "file");
+        long start = System.nanoTime();
         try {
             List<Game> loaded = loader.loadGames(file);
             if (loaded.isEmpty()) {
                 throw new IllegalStateException("No games found in save file: " + file);
             }
-            Game game = loaded.get(0);
-            games.put(game.getId().toString(), game);
-            this.currentGame = game;
-            return game;
+            return register(loaded.get(0));
         } catch (IOException e) {
             throw new IllegalStateException("Failed to load game from: " + file, e);
+        } finally {
+            EngineMetrics.GAME_LOAD.recordSince(start);
         }
     }
 
     /** Save the current game to the default save file. */
     public void saveCurrentGame() {
-        if (currentGame == null) {
-            throw new IllegalStateException("No current game to save");
-        }
-        try {
-            writer.writeGame(DEFAULT_SAVE_PATH, currentGame);
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to save game", e);
-        }
+        saveCurrentGame(DEFAULT_SAVE_PATH);
     }
 
     /** Save the current game to the specified file. */
     public void saveCurrentGame(Path file) {
-        if (currentGame == null) {
+        if (!saveGame(currentGameId.get(), file)) {
             throw new IllegalStateException("No current game to save");
         }
+    }
+
+    /** Save the game with this id to the specified file; false if there is no such game. */
+    public boolean saveGame(String gameId, Path file) {
         Objects.requireNonNull(file, "file");
-        try {
-            writer.writeGame(file, currentGame);
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to save game to: " + file, e);
-        }
+        long start = System.nanoTime();
+        Optional<Boolean> saved = withGame(gameId, game -> {
+            try {
+                writer.writeGame(file, game);
+                return true;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to save game to: " + file, e);
+            } finally {
+                EngineMetrics.GAME_SAVE.recordSince(start);
+            }
+        });
+        return saved.isPresent();
     }
 
     /** Save the provided game to the default save file. */
@@ -186,10 +370,15 @@ public class GameManager {
         if (game == null) {
             throw new IllegalArgumentException("game");
         }
-        try {
-            writer.writeGame(DEFAULT_SAVE_PATH, game);
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to save game", e);
+        synchronized (lockFor(game.getId().toString())) {
+            long start = System.nanoTime();
+            try {
+                writer.writeGame(DEFAULT_SAVE_PATH, game);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to save game", e);
+            } finally {
+                EngineMetrics.GAME_SAVE.recordSince(start);
+            }
         }
     }
 
@@ -202,6 +391,23 @@ public class GameManager {
 
     /** Exit the current game session (in-memory cleanup). */
     public void exitGame() {
-        this.currentGame = null;
+        currentGameId.set(null);
+    }
+
+    private Game register(Game game) {
+        return register(game.getId().toString(), game);
+    }
+
+    private Game register(String gameId, Game game) {
+        if (games.put(gameId, game) == null) {
+            EngineMetrics.LIVE_GAMES.increment();
+        }
+        currentGameId.set(gameId);
+        return game;
+    }
+
+    private Object lockFor(String gameId) {
+        int hash = gameId.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
     }
 }
@@ -3,5 +3,6 @@ package com.escapenexus;
 public enum GameStatus {
     NOT_STARTED,
     IN_PROGRESS,
-    COMPLETED
+    COMPLETED,
+    LOST
 }
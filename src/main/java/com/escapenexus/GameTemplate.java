@@ -0,0 +1,394 @@
+package com.escapenexus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable, shareable content of a game: titles, descriptions, hints and the
+ * room/puzzle/key links. Every {@link SessionState} created from a template
+ * points back to it and only carries the mutable bits of a play-through, so
+ * thousands of sessions share one copy of the static content.
+ *
+ * <p>Rooms, puzzles and items are addressed by dense indexes in the order they
+ * appear in the prototype game. Puzzles of room {@code r} occupy the index
+ * range {@code [puzzleStart(r), puzzleEnd(r))}.
+ */
+public final class GameTemplate {
+
+    private final UUID id;
+    private final String title;
+    private final String description;
+    private final Difficulty difficulty;
+    private final Duration timeLimit;
+    private final int maxPlayers;
+
+    private final Room[] rooms;
+    private final Puzzle[] puzzles;
+    private final Item[] items;
+    private final List<List<String>> hints;
+
+    private final boolean[] roomInitiallyLocked;
+    private final int[] roomHintLimit;
+    private final int[] roomKeyRequired;
+    private final int[] roomPuzzleStart;
+    private final int[] puzzleRoom;
+    private final int[] keyRoomStart;
+    private final int[] keyRooms;
+    private final int[] roomExitStart;
+    private final int[] roomExits;
+    private final int[] puzzleKeyProvided;
+    private final int[] puzzleLightSlot;
+    private final ItemState[] itemInitialState;
+    private final int[] lightWordOffset;
+    private final int[] lightRounds;
+    private final int lightWordCount;
+
+    private final Map<UUID, Integer> roomIndex;
+    private final Map<UUID, Integer> puzzleIndex;
+    private final Map<UUID, Integer> itemIndex;
+
+    private GameTemplate(Game prototype) {
+        this.id = prototype.getId();
+        this.title = prototype.getTitle();
+        this.description = prototype.getDescription();
+        this.difficulty = prototype.getDifficulty() != null ? prototype.getDifficulty() : Difficulty.MEDIUM;
+        this.timeLimit = prototype.getTimeLimit();
+        this.maxPlayers = prototype.getMaxPlayers();
+
+        List<Room> roomList = prototype.getRooms();
+        List<Item> itemList = new ArrayList<>();
+        Map<UUID, Integer> items = new HashMap<>();
+        for (Item item : prototype.getItems()) {
+            indexItem(item, itemList, items);
+        }
+        List<Puzzle> puzzleList = new ArrayList<>();
+        for (Room room : roomList) {
+            indexItem(room.getKeyRequired(), itemList, items);
+            for (Item item : room.getItems()) {
+                indexItem(item, itemList, items);
+            }
+            for (Puzzle puzzle : room.getPuzzles()) {
+                puzzleList.add(puzzle);
+                indexItem(puzzle.getKeyProvided(), itemList, items);
+            }
+        }
+
+        this.rooms = roomList.toArray(new Room[0]);
+        this.puzzles = puzzleList.toArray(new Puzzle[0]);
+        this.items = itemList.toArray(new Item[0]);
+        this.itemIndex = Collections.unmodifiableMap(items);
+
+        this.roomInitiallyLocked = new boolean[rooms.length];
+        this.roomHintLimit = new int[rooms.length];
+        this.roomKeyRequired = new int[rooms.length];
+        this.roomPuzzleStart = new int[rooms.length + 1];
+        Map<UUID, Integer> roomIds = new HashMap<>();
+        int puzzleCursor = 0;
+        for (int r = 0; r < rooms.length; r++) {
+            Room room = rooms[r];
+            roomIds.put(room.getId(), r);
+            roomInitiallyLocked[r] = room.isLocked();
+            roomHintLimit[r] = Math.max(0, room.getHintLimit());
+            roomKeyRequired[r] = indexOf(room.getKeyRequired());
+            roomPuzzleStart[r] = puzzleCursor;
+            puzzleCursor += room.getPuzzles().size();
+        }
+        roomPuzzleStart[rooms.length] = puzzleCursor;
+        this.roomIndex = Collections.unmodifiableMap(roomIds);
+
+        // Reverse key -> rooms index: rooms needing item i are keyRooms[keyRoomStart[i] .. keyRoomStart[i + 1]).
+        this.keyRoomStart = new int[this.items.length + 1];
+        for (int r = 0; r < rooms.length; r++) {
+            if (roomKeyRequired[r] >= 0) {
+                keyRoomStart[roomKeyRequired[r] + 1]++;
+            }
+        }
+        for (int i = 0; i < this.items.length; i++) {
+            keyRoomStart[i + 1] += keyRoomStart[i];
+        }
+        this.keyRooms = new int[keyRoomStart[this.items.length]];
+        int[] keyCursor = keyRoomStart.clone();
+        for (int r = 0; r < rooms.length; r++) {
+            if (roomKeyRequired[r] >= 0) {
+                keyRooms[keyCursor[roomKeyRequired[r]]++] = r;
+            }
+        }
+
+        // Room -> room exits in navigation order: exits of room r are roomExits[roomExitStart[r] .. roomExitStart[r + 1]).
+        NavigationGraph navigation = prototype.getNavigation();
+        this.roomExitStart = new int[rooms.length + 1];
+        this.roomExits = new int[rooms.length == 0 ? 0 : navigation.edgeEnd(rooms.length - 1)];
+        for (int r = 0; r < rooms.length; r++) {
+            roomExitStart[r] = navigation.edgeStart(r);
+            for (int e = navigation.edgeStart(r); e < navigation.edgeEnd(r); e++) {
+                roomExits[e] = navigation.edgeTarget(e);
+            }
+        }
+        roomExitStart[rooms.length] = roomExits.length;
+
+        this.puzzleRoom = new int[puzzles.length];
+        for (int r = 0; r < rooms.length; r++) {
+            for (int p = roomPuzzleStart[r]; p < roomPuzzleStart[r + 1]; p++) {
+                puzzleRoom[p] = r;
+            }
+        }
+
+        this.puzzleKeyProvided = new int[puzzles.length];
+        this.puzzleLightSlot = new int[puzzles.length];
+        Map<UUID, Integer> puzzleIds = new HashMap<>();
+        List<List<String>> hintLists = new ArrayList<>(puzzles.length);
+        int lightSlots = 0;
+        for (int p = 0; p < puzzles.length; p++) {
+            Puzzle puzzle = puzzles[p];
+            puzzleIds.put(puzzle.getId(), p);
+            puzzleKeyProvided[p] = indexOf(puzzle.getKeyProvided());
+            puzzleLightSlot[p] = puzzle instanceof LightPatternPuzzle ? lightSlots++ : -1;
+            hintLists.add(List.copyOf(puzzle.getHints()));
+        }
+        this.puzzleIndex = Collections.unmodifiableMap(puzzleIds);
+        this.hints = Collections.unmodifiableList(hintLists);
+
+        this.lightWordOffset = new int[lightSlots];
+        this.lightRounds = new int[lightSlots];
+        int words = 0;
+        for (int p = 0; p < puzzles.length; p++) {
+            int slot = puzzleLightSlot[p];
+            if (slot >= 0) {
+                lightWordOffset[slot] = words;
+                lightRounds[slot] = ((LightPatternPuzzle) puzzles[p]).getTotalRounds();
+                words += LightPatternPuzzle.wordsFor(lightRounds[slot]);
+            }
+        }
+        this.lightWordCount = words;
+
+        this.itemInitialState = new ItemState[this.items.length];
+        for (int i = 0; i < this.items.length; i++) {
+            itemInitialState[i] = this.items[i].getState();
+        }
+    }
+
+    /**
+     * Compiles a template from a fully built game. The prototype and its rooms,
+     * puzzles and items are adopted by the template and must not be mutated or
+     * played afterwards.
+     */
+    public static GameTemplate compile(Game prototype) {
+        Objects.requireNonNull(prototype, "prototype");
+        return new GameTemplate(prototype);
+    }
+
+    /** Creates a fresh play-through; {@code seed} drives any light-pattern sequences. */
+    public SessionState newSession(long seed) {
+        return new SessionState(this, seed);
+    }
+
+    /** Creates a play-through shared by up to {@link #getMaxPlayers()} players. */
+    public CoopSession newCoopSession(long seed) {
+        return new CoopSession(this, seed);
+    }
+
+    private static void indexItem(Item item, List<Item> list, Map<UUID, Integer> index) {
+        if (item != null && !index.containsKey(item.getId())) {
+            index.put(item.getId(), list.size());
+            list.add(item);
+        }
+    }
+
+    private int indexOf(Item item) {
+        if (item == null) {
+            return -1;
+        }
+        Integer index = itemIndex.get(item.getId());
+        return index != null ? index : -1;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /** Team size the game was designed for, between 1 and {@link Game#MAX_PLAYERS}. */
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public int getRoomCount() {
+        return rooms.length;
+    }
+
+    public int getPuzzleCount() {
+        return puzzles.length;
+    }
+
+    public int getItemCount() {
+        return items.length;
+    }
+
+    public UUID getRoomId(int room) {
+        return rooms[room].getId();
+    }
+
+    public String getRoomName(int room) {
+        return rooms[room].getName();
+    }
+
+    public String getRoomDescription(int room) {
+        return rooms[room].getDescription();
+    }
+
+    public int getRoomHintLimit(int room) {
+        return roomHintLimit[room];
+    }
+
+    public boolean isRoomInitiallyLocked(int room) {
+        return roomInitiallyLocked[room];
+    }
+
+    /** Item index of the key the room requires, or -1. */
+    public int getRoomKeyRequired(int room) {
+        return roomKeyRequired[room];
+    }
+
+    /** Rooms that need item {@code item} as their key are {@code keyRoom(k)} for k in [keyRoomsStart(item), keyRoomsEnd(item)). */
+    public int keyRoomsStart(int item) {
+        return keyRoomStart[item];
+    }
+
+    public int keyRoomsEnd(int item) {
+        return keyRoomStart[item + 1];
+    }
+
+    public int keyRoom(int position) {
+        return keyRooms[position];
+    }
+
+    /** Rooms reachable from {@code room} are {@code exit(k)} for k in [exitsStart(room), exitsEnd(room)), in door order. */
+    public int exitsStart(int room) {
+        return roomExitStart[room];
+    }
+
+    public int exitsEnd(int room) {
+        return roomExitStart[room + 1];
+    }
+
+    public int exit(int position) {
+        return roomExits[position];
+    }
+
+    public int puzzleStart(int room) {
+        return roomPuzzleStart[room];
+    }
+
+    public int puzzleEnd(int room) {
+        return roomPuzzleStart[room + 1];
+    }
+
+    /** Index of the room that holds the puzzle. */
+    public int roomOf(int puzzle) {
+        return puzzleRoom[puzzle];
+    }
+
+    public UUID getPuzzleId(int puzzle) {
+        return puzzles[puzzle].getId();
+    }
+
+    public String getPuzzleTitle(int puzzle) {
+        return puzzles[puzzle].getTitle();
+    }
+
+    public String getPuzzleDescription(int puzzle) {
+        return puzzles[puzzle].getDescription();
+    }
+
+    public List<String> getHints(int puzzle) {
+        return hints.get(puzzle);
+    }
+
+    /** Item index of the key awarded by the puzzle, or -1. */
+    public int getPuzzleKeyProvided(int puzzle) {
+        return puzzleKeyProvided[puzzle];
+    }
+
+    public UUID getItemId(int item) {
+        return items[item].getId();
+    }
+
+    public String getItemName(int item) {
+        return items[item].getName();
+    }
+
+    public String getItemDescription(int item) {
+        return items[item].getDescription();
+    }
+
+    public boolean isItemPortable(int item) {
+        return items[item].isPortable();
+    }
+
+    public ItemState getItemInitialState(int item) {
+        return itemInitialState[item];
+    }
+
+    /** Index of the room with the given id, or -1. */
+    public int roomIndex(UUID roomId) {
+        Integer index = roomId != null ? roomIndex.get(roomId) : null;
+        return index != null ? index : -1;
+    }
+
+    /** Index of the puzzle with the given id, or -1. */
+    public int puzzleIndex(UUID puzzleId) {
+        Integer index = puzzleId != null ? puzzleIndex.get(puzzleId) : null;
+        return index != null ? index : -1;
+    }
+
+    /** Index of the item with the given id, or -1. */
+    public int itemIndex(UUID itemId) {
+        Integer index = itemId != null ? itemIndex.get(itemId) : null;
+        return index != null ? index : -1;
+    }
+
+    Puzzle puzzle(int puzzle) {
+        return puzzles[puzzle];
+    }
+
+    int lightSlot(int puzzle) {
+        return puzzleLightSlot[puzzle];
+    }
+
+    int lightSlotCount() {
+        return lightRounds.length;
+    }
+
+    int lightWordOffset(int slot) {
+        return lightWordOffset[slot];
+    }
+
+    int lightRounds(int slot) {
+        return lightRounds[slot];
+    }
+
+    int lightWordCount() {
+        return lightWordCount;
+    }
+}
@@ -0,0 +1,245 @@
+package com.escapenexus;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A recorded line-protocol session: every command a client sent, when it
+ * arrived, the light seeds it drew and the response it got. Together with
+ * the default templates that is everything a session depends on, so
+ * {@link TraceReplayer} can run it again and expect the same responses.
+ *
+ * <p>The file is a header ({@code ENTR}, a version byte and the wall-clock
+ * start) followed by one entry per command: the nanoseconds since the
+ * previous one as a varint, the seeds, then the command and response as
+ * length-prefixed UTF-8. A trace cut short mid-entry, say by a killed
+ * server, reads back as its complete entries.
+ */
+public final class GameTrace {
+
+    public static final String EXTENSION = ".trace";
+
+    static final int MAGIC = 0x454E5452;
+    static final int VERSION = 1;
+    private static final int MAX_STRING = 1 << 20;
+    private static final int MAX_SEEDS = 1 << 10;
+
+    private final long startedAtMillis;
+    private final List<Entry> entries;
+
+    GameTrace(long startedAtMillis, List<Entry> entries) {
+        this.startedAtMillis = startedAtMillis;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public static GameTrace read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /** @throws IOException if {@code in} does not hold a trace this version can read */
+    public static GameTrace read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a game trace");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        long startedAtMillis = data.readLong();
+        List<Entry> entries = new ArrayList<>();
+        int first;
+        while ((first = data.read()) >= 0) {
+            try {
+                long delayNanos = readVarLong(data, first);
+                long seedCount = readVarLong(data, data.readUnsignedByte());
+                if (seedCount > MAX_SEEDS) {
+                    throw new IOException("Trace entry with " + seedCount + " seeds");
+                }
+                long[] seeds = new long[(int) seedCount];
+                for (int i = 0; i < seeds.length; i++) {
+                    seeds[i] = data.readLong();
+                }
+                entries.add(new Entry(delayNanos, readString(data), seeds, readString(data)));
+            } catch (EOFException truncated) {
+                break;
+            }
+        }
+        return new GameTrace(startedAtMillis, entries);
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /** Time from the start of the recording to its last command. */
+    public Duration getDuration() {
+        long nanos = 0;
+        for (Entry entry : entries) {
+            nanos += entry.delayNanos;
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private static long readVarLong(DataInputStream in, int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        for (int next = first; (next & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new IOException("Malformed varint in trace");
+            }
+            next = in.readUnsignedByte();
+            value |= (long) (next & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in, in.readUnsignedByte());
+        if (length > MAX_STRING) {
+            throw new IOException("Trace string of " + length + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** One command and what came of it. */
+    public static final class Entry {
+        private final long delayNanos;
+        private final String command;
+        private final long[] seeds;
+        private final String response;
+
+        Entry(long delayNanos, String command, long[] seeds, String response) {
+            this.delayNanos = delayNanos;
+            this.command = command;
+            this.seeds = seeds;
+            this.response = response;
+        }
+
+        /** Nanoseconds since the previous command, or since recording began for the first. */
+        public long getDelayNanos() {
+            return delayNanos;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public int getSeedCount() {
+            return seeds.length;
+        }
+
+        public long getSeed(int index) {
+            return seeds[index];
+        }
+
+        public String getResponse() {
+            return response;
+        }
+    }
+
+    /**
+     * Writes a trace as a session plays: {@link #command(String)} when a line
+     * arrives, {@link #seed(long)} for each seed it draws, and
+     * {@link #response(String)} once it is answered. Not thread-safe; a
+     * recorder follows one client.
+     */
+    public static final class Recorder implements Closeable {
+        private final DataOutputStream out;
+        private final LongSupplier clock;
+        private final byte[] varint = new byte[10];
+        private long last;
+        private long arrived;
+        private String command;
+        private long[] seeds = new long[1];
+        private int seedCount;
+
+        /** Starts a trace on {@code out}, which the recorder closes. */
+        public Recorder(OutputStream out) throws IOException {
+            this(out, System::nanoTime, System.currentTimeMillis());
+        }
+
+        Recorder(OutputStream out, LongSupplier clock, long startedAtMillis) throws IOException {
+            this.out = new DataOutputStream(Objects.requireNonNull(out, "out"));
+            this.clock = Objects.requireNonNull(clock, "clock");
+            this.last = clock.getAsLong();
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeLong(startedAtMillis);
+        }
+
+        public void command(String line) {
+            arrived = clock.getAsLong();
+            command = Objects.requireNonNull(line, "line");
+            seedCount = 0;
+        }
+
+        public void seed(long seed) {
+            if (seedCount == seeds.length) {
+                seeds = Arrays.copyOf(seeds, seedCount * 2);
+            }
+            seeds[seedCount++] = seed;
+        }
+
+        /** Writes the pending command with its seeds and {@code response}. */
+        public void response(String response) throws IOException {
+            if (command == null) {
+                throw new IllegalStateException("No command to respond to");
+            }
+            writeVarLong(Math.max(0, arrived - last));
+            writeVarLong(seedCount);
+            for (int i = 0; i < seedCount; i++) {
+                out.writeLong(seeds[i]);
+            }
+            writeString(command);
+            writeString(response);
+            last = arrived;
+            command = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            int length = 0;
+            while ((value & ~0x7FL) != 0) {
+                varint[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            varint[length++] = (byte) value;
+            out.write(varint, 0, length);
+        }
+
+        private void writeString(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.escapenexus;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON front end for a {@link GameManager} on the JDK's built-in HTTP server:
+ *
+ * <pre>
+ * GET    /instructions                 {"instructions": "..."}
+ * POST   /games[?difficulty=easy]      201 with a Location header, the new game as {@link DataWriter} JSON
+ * POST   /games/{id}/load              the game as last saved, as a new live game named by the Location header
+ * GET    /games/{id}                   the game as {@link DataWriter} JSON
+ * POST   /games/{id}/attempts          {"puzzle": "...", "answer": ...} -> {"solved": ..., "status": ..., "room": ...}
+ * POST   /games/{id}/advance           moves on once the room is cleared -> {"advanced": ..., "room": ...}
+ * POST   /games/{id}/save              writes the game to its own file in the save directory
+ * DELETE /games/{id}                   204, ends the game
+ * POST   /attempts                     {"attempts": [{"game": ..., "puzzle": ..., "answer": ...}, ...]}
+ *                                      -> {"results": ["SOLVED", "WRONG", ...]}, see {@link AttemptBatch}
+ * </pre>
+ *
+ * The manager's "current game" is per thread, so every call names its game
+ * by id instead, and saves go to one file per game under
+ * {@link #DEFAULT_SAVE_DIRECTORY} so clients never overwrite each other's.
+ * Errors come back as {@code {"error": "..."}}; unexpected failures are logged
+ * and reported as a bare 500.
+ *
+ * <p>Requests run on a fixed pool of worker threads. Every response carries a
+ * Content-Length, so connections stay open between requests; the server drops
+ * idle ones after {@code sun.net.httpserver.idleInterval} seconds (30 by
+ * default). Bodies over {@link #MAX_BODY} bytes are refused with 413 before
+ * they are read into memory. The first server started in a JVM turns on
+ * {@code sun.net.httpserver.nodelay} unless it is already set, since the JDK
+ * reads it only once.
+ *
+ * <p>A manager without an {@link AttemptLimiter} gets a default one on start;
+ * attempts over the limit get 429 with a Retry-After header.
+ */
+public final class HttpApi implements AutoCloseable {
+
+    public static final int MAX_BODY = 16 * 1024;
+    public static final Path DEFAULT_SAVE_DIRECTORY = Paths.get("saves", "games");
+    static final int DEFAULT_WORKERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final System.Logger LOG = System.getLogger(HttpApi.class.getName());
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final GameManager manager;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final DataWriter writer = new DataWriter();
+    private final LongAdder requests = new LongAdder();
+    private volatile Path saveDirectory = DEFAULT_SAVE_DIRECTORY;
+
+    private HttpApi(GameManager manager, InetSocketAddress address, int workerCount) throws IOException {
+        this.manager = Objects.requireNonNull(manager, "manager");
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be positive");
+        }
+        this.server = HttpServer.create(address, 0);
+        this.workers = Executors.newFixedThreadPool(workerCount, new WorkerFactory());
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+    }
+
+    /** Binds {@code address} (port 0 picks a free port) and starts serving with the default worker count. */
+    public static HttpApi start(GameManager manager, InetSocketAddress address) throws IOException {
+        return start(manager, address, DEFAULT_WORKERS);
+    }
+
+    public static HttpApi start(GameManager manager, InetSocketAddress address, int workerCount) throws IOException {
+        if (manager.getAttemptLimiter().isEmpty()) {
+            manager.setAttemptLimiter(new AttemptLimiter());
+        }
+        // The server writes response headers and body separately; with Nagle on,
+        // each keep-alive request then waits out the client's delayed ACK (~40 ms).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpApi api = new HttpApi(manager, address, workerCount);
+        api.server.start();
+        return api;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Where {@code /games/{id}/save} writes and {@code /games/{id}/load} reads, one file per game. */
+    public void setSaveDirectory(Path saveDirectory) {
+        this.saveDirectory = Objects.requireNonNull(saveDirectory, "saveDirectory");
+    }
+
+    /** Requests handled since the server started. */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /** Stops accepting requests, lets in-flight ones finish for up to a second, then stops the workers. */
+    @Override
+    public void close() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            Response response;
+            try {
+                response = route(exchange);
+            } catch (RequestException exception) {
+                response = Response.error(exception.status, exception.getMessage());
+            } catch (AttemptLimiter.RateLimitedException exception) {
+                long seconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(seconds));
+                response = Response.error(429, exception.getMessage());
+            } catch (RuntimeException exception) {
+                LOG.log(System.Logger.Level.WARNING, "Failed " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath(), exception);
+                response = Response.error(500, "internal error");
+            }
+            send(exchange, response);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+        if (path.length == 1 && path[0].equals("instructions")) {
+            requireMethod(method, "GET");
+            return Response.json(200, object("instructions", String.valueOf(manager.showInstructions())));
+        }
+        if (path.length == 1 && path[0].equals("attempts")) {
+            requireMethod(method, "POST");
+            return Response.json(200, attemptAll(readBody(exchange)));
+        }
+        if (path.length == 0 || !path[0].equals("games")) {
+            throw new RequestException(404, "not found");
+        }
+        if (path.length == 1) {
+            requireMethod(method, "POST");
+            String created = manager.startNewGame(difficulty(exchange.getRequestURI().getQuery())).getId().toString();
+            exchange.getResponseHeaders().set("Location", "/games/" + created);
+            return Response.json(201, snapshot(created));
+        }
+        String gameId = path[1];
+        if (path.length == 2) {
+            if (method.equals("DELETE")) {
+                requireGame(gameId);
+                manager.endGame(gameId);
+                return Response.empty(204);
+            }
+            requireMethod(method, "GET");
+            return Response.json(200, snapshot(gameId));
+        }
+        if (path.length == 3 && path[2].equals("attempts")) {
+            requireMethod(method, "POST");
+            return Response.json(200, attempt(gameId, readBody(exchange)));
+        }
+        if (path.length == 3 && path[2].equals("advance")) {
+            requireMethod(method, "POST");
+            return Response.json(200, advance(gameId));
+        }
+        if (path.length == 3 && path[2].equals("save")) {
+            requireMethod(method, "POST");
+            if (!manager.saveGame(gameId, saveFile(gameId))) {
+                throw new RequestException(404, "unknown game");
+            }
+            return Response.json(200, object("saved", gameId));
+        }
+        if (path.length == 3 && path[2].equals("load")) {
+            requireMethod(method, "POST");
+            Path file = saveFile(gameId);
+            if (!Files.isRegularFile(file)) {
+                throw new RequestException(404, "no save for game");
+            }
+            String loaded = manager.loadGame(file).getId().toString();
+            exchange.getResponseHeaders().set("Location", "/games/" + loaded);
+            return Response.json(200, snapshot(loaded));
+        }
+        throw new RequestException(404, "not found");
+    }
+
+    /** Serializes the game under its lock, so the JSON never shows half an attempt. */
+    private String snapshot(String gameId) {
+        return manager.withGame(gameId, game -> writer.toJson(List.of(game)))
+                .orElseThrow(() -> new RequestException(404, "unknown game"));
+    }
+
+    private String attempt(String gameId, JSONObject body) {
+        Object puzzle = body.get("puzzle");
+        if (!(puzzle instanceof String) || !body.containsKey("answer")) {
+            throw new RequestException(400, "body needs \"puzzle\" and \"answer\"");
+        }
+        Object answer = body.get("answer");
+        return manager.withGame(gameId, game -> {
+            boolean solved = manager.attemptPuzzle(gameId, (String) puzzle, answer);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("solved", solved);
+            result.put("status", game.getStatus().name());
+            Room room = game.getCurrentRoom();
+            result.put("room", room != null ? room.getName() : null);
+            return JSONValue.toJSONString(result);
+        }).orElseThrow(() -> new RequestException(404, "unknown game"));
+    }
+
+    private String attemptAll(JSONObject body) {
+        if (!(body.get("attempts") instanceof JSONArray attempts)) {
+            throw new RequestException(400, "body needs an \"attempts\" array");
+        }
+        AttemptBatch batch = new AttemptBatch(attempts.size());
+        for (Object item : attempts) {
+            if (!(item instanceof JSONObject attempt) || !(attempt.get("game") instanceof String)
+                    || !(attempt.get("puzzle") instanceof String) || !attempt.containsKey("answer")) {
+                throw new RequestException(400, "each attempt needs \"game\", \"puzzle\" and \"answer\"");
+            }
+            batch.add((String) attempt.get("game"), (String) attempt.get("puzzle"), attempt.get("answer"));
+        }
+        List<String> results = new ArrayList<>(batch.size());
+        for (byte result : manager.attemptAll(batch)) {
+            results.add(AttemptBatch.name(result));
+        }
+        return JSONValue.toJSONString(Map.of("results", results));
+    }
+
+    private String advance(String gameId) {
+        return manager.withGame(gameId, game -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("advanced", game.advanceIfSolved());
+            Room current = game.getCurrentRoom();
+            result.put("room", current != null ? current.getName() : null);
+            return JSONValue.toJSONString(result);
+        }).orElseThrow(() -> new RequestException(404, "unknown game"));
+    }
+
+    /** The game's own save file; only canonical game ids get one, so no id can name another path. */
+    private Path saveFile(String gameId) {
+        try {
+            if (UUID.fromString(gameId).toString().equals(gameId)) {
+                return saveDirectory.resolve(gameId + ".json");
+            }
+        } catch (IllegalArgumentException exception) {
+            // Reported below.
+        }
+        throw new RequestException(404, "unknown game");
+    }
+
+    private Game requireGame(String gameId) {
+        Optional<Game> game = manager.getGame(gameId);
+        return game.orElseThrow(() -> new RequestException(404, "unknown game"));
+    }
+
+    private static JSONObject readBody(HttpExchange exchange) throws IOException {
+        String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (declared != null) {
+            try {
+                if (Long.parseLong(declared.trim()) > MAX_BODY) {
+                    throw new RequestException(413, "body larger than " + MAX_BODY + " bytes");
+                }
+            } catch (NumberFormatException exception) {
+                throw new RequestException(400, "bad Content-Length");
+            }
+        }
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY + 1);
+        }
+        if (bytes.length > MAX_BODY) {
+            throw new RequestException(413, "body larger than " + MAX_BODY + " bytes");
+        }
+        try {
+            Object parsed = new JSONParser().parse(new String(bytes, StandardCharsets.UTF_8));
+            if (parsed instanceof JSONObject object) {
+                return object;
+            }
+        } catch (ParseException exception) {
+            // Reported below.
+        }
+        throw new RequestException(400, "body must be a JSON object");
+    }
+
+    private static Difficulty difficulty(String query) {
+        if (query == null) {
+            return Difficulty.MEDIUM;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("difficulty=")) {
+                String value = parameter.substring("difficulty=".length());
+                try {
+                    return Difficulty.valueOf(value.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException exception) {
+                    throw new RequestException(400, "unknown difficulty: " + value);
+                }
+            }
+        }
+        return Difficulty.MEDIUM;
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!expected.equals(actual)) {
+            throw new RequestException(405, "method not allowed");
+        }
+    }
+
+    private static String object(String key, String value) {
+        return JSONValue.toJSONString(Collections.singletonMap(key, value));
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        if (response.status == 405) {
+            headers.set("Allow", "GET, POST, DELETE");
+        }
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        headers.set("Content-Type", JSON);
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response json(int status, String body) {
+            return new Response(status, body);
+        }
+
+        static Response empty(int status) {
+            return new Response(status, null);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, object("error", message));
+        }
+    }
+
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "http-api-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
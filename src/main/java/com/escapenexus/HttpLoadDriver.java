@@ -0,0 +1,140 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load client for {@link HttpApi}. Each client starts its own game, then
+ * cycles through reading the game, reading the instructions and posting a
+ * wrong answer until it has sent its share, and finally ends the game. Wrong
+ * answers soon run into the server's attempt limit, so 429 counts as a
+ * normal response for those. Each
+ * client reuses one keep-alive connection, so the numbers measure request
+ * handling rather than TCP setup. Latency is measured per request from send
+ * to the last byte of the response.
+ *
+ * <pre>
+ * java com.escapenexus.HttpLoadDriver [base uri] [clients] [requests per client]
+ * </pre>
+ *
+ * Without a base URI, an embedded server on a free local port is used.
+ */
+public final class HttpLoadDriver {
+
+    private static final byte[] WRONG_ANSWER =
+            "{\"puzzle\":\"Reboot Sequence\",\"answer\":\"RED RED RED\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int offset = args.length >= 1 && args[0].contains("://") ? 1 : 0;
+        int clients = args.length > offset ? Integer.parseInt(args[offset]) : 16;
+        int requests = args.length > offset + 1 ? Integer.parseInt(args[offset + 1]) : 5_000;
+        if (offset == 1) {
+            System.out.println(run(URI.create(args[0]), clients, requests));
+            return;
+        }
+        try (HttpApi api = HttpApi.start(new GameManager(), new InetSocketAddress("127.0.0.1", 0))) {
+            System.out.println(run(URI.create("http://127.0.0.1:" + api.getPort()), clients, requests));
+        }
+    }
+
+    /** Drives {@code clients} clients in parallel and waits for all of them. */
+    public static LoadResult run(URI base, int clients, int requestsPerClient)
+            throws IOException, InterruptedException {
+        if (clients < 1 || requestsPerClient < 1) {
+            throw new IllegalArgumentException("clients and requests must be positive");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int c = 0; c < clients; c++) {
+                Callable<long[]> task = () -> drive(base, requestsPerClient);
+                futures.add(pool.submit(task));
+            }
+            long[] latencies = new long[clients * requestsPerClient];
+            int filled = 0;
+            for (Future<long[]> future : futures) {
+                long[] one = future.get();
+                System.arraycopy(one, 0, latencies, filled, one.length);
+                filled += one.length;
+            }
+            return LoadResult.of(clients, latencies, System.nanoTime() - start);
+        } catch (ExecutionException exception) {
+            throw new IOException("Load client failed", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long[] drive(URI base, int requests) throws IOException {
+        String game = call(base, "POST", "/games?difficulty=easy", null, 201);
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long sent = System.nanoTime();
+            switch (i % 3) {
+                case 0:
+                    call(base, "GET", game, null, 200);
+                    break;
+                case 1:
+                    call(base, "GET", "/instructions", null, 200);
+                    break;
+                default:
+                    call(base, "POST", game + "/attempts", WRONG_ANSWER, 200, 429);
+                    break;
+            }
+            latencies[i] = System.nanoTime() - sent;
+        }
+        call(base, "DELETE", game, null, 204);
+        return latencies;
+    }
+
+    /**
+     * Sends one request and reads the whole response, which hands the
+     * connection back for reuse. Returns the Location header if there is one,
+     * else the body.
+     */
+    private static String call(URI base, String method, String path, byte[] body, int... expected)
+            throws IOException {
+        URL url = base.resolve(path).toURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String response = "";
+        if (stream != null) {
+            try (InputStream in = stream) {
+                response = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        if (Arrays.stream(expected).noneMatch(code -> code == status)) {
+            throw new IOException(method + " " + path + " returned " + status + ": " + response);
+        }
+        String location = connection.getHeaderField("Location");
+        return location != null ? location : response;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.UUID;
 public class Inventory {
 
     private final List<Item> items = new ArrayList<>();
+    private final List<Item> itemsView = Collections.unmodifiableList(items);
 
     public boolean add(Item item) {
         if (item == null) {
@@ -34,14 +35,17 @@ public class Inventory {
         if (id == null) {
             return null;
         }
-        return items.stream()
-                .filter(item -> id.equals(item.getId()))
-                .findFirst()
-                .orElse(null);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (id.equals(item.getId())) {
+                return item;
+            }
+        }
+        return null;
     }
 
     public List<Item> getItems() {
-        return Collections.unmodifiableList(items);
+        return itemsView;
     }
 
     public void clear() {
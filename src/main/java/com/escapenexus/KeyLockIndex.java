@@ -0,0 +1,105 @@
+package com.escapenexus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reverse index from a key item's id to every {@link Room} and {@link Door}
+ * that requires it, so earning a key can open all of its locks in
+ * O(matches) instead of scanning the game.
+ */
+public final class KeyLockIndex {
+
+    private static final Room[] NO_ROOMS = new Room[0];
+    private static final Door[] NO_DOORS = new Door[0];
+
+    private final Map<UUID, Room[]> roomsByKey;
+    private final Map<UUID, Door[]> doorsByKey;
+
+    private KeyLockIndex(Map<UUID, Room[]> roomsByKey, Map<UUID, Door[]> doorsByKey) {
+        this.roomsByKey = roomsByKey;
+        this.doorsByKey = doorsByKey;
+    }
+
+    public static KeyLockIndex build(List<Room> rooms, List<Door> doors) {
+        Map<UUID, List<Room>> roomLists = new HashMap<>();
+        for (Room room : rooms) {
+            Item key = room.getKeyRequired();
+            if (key != null) {
+                roomLists.computeIfAbsent(key.getId(), id -> new ArrayList<>(1)).add(room);
+            }
+        }
+        Map<UUID, List<Door>> doorLists = new HashMap<>();
+        for (Door door : doors) {
+            Item key = door.getKeyRequired();
+            if (key != null) {
+                doorLists.computeIfAbsent(key.getId(), id -> new ArrayList<>(1)).add(door);
+            }
+        }
+
+        Map<UUID, Room[]> roomsByKey = new HashMap<>(Math.max(16, roomLists.size() * 2));
+        roomLists.forEach((id, list) -> roomsByKey.put(id, list.toArray(NO_ROOMS)));
+        Map<UUID, Door[]> doorsByKey = new HashMap<>(Math.max(16, doorLists.size() * 2));
+        doorLists.forEach((id, list) -> doorsByKey.put(id, list.toArray(NO_DOORS)));
+        return new KeyLockIndex(roomsByKey, doorsByKey);
+    }
+
+    public List<Room> roomsRequiring(Item key) {
+        if (key == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(roomsByKey.getOrDefault(key.getId(), NO_ROOMS)));
+    }
+
+    public List<Door> doorsRequiring(Item key) {
+        if (key == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(doorsByKey.getOrDefault(key.getId(), NO_DOORS)));
+    }
+
+    /** Unlocks every room and door that needs {@code key}; returns how many locks opened. */
+    public int unlockAll(Item key) {
+        return unlockAll(key, null);
+    }
+
+    /**
+     * Like {@link #unlockAll(Item)}, telling {@code unlocks}, when not null,
+     * about each lock as it opens.
+     */
+    public int unlockAll(Item key, Unlocks unlocks) {
+        if (key == null) {
+            return 0;
+        }
+        int unlocked = 0;
+        for (Room room : roomsByKey.getOrDefault(key.getId(), NO_ROOMS)) {
+            if (room.unlock(key)) {
+                unlocked++;
+                if (unlocks != null) {
+                    unlocks.roomUnlocked(room);
+                }
+            }
+        }
+        for (Door door : doorsByKey.getOrDefault(key.getId(), NO_DOORS)) {
+            if (door.unlock(key)) {
+                unlocked++;
+                if (unlocks != null) {
+                    unlocks.doorUnlocked(door);
+                }
+            }
+        }
+        return unlocked;
+    }
+
+    /** Told about each lock {@link #unlockAll(Item, Unlocks)} opens. */
+    public interface Unlocks {
+        void roomUnlocked(Room room);
+
+        void doorUnlocked(Door door);
+    }
+}
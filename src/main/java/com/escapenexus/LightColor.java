@@ -3,11 +3,48 @@ package com.escapenexus;
 public enum LightColor {
     RED, GREEN, BLUE, YELLOW, WHITE;
 
+    private static final LightColor[] VALUES = values();
+
     public static LightColor fromIndex(int index) {
-        return values()[Math.floorMod(index, values().length)];
+        return VALUES[Math.floorMod(index, VALUES.length)];
     }
 
+    /** Color named by {@code value}, ignoring case and surrounding whitespace; does not allocate. */
     public static LightColor fromString(String value) {
-        return LightColor.valueOf(value.trim().toUpperCase());
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int index = indexOf(value, start, end);
+        if (index < 0) {
+            throw new IllegalArgumentException("No enum constant " + LightColor.class.getCanonicalName() + "." + value);
+        }
+        return VALUES[index];
+    }
+
+    /**
+     * Ordinal of the color named by {@code text[start, end)}, ignoring case, or -1
+     * if there is none. Unlike {@link #fromString(String)} a missing color is not an error.
+     */
+    public static int indexOf(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (LightColor color : VALUES) {
+            String name = color.name();
+            if (name.length() != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && Character.toUpperCase(text.charAt(start + i)) == name.charAt(i)) {
+                i++;
+            }
+            if (i == length) {
+                return color.ordinal();
+            }
+        }
+        return -1;
     }
 }
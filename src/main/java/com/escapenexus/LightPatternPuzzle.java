@@ -1,79 +1,228 @@
 package com.escapenexus;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 
-/** 5-light, 5-round Simon-like memory puzzle. */
+/**
+ * Simon-like memory puzzle: each round flashes one more light and the player
+ * replays the whole sequence so far. Five rounds by default.
+ *
+ * <p>The sequence is drawn up front and packed three bits per color, 21 colors
+ * to a {@code long}. Answers may be a {@code List} of colors or color names, a
+ * {@code CharSequence} such as {@code "red green, blue"}, or a {@code byte[]}
+ * of ordinals; the last two are checked without allocating.
+ */
 public class LightPatternPuzzle extends Puzzle {
-    private static final int TOTAL_ROUNDS = 5;
-    private final Random rng;
-    private final List<LightColor> sequence = new ArrayList<>();
+    static final int TOTAL_ROUNDS = 5;
+    /** Upper bound on rounds, so a session can track its round in one unsigned byte. */
+    static final int MAX_ROUNDS = 255;
+    static final int BITS_PER_COLOR = 3;
+    static final int COLORS_PER_WORD = Long.SIZE / BITS_PER_COLOR;
+    private static final long COLOR_MASK = (1L << BITS_PER_COLOR) - 1;
+    private static final int COLOR_COUNT = LightColor.values().length;
+
+    private final long[] packed;
+    private final int totalRounds;
     private int currentRound = 0;
 
     public LightPatternPuzzle(UUID id, String title, String description, long seed) {
-        super(id, title, description);
-        this.rng = new Random(seed);
-        appendRandom();
+        this(id, title, description, seed, TOTAL_ROUNDS);
     }
 
-    private void appendRandom() {
-        sequence.add(LightColor.fromIndex(rng.nextInt(LightColor.values().length)));
+    public LightPatternPuzzle(UUID id, String title, String description, long seed, int rounds) {
+        super(id, title, description);
+        if (rounds < 1 || rounds > MAX_ROUNDS) {
+            throw new IllegalArgumentException("rounds must be between 1 and " + MAX_ROUNDS + ": " + rounds);
+        }
+        this.totalRounds = rounds;
+        this.packed = new long[wordsFor(rounds)];
+        fillSequence(seed, packed, 0, rounds);
     }
 
-    /** Sequence to reproduce for the current round. */
+    /** Sequence to reproduce for the current round, as a read-only view. */
     public List<LightColor> getCurrentSequence() {
-        return Collections.unmodifiableList(sequence.subList(0, currentRound + 1));
+        int length = currentRound + 1;
+        return new AbstractList<>() {
+            @Override
+            public LightColor get(int index) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException("index " + index);
+                }
+                return LightColor.fromIndex(colorAt(packed, 0, index));
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    /** Number of colors the player has to replay this round. */
+    public int getCurrentLength() {
+        return currentRound + 1;
+    }
+
+    /** Ordinal of the color at {@code position} of the current sequence. */
+    public int getColorIndex(int position) {
+        if (position < 0 || position > currentRound) {
+            throw new IndexOutOfBoundsException("position " + position);
+        }
+        return colorAt(packed, 0, position);
+    }
+
+    public int getTotalRounds() {
+        return totalRounds;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public boolean attempt(Object input) {
         if (isSolved()) {
             return true;
         }
+        if (!matches(input)) {
+            return false;
+        }
 
-        List<LightColor> guess = null;
-        if (input instanceof List<?> list && !list.isEmpty()) {
-            Object first = list.get(0);
-            if (first instanceof LightColor) {
-                guess = (List<LightColor>) list;
-            } else if (first instanceof String) {
-                List<LightColor> parsed = new ArrayList<>();
-                for (Object element : list) {
-                    try {
-                        parsed.add(LightColor.fromString(String.valueOf(element)));
-                    } catch (Exception exception) {
-                        return false;
-                    }
+        if (currentRound + 1 >= totalRounds) {
+            setSolved(true);
+            return true;
+        }
+
+        currentRound++;
+        return true;
+    }
+
+    @Override
+    public boolean matches(Object input) {
+        return matchesSequence(input, packed, 0, currentRound + 1);
+    }
+
+    /**
+     * Compares a guess against the first {@code length} colors packed into
+     * {@code words} from {@code wordOffset}. Used by {@link SessionState}, which
+     * keeps each session's sequence outside the shared puzzle instance.
+     */
+    static boolean matchesSequence(Object input, long[] words, int wordOffset, int length) {
+        if (input instanceof CharSequence text) {
+            return matchesText(text, words, wordOffset, length);
+        }
+        if (input instanceof byte[] ordinals) {
+            if (ordinals.length != length) {
+                return false;
+            }
+            for (int index = 0; index < length; index++) {
+                if (ordinals[index] != colorAt(words, wordOffset, index)) {
+                    return false;
                 }
-                guess = parsed;
             }
+            return true;
         }
-        if (guess == null) {
+        if (!(input instanceof List<?> guess) || guess.size() != length) {
             return false;
         }
+        for (int index = 0; index < length; index++) {
+            if (toColorIndex(guess.get(index)) != colorAt(words, wordOffset, index)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        List<LightColor> target = getCurrentSequence();
-        if (guess.size() != target.size()) {
+    private static boolean matchesText(CharSequence text, long[] words, int wordOffset, int length) {
+        int end = text.length();
+        int position = skipSeparators(text, 0);
+        for (int index = 0; index < length; index++) {
+            if (position >= end) {
+                return false;
+            }
+            int tokenEnd = tokenEnd(text, position);
+            if (LightColor.indexOf(text, position, tokenEnd) != colorAt(words, wordOffset, index)) {
+                return false;
+            }
+            position = skipSeparators(text, tokenEnd);
+        }
+        return position == end;
+    }
+
+    /** True if {@code text} is a non-empty list of color names, whether or not it is the right one. */
+    public static boolean isColorSequence(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        int end = text.length();
+        int position = skipSeparators(text, 0);
+        if (position == end) {
             return false;
         }
-        for (int index = 0; index < target.size(); index++) {
-            if (guess.get(index) != target.get(index)) {
+        while (position < end) {
+            int tokenEnd = tokenEnd(text, position);
+            if (LightColor.indexOf(text, position, tokenEnd) < 0) {
                 return false;
             }
+            position = skipSeparators(text, tokenEnd);
         }
+        return true;
+    }
 
-        if (currentRound + 1 >= TOTAL_ROUNDS) {
-            setSolved(true);
-            return true;
+    /** Draws the full {@code rounds}-long sequence a puzzle seeded with {@code seed} would reveal. */
+    static void fillSequence(long seed, long[] words, int wordOffset, int rounds) {
+        Random random = new Random(seed);
+        for (int index = 0; index < rounds; index++) {
+            int word = wordOffset + index / COLORS_PER_WORD;
+            int shift = (index % COLORS_PER_WORD) * BITS_PER_COLOR;
+            words[word] = (words[word] & ~(COLOR_MASK << shift)) | ((long) random.nextInt(COLOR_COUNT) << shift);
         }
+    }
 
-        currentRound++;
-        appendRandom();
-        return true;
+    static int colorAt(long[] words, int wordOffset, int position) {
+        long word = words[wordOffset + position / COLORS_PER_WORD];
+        return (int) ((word >>> ((position % COLORS_PER_WORD) * BITS_PER_COLOR)) & COLOR_MASK);
+    }
+
+    /** Number of longs needed to pack a sequence of {@code rounds} colors. */
+    static int wordsFor(int rounds) {
+        return (rounds + COLORS_PER_WORD - 1) / COLORS_PER_WORD;
+    }
+
+    private static int toColorIndex(Object element) {
+        if (element instanceof LightColor color) {
+            return color.ordinal();
+        }
+        if (element instanceof CharSequence text) {
+            int start = 0;
+            int end = text.length();
+            while (start < end && Character.isWhitespace(text.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+                end--;
+            }
+            return LightColor.indexOf(text, start, end);
+        }
+        return -1;
+    }
+
+    private static int skipSeparators(CharSequence text, int position) {
+        int end = text.length();
+        while (position < end && isSeparator(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int tokenEnd(CharSequence text, int position) {
+        int end = text.length();
+        while (position < end && !isSeparator(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || Character.isWhitespace(c);
     }
 
     @Override
@@ -81,7 +230,12 @@ public class LightPatternPuzzle extends Puzzle {
         if (!getHints().isEmpty()) {
             return super.giveHint();
         }
-        return switch (currentRound) {
+        return fallbackHint(currentRound);
+    }
+
+    @Override
+    String fallbackHint(int round) {
+        return switch (round) {
             case 0, 1 -> "Count the flashes and replay in order.";
             case 2, 3 -> "Chunk colors into small groups.";
             default -> "Say each color out loud as you input it.";
@@ -0,0 +1,124 @@
+package com.escapenexus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load client for {@link LineServer}. Each connection logs in, then keeps up
+ * to {@code pipelineDepth} read-only commands ({@code look}, {@code show-seq},
+ * {@code hint}) in flight until it has sent its share. Latency is measured per
+ * command from send to response, so it includes time spent queued behind
+ * earlier pipelined commands.
+ *
+ * <pre>
+ * java com.escapenexus.LineBenchmark [host port] [connections] [commands per connection] [pipeline depth]
+ * </pre>
+ *
+ * Without host and port, an embedded server on a free local port is used.
+ */
+public final class LineBenchmark {
+
+    private static final String[] COMMANDS = {"look\n", "show-seq\n", "hint\n", "look\n"};
+
+    private LineBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int offset = args.length >= 2 ? 2 : 0;
+        int connections = args.length > offset ? Integer.parseInt(args[offset]) : 16;
+        int commands = args.length > offset + 1 ? Integer.parseInt(args[offset + 1]) : 10_000;
+        int depth = args.length > offset + 2 ? Integer.parseInt(args[offset + 2]) : 16;
+        if (offset == 2) {
+            InetSocketAddress address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+            System.out.println(run(address, connections, commands, depth));
+            return;
+        }
+        try (LineServer server = LineServer.start(new SessionRegistry(), new InetSocketAddress("127.0.0.1", 0))) {
+            System.out.println(run(new InetSocketAddress("127.0.0.1", server.getPort()), connections, commands, depth));
+        }
+    }
+
+    /** Drives {@code connections} clients in parallel and waits for all of them. */
+    public static LoadResult run(InetSocketAddress address, int connections, int commandsPerConnection, int pipelineDepth)
+            throws IOException, InterruptedException {
+        if (connections < 1 || commandsPerConnection < 1 || pipelineDepth < 1) {
+            throw new IllegalArgumentException("connections, commands and depth must be positive");
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                Callable<long[]> task = () -> drive(address, "bench" + client, commandsPerConnection, pipelineDepth);
+                futures.add(clients.submit(task));
+            }
+            long[] latencies = new long[connections * commandsPerConnection];
+            int filled = 0;
+            for (Future<long[]> future : futures) {
+                long[] one = future.get();
+                System.arraycopy(one, 0, latencies, filled, one.length);
+                filled += one.length;
+            }
+            return LoadResult.of(connections, latencies, System.nanoTime() - start);
+        } catch (ExecutionException exception) {
+            throw new IOException("Benchmark client failed", exception.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static long[] drive(InetSocketAddress address, String username, int commands, int depth)
+            throws IOException {
+        long[] latencies = new long[commands];
+        long[] sentAt = new long[depth];
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(address);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.write(("login " + username + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            expectOk(in.readLine());
+
+            int sent = 0;
+            int received = 0;
+            while (received < commands) {
+                while (sent < commands && sent - received < depth) {
+                    sentAt[sent % depth] = System.nanoTime();
+                    out.write(COMMANDS[sent % COMMANDS.length].getBytes(StandardCharsets.US_ASCII));
+                    sent++;
+                }
+                out.flush();
+                String response = in.readLine();
+                latencies[received] = System.nanoTime() - sentAt[received % depth];
+                if (response == null) {
+                    throw new IOException("Server closed the connection after " + received + " responses");
+                }
+                received++;
+            }
+            out.write("quit\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+        return latencies;
+    }
+
+    private static void expectOk(String response) throws IOException {
+        if (response == null || !response.startsWith("OK")) {
+            throw new IOException("Unexpected response: " + response);
+        }
+    }
+}
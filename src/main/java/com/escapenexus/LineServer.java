@@ -0,0 +1,296 @@
+package com.escapenexus;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking TCP front end speaking a line protocol that mirrors the
+ * terminal menu. Every request is one line and gets exactly one response line,
+ * {@code OK <text>} or {@code ERR <reason>}, in request order:
+ *
+ * <pre>
+ * login &lt;username&gt; [easy|medium|hard]   OK &lt;session id&gt;
+ * look                                  OK &lt;room&gt; | &lt;puzzle&gt;: &lt;description&gt;
+ * hint                                  OK &lt;hint&gt;
+ * attempt &lt;answer&gt;                      OK success | OK fail | OK complete
+ * show-seq                              OK RED GREEN ...
+ * save                                  OK &lt;session id&gt;
+ * load &lt;session id&gt;                     OK &lt;session id&gt;
+ * quit                                  OK bye
+ * </pre>
+ *
+ * One selector thread serves every connection; commands run on it directly
+ * against a {@link SessionRegistry}, so there is no thread per client or per
+ * message. Clients may pipeline: each connection has a fixed read and write
+ * buffer, all complete lines are handled as soon as they arrive, and a
+ * connection whose responses are not being read stops being read itself
+ * until its write buffer drains. An unsaved session is closed when its
+ * connection goes away; a saved one stays open for {@code load}.
+ *
+ * <p>Attempts go through {@link SessionRegistry#attempt(PlayerSession, Object)};
+ * a registry without an {@link AttemptLimiter} gets a default one on start,
+ * and a rejected attempt answers {@code ERR Too many attempts; ...}.
+ *
+ * <p>With a trace directory set, each connection is also written to a
+ * {@link GameTrace} that {@link TraceReplayer} can play back.
+ */
+public final class LineServer implements AutoCloseable {
+
+    public static final int MAX_LINE = 1024;
+    static final int READ_BUFFER = 4096;
+    static final int WRITE_BUFFER = 32 * 1024;
+    static final int MAX_RESPONSE = 2048;
+
+    private static final System.Logger LOG = System.getLogger(LineServer.class.getName());
+
+    private final SessionRegistry registry;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread loop;
+    private final LongAdder commands = new LongAdder();
+    private volatile boolean running = true;
+    private volatile Path traceDirectory;
+    private long traces;
+
+    private LineServer(SessionRegistry registry, InetSocketAddress address) throws IOException {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.loop = new Thread(this::run, "line-server");
+        loop.setDaemon(true);
+    }
+
+    /** Binds {@code address} (port 0 picks a free port) and starts serving. */
+    public static LineServer start(SessionRegistry registry, InetSocketAddress address) throws IOException {
+        if (registry.getAttemptLimiter().isEmpty()) {
+            registry.setAttemptLimiter(new AttemptLimiter());
+        }
+        LineServer lineServer = new LineServer(registry, address);
+        lineServer.loop.start();
+        return lineServer;
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Records every connection accepted from now on to its own
+     * {@link GameTrace} file in {@code directory}, for {@link TraceReplayer};
+     * null stops recording new connections.
+     */
+    public void setTraceDirectory(Path directory) {
+        this.traceDirectory = directory;
+    }
+
+    /** Commands handled since the server started. */
+    public long getCommandCount() {
+        return commands.sum();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        }
+                    } catch (IOException | RuntimeException exception) {
+                        // Only this client is dropped; the loop keeps serving the others.
+                        if (exception instanceof RuntimeException) {
+                            LOG.log(System.Logger.Level.WARNING, "Dropping connection after an internal error", exception);
+                        }
+                        if (key.attachment() instanceof Connection connection) {
+                            connection.close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException exception) {
+            // Selector closed or broken: the server is shutting down.
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key, new LineSession(registry, LineSession.RANDOM_SEEDS, openTrace())));
+    }
+
+    /** A recorder for a new connection, or null when not tracing or the file cannot be created. */
+    private GameTrace.Recorder openTrace() {
+        Path directory = traceDirectory;
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(System.currentTimeMillis() + "-" + (++traces) + GameTrace.EXTENSION);
+        try {
+            return new GameTrace.Recorder(new BufferedOutputStream(Files.newOutputStream(file)));
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /** Stops serving and drops every connection; sessions stay in the registry only if saved. */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(5000);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** How many leading bytes of {@code utf8} fit in {@code limit} without splitting a character. */
+    static int fit(byte[] utf8, int limit) {
+        int length = Math.min(utf8.length, limit);
+        while (length < utf8.length && length > 0 && (utf8[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+        private final ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER);
+        private final LineSession lines;
+        private boolean closing;
+
+        Connection(SocketChannel channel, SelectionKey key, LineSession lines) {
+            this.channel = channel;
+            this.key = key;
+            this.lines = lines;
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            handleLines();
+            write();
+        }
+
+        void write() throws IOException {
+            flush();
+            if (out.position() == 0 && in.position() > 0 && !closing) {
+                // Lines held back while the write buffer was full.
+                handleLines();
+                flush();
+            }
+            if (out.position() == 0 && closing) {
+                close();
+                return;
+            }
+            boolean pending = out.position() > 0;
+            boolean stalled = pending && out.remaining() < MAX_RESPONSE;
+            key.interestOps((pending ? SelectionKey.OP_WRITE : 0) | (stalled || closing ? 0 : SelectionKey.OP_READ));
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+        }
+
+        /** Runs every complete line in the read buffer while the write buffer has room for its response. */
+        private void handleLines() {
+            in.flip();
+            int start = in.position();
+            boolean stalled = false;
+            for (int i = start; i < in.limit() && !closing; i++) {
+                if (in.get(i) != '\n') {
+                    continue;
+                }
+                if (out.remaining() < MAX_RESPONSE) {
+                    stalled = true;
+                    break;
+                }
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                commands.increment();
+                String line = new String(in.array(), start, end - start, StandardCharsets.UTF_8);
+                try {
+                    respond(lines.execute(line));
+                    closing = lines.isFinished();
+                } catch (RuntimeException exception) {
+                    LOG.log(System.Logger.Level.WARNING, "Command failed; closing its connection", exception);
+                    respond("ERR internal error");
+                    closing = true;
+                }
+                start = i + 1;
+            }
+            in.position(start);
+            if (!stalled && !closing && in.remaining() >= MAX_LINE) {
+                respond("ERR line too long");
+                closing = true;
+                in.clear();
+                return;
+            }
+            in.compact();
+        }
+
+        private void respond(String response) {
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            out.put(bytes, 0, fit(bytes, MAX_RESPONSE - 1));
+            out.put((byte) '\n');
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            lines.close();
+        }
+    }
+}
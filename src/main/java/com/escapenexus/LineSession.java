@@ -0,0 +1,189 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * One client's side of the {@link LineServer} protocol, apart from the
+ * socket: turns a request line into its response line against a
+ * {@link SessionRegistry}. The server runs one per connection;
+ * {@link TraceReplayer} runs one per trace.
+ *
+ * <p>Light seeds for {@code login} come from {@code seeds}, and with a
+ * {@link GameTrace.Recorder} every line is recorded with its arrival time,
+ * the seeds it drew and its response. A recorder that fails to write is
+ * dropped; the client keeps playing untraced.
+ */
+final class LineSession {
+
+    static final LongSupplier RANDOM_SEEDS = () -> ThreadLocalRandom.current().nextLong();
+
+    private final SessionRegistry registry;
+    private final LongSupplier seeds;
+    private GameTrace.Recorder recorder;
+    private String sessionId;
+    private boolean saved;
+    private boolean finished;
+
+    /** @param recorder traces this client, or null */
+    LineSession(SessionRegistry registry, LongSupplier seeds, GameTrace.Recorder recorder) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.seeds = Objects.requireNonNull(seeds, "seeds");
+        this.recorder = recorder;
+    }
+
+    /** True once the client said {@code quit}. */
+    boolean isFinished() {
+        return finished;
+    }
+
+    String execute(String line) {
+        if (recorder == null) {
+            return dispatch(line);
+        }
+        recorder.command(line);
+        String response = dispatch(line);
+        try {
+            recorder.response(response);
+        } catch (IOException exception) {
+            stopRecording();
+        }
+        return response;
+    }
+
+    /** Closes the session unless it was saved, and finishes the trace. */
+    void close() {
+        if (sessionId != null && !saved) {
+            registry.close(sessionId);
+            sessionId = null;
+        }
+        stopRecording();
+    }
+
+    private void stopRecording() {
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException ignored) {
+            }
+            recorder = null;
+        }
+    }
+
+    private String dispatch(String line) {
+        String trimmed = line.strip();
+        int space = trimmed.indexOf(' ');
+        String command = (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase(Locale.ROOT);
+        String argument = space < 0 ? "" : trimmed.substring(space + 1).strip();
+        switch (command) {
+            case "login":
+                return login(argument);
+            case "load":
+                return load(argument);
+            case "quit":
+                finished = true;
+                return "OK bye";
+            case "":
+                return "ERR empty command";
+            default:
+                break;
+        }
+        if (sessionId == null) {
+            return "ERR login first";
+        }
+        return registry.with(sessionId, session -> play(session, command, argument))
+                .orElse("ERR session closed");
+    }
+
+    private String play(PlayerSession session, String command, String argument) {
+        switch (command) {
+            case "look":
+                return look(session);
+            case "hint":
+                return "OK " + session.requestHint();
+            case "attempt":
+                if (session.getState().getStatus() == GameStatus.LOST) {
+                    return "ERR time is up";
+                }
+                try {
+                    if (!registry.attempt(session, argument)) {
+                        return "OK fail";
+                    }
+                } catch (AttemptLimiter.RateLimitedException exception) {
+                    return "ERR " + exception.getMessage();
+                }
+                return session.getState().getStatus() == GameStatus.COMPLETED ? "OK complete" : "OK success";
+            case "show-seq":
+                return showSequence(session);
+            case "save":
+                saved = true;
+                return "OK " + sessionId;
+            default:
+                return "ERR unknown command: " + command;
+        }
+    }
+
+    private String login(String argument) {
+        String[] parts = argument.split("\\s+");
+        if (parts[0].isEmpty()) {
+            return "ERR usage: login <username> [easy|medium|hard]";
+        }
+        Difficulty difficulty = Difficulty.MEDIUM;
+        if (parts.length > 1) {
+            try {
+                difficulty = Difficulty.valueOf(parts[1].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                return "ERR unknown difficulty: " + parts[1];
+            }
+        }
+        long seed = seeds.getAsLong();
+        if (recorder != null) {
+            recorder.seed(seed);
+        }
+        attach(registry.open(parts[0], GameFactory.defaultTemplate(difficulty), seed).getId(), false);
+        return "OK " + sessionId;
+    }
+
+    private String load(String argument) {
+        if (!SessionSpill.isSessionId(argument) || !registry.contains(argument)) {
+            return "ERR unknown session";
+        }
+        attach(argument, true);
+        return "OK " + sessionId;
+    }
+
+    private void attach(String id, boolean keep) {
+        if (sessionId != null && !saved && !sessionId.equals(id)) {
+            registry.close(sessionId);
+        }
+        sessionId = id;
+        saved = keep;
+    }
+
+    private String look(PlayerSession session) {
+        SessionState state = session.getState();
+        GameTemplate template = session.getTemplate();
+        String room = template.getRoomName(state.getCurrentRoom());
+        int puzzle = session.currentPuzzle();
+        if (puzzle < 0) {
+            return "OK " + room + " | cleared";
+        }
+        return "OK " + room + " | " + template.getPuzzleTitle(puzzle) + ": " + template.getPuzzleDescription(puzzle);
+    }
+
+    private String showSequence(PlayerSession session) {
+        int puzzle = session.currentPuzzle();
+        int round = puzzle >= 0 ? session.getState().getLightRound(puzzle) : -1;
+        if (round < 0) {
+            return "ERR No sequence to show.";
+        }
+        StringBuilder sequence = new StringBuilder("OK");
+        for (int position = 0; position <= round; position++) {
+            sequence.append(' ').append(session.getState().getLightColor(puzzle, position));
+        }
+        return sequence.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.escapenexus;
+
+import java.util.Arrays;
+
+/** Outcome of one load run from {@link LineBenchmark} or {@link HttpLoadDriver}; latencies are in nanoseconds. */
+public final class LoadResult {
+    private final int clients;
+    private final long requests;
+    private final long elapsedNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    private LoadResult(int clients, long requests, long elapsedNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+        this.clients = clients;
+        this.requests = requests;
+        this.elapsedNanos = elapsedNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /** Summarizes per-request {@code latencies}; the array is sorted in place. */
+    static LoadResult of(int clients, long[] latencies, long elapsedNanos) {
+        if (latencies.length == 0) {
+            return new LoadResult(clients, 0, elapsedNanos, 0, 0, 0);
+        }
+        Arrays.sort(latencies);
+        return new LoadResult(clients, latencies.length, elapsedNanos, percentile(latencies, 0.50),
+                percentile(latencies, 0.99), latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public double getRequestsPerSecond() {
+        return requests * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d clients, %d requests: %.0f requests/s, p50 %.1f us, p99 %.1f us, max %.1f us",
+                clients, requests, getRequestsPerSecond(), p50Nanos / 1000.0, p99Nanos / 1000.0,
+                maxNanos / 1000.0);
+    }
+}
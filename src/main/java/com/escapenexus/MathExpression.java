@@ -0,0 +1,292 @@
+package com.escapenexus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answer expression of a {@link MathPuzzle}, compiled once into an evaluation
+ * tree. Supports {@code + - * / ^}, {@code :} as a ratio (same as {@code /}),
+ * parentheses, decimal literals, named variables and comma-separated lists for
+ * answers with several parts, e.g. {@code "fib5 + fib6, fib6 + fib7"}.
+ *
+ * <p>Compiled trees are immutable and cached by source text, so every template,
+ * game and session that uses the same expression shares one tree. Content can
+ * come from uploaded saves, so the cache keeps only the {@value #CACHE_LIMIT}
+ * most recently used trees; one-off text goes through {@link #parse} instead.
+ */
+public final class MathExpression {
+
+    static final int CACHE_LIMIT = 1024;
+
+    private static final Map<String, MathExpression> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, MathExpression>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MathExpression> eldest) {
+                    return size() > CACHE_LIMIT;
+                }
+            });
+
+    private final String source;
+    private final Node[] parts;
+    private final Set<String> variables;
+
+    private MathExpression(String source, Node[] parts, Set<String> variables) {
+        this.source = source;
+        this.parts = parts;
+        this.variables = variables;
+    }
+
+    /** Returns the cached tree for {@code source}, parsing it on first use. */
+    public static MathExpression compile(String source) {
+        String text = strip(source);
+        MathExpression cached = CACHE.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        // Parsed outside the lock; a racing caller's tree is just as good.
+        MathExpression parsed = new Parser(text).parse();
+        MathExpression raced = CACHE.putIfAbsent(text, parsed);
+        return raced != null ? raced : parsed;
+    }
+
+    /** Parses {@code source} into a fresh tree without touching the cache. */
+    public static MathExpression parse(String source) {
+        return new Parser(strip(source)).parse();
+    }
+
+    private static String strip(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Empty answer expression");
+        }
+        return source.strip();
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /** Number of comma-separated values the expression produces. */
+    public int size() {
+        return parts.length;
+    }
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Evaluates every part with exact arithmetic.
+     *
+     * @throws IllegalArgumentException if a variable is not bound
+     * @throws ArithmeticException on division by zero or overflow
+     */
+    public List<Rational> evaluate(Map<String, Rational> bindings) {
+        List<Rational> values = new ArrayList<>(parts.length);
+        for (Node part : parts) {
+            values.add(part.evaluate(bindings));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private interface Node {
+        Rational evaluate(Map<String, Rational> bindings);
+    }
+
+    private static final class Literal implements Node {
+        private final Rational value;
+
+        Literal(Rational value) {
+            this.value = value;
+        }
+
+        @Override
+        public Rational evaluate(Map<String, Rational> bindings) {
+            return value;
+        }
+    }
+
+    private static final class Variable implements Node {
+        private final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Rational evaluate(Map<String, Rational> bindings) {
+            Rational value = bindings.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Unbound variable: " + name);
+            }
+            return value;
+        }
+    }
+
+    private static final class Negate implements Node {
+        private final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public Rational evaluate(Map<String, Rational> bindings) {
+            return operand.evaluate(bindings).negate();
+        }
+    }
+
+    private static final class Binary implements Node {
+        private final char operator;
+        private final Node left;
+        private final Node right;
+
+        Binary(char operator, Node left, Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Rational evaluate(Map<String, Rational> bindings) {
+            Rational a = left.evaluate(bindings);
+            Rational b = right.evaluate(bindings);
+            return switch (operator) {
+                case '+' -> a.add(b);
+                case '-' -> a.subtract(b);
+                case '*' -> a.multiply(b);
+                case '/', ':' -> a.divide(b);
+                case '^' -> {
+                    if (!b.isInteger() || Math.abs(b.getNumerator()) > Integer.MAX_VALUE) {
+                        throw new ArithmeticException("Exponent must be a small integer: " + b);
+                    }
+                    yield a.pow((int) b.getNumerator());
+                }
+                default -> throw new IllegalStateException("Unknown operator " + operator);
+            };
+        }
+    }
+
+    /** Recursive-descent parser; {@code ^} binds tightest and is right-associative. */
+    private static final class Parser {
+        private final String text;
+        private final Set<String> variables = new LinkedHashSet<>();
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        MathExpression parse() {
+            List<Node> parts = new ArrayList<>();
+            parts.add(sum());
+            while (accept(',')) {
+                parts.add(sum());
+            }
+            skipSpaces();
+            if (position < text.length()) {
+                throw error("Unexpected '" + text.charAt(position) + "'");
+            }
+            Node[] compiled = parts.toArray(new Node[0]);
+            return new MathExpression(text, compiled, Collections.unmodifiableSet(variables));
+        }
+
+        private Node sum() {
+            Node node = product();
+            while (true) {
+                if (accept('+')) {
+                    node = new Binary('+', node, product());
+                } else if (accept('-')) {
+                    node = new Binary('-', node, product());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node product() {
+            Node node = unary();
+            while (true) {
+                if (accept('*')) {
+                    node = new Binary('*', node, unary());
+                } else if (accept('/')) {
+                    node = new Binary('/', node, unary());
+                } else if (accept(':')) {
+                    node = new Binary(':', node, unary());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node unary() {
+            if (accept('-')) {
+                return new Negate(unary());
+            }
+            accept('+');
+            Node base = atom();
+            return accept('^') ? new Binary('^', base, unary()) : base;
+        }
+
+        private Node atom() {
+            skipSpaces();
+            if (accept('(')) {
+                Node inner = sum();
+                if (!accept(')')) {
+                    throw error("Missing ')'");
+                }
+                return inner;
+            }
+            int start = position;
+            if (position < text.length() && Character.isLetter(text.charAt(position))) {
+                while (position < text.length()
+                        && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+                    position++;
+                }
+                String name = text.substring(start, position);
+                variables.add(name);
+                return new Variable(name);
+            }
+            while (position < text.length()
+                    && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                position++;
+            }
+            if (start == position) {
+                throw error(position < text.length() ? "Unexpected '" + text.charAt(position) + "'" : "Unexpected end");
+            }
+            return new Literal(Rational.parse(text, start, position));
+        }
+
+        private boolean accept(char expected) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + position + " in \"" + text + "\"");
+        }
+    }
+}
@@ -1,15 +1,61 @@
 package com.escapenexus;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Numeric puzzle whose answer is a {@link MathExpression} over optional named
+ * variables. The expression is evaluated once, when the puzzle is built, so
+ * attempts only parse the player's input. Guesses may be a {@link Number}, or
+ * text holding one or more comma-separated numbers, fractions ({@code 3/4}) or
+ * ratios ({@code 21:79}). With a tolerance of zero, text answers must match
+ * exactly.
+ */
 public class MathPuzzle extends Puzzle {
-    private final double answer;
+    private final MathExpression expression;
+    private final Map<String, Rational> variables;
+    private final Rational[] expected;
     private final double tolerance;
 
     public MathPuzzle(UUID id, String title, String prompt, double answer, double tolerance) {
+        this(id, title, prompt, BigDecimal.valueOf(answer).toPlainString(), Map.of(), tolerance);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression does not parse, uses an
+     *         unbound variable, or cannot be evaluated exactly
+     */
+    public MathPuzzle(UUID id, String title, String prompt, String answerExpression,
+                      Map<String, Rational> variables, double tolerance) {
         super(id, title, prompt);
-        this.answer = answer;
+        this.variables = Map.copyOf(variables);
         this.tolerance = Math.max(0.0, tolerance);
+        try {
+            this.expression = MathExpression.compile(answerExpression);
+            this.expected = expression.evaluate(this.variables).toArray(new Rational[0]);
+        } catch (ArithmeticException exception) {
+            throw new IllegalArgumentException("Cannot evaluate " + answerExpression + ": " + exception.getMessage(),
+                    exception);
+        }
+    }
+
+    public String getAnswerExpression() {
+        return expression.getSource();
+    }
+
+    public Map<String, Rational> getVariables() {
+        return variables;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /** Values a correct answer has to produce, in order. */
+    public List<Rational> getExpectedAnswer() {
+        return List.of(expected);
     }
 
     @Override
@@ -17,28 +63,82 @@ public class MathPuzzle extends Puzzle {
         if (isSolved()) {
             return true;
         }
+        boolean success = matches(input);
+        if (success) {
+            setSolved(true);
+        }
+        return success;
+    }
+
+    @Override
+    public boolean matches(Object input) {
         if (input == null) {
             return false;
         }
+        if (input instanceof Number number) {
+            return expected.length == 1 && (number instanceof Integer || number instanceof Long
+                    ? matches(Rational.of(number.longValue()), expected[0])
+                    : Math.abs(number.doubleValue() - expected[0].doubleValue()) <= tolerance);
+        }
+        CharSequence text = input instanceof CharSequence sequence ? sequence : String.valueOf(input);
         try {
-            double value = (input instanceof Number)
-                    ? ((Number) input).doubleValue()
-                    : Double.parseDouble(String.valueOf(input).trim());
-            boolean success = Math.abs(value - answer) <= tolerance;
-            if (success) {
-                setSolved(true);
+            int start = 0;
+            for (int part = 0; part < expected.length; part++) {
+                int end = indexOf(text, ',', start);
+                if ((end < text.length()) != (part + 1 < expected.length)
+                        || !matches(parseValue(text, start, end), expected[part])) {
+                    return false;
+                }
+                start = end + 1;
             }
-            return success;
-        } catch (Exception exception) {
+            return true;
+        } catch (ArithmeticException | NumberFormatException exception) {
+            return expected.length == 1 && matchesDouble(text);
+        }
+    }
+
+    private boolean matches(Rational guess, Rational answer) {
+        return tolerance == 0.0
+                ? guess.equals(answer)
+                : Math.abs(guess.doubleValue() - answer.doubleValue()) <= tolerance;
+    }
+
+    /** Accepts forms only {@link Double#parseDouble} understands, such as {@code 1.2e1}. */
+    private boolean matchesDouble(CharSequence text) {
+        try {
+            double value = Double.parseDouble(text.toString().trim());
+            return Math.abs(value - expected[0].doubleValue()) <= tolerance;
+        } catch (NumberFormatException exception) {
             return false;
         }
     }
 
+    private static Rational parseValue(CharSequence text, int start, int end) {
+        int ratio = indexOf(text, ':', start);
+        if (ratio < end) {
+            return Rational.parse(text, start, ratio).divide(Rational.parse(text, ratio + 1, end));
+        }
+        return Rational.parse(text, start, end);
+    }
+
+    private static int indexOf(CharSequence text, char target, int from) {
+        int i = from;
+        while (i < text.length() && text.charAt(i) != target) {
+            i++;
+        }
+        return i;
+    }
+
     @Override
     public String giveHint() {
         if (!getHints().isEmpty()) {
             return super.giveHint();
         }
+        return fallbackHint(0);
+    }
+
+    @Override
+    String fallbackHint(int round) {
         return "Combine the displayed values exactly as the prompt describes.";
     }
 }
@@ -0,0 +1,174 @@
+package com.escapenexus;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Named counters, gauges and {@link LatencyHistogram}s, published as a single
+ * JMX MBean with one read-only attribute per value. Histograms show up as
+ * {@code <name>.count}, {@code .meanNanos}, {@code .p50Nanos}, {@code .p99Nanos}
+ * and {@code .maxNanos}.
+ *
+ * <p>Look metrics up once and keep the reference: recording then touches only
+ * the counter or histogram, never the registry's maps. {@link #global()} is
+ * the registry the engine records into; it is registered with the platform
+ * MBean server as {@value #GLOBAL_NAME}.
+ */
+public final class MetricsRegistry implements DynamicMBean {
+
+    public static final String GLOBAL_NAME = "com.escapenexus:type=Metrics";
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    static {
+        try {
+            GLOBAL.register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(GLOBAL_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // Another copy of the engine in this JVM got there first; ours stays unpublished.
+        } catch (JMException | SecurityException e) {
+            // Metrics still record; they are just not visible over JMX.
+        }
+    }
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(checkName(name), n -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(checkName(name), n -> new LatencyHistogram());
+    }
+
+    /** Publishes {@code value} under {@code name}, replacing any earlier gauge of that name. */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(checkName(name), Objects.requireNonNull(value, "value"));
+    }
+
+    private static String checkName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Metric name is required");
+        }
+        return name;
+    }
+
+    /** Current value of every counter, gauge and histogram field, sorted by name. */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".meanNanos", histogram.getMeanNanos());
+            values.put(name + ".p50Nanos", histogram.getValueAtPercentile(50));
+            values.put(name + ".p99Nanos", histogram.getValueAtPercentile(99));
+            values.put(name + ".maxNanos", histogram.getMaxNanos());
+        });
+        return values;
+    }
+
+    public void register(MBeanServer server, ObjectName name) throws JMException {
+        server.registerMBean(this, name);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Long value = read(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    private Long read(String attribute) {
+        LongAdder counter = counters.get(attribute);
+        if (counter != null) {
+            return counter.sum();
+        }
+        LongSupplier gauge = gauges.get(attribute);
+        if (gauge != null) {
+            return gauge.getAsLong();
+        }
+        int dot = attribute.lastIndexOf('.');
+        LatencyHistogram histogram = dot < 0 ? null : histograms.get(attribute.substring(0, dot));
+        if (histogram == null) {
+            return null;
+        }
+        switch (attribute.substring(dot + 1)) {
+            case "count":
+                return histogram.getCount();
+            case "meanNanos":
+                return histogram.getMeanNanos();
+            case "p50Nanos":
+                return histogram.getValueAtPercentile(50);
+            case "p99Nanos":
+                return histogram.getValueAtPercentile(99);
+            case "maxNanos":
+                return histogram.getMaxNanos();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Long value = read(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName), "No operations: " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : snapshot().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "Escape Nexus engine metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+}
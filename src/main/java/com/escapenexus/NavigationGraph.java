@@ -0,0 +1,251 @@
+package com.escapenexus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Precomputed room adjacency for a {@link Game}. Edges come from the game's
+ * {@link Door}s, each leading from its {@code fromRoomId} to its
+ * {@code toRoomId}; a game without doors is treated as the classic linear
+ * chain where every room leads to the next one in {@link Game#getRooms()}.
+ *
+ * <p>Adjacency is stored in compressed rows ({@code offsets}/{@code targets}),
+ * so neighbour and single-step traversal queries cost O(degree). Lock state is
+ * read live from rooms and doors, so the graph only needs rebuilding when rooms
+ * or doors are added.
+ */
+public final class NavigationGraph {
+
+    private final Room[] rooms;
+    private final Map<UUID, Integer> index;
+    private final int[] offsets;
+    private final int[] targets;
+    private final Door[] edgeDoors;
+
+    private NavigationGraph(Room[] rooms, Map<UUID, Integer> index, int[] offsets, int[] targets, Door[] edgeDoors) {
+        this.rooms = rooms;
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeDoors = edgeDoors;
+    }
+
+    public static NavigationGraph build(List<Room> roomList, List<Door> doors) {
+        Room[] rooms = roomList.toArray(new Room[0]);
+        Map<UUID, Integer> index = new HashMap<>(Math.max(16, rooms.length * 2));
+        for (int i = 0; i < rooms.length; i++) {
+            index.putIfAbsent(rooms[i].getId(), i);
+        }
+
+        int[] offsets = new int[rooms.length + 1];
+        if (doors == null || doors.isEmpty()) {
+            int edges = Math.max(0, rooms.length - 1);
+            int[] targets = new int[edges];
+            for (int i = 0; i < rooms.length; i++) {
+                offsets[i] = Math.min(i, edges);
+                if (i < edges) {
+                    targets[i] = i + 1;
+                }
+            }
+            offsets[rooms.length] = edges;
+            return new NavigationGraph(rooms, index, offsets, targets, new Door[edges]);
+        }
+
+        // Counting sort of the doors by source room keeps the build linear.
+        int[] from = new int[doors.size()];
+        int[] to = new int[doors.size()];
+        int edges = 0;
+        for (Door door : doors) {
+            Integer source = door != null ? index.get(door.getFromRoomId()) : null;
+            Integer target = door != null ? index.get(door.getToRoomId()) : null;
+            if (source == null || target == null) {
+                from[edges] = -1;
+            } else {
+                from[edges] = source;
+                to[edges] = target;
+                offsets[source + 1]++;
+            }
+            edges++;
+        }
+        for (int i = 0; i < rooms.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[offsets[rooms.length]];
+        Door[] edgeDoors = new Door[targets.length];
+        int[] cursor = offsets.clone();
+        for (int e = 0; e < edges; e++) {
+            if (from[e] >= 0) {
+                int slot = cursor[from[e]]++;
+                targets[slot] = to[e];
+                edgeDoors[slot] = doors.get(e);
+            }
+        }
+        return new NavigationGraph(rooms, index, offsets, targets, edgeDoors);
+    }
+
+    public int size() {
+        return rooms.length;
+    }
+
+    /** Position of the room in the game's room list, or -1 if it is not part of the graph. */
+    public int indexOf(UUID roomId) {
+        Integer position = roomId != null ? index.get(roomId) : null;
+        return position != null ? position : -1;
+    }
+
+    public int indexOf(Room room) {
+        return room != null ? indexOf(room.getId()) : -1;
+    }
+
+    public Room getRoom(UUID roomId) {
+        int position = indexOf(roomId);
+        return position >= 0 ? rooms[position] : null;
+    }
+
+    public Room getRoom(int position) {
+        return rooms[position];
+    }
+
+    /** Number of outgoing edges of the room at {@code position}. */
+    public int degree(int position) {
+        return offsets[position + 1] - offsets[position];
+    }
+
+    /** Every room an edge leads to from {@code room}, locked or not. */
+    public List<Room> neighbours(Room room) {
+        int position = indexOf(room);
+        if (position < 0) {
+            return List.of();
+        }
+        List<Room> result = new ArrayList<>(degree(position));
+        for (int e = offsets[position]; e < offsets[position + 1]; e++) {
+            result.add(rooms[targets[e]]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /** Rooms reachable in one step from {@code room} through unlocked doors into unlocked rooms. */
+    public List<Room> traversableNeighbours(Room room) {
+        int position = indexOf(room);
+        if (position < 0) {
+            return List.of();
+        }
+        List<Room> result = new ArrayList<>(degree(position));
+        for (int e = offsets[position]; e < offsets[position + 1]; e++) {
+            if (isTraversable(e)) {
+                result.add(rooms[targets[e]]);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /** Whether {@code to} can be entered directly from {@code from}; O(degree of {@code from}). */
+    public boolean canTraverse(Room from, Room to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        for (int e = offsets[source]; e < offsets[source + 1]; e++) {
+            if (targets[e] == target && isTraversable(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether {@code to} can be reached from {@code from} through any chain of traversable edges. */
+    public boolean isReachable(Room from, Room to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        if (source == target) {
+            return true;
+        }
+        boolean[] seen = new boolean[rooms.length];
+        int[] queue = new int[rooms.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        seen[source] = true;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int next = targets[e];
+                if (seen[next] || !isTraversable(e)) {
+                    continue;
+                }
+                if (next == target) {
+                    return true;
+                }
+                seen[next] = true;
+                queue[tail++] = next;
+            }
+        }
+        return false;
+    }
+
+    /** First room an edge leads to from {@code room}, ignoring locks; null at a dead end. */
+    public Room nextRoom(Room room) {
+        int position = indexOf(room);
+        if (position < 0 || degree(position) == 0) {
+            return null;
+        }
+        return rooms[targets[offsets[position]]];
+    }
+
+    /**
+     * Best room to move on to once {@code room} is cleared: the first traversable
+     * neighbour that still has unsolved puzzles, else the first traversable one.
+     */
+    public Room nextTraversableRoom(Room room) {
+        int position = indexOf(room);
+        if (position < 0) {
+            return null;
+        }
+        Room fallback = null;
+        for (int e = offsets[position]; e < offsets[position + 1]; e++) {
+            if (!isTraversable(e)) {
+                continue;
+            }
+            Room candidate = rooms[targets[e]];
+            if (!candidate.isCleared()) {
+                return candidate;
+            }
+            if (fallback == null) {
+                fallback = candidate;
+            }
+        }
+        return fallback;
+    }
+
+    int edgeStart(int position) {
+        return offsets[position];
+    }
+
+    int edgeEnd(int position) {
+        return offsets[position + 1];
+    }
+
+    int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    Door edgeDoor(int edge) {
+        return edgeDoors[edge];
+    }
+
+    private boolean isTraversable(int edge) {
+        Door door = edgeDoors[edge];
+        if (door != null && door.isLocked()) {
+            return false;
+        }
+        return !rooms[targets[edge]].isLocked();
+    }
+}
@@ -0,0 +1,173 @@
+package com.escapenexus;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * One player's play-through inside a {@link SessionRegistry}: who is playing
+ * plus their own {@link SessionState} (current room, inventory, hint budgets
+ * and cursors). The game content itself is the shared {@link GameTemplate}.
+ * Instances are not thread-safe.
+ *
+ * <p>A registry with a {@link SessionSpill} may passivate an idle session:
+ * this object is then retired and the next lookup returns a fresh copy read
+ * back from disk. Code that keeps a session across calls should go through
+ * {@link SessionRegistry#with} or a {@link SessionExecutor}, which pin it.
+ */
+public final class PlayerSession {
+
+    private static final AtomicIntegerFieldUpdater<PlayerSession> USERS =
+            AtomicIntegerFieldUpdater.newUpdater(PlayerSession.class, "users");
+    private static final int PASSIVATED = -1;
+
+    private final String id;
+    private final String username;
+    private final SessionState state;
+    /** Callers currently pinning the session, or {@link #PASSIVATED}. */
+    private volatile int users;
+    private volatile long lastAccess;
+
+    PlayerSession(String id, String username, SessionState state) {
+        this.id = id;
+        this.username = username;
+        this.state = state;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public SessionState getState() {
+        return state;
+    }
+
+    public GameTemplate getTemplate() {
+        return state.getTemplate();
+    }
+
+    /** First unsolved puzzle of the current room, or -1 once the room is cleared. */
+    public int currentPuzzle() {
+        int room = state.getCurrentRoom();
+        GameTemplate template = state.getTemplate();
+        for (int p = template.puzzleStart(room); p < template.puzzleEnd(room); p++) {
+            if (!state.isSolved(p)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Attempts the current puzzle, mirroring {@link EscapeGame#attemptCurrentPuzzle(Object)}:
+     * a solve collects the puzzle's key, moves on once the room is cleared and
+     * completes the session after the last puzzle.
+     */
+    public boolean attempt(Object input) {
+        int puzzle = currentPuzzle();
+        if (puzzle < 0 || state.getStatus() != GameStatus.IN_PROGRESS) {
+            return false;
+        }
+        GameTemplate template = state.getTemplate();
+        boolean solvedBefore = state.isSolved(puzzle);
+        long start = System.nanoTime();
+        EngineEvents.PuzzleAttempt event = new EngineEvents.PuzzleAttempt();
+        event.begin();
+        boolean correct = state.attempt(puzzle, input);
+        boolean solved = !solvedBefore && state.isSolved(puzzle);
+        EngineMetrics.attempt(template.getDifficulty(), start, solved);
+        if (event.shouldCommit()) {
+            EngineEvents.commitAttempt(event, template.getId(), template.getRoomName(template.roomOf(puzzle)),
+                    template.puzzle(puzzle).getTitle(), correct, solved);
+        }
+        if (!correct) {
+            return false;
+        }
+        if (state.isSolved(puzzle)) {
+            int from = state.getCurrentRoom();
+            int to = state.advance();
+            if (to != from) {
+                EngineEvents.roomTransition(template.getId(), template.getRoomName(from), template.getRoomName(to));
+            }
+            if (state.isComplete()) {
+                state.end();
+            }
+        }
+        return true;
+    }
+
+    /** Moves to {@code room} if it is an unlocked exit of the current room. */
+    public boolean move(int room) {
+        if (state.getStatus() != GameStatus.IN_PROGRESS) {
+            return false;
+        }
+        GameTemplate template = state.getTemplate();
+        int from = state.getCurrentRoom();
+        for (int e = template.exitsStart(from); e < template.exitsEnd(from); e++) {
+            if (template.exit(e) == room && !state.isLocked(room)) {
+                state.moveTo(room);
+                EngineEvents.roomTransition(template.getId(), template.getRoomName(from), template.getRoomName(room));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Uses a held key on every room that needs it; marks it used if that opened anything. */
+    public boolean useItem(int item) {
+        if (item < 0 || !state.hasItem(item) || state.getItemState(item) == ItemState.BROKEN) {
+            return false;
+        }
+        if (state.unlockWith(item) == 0) {
+            return false;
+        }
+        state.setItemState(item, ItemState.USED);
+        return true;
+    }
+
+    /** Spends a hint on the current puzzle. */
+    public String requestHint() {
+        int puzzle = currentPuzzle();
+        return puzzle >= 0 ? state.requestHint(puzzle) : "No hints available.";
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch(long now) {
+        lastAccess = now;
+    }
+
+    /** Pins the session against passivation; false if it has already been passivated. */
+    boolean acquire() {
+        int current;
+        do {
+            current = users;
+            if (current == PASSIVATED) {
+                return false;
+            }
+        } while (!USERS.compareAndSet(this, current, current + 1));
+        return true;
+    }
+
+    void release() {
+        USERS.decrementAndGet(this);
+    }
+
+    /** Retires an unpinned session; false if someone is using it. */
+    boolean tryPassivate() {
+        return USERS.compareAndSet(this, 0, PASSIVATED);
+    }
+
+    /** Undoes {@link #tryPassivate()} when the session could not be written out. */
+    void reactivate() {
+        USERS.compareAndSet(this, PASSIVATED, 0);
+    }
+
+    boolean isPassivated() {
+        return users == PASSIVATED;
+    }
+}
@@ -12,6 +12,7 @@ public class Puzzle {
     private String title;
     private String description;
     private final List<String> hints = new ArrayList<>();
+    private final List<String> hintsView = Collections.unmodifiableList(hints);
     private boolean solved;
     private Item keyProvided;
 
@@ -38,7 +39,7 @@ public class Puzzle {
     }
 
     public List<String> getHints() {
-        return Collections.unmodifiableList(hints);
+        return hintsView;
     }
 
     public void addHint(String hint) {
@@ -64,19 +65,27 @@ public class Puzzle {
     }
 
     public boolean attempt(Object input) {
-        if (input == null) {
+        if (!matches(input)) {
             return false;
         }
         solved = true;
         return true;
     }
 
+    /**
+     * Checks an answer without touching any puzzle state, so a single instance
+     * can be shared as the answer checker for many sessions.
+     */
+    public boolean matches(Object input) {
+        return input != null;
+    }
+
     private int __hintIndex = 0;
 
     public String giveHint() {
         List<String> resolvedHints = getHints();
         if (resolvedHints == null || resolvedHints.isEmpty()) {
-            return "No hints available.";
+            return fallbackHint(0);
         }
         if (__hintIndex >= resolvedHints.size()) {
             return "No hints available.";
@@ -84,6 +93,11 @@ public class Puzzle {
         return resolvedHints.get(__hintIndex++);
     }
 
+    /** Hint shown once the authored hints are exhausted or missing; {@code round} is puzzle-specific progress. */
+    String fallbackHint(int round) {
+        return "No hints available.";
+    }
+
     public void reset() {
         this.solved = false;
     }
@@ -0,0 +1,156 @@
+package com.escapenexus;
+
+/**
+ * Exact fraction of two longs, always stored in lowest terms with a positive
+ * denominator. Arithmetic throws {@link ArithmeticException} on overflow or
+ * division by zero rather than losing precision.
+ */
+public final class Rational {
+
+    public static final Rational ZERO = new Rational(0, 1);
+    public static final Rational ONE = new Rational(1, 1);
+
+    private final long numerator;
+    private final long denominator;
+
+    private Rational(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Rational of(long value) {
+        return new Rational(value, 1);
+    }
+
+    public static Rational of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (denominator < 0) {
+            numerator = Math.negateExact(numerator);
+            denominator = Math.negateExact(denominator);
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new Rational(numerator / gcd, denominator / gcd);
+    }
+
+    /** Parses an integer, a plain decimal such as {@code -12.25}, or a fraction such as {@code 3/4}. */
+    public static Rational parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    static Rational parse(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '/') {
+                return parse(text, start, i).divide(parse(text, i + 1, end));
+            }
+        }
+        boolean negative = start < end && text.charAt(start) == '-';
+        int i = negative || (start < end && text.charAt(start) == '+') ? start + 1 : start;
+        long numerator = 0;
+        long denominator = 1;
+        boolean digits = false;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                numerator = Math.addExact(Math.multiplyExact(numerator, 10), c - '0');
+                if (fraction) {
+                    denominator = Math.multiplyExact(denominator, 10);
+                }
+                digits = true;
+            } else {
+                throw new NumberFormatException("Not a number: " + text.subSequence(start, end));
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Not a number: " + text.subSequence(start, end));
+        }
+        return of(negative ? -numerator : numerator, denominator);
+    }
+
+    public long getNumerator() {
+        return numerator;
+    }
+
+    public long getDenominator() {
+        return denominator;
+    }
+
+    public Rational add(Rational other) {
+        return of(Math.addExact(Math.multiplyExact(numerator, other.denominator),
+                        Math.multiplyExact(other.numerator, denominator)),
+                Math.multiplyExact(denominator, other.denominator));
+    }
+
+    public Rational subtract(Rational other) {
+        return add(other.negate());
+    }
+
+    public Rational multiply(Rational other) {
+        return of(Math.multiplyExact(numerator, other.numerator), Math.multiplyExact(denominator, other.denominator));
+    }
+
+    public Rational divide(Rational other) {
+        return of(Math.multiplyExact(numerator, other.denominator), Math.multiplyExact(denominator, other.numerator));
+    }
+
+    public Rational negate() {
+        return new Rational(Math.negateExact(numerator), denominator);
+    }
+
+    public Rational pow(int exponent) {
+        Rational base = exponent < 0 ? ONE.divide(this) : this;
+        Rational result = ONE;
+        for (long remaining = Math.abs((long) exponent); remaining > 0; remaining >>= 1) {
+            if ((remaining & 1) != 0) {
+                result = result.multiply(base);
+            }
+            if (remaining > 1) {
+                base = base.multiply(base);
+            }
+        }
+        return result;
+    }
+
+    public boolean isInteger() {
+        return denominator == 1;
+    }
+
+    public double doubleValue() {
+        return (double) numerator / denominator;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Rational rational
+                && numerator == rational.numerator && denominator == rational.denominator;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numerator) * 31 + Long.hashCode(denominator);
+    }
+
+    @Override
+    public String toString() {
+        return denominator == 1 ? Long.toString(numerator) : numerator + "/" + denominator;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+}
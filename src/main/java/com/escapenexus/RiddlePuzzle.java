@@ -1,23 +1,25 @@
 package com.escapenexus;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Locale;
-import java.util.Set;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+/** Free-text riddle; see {@link AnswerMatcher} for which guesses count as correct. */
 public class RiddlePuzzle extends Puzzle {
-    private final Set<String> acceptable = new HashSet<>();
+    private final AnswerMatcher acceptable;
+    private final List<String> answers;
 
     public RiddlePuzzle(UUID id, String title, String prompt, Collection<String> acceptableAnswers) {
         super(id, title, prompt);
-        for (String answer : acceptableAnswers) {
-            acceptable.add(normalize(answer));
-        }
+        this.acceptable = AnswerMatcher.compile(acceptableAnswers);
+        this.answers = Collections.unmodifiableList(new ArrayList<>(acceptableAnswers));
     }
 
-    private String normalize(String value) {
-        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    /** Answers this riddle was created with. */
+    List<String> getAcceptableAnswers() {
+        return answers;
     }
 
     @Override
@@ -25,21 +27,31 @@ public class RiddlePuzzle extends Puzzle {
         if (isSolved()) {
             return true;
         }
-        if (input == null) {
-            return false;
-        }
-        boolean success = acceptable.contains(normalize(String.valueOf(input)));
+        boolean success = matches(input);
         if (success) {
             setSolved(true);
         }
         return success;
     }
 
+    @Override
+    public boolean matches(Object input) {
+        if (input == null) {
+            return false;
+        }
+        return acceptable.matches(input instanceof CharSequence text ? text : String.valueOf(input));
+    }
+
     @Override
     public String giveHint() {
         if (!getHints().isEmpty()) {
             return super.giveHint();
         }
+        return fallbackHint(0);
+    }
+
+    @Override
+    String fallbackHint(int round) {
         return "Picture something with a bed, a mouth, and a foot that never leaves its place.";
     }
 }
@@ -13,6 +13,9 @@ public class Room {
     private String description;
     private final List<Puzzle> puzzles = new ArrayList<>();
     private final List<Item> items = new ArrayList<>();
+    // Read-only views handed out by the getters, made once so reading a room never allocates.
+    private final List<Puzzle> puzzlesView = Collections.unmodifiableList(puzzles);
+    private final List<Item> itemsView = Collections.unmodifiableList(items);
     private boolean locked;
     private Item keyRequired;
     private int hintLimit;
@@ -31,8 +34,8 @@ public class Room {
     public String getName() { return name; }
     public String getDescription() { return description; }
 
-    public List<Puzzle> getPuzzles() { return Collections.unmodifiableList(puzzles); }
-    public List<Item> getItems() { return Collections.unmodifiableList(items); }
+    public List<Puzzle> getPuzzles() { return puzzlesView; }
+    public List<Item> getItems() { return itemsView; }
 
     public boolean isLocked() { return locked; }
     public void setLocked(boolean locked) { this.locked = locked; }
@@ -0,0 +1,219 @@
+package com.escapenexus;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs commands against the sessions of a {@link SessionRegistry} actor-style.
+ * Every session gets a mailbox; commands sent to it run one at a time, in the
+ * order they were accepted, so session state needs no locks. Mailboxes of
+ * different sessions drain in parallel on a shared worker pool.
+ *
+ * <p>A mailbox only occupies a worker while it has commands queued, and at most
+ * {@link #DEFAULT_BATCH} in a row before yielding to other sessions. Mailboxes
+ * are created on a session's first command and hold at most {@code capacity}
+ * pending commands; further commands fail with {@link RejectedExecutionException}.
+ * A mailbox is dropped when the registry closes its session, whoever closes it.
+ */
+public final class SessionExecutor implements AutoCloseable {
+
+    public static final int DEFAULT_MAILBOX_CAPACITY = 64;
+    static final int DEFAULT_BATCH = 32;
+
+    private final SessionRegistry registry;
+    private final ExecutorService workers;
+    private final int capacity;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Consumer<String> forget = mailboxes::remove;
+
+    public SessionExecutor(SessionRegistry registry) {
+        this(registry, Runtime.getRuntime().availableProcessors(), DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    public SessionExecutor(SessionRegistry registry, int workerThreads, int mailboxCapacity) {
+        if (workerThreads < 1 || mailboxCapacity < 1) {
+            throw new IllegalArgumentException("workerThreads and mailboxCapacity must be positive");
+        }
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.capacity = mailboxCapacity;
+        this.workers = Executors.newFixedThreadPool(workerThreads, new WorkerFactory());
+        registry.addCloseListener(forget);
+    }
+
+    /**
+     * Queues {@code command} for the session. The future fails with
+     * {@link IllegalArgumentException} for an unknown session and with
+     * {@link RejectedExecutionException} when its mailbox is full.
+     */
+    public <T> CompletableFuture<T> submit(String sessionId, Function<PlayerSession, T> command) {
+        Objects.requireNonNull(command, "command");
+        Mailbox mailbox = sessionId != null ? mailboxes.get(sessionId) : null;
+        if (mailbox == null) {
+            if (!registry.contains(sessionId)) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown session: " + sessionId));
+            }
+            mailbox = mailboxes.computeIfAbsent(sessionId, Mailbox::new);
+        }
+        return mailbox.offer(command);
+    }
+
+    public CompletableFuture<Boolean> attempt(String sessionId, Object input) {
+        return submit(sessionId, session -> registry.attempt(session, input));
+    }
+
+    public CompletableFuture<String> hint(String sessionId) {
+        return submit(sessionId, PlayerSession::requestHint);
+    }
+
+    public CompletableFuture<Boolean> move(String sessionId, int room) {
+        return submit(sessionId, session -> session.move(room));
+    }
+
+    public CompletableFuture<Boolean> useItem(String sessionId, int item) {
+        return submit(sessionId, session -> session.useItem(item));
+    }
+
+    /** Closes the session after the commands already queued for it have run. */
+    public CompletableFuture<Boolean> closeSession(String sessionId) {
+        return submit(sessionId, session -> registry.close(sessionId));
+    }
+
+    /** Number of sessions that currently have a mailbox. */
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    /** Stops accepting work and waits briefly for queued commands to finish. */
+    @Override
+    public void close() {
+        registry.removeCloseListener(forget);
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Commands for one session. The counter holds the number of accepted,
+     * unfinished commands: whoever raises it from zero schedules a drain, and the
+     * drain reschedules itself while it stays above zero.
+     */
+    private final class Mailbox implements Runnable {
+        private final String sessionId;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Command<?>> queue = new ConcurrentLinkedQueue<>();
+
+        Mailbox(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        <T> CompletableFuture<T> offer(Function<PlayerSession, T> command) {
+            int queued;
+            do {
+                queued = pending.get();
+                if (queued >= capacity) {
+                    return CompletableFuture.failedFuture(
+                            new RejectedExecutionException("Mailbox full for session " + sessionId));
+                }
+            } while (!pending.compareAndSet(queued, queued + 1));
+
+            Command<T> accepted = new Command<>(command);
+            queue.add(accepted);
+            if (queued == 0) {
+                schedule();
+            }
+            return accepted.result;
+        }
+
+        /**
+         * Pins the session for the batch, so a registry with a spill cannot
+         * passivate it mid-command. If the session cannot be read back, every
+         * queued command fails with the reason instead of waiting forever.
+         */
+        @Override
+        public void run() {
+            int done = 0;
+            Command<?> next;
+            PlayerSession session = null;
+            try {
+                session = registry.pin(sessionId);
+                while (done < DEFAULT_BATCH && (next = queue.poll()) != null) {
+                    if (session != null) {
+                        next.run(session);
+                    } else {
+                        next.result.completeExceptionally(new IllegalArgumentException("Unknown session: " + sessionId));
+                    }
+                    done++;
+                }
+            } catch (RuntimeException unreadable) {
+                while ((next = queue.poll()) != null) {
+                    next.result.completeExceptionally(unreadable);
+                    done++;
+                }
+            } finally {
+                if (session != null) {
+                    session.release();
+                }
+            }
+            if (pending.addAndGet(-done) > 0) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException shutdown) {
+                Command<?> dropped;
+                while ((dropped = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    dropped.result.completeExceptionally(shutdown);
+                }
+            }
+        }
+    }
+
+    private static final class Command<T> {
+        private final Function<PlayerSession, T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Command(Function<PlayerSession, T> action) {
+            this.action = action;
+        }
+
+        void run(PlayerSession session) {
+            try {
+                result.complete(action.apply(session));
+            } catch (RuntimeException | Error exception) {
+                result.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "session-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
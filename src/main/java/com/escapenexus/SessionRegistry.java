@@ -0,0 +1,414 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Owns any number of independent {@link PlayerSession}s keyed by session id,
+ * so one JVM can host many players at once. Sessions of the same game share
+ * one {@link GameTemplate}; each costs only its {@link SessionState} plus a few
+ * small objects, a few hundred bytes in all.
+ *
+ * <p>With a {@link SessionTimer}, every session runs against its template's
+ * time limit and is marked {@link GameStatus#LOST} when it runs out, then
+ * closed after a grace period (see {@link #setExpiredGrace(Duration)}). A
+ * spilled session is not read back to expire it; it is marked lost, and its
+ * listener told, when it is next read back.
+ *
+ * <p>With a {@link SessionSpill}, at most {@link SessionSpill#getMaxResident()}
+ * sessions stay on the heap: opening or reading back one more passivates the
+ * least recently used tenth, and {@link #passivateIdle()} spills every
+ * session idle past the threshold. Lookups read spilled sessions back
+ * transparently. Writing out and reading back a session happen inside the
+ * map's per-key compute, so a session is never resident and on disk at once.
+ *
+ * <p>With an {@link AttemptLimiter}, {@link #attempt(PlayerSession, Object)}
+ * rate-limits each session's attempts per puzzle.
+ *
+ * <p>Opening, looking up and closing sessions is thread-safe. Each session must
+ * still be driven by one thread at a time.
+ */
+public final class SessionRegistry {
+
+    /** How long a session that ran out of time stays open, so its player can still see the result. */
+    public static final Duration DEFAULT_EXPIRED_GRACE = Duration.ofMinutes(5);
+
+    private static final System.Logger LOG = System.getLogger(SessionRegistry.class.getName());
+
+    private final Map<String, PlayerSession> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, GameTemplate> templates = new ConcurrentHashMap<>();
+    private final SessionTimer timer;
+    private final SessionTimer.Listener events;
+    private final SessionSpill spill;
+    private final List<Consumer<String>> closeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final Expiry expiry = new Expiry();
+    private final SessionTimer.Listener removal = this::removeExpired;
+    private final Set<String> expiredWhileSpilled = ConcurrentHashMap.newKeySet();
+    private volatile AttemptLimiter limiter;
+    private volatile Duration expiredGrace = DEFAULT_EXPIRED_GRACE;
+
+    public SessionRegistry() {
+        this(null, null, null);
+    }
+
+    public SessionRegistry(SessionTimer timer, SessionTimer.Listener events) {
+        this(timer, events, null);
+    }
+
+    /**
+     * @param timer  enforces time limits, or null for untimed sessions
+     * @param events also told about warnings and expiries, after the session is marked lost; may be null
+     * @param spill  where idle sessions are passivated, or null to keep every session on the heap
+     */
+    public SessionRegistry(SessionTimer timer, SessionTimer.Listener events, SessionSpill spill) {
+        this.timer = timer;
+        this.events = events;
+        this.spill = spill;
+    }
+
+    /** Opens a session of the default game at {@code difficulty}. */
+    public PlayerSession open(String username, Difficulty difficulty) {
+        return open(username, GameFactory.defaultTemplate(difficulty), ThreadLocalRandom.current().nextLong());
+    }
+
+    /** Opens a session of {@code template}; {@code seed} drives its light-pattern sequences. */
+    public PlayerSession open(String username, GameTemplate template, long seed) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        Objects.requireNonNull(template, "template");
+        SessionState state = template.newSession(seed);
+        state.start();
+        PlayerSession session = new PlayerSession(UUID.randomUUID().toString(), username, state);
+        if (spill != null) {
+            templates.putIfAbsent(template.getId(), template);
+            session.touch(spill.now());
+        }
+        sessions.put(session.getId(), session);
+        EngineMetrics.LIVE_SESSIONS.increment();
+        if (timer != null) {
+            timer.start(session.getId(), template.getTimeLimit(), expiry);
+        }
+        trimToCapacity();
+        return session;
+    }
+
+    /**
+     * Looks the session up, reading it back from the spill directory if it was
+     * passivated.
+     *
+     * @throws IllegalStateException if a spilled session cannot be read back
+     */
+    public Optional<PlayerSession> get(String sessionId) {
+        if (sessionId == null) {
+            return Optional.empty();
+        }
+        PlayerSession session = sessions.get(sessionId);
+        if (spill == null) {
+            return Optional.ofNullable(session);
+        }
+        if (session != null && !session.isPassivated()) {
+            spill.recordHit();
+            session.touch(spill.now());
+            return Optional.of(session);
+        }
+        spill.recordMiss();
+        PlayerSession rehydrated = rehydrate(sessionId);
+        if (rehydrated != null) {
+            trimToCapacity();
+        }
+        return Optional.ofNullable(rehydrated);
+    }
+
+    /**
+     * Runs {@code action} with the session pinned, so it cannot be passivated
+     * halfway. Returns empty if there is no such session.
+     */
+    public <T> Optional<T> with(String sessionId, Function<PlayerSession, T> action) {
+        PlayerSession session = pin(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(action.apply(session));
+        } finally {
+            session.release();
+        }
+    }
+
+    /** Looks the session up and pins it; the caller must {@link PlayerSession#release()} it. Null if unknown. */
+    PlayerSession pin(String sessionId) {
+        while (true) {
+            PlayerSession session = get(sessionId).orElse(null);
+            if (session == null || session.acquire()) {
+                return session;
+            }
+            // Passivated between lookup and pin: the next lookup reads it back.
+        }
+    }
+
+    /** Whether the session is open, without reading it back if it is spilled. */
+    public boolean contains(String sessionId) {
+        return sessionId != null && (sessions.containsKey(sessionId) || (spill != null && spill.contains(sessionId)));
+    }
+
+    /** Ends and forgets the session; returns false if there was none. */
+    public boolean close(String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        PlayerSession session = sessions.remove(sessionId);
+        boolean existed = session != null;
+        expiredWhileSpilled.remove(sessionId);
+        if (!existed && spill != null) {
+            try {
+                existed = spill.delete(sessionId);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to delete spilled session " + sessionId, e);
+            }
+        }
+        if (!existed) {
+            return false;
+        }
+        EngineMetrics.LIVE_SESSIONS.decrement();
+        if (timer != null) {
+            timer.cancel(sessionId);
+        }
+        if (session != null) {
+            session.getState().end();
+        }
+        for (Consumer<String> listener : closeListeners) {
+            listener.accept(sessionId);
+        }
+        return true;
+    }
+
+    /** Tells {@code listener} the id of every session closed from now on, however it was closed. */
+    void addCloseListener(Consumer<String> listener) {
+        closeListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    void removeCloseListener(Consumer<String> listener) {
+        closeListeners.remove(listener);
+    }
+
+    /**
+     * Attempts the session's current puzzle, first taking an attempt from its
+     * bucket if there is a limiter.
+     *
+     * @throws AttemptLimiter.RateLimitedException if the session is out of attempts on this puzzle
+     */
+    public boolean attempt(PlayerSession session, Object input) {
+        AttemptLimiter current = limiter;
+        int puzzle = session.currentPuzzle();
+        if (current != null && puzzle >= 0 && session.getState().getStatus() == GameStatus.IN_PROGRESS) {
+            current.check(session.getId(), puzzle, session.getTemplate().getDifficulty());
+        }
+        return session.attempt(input);
+    }
+
+    public Optional<AttemptLimiter> getAttemptLimiter() {
+        return Optional.ofNullable(limiter);
+    }
+
+    /**
+     * Sets how long a session that ran out of time stays open before it is
+     * closed; zero closes it as soon as it expires.
+     */
+    public void setExpiredGrace(Duration grace) {
+        if (grace == null || grace.isNegative()) {
+            throw new IllegalArgumentException("grace must be zero or positive");
+        }
+        this.expiredGrace = grace;
+    }
+
+    /** Limits attempts made through {@link #attempt(PlayerSession, Object)}; null removes the limit. */
+    public void setAttemptLimiter(AttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /** Stops the session's clock; returns false if it has none or is already paused. */
+    public boolean pause(String sessionId) {
+        return timer != null && timer.pause(sessionId);
+    }
+
+    public boolean resume(String sessionId) {
+        return timer != null && timer.resume(sessionId);
+    }
+
+    /** Open sessions, resident or spilled. */
+    public int size() {
+        return sessions.size() + (spill != null ? (int) spill.getSpilledCount() : 0);
+    }
+
+    /** Sessions currently on the heap. */
+    public int residentCount() {
+        return sessions.size();
+    }
+
+    public Optional<SessionSpill> getSpill() {
+        return Optional.ofNullable(spill);
+    }
+
+    /** Spills every unpinned session idle past the spill's threshold; returns how many were written out. */
+    public int passivateIdle() {
+        if (spill == null) {
+            return 0;
+        }
+        long now = spill.now();
+        int passivated = 0;
+        for (PlayerSession session : sessions.values()) {
+            if (spill.isIdle(session, now) && passivate(session.getId())) {
+                passivated++;
+            }
+        }
+        return passivated;
+    }
+
+    /** Writes the session out and drops it from the heap, unless it is pinned or already gone. */
+    boolean passivate(String sessionId) {
+        boolean[] written = new boolean[1];
+        sessions.computeIfPresent(sessionId, (id, session) -> {
+            if (!session.tryPassivate()) {
+                return session;
+            }
+            try {
+                spill.write(session);
+                written[0] = true;
+                return null;
+            } catch (IOException e) {
+                // Keep it resident; the next sweep tries again.
+                session.reactivate();
+                return session;
+            }
+        });
+        return written[0];
+    }
+
+    private PlayerSession rehydrate(String sessionId) {
+        boolean[] expired = new boolean[1];
+        PlayerSession rehydrated = sessions.compute(sessionId, (id, current) -> {
+            if (current != null && !current.isPassivated()) {
+                return current;
+            }
+            try {
+                PlayerSession session = spill.read(id, templates::get);
+                if (session != null) {
+                    session.touch(spill.now());
+                    // Its time ran out on disk; the expiry was left for now.
+                    expired[0] = expiredWhileSpilled.remove(id) && session.getState().expire();
+                }
+                return session;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to rehydrate session " + id, e);
+            }
+        });
+        if (expired[0]) {
+            expired(sessionId);
+        }
+        return rehydrated;
+    }
+
+    /**
+     * Marks a session out of time. A resident one is marked lost at once; a
+     * spilled one is only flagged, so the timer thread never reads it back,
+     * and is marked when it is next read back.
+     */
+    private void expire(String sessionId) {
+        boolean[] expired = new boolean[1];
+        sessions.compute(sessionId, (id, current) -> {
+            // Inside the key's compute, so the session cannot be written out halfway.
+            if (current != null) {
+                expired[0] = current.getState().expire();
+            } else if (spill != null) {
+                expiredWhileSpilled.add(id);
+            }
+            return current;
+        });
+        if (expired[0]) {
+            expired(sessionId);
+        }
+    }
+
+    /** Tells the listener and schedules the session's removal after the grace period. */
+    private void expired(String sessionId) {
+        if (events != null) {
+            events.onExpired(sessionId);
+        }
+        Duration grace = expiredGrace;
+        if (grace.isZero()) {
+            removeExpired(sessionId);
+        } else {
+            timer.start(sessionId, grace, removal);
+        }
+    }
+
+    private void removeExpired(String sessionId) {
+        try {
+            close(sessionId);
+        } catch (RuntimeException exception) {
+            LOG.log(System.Logger.Level.WARNING, "Failed to remove expired session " + sessionId, exception);
+        }
+    }
+
+    /** Passivates the least recently used tenth once the resident set outgrows the spill's bound. */
+    private void trimToCapacity() {
+        if (spill == null || sessions.size() <= spill.getMaxResident() || !trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] accessed = sessions.values().stream().mapToLong(PlayerSession::getLastAccess).toArray();
+            int target = spill.getMaxResident() - spill.getMaxResident() / 10;
+            int excess = accessed.length - target;
+            if (excess <= 0) {
+                return;
+            }
+            Arrays.sort(accessed);
+            long cutoff = accessed[excess - 1];
+            for (PlayerSession session : sessions.values()) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (session.getLastAccess() <= cutoff && passivate(session.getId())) {
+                    excess--;
+                }
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private final class Expiry implements SessionTimer.Listener {
+
+        @Override
+        public void onWarning(String sessionId, Duration remaining) {
+            if (events != null) {
+                events.onWarning(sessionId, remaining);
+            }
+        }
+
+        @Override
+        public void onExpired(String sessionId) {
+            // Runs on the timer thread, which would swallow a failure silently.
+            try {
+                expire(sessionId);
+            } catch (RuntimeException exception) {
+                LOG.log(System.Logger.Level.WARNING, "Failed to expire session " + sessionId, exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.escapenexus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Spill directory and policy for passivating idle {@link PlayerSession}s out of
+ * a {@link SessionRegistry}. A session that has not been looked up for
+ * {@code idleAfter}, or that falls out of the {@code maxResident} most recently
+ * used ones, is written to {@code <directory>/<session id>.session} and
+ * dropped from the heap; its next lookup reads it back and deletes the file.
+ *
+ * <p>A spilled session is its {@link SessionState} arrays plus the template id,
+ * a few dozen bytes. Templates themselves never leave the heap. Lookups that
+ * find the session resident count as hits, the others as misses, and every
+ * rehydration is timed; see {@link #getStats()}.
+ */
+public final class SessionSpill {
+
+    public static final Duration DEFAULT_IDLE_AFTER = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAX_RESIDENT = 10_000;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".session";
+
+    private final Path directory;
+    private final long idleNanos;
+    private final int maxResident;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder passivations = new LongAdder();
+    private final LongAdder rehydrations = new LongAdder();
+    private final LongAdder rehydrationNanos = new LongAdder();
+    private final AtomicLong maxRehydrationNanos = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    public SessionSpill(Path directory) {
+        this(directory, DEFAULT_IDLE_AFTER, DEFAULT_MAX_RESIDENT);
+    }
+
+    public SessionSpill(Path directory, Duration idleAfter, int maxResident) {
+        this(directory, idleAfter, maxResident, System::nanoTime);
+    }
+
+    SessionSpill(Path directory, Duration idleAfter, int maxResident, LongSupplier clock) {
+        if (idleAfter == null || idleAfter.isNegative() || maxResident < 1) {
+            throw new IllegalArgumentException("idleAfter must be non-negative and maxResident positive");
+        }
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.idleNanos = idleAfter.toNanos();
+        this.maxResident = maxResident;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getMaxResident() {
+        return maxResident;
+    }
+
+    /** Sessions currently on disk. */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), passivations.sum(), rehydrations.sum(),
+                rehydrationNanos.sum(), maxRehydrationNanos.get());
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    boolean isIdle(PlayerSession session, long now) {
+        return now - session.getLastAccess() >= idleNanos;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    boolean contains(String sessionId) {
+        return isSessionId(sessionId) && Files.exists(fileFor(sessionId));
+    }
+
+    /**
+     * Whether {@code id} has the form of an id the registry mints, a UUID in
+     * canonical form. Anything else, client text included, never names a file.
+     */
+    static boolean isSessionId(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException notUuid) {
+            return false;
+        }
+    }
+
+    /** Writes the session atomically: readers see the old file or the complete new one. */
+    void write(PlayerSession session) throws IOException {
+        Files.createDirectories(directory);
+        Path target = fileFor(session.getId());
+        Path temp = Files.createTempFile(directory, session.getId(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 512))) {
+                out.writeInt(FORMAT_VERSION);
+                UUID templateId = session.getTemplate().getId();
+                out.writeLong(templateId.getMostSignificantBits());
+                out.writeLong(templateId.getLeastSignificantBits());
+                out.writeUTF(session.getUsername());
+                session.getState().writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        spilled.incrementAndGet();
+        passivations.increment();
+    }
+
+    /**
+     * Reads the session back and deletes its file; returns null if it was never
+     * spilled. {@code templates} resolves the template id written with it.
+     */
+    PlayerSession read(String sessionId, Function<UUID, GameTemplate> templates) throws IOException {
+        if (!isSessionId(sessionId)) {
+            return null;
+        }
+        long start = clock.getAsLong();
+        Path file = fileFor(sessionId);
+        PlayerSession session;
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 512))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown session format in " + file);
+            }
+            UUID templateId = new UUID(in.readLong(), in.readLong());
+            GameTemplate template = templates.apply(templateId);
+            if (template == null) {
+                throw new IOException("Unknown template " + templateId + " for session " + sessionId);
+            }
+            String username = in.readUTF();
+            session = new PlayerSession(sessionId, username, SessionState.readFrom(in, template));
+        } catch (NoSuchFileException missing) {
+            return null;
+        }
+        delete(sessionId);
+
+        long elapsed = clock.getAsLong() - start;
+        rehydrations.increment();
+        rehydrationNanos.add(elapsed);
+        maxRehydrationNanos.accumulateAndGet(elapsed, Math::max);
+        return session;
+    }
+
+    /** Deletes the session's file; returns false if there was none. */
+    boolean delete(String sessionId) throws IOException {
+        if (isSessionId(sessionId) && Files.deleteIfExists(fileFor(sessionId))) {
+            spilled.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /** @throws IllegalArgumentException if the id would name a file outside the spill directory */
+    private Path fileFor(String sessionId) {
+        Path file = directory.resolve(sessionId + SUFFIX);
+        if (!isSessionId(sessionId) || !directory.equals(file.getParent())) {
+            throw new IllegalArgumentException("Not a session id: " + sessionId);
+        }
+        return file;
+    }
+
+    /** Snapshot of the spill counters. */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long passivations;
+        private final long rehydrations;
+        private final long totalRehydrationNanos;
+        private final long maxRehydrationNanos;
+
+        Stats(long hits, long misses, long passivations, long rehydrations,
+              long totalRehydrationNanos, long maxRehydrationNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.passivations = passivations;
+            this.rehydrations = rehydrations;
+            this.totalRehydrationNanos = totalRehydrationNanos;
+            this.maxRehydrationNanos = maxRehydrationNanos;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPassivations() {
+            return passivations;
+        }
+
+        public long getRehydrations() {
+            return rehydrations;
+        }
+
+        public long getTotalRehydrationNanos() {
+            return totalRehydrationNanos;
+        }
+
+        public long getMaxRehydrationNanos() {
+            return maxRehydrationNanos;
+        }
+
+        public double getAverageRehydrationNanos() {
+            return rehydrations == 0 ? 0.0 : (double) totalRehydrationNanos / rehydrations;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", passivations=" + passivations
+                    + ", rehydrations=" + rehydrations + ", avgRehydrationNanos=" + (long) getAverageRehydrationNanos()
+                    + ", maxRehydrationNanos=" + maxRehydrationNanos;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.escapenexus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Mutable state of one play-through of a {@link GameTemplate}. Everything that
+ * can change during play lives in two small arrays:
+ *
+ * <pre>
+ * bits:  [solved: puzzles][locked: rooms][inventory: items] | [light colors: 3 bits each, per slot]
+ * bytes: [hints left: rooms][hint cursor: puzzles][item state: items][light round: slots]
+ * </pre>
+ *
+ * Light colors start on a fresh word after the flags and are packed the same
+ * way {@link LightPatternPuzzle} packs its own sequence, so a session of the
+ * default three-room game costs a couple of hundred bytes on top of the shared
+ * template. Instances are not thread-safe, except for the status, which a
+ * {@link SessionTimer} may expire from its own thread.
+ */
+public final class SessionState {
+
+    private static final ItemState[] ITEM_STATES = ItemState.values();
+    private static final AtomicReferenceFieldUpdater<SessionState, GameStatus> STATUS =
+            AtomicReferenceFieldUpdater.newUpdater(SessionState.class, GameStatus.class, "status");
+
+    private final GameTemplate template;
+    private final long[] bits;
+    private final byte[] bytes;
+    private final int lightWordBase;
+    private int currentRoom;
+    private volatile GameStatus status = GameStatus.NOT_STARTED;
+
+    SessionState(GameTemplate template, long seed) {
+        this.template = template;
+        int rooms = template.getRoomCount();
+        int puzzles = template.getPuzzleCount();
+        int items = template.getItemCount();
+        this.lightWordBase = (puzzles + rooms + items + 63) >>> 6;
+        this.bits = new long[lightWordBase + template.lightWordCount()];
+        this.bytes = new byte[rooms + puzzles + items + template.lightSlotCount()];
+
+        for (int r = 0; r < rooms; r++) {
+            if (template.isRoomInitiallyLocked(r)) {
+                setBit(lockedBit(r), true);
+            }
+            bytes[r] = (byte) Math.min(Byte.MAX_VALUE, template.getRoomHintLimit(r));
+        }
+        for (int i = 0; i < items; i++) {
+            bytes[itemStateByte(i)] = (byte) template.getItemInitialState(i).ordinal();
+        }
+        for (int slot = 0; slot < template.lightSlotCount(); slot++) {
+            long slotSeed = seed ^ (slot * 0x9E3779B97F4A7C15L);
+            LightPatternPuzzle.fillSequence(slotSeed, bits, lightWord(slot), template.lightRounds(slot));
+        }
+    }
+
+    private SessionState(GameTemplate template, long[] bits, byte[] bytes) {
+        this.template = template;
+        this.lightWordBase = (template.getPuzzleCount() + template.getRoomCount() + template.getItemCount() + 63) >>> 6;
+        this.bits = bits;
+        this.bytes = bytes;
+    }
+
+    /** Writes everything that changes during play; {@link #readFrom} rebuilds it against the same template. */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(currentRoom);
+        out.writeByte(status.ordinal());
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static SessionState readFrom(DataInput in, GameTemplate template) throws IOException {
+        int room = in.readInt();
+        int status = in.readByte();
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        SessionState state = new SessionState(template, bits, bytes);
+        if (bits.length != state.lightWordBase + template.lightWordCount()
+                || bytes.length != template.getRoomCount() + template.getPuzzleCount() + template.getItemCount()
+                        + template.lightSlotCount()
+                || room < 0 || room >= Math.max(1, template.getRoomCount())
+                || status < 0 || status >= GameStatus.values().length) {
+            throw new IOException("Saved session does not match template " + template.getId());
+        }
+        state.currentRoom = room;
+        state.status = GameStatus.values()[status];
+        return state;
+    }
+
+    public GameTemplate getTemplate() {
+        return template;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public void start() {
+        status = GameStatus.IN_PROGRESS;
+    }
+
+    /** Completes the session unless its time already ran out. */
+    public void end() {
+        GameStatus current;
+        do {
+            current = status;
+        } while (current != GameStatus.LOST && !STATUS.compareAndSet(this, current, GameStatus.COMPLETED));
+    }
+
+    /** Marks a session that is still being played as lost; returns false if it had already ended. */
+    public boolean expire() {
+        return STATUS.compareAndSet(this, GameStatus.IN_PROGRESS, GameStatus.LOST);
+    }
+
+    public int getCurrentRoom() {
+        return currentRoom;
+    }
+
+    public void moveTo(int room) {
+        if (room >= 0 && room < template.getRoomCount()) {
+            currentRoom = room;
+        }
+    }
+
+    /**
+     * Moves on once the current room is cleared, mirroring
+     * {@link NavigationGraph#nextTraversableRoom(Room)}: to the first unlocked exit
+     * that still has unsolved puzzles, else the first unlocked exit. Door locks
+     * are not tracked per session. Returns the room the session is in afterwards.
+     */
+    public int advance() {
+        if (!isCleared(currentRoom)) {
+            return currentRoom;
+        }
+        int fallback = -1;
+        for (int e = template.exitsStart(currentRoom); e < template.exitsEnd(currentRoom); e++) {
+            int next = template.exit(e);
+            if (isLocked(next)) {
+                continue;
+            }
+            if (!isCleared(next)) {
+                currentRoom = next;
+                return next;
+            }
+            if (fallback < 0) {
+                fallback = next;
+            }
+        }
+        if (fallback >= 0) {
+            currentRoom = fallback;
+        }
+        return currentRoom;
+    }
+
+    /** Whether every puzzle of the game is solved. */
+    public boolean isComplete() {
+        for (int p = 0; p < template.getPuzzleCount(); p++) {
+            if (!isSolved(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSolved(int puzzle) {
+        return getBit(puzzle);
+    }
+
+    public void setSolved(int puzzle, boolean solved) {
+        setBit(puzzle, solved);
+    }
+
+    public boolean isLocked(int room) {
+        return getBit(lockedBit(room));
+    }
+
+    public void setLocked(int room, boolean locked) {
+        setBit(lockedBit(room), locked);
+    }
+
+    public boolean isCleared(int room) {
+        for (int p = template.puzzleStart(room); p < template.puzzleEnd(room); p++) {
+            if (!isSolved(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Unlocks the room if its required key is in this session's inventory. */
+    public boolean unlock(int room) {
+        if (!isLocked(room)) {
+            return false;
+        }
+        int key = template.getRoomKeyRequired(room);
+        if (key < 0 || !hasItem(key)) {
+            return false;
+        }
+        setLocked(room, false);
+        return true;
+    }
+
+    /** Unlocks every room that needs {@code item}, if it is in the inventory; returns how many opened. */
+    public int unlockWith(int item) {
+        if (item < 0 || !hasItem(item)) {
+            return 0;
+        }
+        int unlocked = 0;
+        for (int k = template.keyRoomsStart(item); k < template.keyRoomsEnd(item); k++) {
+            int room = template.keyRoom(k);
+            if (isLocked(room)) {
+                setLocked(room, false);
+                unlocked++;
+            }
+        }
+        return unlocked;
+    }
+
+    public boolean hasItem(int item) {
+        return getBit(inventoryBit(item));
+    }
+
+    public boolean pickUp(int item) {
+        if (item < 0 || !template.isItemPortable(item) || hasItem(item)) {
+            return false;
+        }
+        setBit(inventoryBit(item), true);
+        return true;
+    }
+
+    public boolean drop(int item) {
+        if (item < 0 || !hasItem(item)) {
+            return false;
+        }
+        setBit(inventoryBit(item), false);
+        return true;
+    }
+
+    public ItemState getItemState(int item) {
+        return ITEM_STATES[bytes[itemStateByte(item)]];
+    }
+
+    public void setItemState(int item, ItemState state) {
+        bytes[itemStateByte(item)] = (byte) (state != null ? state : ItemState.NEW).ordinal();
+    }
+
+    public int getHintsRemaining(int room) {
+        return bytes[room];
+    }
+
+    /**
+     * Checks an answer for the puzzle. Light-pattern puzzles advance one round
+     * per correct answer and only count as solved after the final round; solving
+     * a puzzle puts its key, if any, into the inventory and opens every room
+     * that needs it.
+     */
+    public boolean attempt(int puzzle, Object input) {
+        if (isSolved(puzzle)) {
+            return true;
+        }
+        int slot = template.lightSlot(puzzle);
+        if (slot >= 0) {
+            int round = lightRound(slot);
+            if (!LightPatternPuzzle.matchesSequence(input, bits, lightWord(slot), round + 1)) {
+                return false;
+            }
+            if (round + 1 < template.lightRounds(slot)) {
+                bytes[lightRoundByte(slot)] = (byte) (round + 1);
+                return true;
+            }
+        } else if (!template.puzzle(puzzle).matches(input)) {
+            return false;
+        }
+        setSolved(puzzle, true);
+        int key = template.getPuzzleKeyProvided(puzzle);
+        pickUp(key);
+        unlockWith(key);
+        return true;
+    }
+
+    /** Spends one hint from the puzzle's room budget, mirroring {@link User#requestHint(Room)}. */
+    public String requestHint(int puzzle) {
+        int room = template.roomOf(puzzle);
+        if (bytes[room] <= 0) {
+            return "No hints left.";
+        }
+        bytes[room]--;
+        EngineMetrics.hint(template.getDifficulty());
+
+        List<String> hints = template.getHints(puzzle);
+        int cursor = hintCursorByte(puzzle);
+        if (bytes[cursor] < hints.size()) {
+            return hints.get(bytes[cursor]++);
+        }
+        int slot = template.lightSlot(puzzle);
+        int round = slot >= 0 ? lightRound(slot) : 0;
+        return template.puzzle(puzzle).fallbackHint(round);
+    }
+
+    /** Light round the player is on (0-based), or -1 for other puzzle types. */
+    public int getLightRound(int puzzle) {
+        int slot = template.lightSlot(puzzle);
+        return slot >= 0 ? lightRound(slot) : -1;
+    }
+
+    /** Color the light-pattern puzzle flashes at {@code position} of its sequence. */
+    public LightColor getLightColor(int puzzle, int position) {
+        int slot = template.lightSlot(puzzle);
+        if (slot < 0 || position < 0 || position >= template.lightRounds(slot)) {
+            throw new IndexOutOfBoundsException("position " + position);
+        }
+        return LightColor.fromIndex(LightPatternPuzzle.colorAt(bits, lightWord(slot), position));
+    }
+
+    /**
+     * Shallow heap size of this session on a 64-bit JVM with compressed oops:
+     * the object itself plus its two arrays, each rounded to 8-byte alignment.
+     * The template is shared and not counted.
+     */
+    public long estimatedFootprintBytes() {
+        long self = align(12 + 4 + 4 + 4 + 4 + 4 + 4);
+        long bitsArray = align(16 + 8L * bits.length);
+        long bytesArray = align(16 + bytes.length);
+        return self + bitsArray + bytesArray;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private int lockedBit(int room) {
+        return template.getPuzzleCount() + room;
+    }
+
+    private int inventoryBit(int item) {
+        return template.getPuzzleCount() + template.getRoomCount() + item;
+    }
+
+    private int hintCursorByte(int puzzle) {
+        return template.getRoomCount() + puzzle;
+    }
+
+    private int itemStateByte(int item) {
+        return template.getRoomCount() + template.getPuzzleCount() + item;
+    }
+
+    private int lightRoundByte(int slot) {
+        return template.getRoomCount() + template.getPuzzleCount() + template.getItemCount() + slot;
+    }
+
+    private int lightRound(int slot) {
+        return bytes[lightRoundByte(slot)] & 0xFF;
+    }
+
+    private int lightWord(int slot) {
+        return lightWordBase + template.lightWordOffset(slot);
+    }
+
+    private boolean getBit(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void setBit(int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.escapenexus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces session time limits on a {@link TimingWheel}. Each running session
+ * holds exactly one timeout, for its next warning or for its expiry, so
+ * starting, pausing, resuming and cancelling a clock are all O(1).
+ *
+ * <p>Callbacks run on the wheel's worker thread and must hand real work off
+ * quickly. A paused clock keeps its remaining time and schedules nothing.
+ */
+public final class SessionTimer implements AutoCloseable {
+
+    /** Warnings fired when this much time is left, unless the limit is shorter. */
+    public static final List<Duration> DEFAULT_WARNINGS = List.of(Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+    /** Receives the events of one session's clock. */
+    public interface Listener {
+        default void onWarning(String sessionId, Duration remaining) {
+        }
+
+        void onExpired(String sessionId);
+    }
+
+    private final TimingWheel wheel;
+    private final long[] warnings;
+    private final Map<String, Clock> clocks = new ConcurrentHashMap<>();
+
+    public SessionTimer() {
+        this(new TimingWheel(), DEFAULT_WARNINGS);
+    }
+
+    /** The timer takes ownership of {@code wheel} and closes it on {@link #close()}. */
+    public SessionTimer(TimingWheel wheel, List<Duration> warnings) {
+        this.wheel = Objects.requireNonNull(wheel, "wheel");
+        // Largest threshold first, the order in which they fire.
+        this.warnings = warnings.stream().mapToLong(Duration::toNanos).filter(nanos -> nanos > 0)
+                .map(nanos -> -nanos).sorted().map(nanos -> -nanos).distinct().toArray();
+    }
+
+    /**
+     * Starts (or restarts) the session's clock. A null or non-positive limit
+     * means the session never expires and nothing is scheduled.
+     */
+    public void start(String sessionId, Duration limit, Listener listener) {
+        Objects.requireNonNull(sessionId, "sessionId");
+        Objects.requireNonNull(listener, "listener");
+        cancel(sessionId);
+        if (limit == null || limit.isZero() || limit.isNegative()) {
+            return;
+        }
+        Clock clock = new Clock(sessionId, listener);
+        clocks.put(sessionId, clock);
+        synchronized (clock) {
+            clock.deadline = wheel.nanos() + limit.toNanos();
+            scheduleNext(clock);
+        }
+    }
+
+    /** Stops the clock, keeping the time left; returns false if it is not running. */
+    public boolean pause(String sessionId) {
+        Clock clock = sessionId != null ? clocks.get(sessionId) : null;
+        if (clock == null) {
+            return false;
+        }
+        synchronized (clock) {
+            if (clock.paused) {
+                return false;
+            }
+            clock.timeout.cancel();
+            clock.remaining = Math.max(0, clock.deadline - wheel.nanos());
+            clock.paused = true;
+            return true;
+        }
+    }
+
+    /** Restarts a paused clock with the time it had left; returns false if it was not paused. */
+    public boolean resume(String sessionId) {
+        Clock clock = sessionId != null ? clocks.get(sessionId) : null;
+        if (clock == null) {
+            return false;
+        }
+        synchronized (clock) {
+            if (!clock.paused) {
+                return false;
+            }
+            clock.deadline = wheel.nanos() + clock.remaining;
+            clock.paused = false;
+            scheduleNext(clock);
+            return true;
+        }
+    }
+
+    /** Forgets the session's clock without firing anything; returns false if there was none. */
+    public boolean cancel(String sessionId) {
+        Clock clock = sessionId != null ? clocks.remove(sessionId) : null;
+        if (clock == null) {
+            return false;
+        }
+        synchronized (clock) {
+            if (clock.timeout != null) {
+                clock.timeout.cancel();
+            }
+        }
+        return true;
+    }
+
+    /** Time left on the session's clock, or empty if it has none. */
+    public Optional<Duration> remaining(String sessionId) {
+        Clock clock = sessionId != null ? clocks.get(sessionId) : null;
+        if (clock == null) {
+            return Optional.empty();
+        }
+        synchronized (clock) {
+            long left = clock.paused ? clock.remaining : clock.deadline - wheel.nanos();
+            return Optional.of(Duration.ofNanos(Math.max(0, left)));
+        }
+    }
+
+    public boolean isPaused(String sessionId) {
+        Clock clock = sessionId != null ? clocks.get(sessionId) : null;
+        if (clock == null) {
+            return false;
+        }
+        synchronized (clock) {
+            return clock.paused;
+        }
+    }
+
+    /** Number of sessions with a clock, running or paused. */
+    public int size() {
+        return clocks.size();
+    }
+
+    TimingWheel getWheel() {
+        return wheel;
+    }
+
+    @Override
+    public void close() {
+        wheel.close();
+        clocks.clear();
+    }
+
+    /** Schedules the clock's next event, skipping warnings already behind it; the caller holds its monitor. */
+    private void scheduleNext(Clock clock) {
+        long left = clock.deadline - wheel.nanos();
+        while (clock.nextWarning < warnings.length && warnings[clock.nextWarning] >= left) {
+            clock.nextWarning++;
+        }
+        long at = clock.nextWarning < warnings.length ? clock.deadline - warnings[clock.nextWarning] : clock.deadline;
+        clock.timeout = wheel.schedule(clock, at - wheel.nanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Clock of one session; also the task of its pending timeout. */
+    private final class Clock implements Runnable {
+        private final String sessionId;
+        private final Listener listener;
+        private long deadline;
+        private long remaining;
+        private int nextWarning;
+        private boolean paused;
+        private TimingWheel.Timeout timeout;
+
+        Clock(String sessionId, Listener listener) {
+            this.sessionId = sessionId;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            long warning;
+            synchronized (this) {
+                // A timeout that fired while this clock was paused or rescheduled is stale.
+                if (paused || !timeout.isExpired() || clocks.get(sessionId) != this) {
+                    return;
+                }
+                if (nextWarning < warnings.length) {
+                    warning = warnings[nextWarning++];
+                    scheduleNext(this);
+                } else {
+                    warning = -1;
+                }
+            }
+            if (warning >= 0) {
+                listener.onWarning(sessionId, Duration.ofNanos(warning));
+            } else if (clocks.remove(sessionId, this)) {
+                listener.onExpired(sessionId);
+            }
+        }
+    }
+}
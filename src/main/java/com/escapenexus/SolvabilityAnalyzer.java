@@ -0,0 +1,452 @@
+package com.escapenexus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Static check that a game can be finished. Starting in the first room and
+ * assuming every puzzle can be solved, it collects keys (puzzle rewards and
+ * portable room items) and follows every door or room lock those keys open,
+ * until nothing new becomes reachable. The goal is the last room of the game.
+ *
+ * <p>Every pass is linear in rooms + doors + puzzles + items: each blocked edge
+ * waits on at most two keys, and cycle detection finds the strongly connected
+ * components of the unreached rooms-and-keys graph instead of comparing rooms
+ * pairwise.
+ */
+public final class SolvabilityAnalyzer {
+
+    private static final int PASSABLE = -1;
+    private static final int BLOCKED_FOREVER = -2;
+
+    private final NavigationGraph graph;
+    private final Map<UUID, Integer> itemIndex = new HashMap<>();
+    private final int roomCount;
+
+    // Keys found in room r are roomKeys[roomKeyStart[r] .. roomKeyStart[r + 1]).
+    private final int[] roomKeyStart;
+    private final int[] roomKeys;
+    // Lock on entering a room / passing an edge's door: PASSABLE, BLOCKED_FOREVER or a key index.
+    private final int[] roomLock;
+    private final int[] doorLock;
+
+    private boolean[] have;
+    private int[] keySource;
+
+    private SolvabilityAnalyzer(Game game) {
+        this.graph = game.getNavigation();
+        this.roomCount = graph.size();
+        for (Item item : game.getItems()) {
+            indexItem(item);
+        }
+        for (Room room : game.getRooms()) {
+            indexItem(room.getKeyRequired());
+            for (Item item : room.getItems()) {
+                indexItem(item);
+            }
+            for (Puzzle puzzle : room.getPuzzles()) {
+                indexItem(puzzle.getKeyProvided());
+            }
+        }
+        for (Door door : game.getDoors()) {
+            indexItem(door.getKeyRequired());
+        }
+
+        this.roomKeyStart = new int[roomCount + 1];
+        this.roomLock = new int[roomCount];
+        int[] keys = new int[16];
+        int keyCount = 0;
+        for (int r = 0; r < roomCount; r++) {
+            Room room = graph.getRoom(r);
+            roomKeyStart[r] = keyCount;
+            roomLock[r] = room.isLocked() ? lockOf(room.getKeyRequired()) : PASSABLE;
+            for (Puzzle puzzle : room.getPuzzles()) {
+                int key = indexOf(puzzle.getKeyProvided());
+                if (key >= 0) {
+                    keys = grow(keys, keyCount);
+                    keys[keyCount++] = key;
+                }
+            }
+            for (Item item : room.getItems()) {
+                if (item.isPortable()) {
+                    keys = grow(keys, keyCount);
+                    keys[keyCount++] = indexOf(item);
+                }
+            }
+        }
+        roomKeyStart[roomCount] = keyCount;
+        this.roomKeys = Arrays.copyOf(keys, keyCount);
+
+        int edgeCount = graph.edgeStart(roomCount);
+        this.doorLock = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            Door door = graph.edgeDoor(e);
+            doorLock[e] = door != null && door.isLocked() ? lockOf(door.getKeyRequired()) : PASSABLE;
+        }
+    }
+
+    private static int[] grow(int[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, array.length * 2);
+    }
+
+    private int lockOf(Item key) {
+        int index = indexOf(key);
+        return index >= 0 ? index : BLOCKED_FOREVER;
+    }
+
+    public static SolvabilityReport analyze(Game game) {
+        if (game == null || game.getRooms().isEmpty()) {
+            return new SolvabilityReport(null, null, false, List.of(), List.of(), List.of(), List.of());
+        }
+        return new SolvabilityAnalyzer(game).run();
+    }
+
+    private SolvabilityReport run() {
+        int items = itemIndex.size();
+        have = new boolean[items];
+        keySource = new int[items];
+
+        boolean[] visited = new boolean[roomCount];
+        int[] parentRoom = new int[roomCount];
+        int[] parentEdge = new int[roomCount];
+        int[] order = new int[roomCount];
+        int discovered = 0;
+
+        // Edges blocked on a missing key, as singly linked lists per key.
+        int edgeCount = graph.edgeStart(roomCount);
+        int[] waitingHead = new int[items];
+        int[] waitingNext = new int[2 * edgeCount];
+        int[] waitingEdge = new int[2 * edgeCount];
+        int[] edgeSource = new int[edgeCount];
+        int waiting = 0;
+        Arrays.fill(waitingHead, -1);
+
+        int start = 0;
+        int goal = roomCount - 1;
+        visited[start] = true;
+        parentRoom[start] = -1;
+        parentEdge[start] = -1;
+        order[discovered++] = start;
+
+        for (int head = 0; head < discovered; head++) {
+            int room = order[head];
+            for (int e = graph.edgeStart(room); e < graph.edgeEnd(room); e++) {
+                edgeSource[e] = room;
+            }
+
+            // Collect the room's keys, releasing edges that were waiting on them.
+            for (int k = roomKeyStart[room]; k < roomKeyStart[room + 1]; k++) {
+                int key = roomKeys[k];
+                if (have[key]) {
+                    continue;
+                }
+                have[key] = true;
+                keySource[key] = room;
+                for (int w = waitingHead[key]; w >= 0; w = waitingNext[w]) {
+                    int edge = waitingEdge[w];
+                    int target = graph.edgeTarget(edge);
+                    if (visited[target]) {
+                        continue;
+                    }
+                    int missing = missingKey(edge);
+                    if (missing == PASSABLE) {
+                        visited[target] = true;
+                        parentRoom[target] = edgeSource[edge];
+                        parentEdge[target] = edge;
+                        order[discovered++] = target;
+                    } else if (missing >= 0) {
+                        waitingEdge[waiting] = edge;
+                        waitingNext[waiting] = waitingHead[missing];
+                        waitingHead[missing] = waiting++;
+                    }
+                }
+                waitingHead[key] = -1;
+            }
+
+            for (int e = graph.edgeStart(room); e < graph.edgeEnd(room); e++) {
+                int target = graph.edgeTarget(e);
+                if (visited[target]) {
+                    continue;
+                }
+                int missing = missingKey(e);
+                if (missing == PASSABLE) {
+                    visited[target] = true;
+                    parentRoom[target] = room;
+                    parentEdge[target] = e;
+                    order[discovered++] = target;
+                } else if (missing >= 0) {
+                    waitingEdge[waiting] = e;
+                    waitingNext[waiting] = waitingHead[missing];
+                    waitingHead[missing] = waiting++;
+                }
+            }
+        }
+
+        List<Room> unreachable = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            if (!visited[r]) {
+                unreachable.add(graph.getRoom(r));
+            }
+        }
+
+        List<Room> deadEnds = new ArrayList<>();
+        for (int i = 0; i < discovered; i++) {
+            int room = order[i];
+            if (room == goal) {
+                continue;
+            }
+            boolean exit = false;
+            for (int e = graph.edgeStart(room); e < graph.edgeEnd(room) && !exit; e++) {
+                exit = missingKey(e) == PASSABLE;
+            }
+            if (!exit) {
+                deadEnds.add(graph.getRoom(room));
+            }
+        }
+
+        boolean solvable = visited[goal];
+        List<Room> criticalPath = solvable
+                ? criticalPath(goal, parentRoom, parentEdge, order, discovered)
+                : List.of();
+
+        return new SolvabilityReport(graph.getRoom(start), graph.getRoom(goal), solvable,
+                unreachable, cyclicRooms(visited), deadEnds, criticalPath);
+    }
+
+    /**
+     * Walks back from the goal along discovery parents, pulling in the room each
+     * needed key was first found in, then lists the collected rooms in discovery order.
+     */
+    private List<Room> criticalPath(int goal, int[] parentRoom, int[] parentEdge, int[] order, int discovered) {
+        boolean[] required = new boolean[roomCount];
+        int[] stack = new int[roomCount];
+        int top = 0;
+        required[goal] = true;
+        stack[top++] = goal;
+        while (top > 0) {
+            int room = stack[--top];
+            int edge = parentEdge[room];
+            if (edge < 0) {
+                continue;
+            }
+            int parent = parentRoom[room];
+            if (!required[parent]) {
+                required[parent] = true;
+                stack[top++] = parent;
+            }
+            int[] locks = {doorLock[edge], roomLock[room]};
+            for (int key : locks) {
+                if (key < 0) {
+                    continue;
+                }
+                int source = keySource[key];
+                if (!required[source]) {
+                    required[source] = true;
+                    stack[top++] = source;
+                }
+            }
+        }
+
+        List<Room> path = new ArrayList<>();
+        for (int i = 0; i < discovered; i++) {
+            if (required[order[i]]) {
+                path.add(graph.getRoom(order[i]));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Unreachable rooms on a circular key dependency. Nodes are the rooms
+     * never reached and the keys never found; a room points at the keys found
+     * in it and at the neighbours its exits lead to, a key at the rooms it
+     * unlocks. A room is on a key cycle if its strongly connected component
+     * holds a key: it cannot be entered without a key that lies beyond it.
+     */
+    private List<Room> cyclicRooms(boolean[] visited) {
+        int items = itemIndex.size();
+        int nodes = roomCount + items;
+        int edgeCount = graph.edgeStart(roomCount);
+        int[] from = new int[roomKeys.length + 3 * edgeCount];
+        int[] to = new int[from.length];
+        int edges = 0;
+        for (int r = 0; r < roomCount; r++) {
+            if (visited[r]) {
+                continue;
+            }
+            for (int k = roomKeyStart[r]; k < roomKeyStart[r + 1]; k++) {
+                if (!have[roomKeys[k]]) {
+                    from[edges] = r;
+                    to[edges++] = roomCount + roomKeys[k];
+                }
+            }
+        }
+        for (int r = 0; r < roomCount; r++) {
+            for (int e = graph.edgeStart(r); e < graph.edgeEnd(r); e++) {
+                int target = graph.edgeTarget(e);
+                if (visited[target] || doorLock[e] == BLOCKED_FOREVER || roomLock[target] == BLOCKED_FOREVER) {
+                    continue;
+                }
+                if (!visited[r]) {
+                    from[edges] = r;
+                    to[edges++] = target;
+                }
+                if (doorLock[e] >= 0 && !have[doorLock[e]]) {
+                    from[edges] = roomCount + doorLock[e];
+                    to[edges++] = target;
+                }
+                if (roomLock[target] >= 0 && !have[roomLock[target]] && roomLock[target] != doorLock[e]) {
+                    from[edges] = roomCount + roomLock[target];
+                    to[edges++] = target;
+                }
+            }
+        }
+
+        int[] outStart = new int[nodes + 1];
+        for (int i = 0; i < edges; i++) {
+            outStart[from[i] + 1]++;
+        }
+        for (int n = 0; n < nodes; n++) {
+            outStart[n + 1] += outStart[n];
+        }
+        int[] outTargets = new int[edges];
+        int[] outCursor = outStart.clone();
+        for (int i = 0; i < edges; i++) {
+            outTargets[outCursor[from[i]]++] = to[i];
+        }
+
+        int[] component = components(nodes, outStart, outTargets);
+        // A room sharing a component with a missing key is on a cycle through it.
+        boolean[] keyed = new boolean[nodes];
+        for (int k = 0; k < items; k++) {
+            if (!have[k]) {
+                keyed[component[roomCount + k]] = true;
+            }
+        }
+        List<Room> cyclic = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            if (!visited[r] && keyed[component[r]]) {
+                cyclic.add(graph.getRoom(r));
+            }
+        }
+        return cyclic;
+    }
+
+    /** Tarjan's strongly connected components, iteratively; returns each node's component number. */
+    private static int[] components(int nodes, int[] adjacencyStart, int[] adjacency) {
+        int[] index = new int[nodes];
+        int[] low = new int[nodes];
+        int[] component = new int[nodes];
+        boolean[] onStack = new boolean[nodes];
+        int[] stack = new int[nodes];
+        int[] callNode = new int[nodes];
+        int[] callEdge = new int[nodes];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int components = 0;
+        int top = 0;
+        for (int root = 0; root < nodes; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = adjacencyStart[root];
+            index[root] = low[root] = counter++;
+            stack[top++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int node = callNode[depth];
+                if (callEdge[depth] < adjacencyStart[node + 1]) {
+                    int next = adjacency[callEdge[depth]++];
+                    if (index[next] < 0) {
+                        index[next] = low[next] = counter++;
+                        stack[top++] = next;
+                        onStack[next] = true;
+                        depth++;
+                        callNode[depth] = next;
+                        callEdge[depth] = adjacencyStart[next];
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+                if (low[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--top];
+                        onStack[member] = false;
+                        component[member] = components;
+                    } while (member != node);
+                    components++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return component;
+    }
+
+    /** {@link #PASSABLE}, {@link #BLOCKED_FOREVER}, or the index of a key that is still missing. */
+    private int missingKey(int edge) {
+        int door = doorLock[edge];
+        if (door == BLOCKED_FOREVER || (door >= 0 && !have[door])) {
+            return door;
+        }
+        int room = roomLock[graph.edgeTarget(edge)];
+        if (room == BLOCKED_FOREVER || (room >= 0 && !have[room])) {
+            return room;
+        }
+        return PASSABLE;
+    }
+
+    private void indexItem(Item item) {
+        if (item != null) {
+            itemIndex.putIfAbsent(item.getId(), itemIndex.size());
+        }
+    }
+
+    private int indexOf(Item item) {
+        if (item == null) {
+            return -1;
+        }
+        Integer index = itemIndex.get(item.getId());
+        return index != null ? index : -1;
+    }
+
+    /** Analyzes every game in a content file; exits with status 1 if any of them cannot be finished. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: SolvabilityAnalyzer <games.json>");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        boolean allSolvable = true;
+        for (Game game : new DataLoader().loadGames(file)) {
+            long started = System.nanoTime();
+            SolvabilityReport report = analyze(game);
+            long micros = (System.nanoTime() - started) / 1_000;
+            System.out.println(game.getTitle() + ": " + report + " in " + micros + " us");
+            for (Room room : report.getUnreachableRooms()) {
+                System.out.println("  unreachable: " + room.getName());
+            }
+            for (Room room : report.getCyclicRooms()) {
+                System.out.println("  key cycle:   " + room.getName());
+            }
+            allSolvable &= report.isSolvable();
+        }
+        if (!allSolvable) {
+            System.exit(1);
+        }
+    }
+}
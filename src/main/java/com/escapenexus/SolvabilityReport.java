@@ -0,0 +1,74 @@
+package com.escapenexus;
+
+import java.util.List;
+
+/**
+ * Result of {@link SolvabilityAnalyzer#analyze(Game)}. Room lists are in room
+ * order except the critical path, which is in a valid play order.
+ */
+public final class SolvabilityReport {
+
+    private final Room startRoom;
+    private final Room goalRoom;
+    private final boolean solvable;
+    private final List<Room> unreachableRooms;
+    private final List<Room> cyclicRooms;
+    private final List<Room> deadEnds;
+    private final List<Room> criticalPath;
+
+    SolvabilityReport(Room startRoom, Room goalRoom, boolean solvable, List<Room> unreachableRooms,
+                      List<Room> cyclicRooms, List<Room> deadEnds, List<Room> criticalPath) {
+        this.startRoom = startRoom;
+        this.goalRoom = goalRoom;
+        this.solvable = solvable;
+        this.unreachableRooms = List.copyOf(unreachableRooms);
+        this.cyclicRooms = List.copyOf(cyclicRooms);
+        this.deadEnds = List.copyOf(deadEnds);
+        this.criticalPath = List.copyOf(criticalPath);
+    }
+
+    public Room getStartRoom() {
+        return startRoom;
+    }
+
+    /** The last room of the game, which a player has to reach to finish. */
+    public Room getGoalRoom() {
+        return goalRoom;
+    }
+
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    /** Rooms a player can never enter, whatever order they solve puzzles in. */
+    public List<Room> getUnreachableRooms() {
+        return unreachableRooms;
+    }
+
+    /** Rooms whose locks depend, directly or through other rooms, on a key found behind themselves. */
+    public List<Room> getCyclicRooms() {
+        return cyclicRooms;
+    }
+
+    /** Reachable rooms other than the goal that have no way out once entered. */
+    public List<Room> getDeadEnds() {
+        return deadEnds;
+    }
+
+    /**
+     * Rooms that must be cleared to reach the goal, from the start room to the
+     * goal; empty when the game is not solvable.
+     */
+    public List<Room> getCriticalPath() {
+        return criticalPath;
+    }
+
+    @Override
+    public String toString() {
+        return "SolvabilityReport{solvable=" + solvable
+                + ", unreachable=" + unreachableRooms.size()
+                + ", cyclic=" + cyclicRooms.size()
+                + ", deadEnds=" + deadEnds.size()
+                + ", criticalPath=" + criticalPath.size() + "}";
+    }
+}
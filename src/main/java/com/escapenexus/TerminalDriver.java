@@ -7,6 +7,7 @@ import java.util.Scanner;
 public final class TerminalDriver {
 
     private static final Scanner INPUT = new Scanner(System.in);
+    private static final AttemptLimiter ATTEMPTS = new AttemptLimiter();
 
     private TerminalDriver() {
     }
@@ -73,6 +74,8 @@ public final class TerminalDriver {
                     if (newUser != null) {
                         user = newUser;
                         Difficulty nd = user.getDifficulty() != null ? user.getDifficulty() : Difficulty.MEDIUM;
+                        // The old user's progress is saved above; drop their game so switching never piles up games.
+                        manager.endGame(game.getId().toString());
                         game = manager.startNewGame(nd);
                         for (Room r : game.getRooms()) { r.setHintLimit(nd.getHintLimit()); }
                         userStorage.applyUserProgressToGame(user, game);
@@ -172,6 +175,14 @@ public final class TerminalDriver {
     }
 
     private static void handleAttempt(Game game, User user, Room room, Puzzle puzzle) {
+        if (!puzzle.isSolved()) {
+            try {
+                ATTEMPTS.check(user.getUsername(), puzzle.getId(), game.getDifficulty());
+            } catch (AttemptLimiter.RateLimitedException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+        }
         boolean success = attemptPuzzle(puzzle);
         System.out.println(success ? "✔ success" : "✘ fail");
         if (!puzzle.isSolved()) {
@@ -180,20 +191,22 @@ public final class TerminalDriver {
 
         Item key = puzzle.getKeyProvided();
         if (key != null) {
-            int index = game.getRooms().indexOf(room);
-            if (index + 1 < game.getRooms().size()) {
-                game.getRooms().get(index + 1).unlock(key);
-            }
+            user.pickUp(key);
+            game.unlockWith(key);
         }
 
         if (!room.isCleared()) {
             return;
         }
 
-        int index = game.getRooms().indexOf(room);
-        if (index + 1 < game.getRooms().size()) {
-            user.moveTo(game.getRooms().get(index + 1));
+        NavigationGraph navigation = game.getNavigation();
+        Room next = navigation.nextTraversableRoom(room);
+        if (next != null) {
+            user.moveTo(next);
+            game.setCurrentRoom(next);
             System.out.println("-> advanced to next room");
+        } else if (navigation.nextRoom(room) != null) {
+            System.out.println("-> the way forward is still locked");
         } else {
             System.out.println("All rooms cleared!");
             System.exit(0);
@@ -243,6 +256,9 @@ public final class TerminalDriver {
             if (!game.getRooms().isEmpty()) {
                 user.moveTo(game.getRooms().get(0));
             }
+            if (current != null && current != game) {
+                manager.endGame(current.getId().toString());
+            }
             System.out.println("-> loaded game");
             return game;
         } catch (Exception e) {
@@ -254,19 +270,14 @@ public final class TerminalDriver {
     private static boolean attemptPuzzle(Puzzle puzzle) {
         if (puzzle instanceof LightPatternPuzzle) {
             System.out.println("Enter colors (e.g., RED GREEN BLUE):");
-            String[] tokens = INPUT.nextLine().trim().split("\\s+");
-            List<LightColor> guess = new ArrayList<>();
-            try {
-                for (String token : tokens) {
-                    guess.add(LightColor.fromString(token));
-                }
-            } catch (Exception exception) {
+            String line = INPUT.nextLine();
+            if (!LightPatternPuzzle.isColorSequence(line)) {
                 System.out.println("Bad color.");
                 return false;
             }
-            return puzzle.attempt(guess);
+            return puzzle.attempt(line);
         } else if (puzzle instanceof RiddlePuzzle) {
-            System.out.println("Answer (single word):");
+            System.out.println("Answer:");
             return puzzle.attempt(INPUT.nextLine());
         } else if (puzzle instanceof MathPuzzle) {
             System.out.println("Enter number:");
@@ -0,0 +1,260 @@
+package com.escapenexus;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding an
+ * intrusive doubly-linked list of timeouts. A timeout further away than one
+ * turn of the wheel waits in its bucket for the right number of rounds.
+ *
+ * <p>Scheduling and cancelling are O(1) and only touch a lock-free queue; a
+ * single worker thread moves new timeouts into their buckets, unlinks
+ * cancelled ones and runs the expired ones once per tick. Each pending
+ * timeout costs one {@link Timeout} object, so 100k timers need one thread
+ * and a few megabytes. Tasks run on the worker thread and must be short.
+ */
+public final class TimingWheel implements AutoCloseable {
+
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final System.Logger LOG = System.getLogger(TimingWheel.class.getName());
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final LongSupplier clock;
+    private final long startNanos;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private long tick;
+    private volatile boolean closed;
+
+    public TimingWheel() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public TimingWheel(long tickDuration, TimeUnit unit, int wheelSize) {
+        this(unit.toNanos(tickDuration), wheelSize, System::nanoTime, true);
+    }
+
+    /** With {@code startWorker} false nothing ticks until {@link #advance()} is called. */
+    TimingWheel(long tickNanos, int wheelSize, LongSupplier clock, boolean startWorker) {
+        if (tickNanos <= 0 || wheelSize < 1) {
+            throw new IllegalArgumentException("tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        size = size < wheelSize ? size << 1 : size;
+        this.tickNanos = tickNanos;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.startNanos = clock.getAsLong();
+        if (startWorker) {
+            this.worker = new Thread(this::run, "timing-wheel");
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            this.worker = null;
+        }
+    }
+
+    /** Runs {@code task} once, no earlier than {@code delay} from now (rounded up to a tick). */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task, "task");
+        if (closed) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long deadline = nanos() + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        added.add(timeout);
+        return timeout;
+    }
+
+    /** Current time on the wheel's clock, in nanoseconds since it was created. */
+    public long nanos() {
+        return clock.getAsLong() - startNanos;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /** Processes every tick that has elapsed on the clock; returns how many tasks ran. */
+    int advance() {
+        long target = nanos() / tickNanos;
+        int fired = 0;
+        while (tick <= target) {
+            fired += processTick();
+        }
+        return fired;
+    }
+
+    private int processTick() {
+        drainCancelled();
+        drainAdded();
+        int fired = buckets[(int) (tick & mask)].expire(tick);
+        tick++;
+        return fired;
+    }
+
+    private void drainAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            long due = Math.max(tick, (timeout.deadline + tickNanos - 1) / tickNanos);
+            timeout.rounds = (due - tick) / buckets.length;
+            buckets[(int) (due & mask)].add(timeout);
+        }
+    }
+
+    private void drainCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            long wait = (tick + 1) * tickNanos - nanos();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            advance();
+        }
+    }
+
+    /** Stops the worker; pending timeouts never fire. */
+    @Override
+    public void close() {
+        closed = true;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1000);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Handle of one scheduled task. */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** Prevents the task from running; returns false if it already ran or was cancelled. */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /** Deadline on the wheel's clock, see {@link TimingWheel#nanos()}. */
+        public long deadlineNanos() {
+            return deadline;
+        }
+    }
+
+    /** Timeouts due in one slot of the wheel; only touched by the worker. */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        int expire(long tick) {
+            int fired = 0;
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                } else {
+                    remove(timeout);
+                    if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                        try {
+                            timeout.task.run();
+                        } catch (RuntimeException exception) {
+                            // One failing task must not stop the wheel for every other session.
+                            EngineMetrics.TIMER_TASK_FAILURES.increment();
+                            LOG.log(System.Logger.Level.WARNING, "Timer task failed", exception);
+                        }
+                        fired++;
+                    }
+                }
+                timeout = next;
+            }
+            return fired;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.escapenexus;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Plays {@link GameTrace}s back through the line protocol against a
+ * {@link SessionRegistry}, either at full speed, for benchmarks, or at the
+ * pace they were recorded, for anything that depends on time such as the
+ * attempt limiter and session time limits.
+ *
+ * <p>Each command gets the seeds it drew when recorded, so light sequences
+ * come out the same, and its response is checked against the recorded one.
+ * Session ids differ between runs; ids from {@code login} responses are
+ * mapped to the new ones, in responses and in {@code load} commands alike.
+ *
+ * <pre>
+ * java com.escapenexus.TraceReplayer [--paced] trace...
+ * </pre>
+ */
+public final class TraceReplayer {
+
+    private final SessionRegistry registry;
+    private final LongSupplier clock;
+    private final LongConsumer sleeper;
+    private boolean paced;
+
+    public TraceReplayer(SessionRegistry registry) {
+        this(registry, System::nanoTime, LockSupport::parkNanos);
+    }
+
+    /** @param sleeper waits roughly the given nanoseconds; paced replays call it until {@code clock} catches up */
+    TraceReplayer(SessionRegistry registry, LongSupplier clock, LongConsumer sleeper) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.sleeper = Objects.requireNonNull(sleeper, "sleeper");
+    }
+
+    /** Full-speed replays run without an attempt limiter, whose buckets refill in real time. */
+    public static void main(String[] args) throws Exception {
+        boolean paced = args.length > 0 && args[0].equals("--paced");
+        SessionRegistry registry = new SessionRegistry();
+        if (paced) {
+            registry.setAttemptLimiter(new AttemptLimiter());
+        }
+        TraceReplayer replayer = new TraceReplayer(registry);
+        replayer.setPaced(paced);
+        for (int i = paced ? 1 : 0; i < args.length; i++) {
+            System.out.println(args[i] + ": " + replayer.replay(GameTrace.read(Path.of(args[i]))));
+        }
+    }
+
+    /** Waits out each recorded gap before sending the next command; off by default. */
+    public void setPaced(boolean paced) {
+        this.paced = paced;
+    }
+
+    /**
+     * Runs every command of {@code trace} on a fresh client; its session is
+     * closed afterwards unless saved.
+     *
+     * @throws IllegalStateException if a command draws a seed the trace did not record
+     */
+    public Result replay(GameTrace trace) {
+        TraceSeeds seeds = new TraceSeeds();
+        LineSession session = new LineSession(registry, seeds, null);
+        Map<String, String> sessionIds = new HashMap<>();
+        LatencyHistogram latency = new LatencyHistogram();
+        int index = 0;
+        int mismatches = 0;
+        String firstMismatch = null;
+        long started = clock.getAsLong();
+        long due = started;
+        try {
+            for (GameTrace.Entry entry : trace.getEntries()) {
+                due += entry.getDelayNanos();
+                if (paced) {
+                    for (long wait = due - clock.getAsLong(); wait > 0; wait = due - clock.getAsLong()) {
+                        sleeper.accept(wait);
+                    }
+                }
+                seeds.entry = entry;
+                seeds.next = 0;
+                String command = mapLoad(entry.getCommand(), sessionIds);
+                long before = clock.getAsLong();
+                String response = session.execute(command);
+                latency.record(clock.getAsLong() - before);
+
+                String expected = entry.getResponse();
+                if (isLogin(command) && expected.startsWith("OK ") && response.startsWith("OK ")) {
+                    sessionIds.put(expected.substring(3), response.substring(3));
+                }
+                if (expected.startsWith("OK ") && sessionIds.containsKey(expected.substring(3))) {
+                    expected = "OK " + sessionIds.get(expected.substring(3));
+                }
+                if (!response.equals(expected) && ++mismatches == 1) {
+                    firstMismatch = "#" + index + " " + command + ": expected \"" + expected
+                            + "\", got \"" + response + "\"";
+                }
+                index++;
+            }
+        } finally {
+            session.close();
+        }
+        return new Result(index, mismatches, firstMismatch, clock.getAsLong() - started, latency);
+    }
+
+    private static boolean isLogin(String command) {
+        return command.strip().toLowerCase(Locale.ROOT).startsWith("login ");
+    }
+
+    private static String mapLoad(String command, Map<String, String> sessionIds) {
+        String trimmed = command.strip();
+        if (!trimmed.toLowerCase(Locale.ROOT).startsWith("load ")) {
+            return command;
+        }
+        String mapped = sessionIds.get(trimmed.substring(5).strip());
+        return mapped != null ? "load " + mapped : command;
+    }
+
+    /** Hands a command the seeds recorded with it. */
+    private static final class TraceSeeds implements LongSupplier {
+        private GameTrace.Entry entry;
+        private int next;
+
+        @Override
+        public long getAsLong() {
+            if (next >= entry.getSeedCount()) {
+                throw new IllegalStateException("Trace has no seed for: " + entry.getCommand());
+            }
+            return entry.getSeed(next++);
+        }
+    }
+
+    /** Outcome of one {@link #replay(GameTrace)}; latencies are in nanoseconds. */
+    public static final class Result {
+        private final int commands;
+        private final int mismatches;
+        private final String firstMismatch;
+        private final long elapsedNanos;
+        private final LatencyHistogram latency;
+
+        Result(int commands, int mismatches, String firstMismatch, long elapsedNanos, LatencyHistogram latency) {
+            this.commands = commands;
+            this.mismatches = mismatches;
+            this.firstMismatch = firstMismatch;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public int getCommands() {
+            return commands;
+        }
+
+        /** Commands whose response differed from the recorded one. */
+        public int getMismatches() {
+            return mismatches;
+        }
+
+        /** The first differing command with both responses, or null if every response matched. */
+        public String getFirstMismatch() {
+            return firstMismatch;
+        }
+
+        public boolean isFaithful() {
+            return mismatches == 0;
+        }
+
+        /** Wall time of the replay, waits included when paced. */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /** Time spent executing each command, waits excluded. */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d commands in %.1f ms, p50 %.1f us, p99 %.1f us, %d mismatched%s",
+                    commands, elapsedNanos / 1e6, latency.getValueAtPercentile(50) / 1e3,
+                    latency.getValueAtPercentile(99) / 1e3, mismatches,
+                    firstMismatch != null ? " (first " + firstMismatch + ")" : "");
+        }
+    }
+}
@@ -122,6 +122,7 @@ public class User {
         }
 
         progress.setHintCount(puzzleId, usedHints + 1);
+        EngineMetrics.hint(difficulty);
         return puzzle.giveHint();
     }
 
@@ -25,6 +25,25 @@ public final class UserStorage {
     private final JSONParser parser = new JSONParser();
 
     public List<User> loadUsers() {
+        long start = System.nanoTime();
+        EngineEvents.UserLoad event = new EngineEvents.UserLoad();
+        event.begin();
+        List<User> users = null;
+        try {
+            users = readUsers();
+            return users;
+        } finally {
+            EngineMetrics.LOAD_USERS.recordSince(start);
+            if (event.shouldCommit()) {
+                event.path = USERS_FILE.toString();
+                event.users = users != null ? users.size() : 0;
+                event.bytes = EngineEvents.sizeOf(USERS_FILE);
+                event.commit();
+            }
+        }
+    }
+
+    private List<User> readUsers() {
         if (!Files.exists(USERS_FILE)) {
             return new ArrayList<>();
         }
@@ -53,6 +72,23 @@ public final class UserStorage {
 
     public void saveUsers(List<User> users) {
         Objects.requireNonNull(users, "users");
+        long start = System.nanoTime();
+        EngineEvents.UserSave event = new EngineEvents.UserSave();
+        event.begin();
+        try {
+            writeUsers(users);
+        } finally {
+            EngineMetrics.SAVE_USERS.recordSince(start);
+            if (event.shouldCommit()) {
+                event.path = USERS_FILE.toString();
+                event.users = users.size();
+                event.bytes = EngineEvents.sizeOf(USERS_FILE);
+                event.commit();
+            }
+        }
+    }
+
+    private void writeUsers(List<User> users) {
         JSONObject root = new JSONObject();
         JSONArray usersArray = new JSONArray();
         for (User user : users) {
@@ -196,6 +232,23 @@ public final class UserStorage {
      */
     public void applyUserProgressToGame(User user, Game game) {
         if (user == null || game == null) return;
+        long start = System.nanoTime();
+        EngineEvents.ProgressApply event = new EngineEvents.ProgressApply();
+        event.begin();
+        try {
+            applyProgress(user, game);
+        } finally {
+            EngineMetrics.APPLY_PROGRESS.recordSince(start);
+            if (event.shouldCommit()) {
+                event.gameId = String.valueOf(game.getId());
+                event.username = user.getUsername();
+                event.room = user.getCurrentRoom() != null ? user.getCurrentRoom().getName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    private void applyProgress(User user, Game game) {
         Difficulty difficulty = user.getDifficulty() != null ? user.getDifficulty() : Difficulty.MEDIUM;
         int baseHints = difficulty.getHintLimit();
 
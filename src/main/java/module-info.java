@@ -2,6 +2,9 @@ module com.escaperoom {
     requires javafx.controls;
     requires javafx.fxml;
     requires json.simple;
+    requires jdk.management;
+    requires jdk.httpserver;
+    requires jdk.jfr;
     opens com.escaperoom to javafx.fxml, org.junit.platform.commons;
     exports com.escaperoom;
     exports com.escapenexus;
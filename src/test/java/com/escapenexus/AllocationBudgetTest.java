@@ -0,0 +1,162 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: bytes allocated per call on the hot paths: attempts, hints, room and inventory lookups, saves.
+// - Happy path: each operation stays within its declared budget, measured with ThreadMXBean.getThreadAllocatedBytes.
+// - Negative cases: an operation over budget fails with its name, measured bytes and budget.
+// - Boundary cases: lookups and color parsing are held to zero; a small save is held to a multiple of its output size.
+// - Invariants: the measured operations still return the right results; no budget relies on escape analysis.
+class AllocationBudgetTest {
+
+    private static final int ITERATIONS = 200_000;
+    private static final int ROUNDS = 5;
+
+    /** Keeps deliberate allocations visible, so escape analysis cannot remove them. */
+    private static volatile byte[] escaped;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("lookups_allocateNothing")
+    void lookups_allocateNothing() {
+        Room lab = new Room("Lab", "");
+        lab.addPuzzle(new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river")));
+        lab.addItem(new Item("Crate", "", true, false, ItemState.NEW));
+        Game game = new Game(UUID.randomUUID().toString(), List.of(lab), Duration.ofMinutes(5));
+        Inventory inventory = new Inventory();
+        Item wanted = null;
+        for (int i = 0; i < 8; i++) {
+            wanted = new Item("Item " + i, "", true, false, ItemState.NEW);
+            inventory.add(wanted);
+        }
+        UUID wantedId = wanted.getId();
+        Item last = wanted;
+
+        // Cached views and indexed loops: zero even in the interpreter, not just after escape analysis.
+        assertBudget("Room.getPuzzles", 0, () -> lab.getPuzzles().size());
+        assertBudget("Room.getItems", 0, () -> lab.getItems().size());
+        assertBudget("Game.getRooms", 0, () -> game.getRooms().size());
+        assertBudget("Inventory.findById", 0, () -> inventory.findById(wantedId) == last ? 1 : 0);
+        assertBudget("Inventory.contains", 0, () -> inventory.contains(last) ? 1 : 0);
+        assertBudget("LightColor.fromString", 0, () -> LightColor.fromString(" green ").ordinal());
+
+        assertSame(lab.getPuzzles(), lab.getPuzzles());
+        assertEquals(LightColor.GREEN, LightColor.fromString(" green "));
+        assertThrows(IllegalArgumentException.class, () -> LightColor.fromString("purple"));
+        assertThrows(UnsupportedOperationException.class, () -> lab.getPuzzles().add(null));
+    }
+
+    @Test
+    @DisplayName("attemptsAndHints_stayWithinBudget")
+    void attemptsAndHints_stayWithinBudget() {
+        GameManager manager = new GameManager();
+        Room lab = new Room("Lab", "");
+        lab.setHintLimit(Integer.MAX_VALUE);
+        RiddlePuzzle riddle = new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river"));
+        riddle.addHint("It flows.");
+        lab.addPuzzle(riddle);
+        LightPatternPuzzle lights = new LightPatternPuzzle(UUID.randomUUID(), "Lights", "", 7L);
+        lab.addPuzzle(lights);
+        Game game = manager.createGameFromRooms(List.of(lab), Duration.ofMinutes(5));
+        String gameId = game.getId().toString();
+        String lightsId = lights.getId().toString();
+        List<LightColor> wrongLights = List.of(LightColor.RED, LightColor.RED);
+        User user = new User("budget");
+
+        // withGame's lambda and Optional, which escape analysis removes only when
+        // everything inlines; lookups by id also parse the UUID. Budgets hold
+        // with escape analysis off, with room to spare.
+        assertBudget("GameManager.attemptPuzzle(riddle)", 192,
+                () -> manager.attemptPuzzle(gameId, "Riddle", "lake") ? 1 : 0);
+        assertBudget("GameManager.attemptPuzzle(lights, list)", 224,
+                () -> manager.attemptPuzzle(gameId, lightsId, wrongLights) ? 1 : 0);
+        assertBudget("GameManager.attemptPuzzle(lights, text)", 224,
+                () -> manager.attemptPuzzle(gameId, lightsId, "red red") ? 1 : 0);
+        // The hint count is boxed once it passes the Integer cache.
+        assertBudget("User.requestHint", 48, () -> user.requestHint(lab).length());
+
+        assertFalse(riddle.isSolved());
+        assertEquals(0, lights.getCurrentLength() - 1);
+    }
+
+    @Test
+    @DisplayName("smallGameSave_staysWithinBudget")
+    void smallGameSave_staysWithinBudget() throws Exception {
+        GameManager manager = new GameManager();
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.EASY);
+        Path file = tempDir.resolve("small.json");
+        DataWriter writer = new DataWriter();
+        String gameId = manager.createGameFromRooms(game.getRooms(), Duration.ofMinutes(5)).getId().toString();
+
+        // json-simple builds a map per object, about 50 bytes per character
+        // written; allow twice that, so a serializer update can pass but a save
+        // that grows with something other than its output cannot.
+        long jsonLength = writer.toJson(List.of(game)).length();
+        assertBudget("DataWriter.toJson(small game)", 96 * jsonLength,
+                () -> writer.toJson(List.of(game)).length(), 2_000);
+        assertBudget("GameManager.saveGame(small game)", 128 * jsonLength,
+                () -> manager.saveGame(gameId, file) ? 1 : 0, 500);
+        assertTrue(Files.size(file) > 0);
+    }
+
+    @Test
+    @DisplayName("overBudget_failsWithOperationAndBytes")
+    void overBudget_failsWithOperationAndBytes() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> assertBudget("new byte[64]", 0, () -> (escaped = new byte[64]).length));
+        assertTrue(error.getMessage().contains("new byte[64]") && error.getMessage().contains("budget 0"),
+                error.getMessage());
+    }
+
+    private interface Operation {
+        int run();
+    }
+
+    private static void assertBudget(String name, long budgetBytes, Operation operation) {
+        assertBudget(name, budgetBytes, operation, ITERATIONS);
+    }
+
+    /**
+     * Fails if {@code operation} allocates more than {@code budgetBytes} per
+     * call. The first round warms up the JIT; the best later round counts, so a
+     * stray allocation by the test thread itself cannot fail the budget.
+     */
+    private static void assertBudget(String name, long budgetBytes, Operation operation, int iterations) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(threadId);
+        long best = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                sink += operation.run();
+            }
+            long perCall = (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+            if (round > 0) {
+                best = Math.min(best, perCall);
+            }
+        }
+        assertTrue(best <= budgetBytes, name + " allocated " + best + " bytes per call, budget " + budgetBytes
+                + " (" + (sink & 1) + ")");
+    }
+}
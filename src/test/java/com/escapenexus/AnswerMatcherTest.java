@@ -0,0 +1,120 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// Test Plan:
+// - Coverage targets: AnswerMatcher normalization, exact and one-edit matching, RiddlePuzzle integration.
+// - Happy path: articles, plurals, case, punctuation and single typos are accepted for the default riddle.
+// - Negative cases: unrelated words, two-edit typos, typos on short answers and one-digit-off codes are rejected.
+// - Boundary cases: answers below the fuzzy length only match exactly; multi-word answers keep word breaks.
+// - Invariants: lookups stay fast with thousands of answers and allocate nothing once warmed up.
+class AnswerMatcherTest {
+
+    private final RiddlePuzzle riddle = new RiddlePuzzle(
+            UUID.randomUUID(), "Mag-Lock Riddle", "What has a bed but never sleeps?", List.of("river"));
+
+    @ParameterizedTest(name = "accepts_{0}")
+    @ValueSource(strings = {"river", "  RIVER ", "a river", "The river!", "rivers", "rivr", "riverr", "rver",
+            "rover", "irver", "the rivers."})
+    void riddle_acceptsNearMisses(String guess) {
+        assertTrue(riddle.matches(guess), guess);
+    }
+
+    @ParameterizedTest(name = "rejects_{0}")
+    @ValueSource(strings = {"", "   ", "mountain", "rvr", "ocean", "a", "riverbed", "rivers of"})
+    void riddle_rejectsWrongAnswers(String guess) {
+        assertFalse(riddle.matches(guess), guess);
+    }
+
+    @Test
+    @DisplayName("shortAnswers_matchOnlyExactly")
+    void shortAnswers_matchOnlyExactly() {
+        AnswerMatcher matcher = AnswerMatcher.compile(List.of("map", "ice", "Boxes"));
+        assertTrue(matcher.matches("a map"));
+        assertTrue(matcher.matches("MAPS"));
+        assertFalse(matcher.matches("mat"), "Three-letter answers do not tolerate typos");
+        assertFalse(matcher.matches("ic"));
+        assertTrue(matcher.matches("box"), "Plural es is cut after x");
+        assertTrue(matcher.matches("the box"));
+    }
+
+    @Test
+    @DisplayName("numericCodes_matchOnlyExactly")
+    void numericCodes_matchOnlyExactly() {
+        AnswerMatcher matcher = AnswerMatcher.compile(List.of("4721", "12 34", "Room 101"));
+        assertTrue(matcher.matches("4721"));
+        assertTrue(matcher.matches(" 4721. "));
+        for (String guess : List.of("4722", "9721", "472", "47213", "7421")) {
+            assertFalse(matcher.matches(guess), guess + " is one digit off the code");
+        }
+        assertTrue(matcher.matches("12-34"));
+        assertFalse(matcher.matches("12 35"));
+        assertTrue(matcher.matches("Rom 101"), "Answers with letters still tolerate a typo");
+    }
+
+    @Test
+    @DisplayName("multiWordAnswers_normalizePunctuationAndSpacing")
+    void multiWordAnswers_normalizePunctuationAndSpacing() {
+        AnswerMatcher matcher = AnswerMatcher.compile(List.of("Candle in the wind", "glass"));
+        assertTrue(matcher.matches("candle   in-the wind"));
+        assertTrue(matcher.matches("a candle in the winds"));
+        assertTrue(matcher.matches("candle in teh wind"));
+        assertFalse(matcher.matches("candlein the wnd"), "Two edits are too many");
+        assertTrue(matcher.matches("glasses"));
+        assertTrue(matcher.matches("glass"));
+    }
+
+    @Test
+    @DisplayName("thousandsOfAnswers_matchQuickly_withoutAllocating")
+    void thousandsOfAnswers_matchQuickly_withoutAllocating() {
+        List<String> answers = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            answers.add("synonym" + Integer.toString(i, 26).replace('0', 'z'));
+        }
+        answers.add("river");
+        AnswerMatcher matcher = AnswerMatcher.compile(answers);
+        StringBuilder typo = new StringBuilder("the rivr");
+        StringBuilder miss = new StringBuilder("mountain range");
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            matcher.matches(typo);
+            matcher.matches(miss);
+        }
+
+        int accepted = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            int hits = 0;
+            for (int i = 0; i < iterations; i++) {
+                if (matcher.matches(typo) && !matcher.matches(miss)) {
+                    hits++;
+                }
+            }
+            return hits;
+        });
+        assertEquals(iterations, accepted);
+        assertTrue(matcher.matches(answers.get(12_345)));
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            matcher.matches(typo);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(allocated < iterations, "Allocated " + allocated + " bytes over " + iterations + " lookups");
+    }
+}
@@ -0,0 +1,137 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: AttemptBatch, GameManager.attemptAll, HttpApi POST /attempts.
+// - Happy path: interleaved attempts on two games run in order per game, and unlock and advance rooms as single
+//   calls do.
+// - Negative cases: unknown games, puzzles outside the current room and wrong answers get their own codes; a game
+//   whose key puzzle stays unsolved never reaches the locked room.
+// - Boundary cases: attempts past the limiter's burst come back RATE_LIMITED without failing the batch.
+// - Invariants: results line up with the batch order whatever the grouping.
+class AttemptBatchTest {
+
+    private static final long SEED = 42;
+
+    private final GameManager manager = new GameManager();
+
+    @Test
+    @DisplayName("interleavedBatch_runsInOrderPerGame_andAdvancesRooms")
+    void interleavedBatch_runsInOrderPerGame_andAdvancesRooms() {
+        String a = newGame();
+        String b = newGame();
+        LightPatternPuzzle twin = new LightPatternPuzzle(UUID.randomUUID(), "twin", "", SEED, 2);
+        List<LightColor> round0 = List.copyOf(twin.getCurrentSequence());
+        twin.attempt(round0);
+        List<LightColor> round1 = List.copyOf(twin.getCurrentSequence());
+
+        AttemptBatch batch = new AttemptBatch(2)
+                .add(a, "Sum", 12)
+                .add(b, "Lights", round0)
+                .add(a, "Lights", round0)
+                .add(a, "Riddle", "mountain")
+                .add(b, "Lights", round1)
+                .add(a, "Lights", round1)
+                .add(a, "Riddle", "river")
+                .add(a, "Sum", 12)
+                .add("missing", "Lights", round0)
+                .add(null, "Lights", round0)
+                .add(b, "Sum", 12);
+        byte[] results = manager.attemptAll(batch);
+
+        assertArrayEquals(new byte[] {
+                AttemptBatch.UNKNOWN_PUZZLE,
+                AttemptBatch.CORRECT,
+                AttemptBatch.CORRECT,
+                AttemptBatch.WRONG,
+                AttemptBatch.SOLVED,
+                AttemptBatch.SOLVED,
+                AttemptBatch.SOLVED,
+                AttemptBatch.SOLVED,
+                AttemptBatch.UNKNOWN_GAME,
+                AttemptBatch.UNKNOWN_GAME,
+                AttemptBatch.UNKNOWN_PUZZLE}, results);
+        assertEquals("Exit", manager.getGame(a).orElseThrow().getCurrentRoom().getName(), "The Riddle's key opened Exit");
+        Game gameB = manager.getGame(b).orElseThrow();
+        assertEquals("Lab", gameB.getCurrentRoom().getName(), "Without the Riddle's key Exit stays shut");
+        assertTrue(gameB.getRooms().get(1).isLocked());
+        assertEquals("SOLVED", AttemptBatch.name(results[7]));
+    }
+
+    @Test
+    @DisplayName("attemptsPastTheLimit_comeBackRateLimited")
+    void attemptsPastTheLimit_comeBackRateLimited() {
+        manager.setAttemptLimiter(new AttemptLimiter(
+                Map.of(Difficulty.MEDIUM, new AttemptLimiter.Limit(2, Duration.ofMinutes(1))), 100));
+        String game = newGame();
+        byte[] results = manager.attemptAll(new AttemptBatch()
+                .add(game, "Riddle", "sea")
+                .add(game, "Riddle", "lake")
+                .add(game, "Riddle", "river")
+                .add(game, "Lights", List.of("RED", "RED")));
+        assertArrayEquals(new byte[] {
+                AttemptBatch.WRONG,
+                AttemptBatch.WRONG,
+                AttemptBatch.RATE_LIMITED,
+                AttemptBatch.WRONG}, results, "Each puzzle has its own bucket");
+    }
+
+    @Test
+    @DisplayName("httpBatch_returnsResultNames_andRejectsMalformedBodies")
+    void httpBatch_returnsResultNames_andRejectsMalformedBodies() throws Exception {
+        String game = newGame();
+        try (HttpApi api = HttpApi.start(manager, new InetSocketAddress("127.0.0.1", 0), 2)) {
+            URI uri = URI.create("http://127.0.0.1:" + api.getPort() + "/attempts");
+            String body = "{\"attempts\": [{\"game\": \"" + game + "\", \"puzzle\": \"Riddle\", \"answer\": \"river\"},"
+                    + " {\"game\": \"nope\", \"puzzle\": \"Riddle\", \"answer\": \"river\"}]}";
+            assertEquals("200 {\"results\":[\"SOLVED\",\"UNKNOWN_GAME\"]}", post(uri, body));
+            assertEquals(400, Integer.parseInt(post(uri, "{\"attempts\": [{\"game\": 1}]}").substring(0, 3)));
+            assertEquals(400, Integer.parseInt(post(uri, "{}").substring(0, 3)));
+        }
+    }
+
+    /** Lab holds Lights and Riddle; Exit is locked by the key the Riddle gives. */
+    private String newGame() {
+        Item key = new Item("Exit Key", "", true, true, ItemState.NEW);
+        Room lab = new Room("Lab", "");
+        lab.addPuzzle(new LightPatternPuzzle(UUID.randomUUID(), "Lights", "", SEED, 2));
+        RiddlePuzzle riddle = new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river"));
+        riddle.setKeyProvided(key);
+        lab.addPuzzle(riddle);
+        Room exit = new Room("Exit", "");
+        exit.setLocked(true);
+        exit.setKeyRequired(key);
+        exit.addPuzzle(new MathPuzzle(UUID.randomUUID(), "Sum", "", 12.0, 0.0));
+        return manager.createGameFromRooms(List.of(lab, exit), Duration.ofMinutes(30)).getId().toString();
+    }
+
+    private static String post(URI uri, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            return status + " " + new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
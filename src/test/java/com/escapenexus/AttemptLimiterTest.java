@@ -0,0 +1,175 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: AttemptLimiter buckets/sweep/limits, SessionRegistry.attempt, GameManager.attemptPuzzle, LineServer attempt.
+// - Happy path: each difficulty allows its burst, then one attempt per refill period.
+// - Negative cases: an empty bucket rejects with the wait until the next attempt, and front ends report it.
+// - Boundary cases: at maxKeys new keys are refused until the next scheduled sweep drops refilled buckets.
+// - Invariants: concurrent callers never get more than the burst, and millions of keys keep the map bounded.
+class AttemptLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("eachDifficulty_allowsBurst_thenOnePerRefill")
+    void eachDifficulty_allowsBurst_thenOnePerRefill() {
+        AttemptLimiter limiter = new AttemptLimiter(Map.of(), 100, now::get);
+        for (Difficulty difficulty : Difficulty.values()) {
+            String owner = "player-" + difficulty;
+            for (int i = 0; i < difficulty.getAttemptBurst(); i++) {
+                assertTrue(limiter.tryAcquire(owner, 7, difficulty), difficulty + " attempt " + i);
+            }
+            AttemptLimiter.RateLimitedException rejected = assertThrows(
+                    AttemptLimiter.RateLimitedException.class, () -> limiter.check(owner, 7, difficulty));
+            assertEquals(difficulty.getAttemptRefill(), rejected.getRetryAfter());
+            assertTrue(limiter.tryAcquire(owner, 8, difficulty), "Other puzzles have their own bucket");
+        }
+
+        now.addAndGet(Difficulty.MEDIUM.getAttemptRefill().toNanos() - 1);
+        assertFalse(limiter.tryAcquire("player-MEDIUM", 7, Difficulty.MEDIUM));
+        now.addAndGet(1);
+        assertTrue(limiter.tryAcquire("player-MEDIUM", 7, Difficulty.MEDIUM));
+        assertFalse(limiter.tryAcquire("player-MEDIUM", 7, Difficulty.MEDIUM));
+
+        AttemptLimiter custom = new AttemptLimiter(
+                Map.of(Difficulty.HARD, new AttemptLimiter.Limit(1, Duration.ofMinutes(1))), 100, now::get);
+        assertTrue(custom.tryAcquire("pin", "Escape Coordinates", Difficulty.HARD));
+        assertFalse(custom.tryAcquire("pin", "Escape Coordinates", Difficulty.HARD));
+        assertEquals(Difficulty.EASY.getAttemptBurst(), custom.getLimit(Difficulty.EASY).getBurst());
+        assertEquals(sumOfBursts() + Difficulty.values().length + 1, limiter.getAllowedCount());
+        assertEquals(Difficulty.values().length + 2, limiter.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("refilledBuckets_expire_andKeysStayBounded")
+    void refilledBuckets_expire_andKeysStayBounded() {
+        AttemptLimiter limiter = new AttemptLimiter(Map.of(), 1_000, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.tryAcquire("bot" + i, 0, Difficulty.EASY));
+        }
+        assertEquals(1_000, limiter.size());
+        assertFalse(limiter.tryAcquire("one-too-many", 0, Difficulty.EASY), "No room to track a new key");
+
+        now.addAndGet(Difficulty.EASY.getAttemptRefill().toNanos());
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(limiter.tryAcquire("flood" + i, 0, Difficulty.EASY), "A full map is not rescanned per key");
+        }
+        assertEquals(1_000, limiter.size());
+
+        now.addAndGet(AttemptLimiter.DEFAULT_SWEEP_INTERVAL.toNanos());
+        assertTrue(limiter.tryAcquire("one-too-many", 0, Difficulty.EASY), "The sweep dropped refilled buckets");
+        assertEquals(1, limiter.size());
+
+        AttemptLimiter large = new AttemptLimiter(Map.of(), AttemptLimiter.DEFAULT_MAX_KEYS, now::get);
+        long step = AttemptLimiter.DEFAULT_SWEEP_INTERVAL.toNanos() / 100_000;
+        for (int i = 0; i < 2_000_000; i++) {
+            now.addAndGet(step);
+            assertTrue(large.tryAcquire(Integer.toString(i), 0, Difficulty.HARD));
+            assertTrue(large.size() <= 200_001, "Buckets are swept once refilled");
+        }
+    }
+
+    @Test
+    @DisplayName("concurrentAttempts_neverExceedBurst")
+    void concurrentAttempts_neverExceedBurst() throws Exception {
+        AttemptLimiter limiter = new AttemptLimiter(Map.of(), 100, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire("shared", 1, Difficulty.MEDIUM)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Difficulty.MEDIUM.getAttemptBurst(), granted.get());
+        assertEquals(80_000 - Difficulty.MEDIUM.getAttemptBurst(), limiter.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("frontEnds_reportRejectedAttempts")
+    void frontEnds_reportRejectedAttempts() throws Exception {
+        SessionRegistry registry = new SessionRegistry();
+        registry.setAttemptLimiter(new AttemptLimiter(Map.of(), 100, now::get));
+        PlayerSession session = registry.open("brute", Difficulty.HARD);
+        for (int i = 0; i < Difficulty.HARD.getAttemptBurst(); i++) {
+            assertFalse(registry.attempt(session, "PURPLE"));
+        }
+        assertThrows(AttemptLimiter.RateLimitedException.class, () -> registry.attempt(session, "PURPLE"));
+
+        GameManager manager = new GameManager();
+        manager.setAttemptLimiter(new AttemptLimiter(Map.of(), 100, now::get));
+        String gameId = manager.startNewGame(Difficulty.HARD).getId().toString();
+        for (int i = 0; i < Difficulty.HARD.getAttemptBurst(); i++) {
+            assertFalse(manager.attemptPuzzle(gameId, "Reboot Sequence", "PURPLE"));
+        }
+        assertThrows(AttemptLimiter.RateLimitedException.class,
+                () -> manager.attemptPuzzle(gameId, "Reboot Sequence", "PURPLE"));
+        assertFalse(manager.attemptPuzzle(gameId, UUID.randomUUID().toString(), "RED"), "Unknown puzzles are not limited");
+
+        SessionRegistry served = new SessionRegistry();
+        try (LineServer server = LineServer.start(served, new InetSocketAddress("127.0.0.1", 0));
+             Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            assertTrue(served.getAttemptLimiter().isPresent(), "Servers install a limiter");
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            StringBuilder batch = new StringBuilder("login brute hard\n");
+            for (int i = 0; i <= Difficulty.HARD.getAttemptBurst(); i++) {
+                batch.append("attempt PURPLE\n");
+            }
+            out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            assertTrue(in.readLine().startsWith("OK "));
+            for (int i = 0; i < Difficulty.HARD.getAttemptBurst(); i++) {
+                assertEquals("OK fail", in.readLine());
+            }
+            assertTrue(in.readLine().startsWith("ERR Too many attempts; try again in "));
+        }
+    }
+
+    private static int sumOfBursts() {
+        int sum = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            sum += difficulty.getAttemptBurst();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,131 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: BotLoadGenerator bots, action mix, think times and report; GameManager.saveGame(id, path).
+// - Happy path: hundreds of bots on a few threads run every action against one manager and report on all of them.
+// - Negative cases: an attempt limiter turns wrong-answer floods into counted rate limits; bad weights and think times are refused.
+// - Boundary cases: an all-right-answers bot wins games and starts new ones; zero think time never sleeps.
+// - Invariants: every bot runs exactly its actions, and every game a bot started is ended afterwards.
+class BotLoadGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("manyBots_runEveryAction_andReportThroughputHeapAndGc")
+    void manyBots_runEveryAction_andReportThroughputHeapAndGc() throws Exception {
+        GameManager manager = new GameManager();
+        long liveGames = EngineMetrics.LIVE_GAMES.sum();
+        BotLoadGenerator generator = new BotLoadGenerator(manager);
+        generator.setBots(500);
+        generator.setActionsPerBot(40);
+        generator.setThreads(4);
+        generator.setSaveDirectory(tempDir);
+        generator.setThinkTime(BotLoadGenerator.ThinkTime.uniform(Duration.ZERO, Duration.ofMillis(1)));
+
+        BotLoadGenerator.Report report = generator.run();
+
+        long started = report.getLatency(BotLoadGenerator.Action.START_GAME).getCount();
+        assertEquals(500L * 40, report.getActions() - started);
+        assertEquals(report.getGamesStarted(), started);
+        for (BotLoadGenerator.Action action : BotLoadGenerator.Action.values()) {
+            assertTrue(report.getLatency(action).getCount() > 0, action + " never ran");
+        }
+        assertTrue(report.getActionsPerSecond() > 0);
+        assertTrue(report.getP50Nanos() <= report.getP99Nanos() && report.getP99Nanos() <= report.getMaxNanos());
+        assertTrue(report.getHeapPeakBytes() > 0 && report.getGcCount() >= 0 && report.getGcMillis() >= 0);
+        assertTrue(report.toString().contains("SWITCH_USER"), report.toString());
+        try (var saves = Files.list(tempDir)) {
+            assertTrue(saves.count() > 0, "Bots save through the manager");
+        }
+        assertEquals(liveGames, EngineMetrics.LIVE_GAMES.sum(), "Bots end every game they start");
+    }
+
+    @Test
+    @DisplayName("rightAnswersOnly_winGames_andStartNewOnes")
+    void rightAnswersOnly_winGames_andStartNewOnes() throws Exception {
+        GameManager manager = new GameManager();
+        BotLoadGenerator generator = new BotLoadGenerator(manager);
+        generator.setBots(4);
+        generator.setActionsPerBot(100);
+        generator.setThreads(1);
+        generator.setMix(new BotLoadGenerator.Mix(1, 0, 0, 0, 0));
+
+        BotLoadGenerator.Report report = generator.run();
+
+        assertTrue(report.getGamesCompleted() >= 4, report.toString());
+        assertEquals(report.getGamesStarted(), report.getLatency(BotLoadGenerator.Action.START_GAME).getCount());
+        assertEquals(0, report.getRateLimited());
+        assertEquals(0, report.getLatency(BotLoadGenerator.Action.WRONG_ANSWER).getCount());
+    }
+
+    @Test
+    @DisplayName("attemptLimiter_countsRateLimitedBots")
+    void attemptLimiter_countsRateLimitedBots() throws Exception {
+        GameManager manager = new GameManager();
+        manager.setAttemptLimiter(new AttemptLimiter(Map.of(), 100, () -> 0L));
+        BotLoadGenerator generator = new BotLoadGenerator(manager);
+        generator.setBots(8);
+        generator.setActionsPerBot(50);
+        generator.setDifficulty(Difficulty.HARD);
+        generator.setMix(new BotLoadGenerator.Mix(0, 1, 0, 0, 0));
+
+        BotLoadGenerator.Report report = generator.run();
+
+        assertEquals(8L * (50 - Difficulty.HARD.getAttemptBurst()), report.getRateLimited());
+        assertEquals(0, report.getGamesCompleted());
+    }
+
+    @Test
+    @DisplayName("thinkTimesAndMixes_followTheirDistributions")
+    void thinkTimesAndMixes_followTheirDistributions() {
+        Random random = new Random(3);
+        long mean = Duration.ofMillis(10).toNanos();
+        BotLoadGenerator.ThinkTime exponential = BotLoadGenerator.ThinkTime.exponential(Duration.ofMillis(10));
+        BotLoadGenerator.ThinkTime uniform =
+                BotLoadGenerator.ThinkTime.uniform(Duration.ofMillis(5), Duration.ofMillis(15));
+        long exponentialTotal = 0;
+        long uniformTotal = 0;
+        for (int i = 0; i < 100_000; i++) {
+            exponentialTotal += exponential.nextNanos(random);
+            long pause = uniform.nextNanos(random);
+            assertTrue(pause >= mean / 2 && pause <= mean * 3 / 2);
+            uniformTotal += pause;
+        }
+        assertTrue(Math.abs(exponentialTotal / 100_000 - mean) < mean / 20, "exponential mean " + exponentialTotal);
+        assertTrue(Math.abs(uniformTotal / 100_000 - mean) < mean / 20, "uniform mean " + uniformTotal);
+        assertEquals(mean, BotLoadGenerator.ThinkTime.fixed(Duration.ofMillis(10)).nextNanos(random));
+        assertEquals(0, BotLoadGenerator.ThinkTime.none().nextNanos(random));
+
+        BotLoadGenerator.Mix hintsAndSaves = new BotLoadGenerator.Mix(0, 0, 3, 1, 0);
+        int hints = 0;
+        for (int i = 0; i < 40_000; i++) {
+            BotLoadGenerator.Action action = hintsAndSaves.pick(random);
+            assertTrue(action == BotLoadGenerator.Action.HINT || action == BotLoadGenerator.Action.SAVE);
+            hints += action == BotLoadGenerator.Action.HINT ? 1 : 0;
+        }
+        assertTrue(Math.abs(hints - 30_000) < 600, "hints " + hints);
+
+        assertThrows(IllegalArgumentException.class, () -> new BotLoadGenerator.Mix(0, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BotLoadGenerator.Mix(1, -1, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> BotLoadGenerator.ThinkTime.uniform(Duration.ofMillis(2), Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BotLoadGenerator.ThinkTime.fixed(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new BotLoadGenerator(new GameManager()).setBots(0));
+    }
+}
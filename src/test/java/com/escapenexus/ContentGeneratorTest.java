@@ -0,0 +1,130 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: ContentGenerator topologies, puzzle mix, summary counts and streaming output.
+// - Happy path: packs in every topology load through DataLoader with the counts the summary reports.
+// - Negative cases: out-of-range sizes and shares are refused.
+// - Boundary cases: rooms without puzzles leave their keys on the floor; a 100k-room, million-item pack streams out.
+// - Invariants: every generated game is solvable, and the same seed always writes the same bytes.
+class ContentGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("everyTopology_loadsAndIsSolvable")
+    void everyTopology_loadsAndIsSolvable() throws Exception {
+        for (ContentGenerator.Topology topology : ContentGenerator.Topology.values()) {
+            ContentGenerator generator = new ContentGenerator();
+            generator.setGames(6);
+            generator.setRoomsPerGame(40);
+            generator.setItemsPerRoom(2);
+            generator.setPuzzlesPerRoom(1);
+            generator.setTopology(topology);
+            Path file = tempDir.resolve(topology + ".json");
+
+            ContentGenerator.Summary summary = generator.write(file);
+            List<Game> games = new DataLoader().loadGames(file);
+
+            assertEquals(summary.getGames(), games.size(), topology.toString());
+            assertEquals(summary.getRooms(), games.stream().mapToLong(game -> game.getRooms().size()).sum());
+            assertEquals(summary.getDoors(), games.stream().mapToLong(game -> game.getDoors().size()).sum());
+            assertEquals(summary.getItems(), games.stream().mapToLong(game -> game.getItems().size()).sum());
+            assertEquals(Files.size(file), summary.getBytes());
+            for (Game game : games) {
+                SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+                assertTrue(report.isSolvable(), topology + ": " + report);
+                long locked = game.getRooms().stream().filter(Room::isLocked).count();
+                assertEquals(topology == ContentGenerator.Topology.OPEN ? 0 : 39, locked, topology.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("seedAndMix_decideTheContent")
+    void seedAndMix_decideTheContent() throws Exception {
+        assertEquals(write(7, 0.5, 2), write(7, 0.5, 2));
+        assertNotEquals(write(7, 0.5, 2), write(8, 0.5, 2));
+
+        List<Game> allMath = load(write(7, 1.0, 2));
+        List<Game> noMath = load(write(7, 0.0, 2));
+        assertTrue(puzzles(allMath).stream().allMatch(puzzle -> puzzle instanceof MathPuzzle));
+        assertFalse(puzzles(noMath).stream().anyMatch(puzzle -> puzzle instanceof MathPuzzle));
+        MathPuzzle dial = (MathPuzzle) puzzles(allMath).get(0);
+        assertEquals("x * y + 0", dial.getAnswerExpression());
+        assertEquals(2, dial.getHints().size());
+
+        List<Game> noPuzzles = load(write(7, 0.5, 0));
+        assertTrue(puzzles(noPuzzles).isEmpty());
+        for (Game game : noPuzzles) {
+            assertTrue(SolvabilityAnalyzer.analyze(game).isSolvable(), "Keys lie loose when rooms have no puzzles");
+        }
+
+        ContentGenerator generator = new ContentGenerator();
+        assertThrows(IllegalArgumentException.class, () -> generator.setRoomsPerGame(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.setGames(-1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setMathShare(1.5));
+        assertThrows(IllegalArgumentException.class, () -> generator.setMathShare(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> generator.setTopology(null));
+    }
+
+    @Test
+    @DisplayName("productionScalePack_streamsWithoutBuildingIt")
+    void productionScalePack_streamsWithoutBuildingIt() throws Exception {
+        ContentGenerator generator = new ContentGenerator();
+        generator.setGames(1_000);
+        generator.setRoomsPerGame(100);
+        generator.setItemsPerRoom(10);
+        generator.setTopology(ContentGenerator.Topology.RANDOM);
+
+        ContentGenerator.Summary summary = generator.write(Writer.nullWriter());
+
+        assertEquals(1_000, summary.getGames());
+        assertEquals(100_000, summary.getRooms());
+        assertEquals(1_000_000 + 99_000, summary.getItems(), "Loose items plus one key per locked room");
+        assertEquals(200_000, summary.getPuzzles());
+        assertTrue(summary.getBytes() > 100_000_000, summary.toString());
+    }
+
+    private static String write(long seed, double mathShare, int puzzlesPerRoom) throws Exception {
+        ContentGenerator generator = new ContentGenerator();
+        generator.setGames(3);
+        generator.setRoomsPerGame(12);
+        generator.setTopology(ContentGenerator.Topology.RANDOM);
+        generator.setSeed(seed);
+        generator.setMathShare(mathShare);
+        generator.setPuzzlesPerRoom(puzzlesPerRoom);
+        StringWriter out = new StringWriter();
+        generator.write(out);
+        return out.toString();
+    }
+
+    private List<Game> load(String json) throws Exception {
+        Path file = tempDir.resolve("pack.json");
+        Files.writeString(file, json);
+        return new DataLoader().loadGames(file);
+    }
+
+    private static List<Puzzle> puzzles(List<Game> games) {
+        return games.stream()
+                .flatMap(game -> game.getRooms().stream())
+                .flatMap(room -> room.getPuzzles().stream())
+                .toList();
+    }
+}
@@ -0,0 +1,214 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: CoopSession join/attempt/hint/move, Game and GameTemplate maxPlayers.
+// - Happy path: a team shares solves, keys and unlocked rooms; each player moves on their own.
+// - Negative cases: a ninth player is refused; stale light answers and late solves report TOO_LATE.
+// - Boundary cases: maxPlayers is clamped to 1..8; the shared hint budget runs dry exactly once; a session
+//   that ran out of time stays lost when its last puzzle is solved.
+// - Invariants: eight players racing on one puzzle always produce exactly one solver, visible with its key and
+//   opened room as soon as the puzzle reads as solved.
+class CoopSessionTest {
+
+    private static final int TEAM = Game.MAX_PLAYERS;
+
+    @Test
+    @DisplayName("join_acceptsUpToMaxPlayers_thenRefuses")
+    void join_acceptsUpToMaxPlayers_thenRefuses() {
+        CoopSession session = teamTemplate().newCoopSession(1L);
+        for (int i = 0; i < TEAM; i++) {
+            assertEquals(i, session.join("player" + i));
+        }
+        assertEquals(3, session.join("player3"), "Rejoining returns the existing slot");
+        assertEquals(-1, session.join("late"));
+
+        session.leave(5);
+        assertEquals(5, session.join("late"));
+        assertEquals(TEAM, session.getPlayerCount());
+        assertThrows(IllegalArgumentException.class, () -> session.attempt(TEAM, 0, "x"));
+
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.EASY);
+        game.setMaxPlayers(40);
+        assertEquals(TEAM, game.getMaxPlayers());
+        game.setMaxPlayers(0);
+        assertEquals(1, game.getMaxPlayers());
+    }
+
+    @Test
+    @DisplayName("team_sharesSolvesKeysAndLocks_butMovesIndependently")
+    void team_sharesSolvesKeysAndLocks_butMovesIndependently() {
+        CoopSession session = teamTemplate().newCoopSession(42L);
+        session.start();
+        int alice = session.join("alice");
+        int bob = session.join("bob");
+
+        assertEquals(CoopSession.Outcome.WRONG, session.attempt(bob, 1, "river"), "Room 1 is still locked");
+        assertFalse(session.move(bob, 1));
+
+        List<LightColor> first = lightGuess(session, 0);
+        assertEquals(CoopSession.Outcome.PROGRESS, session.attempt(alice, 0, first));
+        assertEquals(1, session.getLightRound(0), "Bob sees Alice's progress");
+        assertEquals(CoopSession.Outcome.TOO_LATE, session.attempt(bob, 0, first), "Round already passed");
+        solveLights(session, bob, 0);
+
+        assertEquals(bob, session.getSolvedBy(0));
+        assertTrue(session.hasItem(session.getTemplate().getPuzzleKeyProvided(0)));
+        assertFalse(session.isLocked(1));
+        assertTrue(session.move(alice, 1));
+        assertEquals(0, session.getCurrentRoom(bob));
+
+        assertEquals(CoopSession.Outcome.SOLVED, session.attempt(bob, 1, "river"));
+        assertEquals(CoopSession.Outcome.TOO_LATE, session.attempt(alice, 1, "river"));
+        assertEquals(CoopSession.Outcome.SOLVED, session.attempt(alice, 2, 12.0));
+        assertTrue(session.isComplete());
+        assertEquals(GameStatus.COMPLETED, session.getStatus());
+    }
+
+    @Test
+    @DisplayName("concurrentAttempts_haveExactlyOneWinner")
+    void concurrentAttempts_haveExactlyOneWinner() throws Exception {
+        GameTemplate template = teamTemplate();
+        int key = template.getPuzzleKeyProvided(1);
+        ExecutorService pool = Executors.newFixedThreadPool(TEAM + 1);
+        try {
+            for (int round = 0; round < 200; round++) {
+                CoopSession session = template.newCoopSession(round);
+                for (int i = 0; i < TEAM; i++) {
+                    session.join("player" + i);
+                }
+                solveLights(session, 0, 0);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> observer = pool.submit(() -> {
+                    start.await();
+                    while (!session.isSolved(1)) {
+                        Thread.onSpinWait();
+                    }
+                    return session.getSolvedBy(1) >= 0 && session.hasItem(key) && !session.isLocked(2);
+                });
+                List<Future<CoopSession.Outcome>> outcomes = new ArrayList<>();
+                for (int i = 0; i < TEAM; i++) {
+                    int player = i;
+                    outcomes.add(pool.submit(() -> {
+                        start.await();
+                        return session.attempt(player, 1, "river");
+                    }));
+                }
+                start.countDown();
+
+                int winners = 0;
+                int winner = -1;
+                for (int i = 0; i < TEAM; i++) {
+                    CoopSession.Outcome outcome = outcomes.get(i).get(5, TimeUnit.SECONDS);
+                    if (outcome == CoopSession.Outcome.SOLVED) {
+                        winners++;
+                        winner = i;
+                    } else {
+                        assertEquals(CoopSession.Outcome.TOO_LATE, outcome);
+                    }
+                }
+                assertEquals(1, winners);
+                assertTrue(observer.get(5, TimeUnit.SECONDS), "A visible solve shows its solver, key and opened room");
+                assertEquals(winner, session.getSolvedBy(1));
+                assertFalse(session.isLocked(2));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("lostSession_staysLost_whenTeamFinishesLate")
+    void lostSession_staysLost_whenTeamFinishesLate() {
+        CoopSession session = teamTemplate().newCoopSession(3L);
+        int alice = session.join("alice");
+        session.end();
+        assertEquals(GameStatus.NOT_STARTED, session.getStatus(), "Only a session in progress completes");
+
+        session.start();
+        assertTrue(session.expire());
+        assertFalse(session.expire());
+        solveLights(session, alice, 0);
+        session.attempt(alice, 1, "river");
+        session.attempt(alice, 2, 12.0);
+        session.end();
+        assertTrue(session.isComplete());
+        assertEquals(GameStatus.LOST, session.getStatus());
+    }
+
+    @Test
+    @DisplayName("sharedHintBudget_isNeverOverspent")
+    void sharedHintBudget_isNeverOverspent() throws Exception {
+        CoopSession session = teamTemplate().newCoopSession(7L);
+        int budget = session.getHintsRemaining(0);
+        for (int i = 0; i < TEAM; i++) {
+            session.join("player" + i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(TEAM);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> granted = new ArrayList<>();
+        try {
+            for (int i = 0; i < TEAM; i++) {
+                int player = i;
+                granted.add(pool.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int request = 0; request < 50; request++) {
+                        if (!"No hints left.".equals(session.requestHint(player, 0))) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : granted) {
+                total += future.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(budget, total);
+            assertEquals(0, session.getHintsRemaining(0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static GameTemplate teamTemplate() {
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.EASY);
+        game.setMaxPlayers(TEAM);
+        return GameTemplate.compile(game);
+    }
+
+    private static List<LightColor> lightGuess(CoopSession session, int puzzle) {
+        List<LightColor> guess = new ArrayList<>();
+        for (int position = 0; position <= session.getLightRound(puzzle); position++) {
+            guess.add(session.getLightColor(puzzle, position));
+        }
+        return guess;
+    }
+
+    private static void solveLights(CoopSession session, int player, int puzzle) {
+        int guard = 0;
+        while (!session.isSolved(puzzle)) {
+            assertTrue(session.attempt(player, puzzle, lightGuess(session, puzzle)) != CoopSession.Outcome.WRONG);
+            assertTrue(++guard <= 10, "Guard exceeded while solving lights");
+        }
+    }
+}
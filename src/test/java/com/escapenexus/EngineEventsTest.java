@@ -0,0 +1,144 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: EngineEvents and the shipped escapenexus.jfc, DataLoader/DataWriter/UserStorage/GameManager/Game emitters.
+// - Happy path: a recording with the shipped profile captures loads, saves, progress, attempts and room changes with their fields.
+// - Negative cases: no recording means every event reports disabled and nothing is committed.
+// - Boundary cases: content read from the class path reports the bytes read; a leading byte order mark is skipped.
+// - Invariants: emitting disabled events allocates nothing once compiled.
+class EngineEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("shippedProfile_recordsEngineTimeline_withIdsBytesAndRooms")
+    void shippedProfile_recordsEngineTimeline_withIdsBytesAndRooms() throws Exception {
+        GameManager manager = new GameManager();
+        Room lab = new Room("Lab", "");
+        lab.addPuzzle(new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river")));
+        Room exit = new Room("Exit", "");
+        exit.addPuzzle(new MathPuzzle(UUID.randomUUID(), "Sum", "", 12.0, 0.0));
+        Game game = manager.createGameFromRooms(List.of(lab, exit), Duration.ofMinutes(5));
+        String gameId = game.getId().toString();
+        Game content = GameFactory.createDefaultThreeRoomGame(Difficulty.EASY);
+        Path saved = tempDir.resolve("game.json");
+        Path dump = tempDir.resolve("engine.jfr");
+        Game loaded;
+        List<Game> bundled;
+
+        try (Recording recording = new Recording(EngineEvents.configuration())) {
+            recording.enable("com.escapenexus.PuzzleAttempt").withThreshold(Duration.ZERO);
+            recording.start();
+            new DataWriter().writeGame(saved, content);
+            loaded = new DataLoader().loadGames(saved).get(0);
+            bundled = new DataLoader().loadGamesFromResource();
+            new UserStorage().loadUsers();
+            User user = new User("recorded");
+            new UserStorage().applyUserProgressToGame(user, game);
+            manager.attemptPuzzle(gameId, "Riddle", "lake");
+            manager.attemptPuzzle(gameId, "Riddle", "river");
+            System.gc();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Map<String, List<RecordedEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        RecordedEvent save = only(byType, "com.escapenexus.ContentSave");
+        assertEquals(content.getId().toString(), save.getString("gameId"));
+        assertEquals(Files.size(saved), save.getLong("bytes"));
+        assertEquals(1, save.getInt("games"));
+
+        List<RecordedEvent> loads = byType.get("com.escapenexus.ContentLoad");
+        assertEquals(2, loads.size());
+        assertEquals(saved.toString(), loads.get(0).getString("source"));
+        assertEquals(Files.size(saved), loads.get(0).getLong("bytes"));
+        assertEquals(loaded.getId().toString(), loads.get(0).getString("gameId"));
+        assertTrue(loads.get(1).getLong("bytes") > 0, "Class-path content is counted as it is read");
+        assertFalse(bundled.isEmpty(), "The bundled game-data.json loads despite its byte order mark");
+        assertEquals(bundled.size(), loads.get(1).getInt("games"));
+        assertEquals(bundled.get(0).getId().toString(), loads.get(1).getString("gameId"));
+
+        assertEquals(Files.size(Path.of("saves", "users.json")), only(byType, "com.escapenexus.UserLoad").getLong("bytes"));
+        RecordedEvent apply = only(byType, "com.escapenexus.ProgressApply");
+        assertEquals("recorded", apply.getString("username"));
+        assertEquals("Lab", apply.getString("room"));
+
+        List<RecordedEvent> attempts = byType.get("com.escapenexus.PuzzleAttempt");
+        assertEquals(2, attempts.size());
+        assertEquals("Lab", attempts.get(1).getString("room"));
+        assertEquals("Riddle", attempts.get(1).getString("puzzle"));
+        assertFalse(attempts.get(0).getBoolean("correct"));
+        assertTrue(attempts.get(1).getBoolean("solved"));
+
+        RecordedEvent move = only(byType, "com.escapenexus.RoomTransition");
+        assertEquals(gameId, move.getString("gameId"));
+        assertEquals("Lab", move.getString("fromRoom"));
+        assertEquals("Exit", move.getString("toRoom"));
+        assertTrue(byType.containsKey("jdk.GarbageCollection"), "GC shows up on the same timeline");
+    }
+
+    @Test
+    @DisplayName("disabledEvents_commitNothing_andAllocateNothing")
+    void disabledEvents_commitNothing_andAllocateNothing() {
+        EngineEvents.PuzzleAttempt probe = new EngineEvents.PuzzleAttempt();
+        assertFalse(probe.isEnabled());
+        assertFalse(new EngineEvents.ContentLoad().isEnabled());
+        assertFalse(new EngineEvents.UserSave().isEnabled());
+
+        // A recording that just ended leaves event classes to be recompiled, so give the JIT a few rounds.
+        UUID gameId = UUID.randomUUID();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(threadId);
+        long sink = 0;
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 20 && allocated >= 1_024; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 1_000_000; i++) {
+                sink += emit(gameId, i);
+            }
+            allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        assertTrue(allocated < 1_024, "Disabled events allocated " + allocated + " bytes (" + sink + ")");
+    }
+
+    private static int emit(UUID gameId, int i) {
+        EngineEvents.PuzzleAttempt event = new EngineEvents.PuzzleAttempt();
+        event.begin();
+        EngineEvents.commitAttempt(event, gameId, "Lab", "Riddle", (i & 1) == 0, false);
+        EngineEvents.roomTransition(gameId, "Lab", "Exit");
+        return i & 1;
+    }
+
+    private static RecordedEvent only(Map<String, List<RecordedEvent>> byType, String type) {
+        List<RecordedEvent> events = byType.get(type);
+        assertTrue(events != null && events.size() == 1, type + ": " + events);
+        return events.get(0);
+    }
+}
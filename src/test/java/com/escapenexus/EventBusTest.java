@@ -0,0 +1,176 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: EventBus publish/subscribe/close, GameEvent, EscapeGame event publishing.
+// - Happy path: playing the default game publishes each side effect once, in gameplay order, to every subscriber.
+// - Negative cases: publishing without subscribers or after close is refused; a throwing listener is skipped.
+// - Boundary cases: a stalled subscriber makes a full ring drop events instead of blocking the publisher.
+// - Invariants: concurrent publishers yield gap-free sequences, and publishing allocates nothing.
+class EventBusTest {
+
+    private final EscapeGame escapeGame = EscapeGame.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        escapeGame.setEventBus(null);
+        escapeGame.resetProgress();
+        escapeGame.logout();
+    }
+
+    @Test
+    @DisplayName("escapeGame_publishesEachSideEffect_inOrder")
+    void escapeGame_publishesEachSideEffect_inOrder() throws Exception {
+        try (EventBus bus = new EventBus(64)) {
+            ConcurrentLinkedQueue<String> seen = new ConcurrentLinkedQueue<>();
+            ConcurrentLinkedQueue<String> metrics = new ConcurrentLinkedQueue<>();
+            CountDownLatch completed = new CountDownLatch(2);
+            bus.subscribe("log", event -> {
+                seen.add(event.getType() + ":" + event.getUsername());
+                if (event.getType() == GameEvent.Type.GAME_COMPLETED) {
+                    completed.countDown();
+                }
+            });
+            bus.subscribe("metrics", event -> {
+                metrics.add(event.getType() + ":" + event.getUsername());
+                if (event.getType() == GameEvent.Type.GAME_COMPLETED) {
+                    completed.countDown();
+                }
+            });
+            escapeGame.setEventBus(bus);
+            escapeGame.newSinglePlayerSession("watched", Difficulty.EASY);
+
+            escapeGame.requestHint();
+            LightPatternPuzzle lights = (LightPatternPuzzle) escapeGame.getNextPuzzle();
+            while (!lights.isSolved()) {
+                assertTrue(escapeGame.attemptCurrentPuzzle(List.copyOf(lights.getCurrentSequence())));
+            }
+            assertFalse(escapeGame.attemptCurrentPuzzle("mountain"));
+            assertTrue(escapeGame.attemptCurrentPuzzle("river"));
+            assertTrue(escapeGame.attemptCurrentPuzzle(12.0));
+            assertTrue(escapeGame.attemptCurrentPuzzle(12.0), "Already solved");
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+
+            List<String> expected = new ArrayList<>();
+            for (GameEvent.Type type : List.of(
+                    GameEvent.Type.HINT_USED,
+                    GameEvent.Type.ITEM_PICKED_UP, GameEvent.Type.ROOM_UNLOCKED,
+                    GameEvent.Type.PUZZLE_SOLVED, GameEvent.Type.ROOM_ENTERED,
+                    GameEvent.Type.PUZZLE_SOLVED, GameEvent.Type.ITEM_PICKED_UP, GameEvent.Type.ROOM_UNLOCKED,
+                    GameEvent.Type.ROOM_ENTERED,
+                    GameEvent.Type.PUZZLE_SOLVED, GameEvent.Type.GAME_COMPLETED)) {
+                expected.add(type + ":watched");
+            }
+            assertEquals(expected, List.copyOf(seen));
+            assertEquals(expected, List.copyOf(metrics));
+            assertEquals(expected.size(), bus.getPublishedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("concurrentPublishers_yieldGapFreeSequences_andFailuresAreSkipped")
+    void concurrentPublishers_yieldGapFreeSequences_andFailuresAreSkipped() throws Exception {
+        UUID game = UUID.randomUUID();
+        assertFalse(new EventBus().publish(GameEvent.Type.ROOM_ENTERED, "nobody", game, null, null));
+
+        int publishers = 4;
+        int each = 50_000;
+        AtomicLong expectedNext = new AtomicLong();
+        AtomicLong outOfOrder = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(publishers * each);
+        EventBus bus = new EventBus(1024);
+        bus.subscribe("checker", event -> {
+            if (event.getSequence() != expectedNext.getAndIncrement()) {
+                outOfOrder.incrementAndGet();
+            }
+            done.countDown();
+        });
+        bus.subscribe("faulty", event -> {
+            if (event.getSequence() % 1000 == 0) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        long[] refused = new long[publishers];
+        for (int p = 0; p < publishers; p++) {
+            int index = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < each; i++) {
+                    while (!bus.publish(GameEvent.Type.HINT_USED, "p" + index, game, null, null)) {
+                        refused[index]++;
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        bus.close();
+
+        assertEquals(0, outOfOrder.get());
+        assertEquals((long) publishers * each, bus.getPublishedCount());
+        assertEquals(bus.getDroppedCount(), refused[0] + refused[1] + refused[2] + refused[3]);
+        assertEquals(publishers * each / 1000, bus.getFailureCount());
+        assertFalse(bus.publish(GameEvent.Type.HINT_USED, "late", game, null, null));
+    }
+
+    @Test
+    @DisplayName("stalledSubscriber_dropsEvents_andPublishingAllocatesNothing")
+    void stalledSubscriber_dropsEvents_andPublishingAllocatesNothing() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong delivered = new AtomicLong();
+        try (EventBus bus = new EventBus(100)) {
+            assertEquals(128, bus.getCapacity());
+            bus.subscribe("stuck", event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.incrementAndGet();
+            });
+            UUID game = UUID.randomUUID();
+            UUID room = UUID.randomUUID();
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            threads.getThreadAllocatedBytes(threadId);
+
+            long before = threads.getThreadAllocatedBytes(threadId);
+            int accepted = 0;
+            for (int i = 0; i < 100_000; i++) {
+                if (bus.publish(GameEvent.Type.ROOM_ENTERED, "alloc", game, room, null)) {
+                    accepted++;
+                }
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(128, accepted, "Only one ring fits behind the stuck subscriber");
+            assertEquals(100_000 - 128, bus.getDroppedCount());
+            assertTrue(allocated < 1_024, "Publishing allocated " + allocated + " bytes");
+            release.countDown();
+        }
+        assertEquals(128, delivered.get(), "Exactly one full ring got through");
+    }
+}
@@ -0,0 +1,182 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: GameManager concurrent start/attempt/end, shared current game, withGame locking.
+// - Happy path: 64 threads each play their own game to the last room through one shared manager, keys
+//   from solves opening the locked rooms without any other call.
+// - Negative cases: ended games disappear for every caller and further attempts fail.
+// - Boundary cases: with no game started there is no current game to save; one thread's game is
+//   current, savable and exitable on every other thread.
+// - Invariants: read-modify-write through withGame on one hot game loses no updates at 64 threads.
+class GameManagerConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("sixtyFourCallers_playOwnGames_byId")
+    void sixtyFourCallers_playOwnGames_byId() throws Exception {
+        GameManager manager = new GameManager();
+        List<Boolean> results = runConcurrently(THREADS, index -> {
+            Game game = manager.startNewGame(Difficulty.MEDIUM);
+            String gameId = game.getId().toString();
+
+            LightPatternPuzzle lights = (LightPatternPuzzle) game.getCurrentRoom().getPuzzles().get(0);
+            while (!lights.isSolved()) {
+                List<LightColor> guess = manager.withGame(gameId, g -> List.copyOf(lights.getCurrentSequence()))
+                        .orElseThrow();
+                assertTrue(manager.attemptPuzzle(gameId, lights.getTitle(), guess));
+            }
+            assertSame(game.getRooms().get(1), game.getCurrentRoom(), "The solve's key opens the next room");
+            assertTrue(manager.attemptPuzzle(gameId, "Mag-Lock Riddle", "river"));
+            assertTrue(manager.attemptPuzzle(gameId, "Reactor Calibration", 12.0));
+            boolean lastRoom = game.getCurrentRoom() == game.getRooms().get(2);
+
+            manager.endGame(gameId);
+            return lastRoom && manager.getGame(gameId).isEmpty()
+                    && !manager.attemptPuzzle(gameId, "Reactor Calibration", 12.0);
+        });
+        assertFalse(results.contains(false));
+        assertTrue(manager.getCurrentGame().isEmpty(), "Every game was ended");
+    }
+
+    @Test
+    @DisplayName("currentGame_isSharedAcrossThreads")
+    void currentGame_isSharedAcrossThreads() throws Exception {
+        GameManager manager = new GameManager();
+        Path file = tempDir.resolve("current.json");
+        Game started = runConcurrently(1, index -> manager.startNewGame(Difficulty.EASY)).get(0);
+
+        assertSame(started, manager.getCurrentGame().orElseThrow(), "Another thread's game is current here too");
+        manager.saveCurrentGame(file);
+        assertTrue(Files.size(file) > 0);
+
+        Game other = manager.startNewGame(Difficulty.HARD);
+        manager.endGame(started.getId().toString());
+        assertSame(other, manager.getCurrentGame().orElseThrow(), "Ending another game keeps the current one");
+        runConcurrently(1, index -> {
+            manager.exitGame();
+            return null;
+        });
+        assertTrue(manager.getCurrentGame().isEmpty(), "Exiting clears the current game for everyone");
+    }
+
+    @Test
+    @DisplayName("hotGame_serializesReadModifyWrite_atSixtyFourThreads")
+    void hotGame_serializesReadModifyWrite_atSixtyFourThreads() throws Exception {
+        GameManager manager = new GameManager();
+        String hotId = manager.startNewGame(Difficulty.EASY).getId().toString();
+        List<String> coldIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            coldIds.add(manager.startNewGame(Difficulty.EASY).getId().toString());
+        }
+        int perThread = 20_000;
+        Room hotRoom = manager.getGame(hotId).orElseThrow().getCurrentRoom();
+        int before = hotRoom.getHintLimit();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> runConcurrently(THREADS, index -> {
+            String coldId = coldIds.get(index);
+            for (int i = 0; i < perThread; i++) {
+                // Unsynchronized increments on Room: correct only if same-game operations never overlap.
+                manager.withGame(hotId, game -> {
+                    Room room = game.getCurrentRoom();
+                    room.setHintLimit(room.getHintLimit() + 1);
+                    return null;
+                });
+                manager.withGame(coldId, game -> game.getCurrentRoom().getHintLimit());
+            }
+            return null;
+        }));
+
+        assertEquals(before + THREADS * perThread, hotRoom.getHintLimit());
+    }
+
+    @Test
+    @DisplayName("attemptPuzzle_aloneOpensKeyLockedRoom")
+    void attemptPuzzle_aloneOpensKeyLockedRoom() {
+        GameManager manager = new GameManager();
+        Item key = new Item("Lab Key", "", true, true, ItemState.NEW);
+        Room lab = new Room("Lab", "");
+        RiddlePuzzle riddle = new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river"));
+        riddle.setKeyProvided(key);
+        lab.addPuzzle(riddle);
+        Room exit = new Room("Exit", "");
+        exit.setLocked(true);
+        exit.setKeyRequired(key);
+        exit.addPuzzle(new MathPuzzle(UUID.randomUUID(), "Sum", "", 12.0, 0.0));
+        Game game = manager.createGameFromRooms(List.of(lab, exit), Duration.ofMinutes(5));
+        String gameId = game.getId().toString();
+
+        assertFalse(manager.attemptPuzzle(gameId, "Riddle", "lake"));
+        assertSame(lab, game.getCurrentRoom());
+        assertTrue(manager.attemptPuzzle(gameId, "Riddle", "river"));
+
+        assertFalse(exit.isLocked());
+        assertSame(exit, game.getCurrentRoom());
+        assertTrue(manager.attemptPuzzle(gameId, "Sum", 12.0));
+    }
+
+    @Test
+    @DisplayName("callerWithoutGame_cannotSave")
+    void callerWithoutGame_cannotSave() {
+        GameManager manager = new GameManager();
+        assertTrue(manager.getCurrentGame().isEmpty());
+        IllegalStateException missing = assertThrows(IllegalStateException.class,
+                () -> manager.saveCurrentGame(Path.of("unused.json")));
+        assertEquals("No current game to save", missing.getMessage());
+    }
+
+    private interface Task<T> {
+        T run(int index) throws Exception;
+    }
+
+    private static <T> List<T> runConcurrently(int threads, Task<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(pool.submit(callable));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
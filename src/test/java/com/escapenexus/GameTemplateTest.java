@@ -0,0 +1,133 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: GameTemplate compilation, SessionState attempts/hints/locks, GameFactory template cache.
+// - Happy path: a session plays through the shared default game and collects each key on solve.
+// - Negative cases: wrong answers and locked rooms without keys leave the session unchanged.
+// - Boundary cases: light sequences match a LightPatternPuzzle seeded the same way; hint budgets run dry.
+// - Invariants: sessions never mutate the shared template; per-session allocation stays within a few hundred bytes.
+class GameTemplateTest {
+
+    private static final int MAX_BYTES_PER_SESSION = 512;
+
+    @Test
+    @DisplayName("defaultTemplate_isShared_andSessionsAreIndependent")
+    void defaultTemplate_isShared_andSessionsAreIndependent() {
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        assertSame(template, GameFactory.defaultTemplate(Difficulty.MEDIUM));
+
+        SessionState first = template.newSession(1L);
+        SessionState second = template.newSession(2L);
+        assertNotSame(first, second);
+        assertSame(template, first.getTemplate());
+
+        assertTrue(first.attempt(1, "river"));
+        assertTrue(first.isSolved(1));
+        assertFalse(second.isSolved(1), "Solving in one session must not leak into another");
+        assertEquals(3, template.getRoomCount());
+    }
+
+    @Test
+    @DisplayName("session_playsDefaultGame_collectingKeysAndUnlockingRooms")
+    void session_playsDefaultGame_collectingKeysAndUnlockingRooms() {
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        SessionState session = template.newSession(42L);
+
+        assertFalse(session.isLocked(0));
+        assertTrue(session.isLocked(1));
+        assertFalse(session.unlock(1), "Room stays locked until its key is collected");
+
+        solveLights(session, 0);
+        assertTrue(session.isCleared(0));
+        assertTrue(session.hasItem(template.getPuzzleKeyProvided(0)));
+        assertFalse(session.isLocked(1), "Collecting the key opens every room that needs it");
+
+        assertFalse(session.attempt(1, "mountain"));
+        assertTrue(session.isLocked(2));
+        assertTrue(session.attempt(1, "river"));
+        assertFalse(session.isLocked(2));
+        assertTrue(session.attempt(2, 12.0));
+        assertTrue(session.isCleared(2));
+    }
+
+    @Test
+    @DisplayName("lightSequence_matchesPuzzleSeededTheSameWay")
+    void lightSequence_matchesPuzzleSeededTheSameWay() {
+        SessionState session = GameFactory.defaultTemplate(Difficulty.EASY).newSession(12345L);
+        LightPatternPuzzle reference = new LightPatternPuzzle(UUID.randomUUID(), "Lights", "Replay.", 12345L);
+
+        while (!reference.isSolved()) {
+            List<LightColor> expected = new ArrayList<>(reference.getCurrentSequence());
+            for (int position = 0; position < expected.size(); position++) {
+                assertEquals(expected.get(position), session.getLightColor(0, position));
+            }
+            assertTrue(session.attempt(0, expected));
+            assertTrue(reference.attempt(expected));
+        }
+        assertTrue(session.isSolved(0));
+    }
+
+    @Test
+    @DisplayName("requestHint_spendsRoomBudget_thenRefuses")
+    void requestHint_spendsRoomBudget_thenRefuses() {
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.HARD);
+        SessionState session = template.newSession(7L);
+
+        assertEquals(1, session.getHintsRemaining(1));
+        assertEquals(template.getHints(1).get(0), session.requestHint(1));
+        assertEquals("No hints left.", session.requestHint(1));
+        assertEquals(0, session.getHintsRemaining(1));
+        assertEquals(Difficulty.HARD.getHintLimit(), template.getRoomHintLimit(1), "Template budget is untouched");
+    }
+
+    @Test
+    @DisplayName("footprint_perSession_staysWithinFewHundredBytes")
+    void footprint_perSession_staysWithinFewHundredBytes() {
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        int count = 10_000;
+        SessionState[] sessions = new SessionState[count];
+        for (int i = 0; i < 100; i++) {
+            template.newSession(i);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < count; i++) {
+            sessions[i] = template.newSession(i);
+        }
+        long perSession = (threads.getThreadAllocatedBytes(threadId) - before) / count;
+
+        long estimate = sessions[0].estimatedFootprintBytes();
+        assertTrue(estimate <= perSession, "Estimate " + estimate + " should not exceed measured " + perSession);
+        assertTrue(perSession <= MAX_BYTES_PER_SESSION,
+                "Measured " + perSession + " bytes per session (retained estimate " + estimate + ")");
+    }
+
+    private void solveLights(SessionState session, int puzzle) {
+        int guard = 0;
+        while (!session.isSolved(puzzle)) {
+            List<LightColor> guess = new ArrayList<>();
+            for (int position = 0; position <= session.getLightRound(puzzle); position++) {
+                guess.add(session.getLightColor(puzzle, position));
+            }
+            assertTrue(session.attempt(puzzle, guess));
+            assertTrue(++guard <= 10, "Guard exceeded while solving lights");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: GameTrace recording and reading, TraceReplayer full-speed and paced replay, LineServer traces, seeded GameFactory.
+// - Happy path: a recorded session replays on a fresh registry with every response matching, session ids remapped.
+// - Negative cases: a replay that diverges reports its first mismatch; foreign bytes are refused.
+// - Boundary cases: a trace cut short mid-entry reads back as its complete entries; full speed never waits.
+// - Invariants: recorded seeds reproduce light sequences, and paced replays wait exactly the recorded gaps.
+class GameTraceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("recordedSession_replaysWithSameResponses")
+    void recordedSession_replaysWithSameResponses() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SessionRegistry registry = new SessionRegistry();
+        LineSession client = new LineSession(registry, LineSession.RANDOM_SEEDS,
+                new GameTrace.Recorder(bytes, () -> clock.addAndGet(1_000_000), 1234L));
+
+        String sessionId = client.execute("login alice hard").substring(3);
+        client.execute("look");
+        client.execute("attempt PURPLE");
+        String sequence = client.execute("show-seq");
+        for (int guard = 0; sequence.startsWith("OK "); guard++) {
+            assertTrue(guard < 10, "Guard exceeded while solving lights");
+            client.execute("attempt " + sequence.substring(3));
+            sequence = client.execute("show-seq");
+        }
+        client.execute("hint");
+        client.execute("save");
+        client.execute("load " + sessionId);
+        client.execute("attempt river");
+        client.execute("attempt 12");
+        client.execute("dance");
+        client.execute("quit");
+        client.close();
+
+        GameTrace trace = GameTrace.read(new ByteArrayInputStream(bytes.toByteArray()));
+        List<GameTrace.Entry> entries = trace.getEntries();
+        assertEquals(1234L, trace.getStartedAtMillis());
+        assertEquals("login alice hard", entries.get(0).getCommand());
+        assertEquals(1, entries.get(0).getSeedCount(), "Login records the light seed it drew");
+        assertEquals("OK complete", entries.get(entries.size() - 3).getResponse());
+        assertTrue(entries.stream().skip(1).allMatch(entry -> entry.getSeedCount() == 0));
+        assertEquals(Duration.ofMillis(entries.size()), trace.getDuration(), "One clock read per command");
+        assertTrue(bytes.size() < 1_200, "Trace of " + entries.size() + " commands took " + bytes.size() + " bytes");
+
+        SessionRegistry fresh = new SessionRegistry();
+        TraceReplayer.Result result = new TraceReplayer(fresh).replay(trace);
+
+        assertTrue(result.isFaithful(), result.toString());
+        assertEquals(entries.size(), result.getCommands());
+        assertEquals(entries.size(), result.getLatency().getCount());
+        assertEquals(1, fresh.size(), "The saved session stays open after the replay");
+        assertFalse(fresh.contains(sessionId), "Replays get their own session ids");
+    }
+
+    @Test
+    @DisplayName("pacedReplay_waitsRecordedGaps_fullSpeedNever")
+    void pacedReplay_waitsRecordedGaps_fullSpeedNever() throws Exception {
+        long[] gaps = {5_000_000, 0, 20_000_000, 1};
+        GameTrace trace = record(gaps, "login bob easy", "look", "hint", "quit");
+        assertEquals(5_000_000, trace.getEntries().get(0).getDelayNanos());
+
+        AtomicLong clock = new AtomicLong();
+        List<Long> waits = new ArrayList<>();
+        TraceReplayer replayer = new TraceReplayer(new SessionRegistry(), clock::get, nanos -> {
+            waits.add(nanos);
+            clock.addAndGet(nanos);
+        });
+        replayer.setPaced(true);
+
+        TraceReplayer.Result paced = replayer.replay(trace);
+
+        assertTrue(paced.isFaithful(), paced.toString());
+        assertEquals(List.of(5_000_000L, 20_000_000L, 1L), waits, "No wait for a zero gap");
+        assertEquals(Arrays.stream(gaps).sum(), paced.getElapsedNanos());
+
+        waits.clear();
+        replayer.setPaced(false);
+        TraceReplayer.Result fullSpeed = replayer.replay(trace);
+        assertTrue(fullSpeed.isFaithful(), fullSpeed.toString());
+        assertTrue(waits.isEmpty());
+    }
+
+    @Test
+    @DisplayName("divergentReplay_reportsFirstMismatch")
+    void divergentReplay_reportsFirstMismatch() throws Exception {
+        GameTrace trace = record(new long[6], "login carol hard", "attempt PURPLE", "attempt PURPLE",
+                "attempt PURPLE", "attempt PURPLE", "attempt PURPLE");
+        SessionRegistry limited = new SessionRegistry();
+        limited.setAttemptLimiter(new AttemptLimiter(Map.of(), 100, () -> 0L));
+
+        TraceReplayer.Result result = new TraceReplayer(limited).replay(trace);
+
+        assertEquals(5 - Difficulty.HARD.getAttemptBurst(), result.getMismatches());
+        assertTrue(result.getFirstMismatch().startsWith("#" + (1 + Difficulty.HARD.getAttemptBurst())
+                + " attempt PURPLE: expected \"OK fail\", got \"ERR "), result.getFirstMismatch());
+        assertTrue(result.toString().contains("mismatched"), result.toString());
+        assertEquals(0, limited.size(), "Unsaved replay sessions are closed");
+
+        byte[] whole = write(new long[2], "login dave", "look");
+        GameTrace truncated = GameTrace.read(new ByteArrayInputStream(Arrays.copyOf(whole, whole.length - 3)));
+        assertEquals(1, truncated.getEntries().size());
+        assertNull(new TraceReplayer(new SessionRegistry()).replay(truncated).getFirstMismatch());
+
+        assertThrows(IOException.class, () -> GameTrace.read(new ByteArrayInputStream("{\"games\":[]}".getBytes())));
+        byte[] future = whole.clone();
+        future[4] = 9;
+        IOException version = assertThrows(IOException.class, () -> GameTrace.read(new ByteArrayInputStream(future)));
+        assertEquals("Unsupported trace version 9", version.getMessage());
+    }
+
+    @Test
+    @DisplayName("lineServer_writesReplayableTracePerConnection")
+    void lineServer_writesReplayableTracePerConnection() throws Exception {
+        Path traces = Files.createDirectory(tempDir.resolve("traces"));
+        try (LineServer server = LineServer.start(new SessionRegistry(),
+                new InetSocketAddress("127.0.0.1", 0))) {
+            server.setTraceDirectory(traces);
+            try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                OutputStream out = socket.getOutputStream();
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                out.write("login erin easy\nshow-seq\nhint\nattempt PURPLE\nquit\n".getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < 5; i++) {
+                    assertTrue(in.readLine().startsWith("OK "));
+                }
+                assertNull(in.readLine(), "Server closes after quit");
+            }
+        }
+
+        Path file;
+        try (Stream<Path> files = Files.list(traces)) {
+            file = files.filter(path -> path.toString().endsWith(GameTrace.EXTENSION)).findFirst().orElseThrow();
+        }
+        GameTrace trace = GameTrace.read(file);
+        assertEquals(5, trace.getEntries().size());
+        assertEquals("show-seq", trace.getEntries().get(1).getCommand());
+        TraceReplayer.Result result = new TraceReplayer(new SessionRegistry()).replay(trace);
+        assertTrue(result.isFaithful(), result.toString());
+    }
+
+    @Test
+    @DisplayName("seededDefaultGame_repeatsItsLights")
+    void seededDefaultGame_repeatsItsLights() {
+        Set<Integer> firstColors = new HashSet<>();
+        for (long seed = 0; seed < 32; seed++) {
+            assertEquals(firstLight(seed), firstLight(seed));
+            firstColors.add(firstLight(seed));
+        }
+        assertTrue(firstColors.size() > 1, "The seed picks the colors");
+    }
+
+    private static int firstLight(long seed) {
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.HARD, seed);
+        LightPatternPuzzle puzzle = (LightPatternPuzzle) game.getRooms().get(0).getPuzzles().get(0);
+        return puzzle.getColorIndex(0);
+    }
+
+    /** Plays {@code commands} with a random seed, each {@code gaps[i]} nanoseconds after the last. */
+    private static GameTrace record(long[] gaps, String... commands) throws IOException {
+        return GameTrace.read(new ByteArrayInputStream(write(gaps, commands)));
+    }
+
+    private static byte[] write(long[] gaps, String... commands) throws IOException {
+        AtomicLong clock = new AtomicLong();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameTrace.Recorder recorder = new GameTrace.Recorder(bytes, clock::get, 0L);
+        LineSession client = new LineSession(new SessionRegistry(), LineSession.RANDOM_SEEDS, recorder);
+        for (int i = 0; i < commands.length; i++) {
+            clock.addAndGet(gaps[i]);
+            client.execute(commands[i]);
+        }
+        client.close();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,202 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: HttpApi routes, body limits and error mapping, HttpLoadDriver.
+// - Happy path: a client starts the default game and solves every puzzle over JSON.
+// - Negative cases: unknown paths, wrong methods, malformed bodies and unknown games get JSON errors;
+//   internal failures get a generic 500 without their details.
+// - Boundary cases: a body one byte over MAX_BODY is refused with 413 and the client can carry on.
+// - Invariants: game JSON matches DataWriter output, ended games are gone, and each game saves to its own file.
+class HttpApiTest {
+
+    private final GameManager manager = new GameManager();
+    private HttpApi api;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = HttpApi.start(manager, new InetSocketAddress("127.0.0.1", 0), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    @DisplayName("client_playsDefaultGame_overHttp")
+    void client_playsDefaultGame_overHttp() throws Exception {
+        Reply created = send("POST", "/games?difficulty=easy", null);
+        assertEquals(201, created.status);
+        String location = created.location;
+        String gameId = location.substring("/games/".length());
+        Game game = manager.getGame(gameId).orElseThrow();
+        assertEquals(Difficulty.EASY, game.getDifficulty());
+        assertEquals(new DataWriter().toJson(List.of(game)), send("GET", location, null).body);
+
+        LightPatternPuzzle lights = (LightPatternPuzzle) game.getRooms().get(0).getPuzzles().get(0);
+        JSONObject result = null;
+        for (int guard = 0; !lights.isSolved(); guard++) {
+            assertTrue(guard < 10, "Guard exceeded while solving lights");
+            StringJoiner colors = new StringJoiner("\",\"", "[\"", "\"]");
+            lights.getCurrentSequence().forEach(color -> colors.add(color.name()));
+            result = attempt(location, "Reboot Sequence", colors.toString());
+            assertEquals(true, result.get("solved"));
+        }
+        assertEquals("Transit Hall", result.get("room"), "The solve's key opens the next room");
+
+        assertEquals(false, attempt(location, "Mag-Lock Riddle", "\"mountain\"").get("solved"));
+        assertEquals(true, attempt(location, "Mag-Lock Riddle", "\"river\"").get("solved"));
+        JSONObject advanced = parse(send("POST", location + "/advance", null).body);
+        assertEquals(false, advanced.get("advanced"), "Solving already moved on");
+        assertEquals("Core Vault", advanced.get("room"));
+        assertEquals(true, attempt(location, "Reactor Calibration", "12").get("solved"));
+
+        assertEquals(204, send("DELETE", location, null).status);
+        assertEquals(404, send("GET", location, null).status);
+    }
+
+    @Test
+    @DisplayName("badRequests_getJsonErrors_andOversizedBodiesAreRefused")
+    void badRequests_getJsonErrors_andOversizedBodiesAreRefused() throws Exception {
+        String location = send("POST", "/games", null).location;
+        assertError(404, send("GET", "/nowhere", null));
+        assertError(404, send("GET", "/games/missing", null));
+        assertError(405, send("PUT", "/instructions", null));
+        assertError(400, send("POST", "/games?difficulty=impossible", null));
+        assertError(400, send("POST", location + "/attempts", "[1, 2]"));
+        assertError(400, send("POST", location + "/attempts", "{\"answer\": \"river\"}"));
+        assertError(404, send("POST", "/games/missing/attempts", "{\"puzzle\": \"x\", \"answer\": 1}"));
+
+        String padding = "x".repeat(HttpApi.MAX_BODY - "{\"puzzle\":\"\",\"answer\":1}".length());
+        String atLimit = "{\"puzzle\":\"" + padding + "\",\"answer\":1}";
+        assertEquals(HttpApi.MAX_BODY, atLimit.length());
+        assertEquals(200, send("POST", location + "/attempts", atLimit).status);
+        assertError(413, send("POST", location + "/attempts", atLimit + " "));
+
+        Reply instructions = send("GET", "/instructions", null);
+        assertEquals(200, instructions.status);
+        assertEquals(manager.showInstructions(), parse(instructions.body).get("instructions"));
+    }
+
+    @Test
+    @DisplayName("saves_arePerGame_andFailuresStayGeneric")
+    void saves_arePerGame_andFailuresStayGeneric() throws Exception {
+        Path saves = tempDir.resolve("saves");
+        api.setSaveDirectory(saves);
+        String easy = send("POST", "/games?difficulty=easy", null).location;
+        String hard = send("POST", "/games?difficulty=hard", null).location;
+        assertEquals(200, send("POST", easy + "/save", null).status);
+        assertEquals(200, send("POST", hard + "/save", null).status);
+        try (var files = Files.list(saves)) {
+            assertEquals(2, files.count(), "Each game has its own save file");
+        }
+
+        assertEquals(204, send("DELETE", easy, null).status);
+        Reply restored = send("POST", easy + "/load", null);
+        assertEquals(200, restored.status, restored.body);
+        Object restoredId = ((JSONObject) ((JSONArray) parse(restored.body).get("games")).get(0)).get("id");
+        assertEquals("/games/" + restoredId, restored.location);
+        assertEquals(Difficulty.EASY, manager.getGame((String) restoredId).orElseThrow().getDifficulty());
+        String hardCopy = send("POST", hard + "/load", null).location.substring("/games/".length());
+        assertEquals(Difficulty.HARD, manager.getGame(hardCopy).orElseThrow().getDifficulty());
+
+        assertError(404, send("POST", "/games/" + UUID.randomUUID() + "/load", null));
+        assertError(404, send("POST", "/games/..%2F..%2Fusers/load", null));
+        assertError(404, send("POST", "/games/" + UUID.randomUUID() + "/save", null));
+
+        Path notADirectory = Files.writeString(tempDir.resolve("occupied"), "");
+        api.setSaveDirectory(notADirectory);
+        Reply failed = send("POST", restored.location + "/save", null);
+        assertEquals(500, failed.status, failed.body);
+        assertEquals("internal error", parse(failed.body).get("error"), "No paths or causes leak to clients");
+    }
+
+    @Test
+    @DisplayName("loadDriver_reportsThroughputAndTailLatency")
+    void loadDriver_reportsThroughputAndTailLatency() throws Exception {
+        LoadResult result = HttpLoadDriver.run(URI.create("http://127.0.0.1:" + api.getPort()), 4, 300);
+        assertEquals(1_200, result.getRequests());
+        assertTrue(result.getRequestsPerSecond() > 0);
+        assertTrue(result.getP50Nanos() <= result.getP99Nanos() && result.getP99Nanos() <= result.getMaxNanos());
+        assertTrue(api.getRequestCount() >= 1_200 + 8, "Each client also creates and ends a game");
+    }
+
+    private JSONObject attempt(String location, String puzzle, String answerJson) throws Exception {
+        Reply response = send("POST", location + "/attempts",
+                "{\"puzzle\": \"" + puzzle + "\", \"answer\": " + answerJson + "}");
+        assertEquals(200, response.status, response.body);
+        return parse(response.body);
+    }
+
+    private Reply send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection =
+                (HttpURLConnection) URI.create("http://127.0.0.1:" + api.getPort() + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String text = "";
+        if (stream != null) {
+            try (InputStream in = stream) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return new Reply(status, connection.getHeaderField("Location"), text);
+    }
+
+    private static void assertError(int status, Reply response) throws Exception {
+        assertEquals(status, response.status, response.body);
+        assertTrue(parse(response.body).get("error") instanceof String, response.body);
+    }
+
+    private static JSONObject parse(String json) throws Exception {
+        return (JSONObject) new JSONParser().parse(json);
+    }
+
+    private static final class Reply {
+        private final int status;
+        private final String location;
+        private final String body;
+
+        Reply(int status, String location, String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+    }
+}
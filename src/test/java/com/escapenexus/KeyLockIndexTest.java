@@ -0,0 +1,165 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: KeyLockIndex lookups, Game.unlockWith, EscapeGame key propagation and unlock events on solve.
+// - Happy path: one key opens every room and door that requires it, wherever they sit in the room list.
+// - Negative cases: unrelated keys and null keys open nothing.
+// - Boundary cases: repeated unlocks report zero newly opened locks; each opened lock is reported exactly once.
+// - Invariants: the index follows rooms and doors added after it was first built.
+class KeyLockIndexTest {
+
+    private Game game;
+    private Item masterKey;
+    private Room start;
+    private Room east;
+    private Room west;
+    private Door westDoor;
+
+    @BeforeEach
+    void setUp() {
+        game = new Game("Wings", "Two wings share a key.", Difficulty.MEDIUM, 15, 1);
+        masterKey = new Item("Master Key", "Opens both wings.", true, true, ItemState.NEW);
+        start = new Room("Start", "Hands out the master key.");
+        Puzzle puzzle = new Puzzle("Start Puzzle", "Any answer works.");
+        puzzle.setKeyProvided(masterKey);
+        start.addPuzzle(puzzle);
+
+        east = lockedRoom("East", masterKey);
+        west = lockedRoom("West", masterKey);
+        westDoor = new Door("West Door", "", start.getId(), west.getId());
+        westDoor.setKeyRequired(masterKey);
+
+        game.addItem(masterKey);
+        game.addRoom(start);
+        game.addRoom(east);
+        game.addRoom(west);
+        game.addDoor(new Door("East Door", "", start.getId(), east.getId()));
+        game.addDoor(westDoor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        EscapeGame escapeGame = EscapeGame.getInstance();
+        escapeGame.setEventBus(null);
+        escapeGame.resetProgress();
+        escapeGame.logout();
+    }
+
+    @Test
+    @DisplayName("index_listsEveryLockForKey")
+    void index_listsEveryLockForKey() {
+        KeyLockIndex index = game.getKeyLockIndex();
+        assertEquals(List.of(east, west), index.roomsRequiring(masterKey));
+        assertEquals(List.of(westDoor), index.doorsRequiring(masterKey));
+        assertTrue(index.roomsRequiring(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("unlockWith_opensAllMatchingLocks_once")
+    void unlockWith_opensAllMatchingLocks_once() {
+        assertEquals(3, game.unlockWith(masterKey));
+        assertFalse(east.isLocked());
+        assertFalse(west.isLocked());
+        assertFalse(westDoor.isLocked());
+        assertEquals(0, game.unlockWith(masterKey), "Already open locks are not counted again");
+    }
+
+    @Test
+    @DisplayName("unlockWith_unrelatedKey_opensNothing")
+    void unlockWith_unrelatedKey_opensNothing() {
+        Item stranger = new Item("Stranger Key", "", true, true, ItemState.NEW);
+        assertEquals(0, game.unlockWith(stranger));
+        assertEquals(0, game.unlockWith(null));
+        assertTrue(east.isLocked());
+        assertTrue(westDoor.isLocked());
+    }
+
+    @Test
+    @DisplayName("index_rebuildsAfterRoomsAreAdded")
+    void index_rebuildsAfterRoomsAreAdded() {
+        game.getKeyLockIndex();
+        Room annex = lockedRoom("Annex", masterKey);
+        game.addRoom(annex);
+
+        assertEquals(4, game.unlockWith(masterKey));
+        assertFalse(annex.isLocked());
+    }
+
+    @Test
+    @DisplayName("escapeGame_solve_unlocksNonAdjacentRooms")
+    void escapeGame_solve_unlocksNonAdjacentRooms() {
+        EscapeGame escapeGame = EscapeGame.getInstance();
+        escapeGame.newSinglePlayerSession("locksmith", Difficulty.EASY);
+        Game defaultGame = escapeGame.getGame();
+        Room vault = defaultGame.getRooms().get(2);
+        Room hall = defaultGame.getRooms().get(1);
+        Item vaultKey = vault.getKeyRequired();
+        hall.setKeyRequired(vaultKey);
+        Room extra = lockedRoom("Extra Vault", vaultKey);
+        defaultGame.addRoom(extra);
+
+        Puzzle riddle = hall.getPuzzles().get(0);
+        escapeGame.getUser().moveTo(hall);
+        assertTrue(escapeGame.attemptCurrentPuzzle("river"));
+
+        assertTrue(escapeGame.getUser().getInventory().contains(riddle.getKeyProvided()));
+        assertFalse(vault.isLocked());
+        assertFalse(extra.isLocked(), "Rooms beyond the next index open too");
+    }
+
+    @Test
+    @DisplayName("escapeGame_solve_publishesEachUnlockOnce")
+    void escapeGame_solve_publishesEachUnlockOnce() throws Exception {
+        EscapeGame escapeGame = EscapeGame.getInstance();
+        try (EventBus bus = new EventBus(64)) {
+            ConcurrentLinkedQueue<String> unlocks = new ConcurrentLinkedQueue<>();
+            CountDownLatch entered = new CountDownLatch(1);
+            bus.subscribe("unlocks", event -> {
+                switch (event.getType()) {
+                    case ROOM_UNLOCKED, DOOR_UNLOCKED -> unlocks.add(event.getType() + ":" + event.getRoomId()
+                            + ":" + event.getSubjectId());
+                    case ROOM_ENTERED -> entered.countDown();
+                    default -> { }
+                }
+            });
+            escapeGame.setEventBus(bus);
+            escapeGame.newSinglePlayerSession("doorman", Difficulty.EASY);
+            Game defaultGame = escapeGame.getGame();
+            Room hall = defaultGame.getRooms().get(1);
+            Room vault = defaultGame.getRooms().get(2);
+            Door vaultDoor = new Door("Vault Door", "", hall.getId(), vault.getId());
+            vaultDoor.setKeyRequired(vault.getKeyRequired());
+            defaultGame.addDoor(vaultDoor);
+
+            escapeGame.getUser().moveTo(hall);
+            assertTrue(escapeGame.attemptCurrentPuzzle("river"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS), "Unlocks are published before the vault is entered");
+
+            assertFalse(vaultDoor.isLocked());
+            assertEquals(List.of(
+                    "ROOM_UNLOCKED:" + vault.getId() + ":" + vault.getKeyRequired().getId(),
+                    "DOOR_UNLOCKED:" + vault.getId() + ":" + vaultDoor.getId()), List.copyOf(unlocks));
+        }
+    }
+
+    private static Room lockedRoom(String name, Item key) {
+        Room room = new Room(name, "");
+        room.setLocked(true);
+        room.setKeyRequired(key);
+        return room;
+    }
+}
@@ -3,8 +3,10 @@ package com.escapenexus;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -23,7 +25,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 // - Happy path: correct sequences across all rounds solve the puzzle and expose the provided key pattern once.
 // - Negative cases: wrong colors, mismatched lengths, null/empty/invalid inputs leave the puzzle unsolved.
 // - Boundary cases: accept String inputs case-insensitively, allow repeat attempts post-solve without regressions.
+// - Boundary cases: configurable round counts whose packed sequence spans several words; text and byte[] answers.
 // - Reset/invariants: once solved, attempts remain true without altering the solved state or shrinking the sequence.
+// - Invariants: text and byte[] attempts allocate nothing per call once warmed up.
 class LightPatternPuzzleTest {
 
     private LightPatternPuzzle puzzle;
@@ -91,6 +95,74 @@ class LightPatternPuzzleTest {
         assertFalse(puzzle.isSolved(), "Solving the first round should not mark the puzzle as solved");
     }
 
+    @Test
+    @DisplayName("evaluate_textAndOrdinalInputs_matchCurrentSequence")
+    void evaluate_textAndOrdinalInputs_matchCurrentSequence() {
+        assertTrue(puzzle.attempt(" " + asText(puzzle).toLowerCase() + " "));
+        assertTrue(puzzle.attempt(asOrdinals(puzzle)));
+        assertTrue(puzzle.attempt(asText(puzzle).replace(' ', ',')));
+
+        assertFalse(puzzle.attempt(asText(puzzle) + " RED"), "Extra colors are rejected");
+        assertFalse(puzzle.attempt(new byte[] {0}), "Too few ordinals are rejected");
+        assertFalse(puzzle.attempt("RED GREEN PURPLE BLUE"));
+        assertEquals(4, puzzle.getCurrentLength(), "Rejected attempts do not advance the round");
+    }
+
+    @Test
+    @DisplayName("configuredRounds_spanSeveralWords_andSolveAtLastRound")
+    void configuredRounds_spanSeveralWords_andSolveAtLastRound() {
+        int rounds = 3 * LightPatternPuzzle.COLORS_PER_WORD + 2;
+        LightPatternPuzzle longPuzzle = new LightPatternPuzzle(UUID.randomUUID(), "Marathon", "", 99L, rounds);
+        LightPatternPuzzle shortPuzzle = new LightPatternPuzzle(UUID.randomUUID(), "Sprint", "", 99L);
+
+        for (int round = 0; round < rounds; round++) {
+            assertFalse(longPuzzle.isSolved());
+            if (!shortPuzzle.isSolved()) {
+                assertEquals(shortPuzzle.getCurrentSequence(), longPuzzle.getCurrentSequence(),
+                        "The same seed reveals the same opening colors");
+                assertTrue(shortPuzzle.attempt(asOrdinals(shortPuzzle)));
+            }
+            assertTrue(longPuzzle.attempt(round % 2 == 0 ? asText(longPuzzle) : asOrdinals(longPuzzle)));
+        }
+        assertTrue(longPuzzle.isSolved());
+        assertEquals(rounds, longPuzzle.getCurrentLength());
+        assertThrows(IllegalArgumentException.class,
+                () -> new LightPatternPuzzle(UUID.randomUUID(), "None", "", 1L, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LightPatternPuzzle(UUID.randomUUID(), "Too many", "", 1L, LightPatternPuzzle.MAX_ROUNDS + 1));
+    }
+
+    @Test
+    @DisplayName("attempt_textAndOrdinals_allocatesNothing")
+    void attempt_textAndOrdinals_allocatesNothing() {
+        solveRound();
+        solveRound();
+        StringBuilder text = new StringBuilder(asText(puzzle));
+        byte[] ordinals = asOrdinals(puzzle);
+        byte[] wrong = ordinals.clone();
+        wrong[0] = (byte) ((wrong[0] + 1) % LightColor.values().length);
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            puzzle.matches(text);
+            puzzle.attempt(wrong);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int accepted = 0;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            if (puzzle.matches(text) && puzzle.matches(ordinals) && !puzzle.attempt(wrong)) {
+                accepted++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(iterations, accepted);
+        assertTrue(allocated < iterations, "Allocated " + allocated + " bytes over " + iterations + " attempts");
+    }
+
     @ParameterizedTest(name = "evaluate_invalidInput_{index}")
     @MethodSource("invalidInputs")
     void evaluate_invalidInput_returnsFalse(Object attempt) {
@@ -138,6 +210,25 @@ class LightPatternPuzzleTest {
         );
     }
 
+    private static String asText(LightPatternPuzzle target) {
+        StringBuilder text = new StringBuilder();
+        for (int position = 0; position < target.getCurrentLength(); position++) {
+            if (position > 0) {
+                text.append(' ');
+            }
+            text.append(LightColor.fromIndex(target.getColorIndex(position)).name());
+        }
+        return text.toString();
+    }
+
+    private static byte[] asOrdinals(LightPatternPuzzle target) {
+        byte[] ordinals = new byte[target.getCurrentLength()];
+        for (int position = 0; position < ordinals.length; position++) {
+            ordinals[position] = (byte) target.getColorIndex(position);
+        }
+        return ordinals;
+    }
+
     private List<LightColor> copyCurrentSequence() {
         List<LightColor> current = puzzle.getCurrentSequence();
         assertFalse(current.isEmpty(), "Sequence should never be empty during active rounds");
@@ -0,0 +1,203 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: LineServer commands, pipelining and backpressure, LineBenchmark.
+// - Happy path: a client logs in and plays the default game to completion over the protocol.
+// - Negative cases: commands before login, unknown commands and over-long lines get ERR responses;
+//   a command that throws closes only its own connection.
+// - Boundary cases: thousands of pipelined requests in one write come back complete and in order;
+//   over-long responses are cut on a character boundary.
+// - Invariants: unsaved sessions close with their connection; saved ones can be loaded from another.
+class LineServerTest {
+
+    private final SessionRegistry registry = new SessionRegistry();
+    private LineServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @DisplayName("client_playsDefaultGame_overLineProtocol")
+    void client_playsDefaultGame_overLineProtocol() throws IOException {
+        try (Client client = connect()) {
+            assertEquals("ERR login first", client.call("hint"));
+            String sessionId = client.call("login alice easy").substring(3);
+            assertTrue(client.call("look").startsWith("OK Cryo"), "Starts in the first room");
+
+            String sequence = client.call("show-seq");
+            for (int guard = 0; sequence.startsWith("OK "); guard++) {
+                assertTrue(guard < 10, "Guard exceeded while solving lights");
+                assertEquals("OK success", client.call("attempt " + sequence.substring(3)));
+                sequence = client.call("show-seq");
+            }
+            assertEquals("ERR No sequence to show.", sequence, "Lights solved, now in the riddle room");
+
+            assertEquals("OK fail", client.call("attempt mountain"));
+            assertEquals("OK success", client.call("attempt the river"));
+            assertEquals("OK complete", client.call("attempt 12"));
+            assertEquals("ERR unknown command: dance", client.call("dance"));
+            assertEquals(GameStatus.COMPLETED, registry.get(sessionId).orElseThrow().getState().getStatus());
+            assertEquals("OK bye", client.call("quit"));
+            assertNull(client.in.readLine(), "Server closes after quit");
+        }
+    }
+
+    @Test
+    @DisplayName("pipelinedRequests_comeBackInOrder_andLongLinesAreRejected")
+    void pipelinedRequests_comeBackInOrder_andLongLinesAreRejected() throws IOException {
+        try (Client client = connect()) {
+            client.call("login bob");
+            int count = 5_000;
+            StringBuilder batch = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                batch.append(i % 2 == 0 ? "look\n" : "nope" + i + "\n");
+            }
+            client.out.write(batch.toString().getBytes(StandardCharsets.US_ASCII));
+            client.out.flush();
+            for (int i = 0; i < count; i++) {
+                String response = client.in.readLine();
+                if (i % 2 == 0) {
+                    assertTrue(response.startsWith("OK "), response);
+                } else {
+                    assertEquals("ERR unknown command: nope" + i, response);
+                }
+            }
+            client.out.write(("look " + "x".repeat(LineServer.MAX_LINE)).getBytes(StandardCharsets.US_ASCII));
+            client.out.flush();
+            assertEquals("ERR line too long", client.in.readLine());
+            assertNull(client.in.readLine());
+        }
+    }
+
+    @Test
+    @DisplayName("savedSessions_surviveDisconnect_andUnsavedOnesClose")
+    void savedSessions_surviveDisconnect_andUnsavedOnesClose() throws Exception {
+        String saved;
+        String unsaved;
+        try (Client first = connect(); Client second = connect()) {
+            saved = first.call("login carol").substring(3);
+            assertEquals("OK " + saved, first.call("save"));
+            unsaved = second.call("login dave").substring(3);
+        }
+        waitUntil(() -> !registry.contains(unsaved));
+        assertTrue(registry.contains(saved));
+
+        try (Client third = connect()) {
+            assertEquals("ERR unknown session", third.call("load " + unsaved));
+            assertEquals("OK " + saved, third.call("load " + saved));
+            assertTrue(third.call("hint").startsWith("OK "));
+        }
+    }
+
+    @Test
+    @DisplayName("failingCommand_closesOnlyItsConnection")
+    void failingCommand_closesOnlyItsConnection(@TempDir Path spillDir) throws Exception {
+        SessionRegistry spilling = new SessionRegistry(null, null,
+                new SessionSpill(spillDir, Duration.ZERO, 100, () -> 0L));
+        try (LineServer local = LineServer.start(spilling, new InetSocketAddress("127.0.0.1", 0));
+             Client broken = new Client(local.getPort());
+             Client healthy = new Client(local.getPort())) {
+            String sessionId = broken.call("login erin").substring(3);
+            assertTrue(healthy.call("login frank").startsWith("OK "));
+            assertEquals(2, spilling.passivateIdle());
+            try (Stream<Path> files = Files.list(spillDir)) {
+                for (Path file : files.filter(path -> path.toString().contains(sessionId)).toList()) {
+                    Files.write(file, new byte[] {1, 2, 3});
+                }
+            }
+
+            assertEquals("ERR internal error", broken.call("look"), "Rehydrating the corrupt session throws");
+            assertNull(broken.in.readLine(), "Only the failing connection is closed");
+            assertTrue(healthy.call("look").startsWith("OK Cryo"));
+            assertTrue(healthy.call("hint").startsWith("OK "));
+        }
+    }
+
+    @Test
+    @DisplayName("truncatedResponses_endOnCharacterBoundary")
+    void truncatedResponses_endOnCharacterBoundary() {
+        byte[] euros = "\u20ac\u20ac\u20ac".getBytes(StandardCharsets.UTF_8);
+        assertEquals(3, LineServer.fit(euros, 5), "The second euro sign does not fit whole");
+        assertEquals(6, LineServer.fit(euros, 6));
+        assertEquals(9, LineServer.fit(euros, 100));
+        assertEquals(0, LineServer.fit(euros, 2));
+        assertEquals(2, LineServer.fit("ab".getBytes(StandardCharsets.UTF_8), 2));
+    }
+
+    @Test
+    @DisplayName("benchmark_reportsThroughputAndTailLatency")
+    void benchmark_reportsThroughputAndTailLatency() throws Exception {
+        server = LineServer.start(registry, new InetSocketAddress("127.0.0.1", 0));
+        LoadResult result = LineBenchmark.run(
+                new InetSocketAddress("127.0.0.1", server.getPort()), 4, 2_000, 16);
+        assertEquals(8_000, result.getRequests());
+        assertTrue(result.getRequestsPerSecond() > 0);
+        assertTrue(result.getP50Nanos() <= result.getP99Nanos() && result.getP99Nanos() <= result.getMaxNanos());
+        assertTrue(server.getCommandCount() >= 8_000 + 4);
+    }
+
+    private Client connect() throws IOException {
+        if (server == null) {
+            server = LineServer.start(registry, new InetSocketAddress("127.0.0.1", 0));
+        }
+        return new Client(server.getPort());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final BufferedReader in;
+
+        Client(int port) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            socket.setSoTimeout(10_000);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String call(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: MathExpression parsing/bounded cache, Rational arithmetic, MathPuzzle answers, DataLoader/DataWriter "math" type.
+// - Happy path: list, ratio and variable expressions from content evaluate exactly and accept matching guesses.
+// - Negative cases: syntax errors, unbound variables and division by zero are rejected when the puzzle is built.
+// - Boundary cases: exact answers reject near values, tolerant answers accept them; legacy double answers still work.
+// - Invariants: identical expressions share one compiled tree and the cache never exceeds its limit; math puzzles survive a save/load round trip.
+class MathExpressionTest {
+
+    @Test
+    @DisplayName("expression_evaluatesExactly_withPrecedenceAndVariables")
+    void expression_evaluatesExactly_withPrecedenceAndVariables() {
+        MathExpression expression = MathExpression.compile("-2 ^ 2 + x * (1 / 3), 7 : 2, 2 ^ -2");
+        Map<String, Rational> bindings = Map.of("x", Rational.of(3));
+
+        assertEquals(List.of(Rational.of(-3), Rational.of(7, 2), Rational.of(1, 4)), expression.evaluate(bindings));
+        assertEquals(Rational.of(1, 3), MathExpression.compile("0.1 + 7/30").evaluate(Map.of()).get(0));
+        assertEquals(List.of("x"), List.copyOf(expression.getVariables()));
+        assertSame(expression, MathExpression.compile("  -2 ^ 2 + x * (1 / 3), 7 : 2, 2 ^ -2 "));
+    }
+
+    @Test
+    @DisplayName("cache_keepsRecentTrees_withinLimit")
+    void cache_keepsRecentTrees_withinLimit() {
+        MathExpression last = null;
+        for (int i = 0; i <= MathExpression.CACHE_LIMIT; i++) {
+            last = MathExpression.compile("cachelimit + " + i);
+        }
+        assertEquals(MathExpression.CACHE_LIMIT, MathExpression.cacheSize());
+        assertSame(last, MathExpression.compile("cachelimit + " + MathExpression.CACHE_LIMIT));
+
+        MathExpression parsed = MathExpression.parse("cachelimit * 2");
+        assertNotSame(parsed, MathExpression.parse("cachelimit * 2"), "parse never shares trees");
+        assertEquals(MathExpression.CACHE_LIMIT, MathExpression.cacheSize());
+        assertEquals(List.of(Rational.of(6)), parsed.evaluate(Map.of("cachelimit", Rational.of(3))));
+    }
+
+    @Test
+    @DisplayName("expression_rejectsMalformedOrUnboundInput")
+    void expression_rejectsMalformedOrUnboundInput() {
+        int cached = MathExpression.cacheSize();
+        assertThrows(IllegalArgumentException.class, () -> MathExpression.compile("1 +"));
+        assertThrows(IllegalArgumentException.class, () -> MathExpression.compile("(2 * 3"));
+        assertThrows(IllegalArgumentException.class, () -> MathExpression.compile("4 $ 2"));
+        assertEquals(cached, MathExpression.cacheSize(), "Failed compilations are not cached");
+        assertThrows(IllegalArgumentException.class, () -> MathExpression.parse(" "));
+
+        UUID id = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class, () -> new MathPuzzle(id, "T", "", "a + 1", Map.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new MathPuzzle(id, "T", "", "1 / (2 - 2)", Map.of(), 0));
+    }
+
+    @Test
+    @DisplayName("puzzle_matchesListsRatiosAndFractions")
+    void puzzle_matchesListsRatiosAndFractions() {
+        MathPuzzle ring = new MathPuzzle(UUID.randomUUID(), "Gravity Ring Code", "", "a + b, a + 2 * b",
+                Map.of("a", Rational.of(3), "b", Rational.of(5)), 0.0);
+        assertTrue(ring.matches("8, 13"));
+        assertTrue(ring.matches(" 8 ,13 "));
+        assertFalse(ring.matches("8"));
+        assertFalse(ring.matches("8, 13, 21"));
+        assertFalse(ring.matches("13, 8"));
+
+        MathPuzzle third = new MathPuzzle(UUID.randomUUID(), "Third", "", "1 / 3", Map.of(), 0.0);
+        assertTrue(third.matches("1/3"));
+        assertTrue(third.matches("2:6"));
+        assertFalse(third.matches("0.3333"), "Exact answers reject rounded decimals");
+        assertFalse(third.matches("one third"));
+    }
+
+    @Test
+    @DisplayName("legacyDoubleAnswers_keepAcceptingNumbersAndText")
+    void legacyDoubleAnswers_keepAcceptingNumbersAndText() {
+        MathPuzzle reactor = new MathPuzzle(UUID.randomUUID(), "Reactor", "", 12.0, 0.0);
+        assertTrue(reactor.matches(12));
+        assertTrue(reactor.matches(12.0));
+        assertTrue(reactor.matches(" 12 "));
+        assertTrue(reactor.matches("1.2e1"));
+        assertFalse(reactor.matches("12.01"));
+
+        MathPuzzle radio = new MathPuzzle(UUID.randomUUID(), "Radio", "", 121.5, 0.05);
+        assertTrue(radio.matches("121.53"));
+        assertFalse(radio.matches("121.6"));
+    }
+
+    @Test
+    @DisplayName("loader_buildsMathPuzzles_andWriterRoundTripsThem")
+    void loader_buildsMathPuzzles_andWriterRoundTripsThem(@TempDir Path directory) throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_puzzle_math.json").get(0);
+        List<Puzzle> puzzles = game.getRooms().get(0).getPuzzles();
+        MathPuzzle ring = assertInstanceOf(MathPuzzle.class, puzzles.get(0));
+        assertTrue(ring.matches("8, 13"));
+        assertTrue(puzzles.get(1).matches("21:79"));
+        assertTrue(puzzles.get(2).matches("121.5"));
+
+        Path file = directory.resolve("math.json");
+        new DataWriter().writeGames(file, List.of(game));
+        Game reloaded = new DataLoader().loadGames(file).get(0);
+        List<Puzzle> copies = reloaded.getRooms().get(0).getPuzzles();
+        assertEquals(ring.getExpectedAnswer(), ((MathPuzzle) copies.get(0)).getExpectedAnswer());
+        assertTrue(copies.get(1).matches("21 : 79"));
+        assertTrue(copies.get(2).matches("121.54"));
+        assertTrue(Files.readString(file).contains("\"type\":\"math\""));
+    }
+
+    @Test
+    @DisplayName("loader_reportsBadExpression_asIOException")
+    void loader_reportsBadExpression_asIOException(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("bad.json");
+        Files.writeString(file, "{\"games\":[{\"title\":\"Bad\",\"rooms\":[{\"name\":\"R\",\"puzzles\":"
+                + "[{\"title\":\"P\",\"type\":\"math\",\"answer\":\"x * \"}]}]}]}");
+        assertThrows(IOException.class, () -> new DataLoader().loadGames(file));
+    }
+}
@@ -0,0 +1,176 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: LatencyHistogram, MetricsRegistry as a JMX MBean, EngineMetrics instrumentation points.
+// - Happy path: loads, saves, attempts, solves, hints and live sessions show up as MBean attributes.
+// - Negative cases: unknown attributes, writes and operations are refused.
+// - Boundary cases: zero, negative and huge latencies land in the first and last buckets.
+// - Invariants: percentiles are within 12.5% of the true value, and recording is allocation-free and well under 100 ns.
+class MetricsRegistryTest {
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("histogram_reportsPercentilesWithinBucketPrecision")
+    void histogram_reportsPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(500_000, histogram.getMeanNanos());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertWithin(500_000, histogram.getValueAtPercentile(50));
+        assertWithin(990_000, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int index = LatencyHistogram.indexOf(value);
+            if (index < LatencyHistogram.indexOf(Long.MAX_VALUE)) {
+                long upper = LatencyHistogram.upperBound(index);
+                assertTrue(value <= upper && upper - value <= value / 8, value + " -> " + upper);
+            }
+        }
+
+        LatencyHistogram edges = new LatencyHistogram();
+        edges.record(-5);
+        edges.record(Long.MAX_VALUE);
+        assertEquals(0, edges.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, edges.getValueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("engineOperations_showUpAsMBeanAttributes")
+    void engineOperations_showUpAsMBeanAttributes() throws Exception {
+        ObjectName name = new ObjectName(MetricsRegistry.GLOBAL_NAME);
+        long liveSessions = read(name, "sessions.live");
+        long liveGames = read(name, "gameManager.liveGames");
+        long solvedHard = read(name, "puzzle.solved.HARD");
+        long hintsEasy = read(name, "hints.used.EASY");
+        long attempts = read(name, "puzzle.attempt.count");
+        long loads = read(name, "dataLoader.loadGames.count");
+        long writes = read(name, "dataWriter.writeGames.count");
+
+        SessionRegistry registry = new SessionRegistry();
+        PlayerSession first = registry.open("one", Difficulty.EASY);
+        registry.open("two", Difficulty.EASY);
+        assertEquals(liveSessions + 2, read(name, "sessions.live"));
+        first.requestHint();
+        assertEquals(hintsEasy + 1, read(name, "hints.used.EASY"));
+        registry.close(first.getId());
+        assertEquals(liveSessions + 1, read(name, "sessions.live"));
+
+        GameManager manager = new GameManager();
+        Room lab = new Room("Lab", "");
+        lab.addPuzzle(new RiddlePuzzle(UUID.randomUUID(), "Riddle", "", List.of("river")));
+        Game game = manager.createGameFromRooms(List.of(lab), Duration.ofMinutes(5));
+        game.setDifficulty(Difficulty.HARD);
+        String gameId = game.getId().toString();
+        assertEquals(liveGames + 1, read(name, "gameManager.liveGames"));
+        manager.attemptPuzzle(gameId, "Riddle", "lake");
+        manager.attemptPuzzle(gameId, "Riddle", "river");
+        manager.attemptPuzzle(gameId, "Riddle", "river");
+        assertEquals(solvedHard + 1, read(name, "puzzle.solved.HARD"), "Only the solving attempt counts");
+        assertEquals(attempts + 3, read(name, "puzzle.attempt.count"));
+        assertTrue(read(name, "puzzle.attempt.maxNanos") > 0);
+
+        Path file = tempDir.resolve("games.json");
+        new DataWriter().writeGame(file, game);
+        new DataLoader().loadGames(file);
+        assertEquals(writes + 1, read(name, "dataWriter.writeGames.count"));
+        assertEquals(loads + 1, read(name, "dataLoader.loadGames.count"));
+        manager.endGame(gameId);
+        assertEquals(liveGames, read(name, "gameManager.liveGames"));
+
+        Set<String> published = Arrays.stream(server.getMBeanInfo(name).getAttributes())
+                .map(MBeanAttributeInfo::getName)
+                .collect(Collectors.toSet());
+        assertTrue(published.containsAll(Set.of("sessions.live", "puzzle.solved.EASY", "hints.used.MEDIUM",
+                "userStorage.saveUsers.p99Nanos", "gameManager.loadGame.p50Nanos")), published.toString());
+        assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "puzzle.attempt.p42Nanos"));
+        assertThrows(AttributeNotFoundException.class, () -> server.setAttribute(name, new Attribute("sessions.live", 0L)));
+        ReflectionException noOperation = assertThrows(ReflectionException.class,
+                () -> server.invoke(name, "reset", new Object[0], new String[0]));
+        assertTrue(noOperation.getCause() instanceof NoSuchMethodException, String.valueOf(noOperation.getCause()));
+    }
+
+    @Test
+    @DisplayName("recording_allocatesNothing_andStaysWellUnder100ns")
+    void recording_allocatesNothing_andStaysWellUnder100ns() {
+        LatencyHistogram histogram = MetricsRegistry.global().histogram("test.recording");
+        int iterations = 5_000_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            EngineMetrics.attempt(Difficulty.EASY, System.nanoTime(), false);
+            histogram.record(i & 0xFFFF);
+            sink += System.nanoTime() - System.nanoTime();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(threadId);
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        // The two clock reads an instrumented call makes cost the same with or without metrics.
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += System.nanoTime() - System.nanoTime();
+        }
+        long clockReads = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            EngineMetrics.attempt(Difficulty.EASY, System.nanoTime(), false);
+        }
+        long perAttempt = (System.nanoTime() - start - clockReads) / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            histogram.record(i & 0xFFFF);
+        }
+        long perRecord = (System.nanoTime() - start) / iterations;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue(perAttempt < 100, "Attempt metrics added " + perAttempt + " ns (" + sink + ")");
+        assertTrue(perRecord < 50, "Recording took " + perRecord + " ns");
+        assertTrue(allocated < 1_024, "Recording allocated " + allocated + " bytes");
+        assertEquals(2L * iterations, histogram.getCount());
+    }
+
+    private long read(ObjectName name, String attribute) throws Exception {
+        return (Long) server.getAttribute(name, attribute);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 8, "Expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,124 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: NavigationGraph adjacency, Game.getCurrentRoom/advanceIfSolved, GameManager.attemptPuzzle, door JSON round trip.
+// - Happy path: clearing a room moves the session through an unlocked door to the next unsolved room.
+// - Negative cases: locked doors block traversal and reachability until unlocked with the right key.
+// - Boundary cases: games without doors fall back to the room order; large generated chains stay navigable.
+// - Invariants: the current room only changes through advanceIfSolved or an explicit move.
+class NavigationGraphTest {
+
+    @Test
+    @DisplayName("doors_fromJson_buildBranchingAdjacency")
+    void doors_fromJson_buildBranchingAdjacency() throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_nav_doors.json").get(0);
+        NavigationGraph graph = game.getNavigation();
+        Room hub = game.getRooms().get(0);
+        Room west = game.getRooms().get(1);
+        Room east = game.getRooms().get(2);
+        Room exit = game.getRooms().get(3);
+
+        assertEquals(List.of(west, east), graph.neighbours(hub));
+        assertEquals(List.of(east), graph.traversableNeighbours(hub), "Locked west door is not traversable");
+        assertFalse(graph.canTraverse(hub, west));
+        assertTrue(graph.canTraverse(hub, east));
+        assertTrue(graph.isReachable(hub, exit));
+        assertFalse(graph.isReachable(west, hub), "Doors are one-way");
+
+        Door westDoor = game.getDoors().get(0);
+        assertTrue(westDoor.unlock(hub.getPuzzles().get(0).getKeyProvided()));
+        assertTrue(graph.canTraverse(hub, west), "Lock state is read live");
+    }
+
+    @Test
+    @DisplayName("advanceIfSolved_movesOnlyOnceRoomIsCleared")
+    void advanceIfSolved_movesOnlyOnceRoomIsCleared() throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_nav_doors.json").get(0);
+        Room hub = game.getRooms().get(0);
+        assertSame(hub, game.getCurrentRoom());
+        assertFalse(game.advanceIfSolved(), "Unsolved hub keeps the session in place");
+
+        hub.getPuzzles().get(0).attempt("anything");
+        assertTrue(game.advanceIfSolved());
+        assertEquals("East Wing", game.getCurrentRoom().getName());
+    }
+
+    @Test
+    @DisplayName("gameManager_attemptPuzzle_advancesDefaultGame")
+    void gameManager_attemptPuzzle_advancesDefaultGame() {
+        GameManager manager = new GameManager();
+        Game game = manager.startNewGame(Difficulty.MEDIUM);
+        String gameId = game.getId().toString();
+        Room hall = game.getRooms().get(1);
+
+        assertFalse(manager.attemptPuzzle(gameId, "Mag-Lock Riddle", "river"), "Riddle is not in the current room");
+        game.getRooms().get(0).getPuzzles().get(0).setSolved(true);
+        assertTrue(hall.unlock(game.getItems().get(0)));
+        assertTrue(manager.advanceIfSolved(gameId));
+        assertSame(hall, game.getCurrentRoom());
+
+        assertTrue(manager.attemptPuzzle(gameId, "Mag-Lock Riddle", "river"));
+        assertSame(game.getRooms().get(2), game.getCurrentRoom(), "The riddle's key opens the core vault");
+    }
+
+    @Test
+    @DisplayName("noDoors_fallsBackToRoomOrder")
+    void noDoors_fallsBackToRoomOrder() {
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.EASY);
+        NavigationGraph graph = game.getNavigation();
+        List<Room> rooms = game.getRooms();
+
+        assertSame(rooms.get(1), graph.nextRoom(rooms.get(0)));
+        assertSame(rooms.get(2), graph.nextRoom(rooms.get(1)));
+        assertNull(graph.nextRoom(rooms.get(2)));
+        assertFalse(graph.canTraverse(rooms.get(0), rooms.get(1)), "Transit hall starts locked");
+    }
+
+    @Test
+    @DisplayName("doors_roundTripThroughDataWriter")
+    void doors_roundTripThroughDataWriter() throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_nav_doors.json").get(0);
+        String json = new DataWriter().toJson(List.of(game));
+        assertTrue(json.contains("\"doors\""));
+        assertTrue(json.contains(game.getDoors().get(0).getFromRoomId().toString()));
+    }
+
+    @Test
+    @DisplayName("largeChain_reachabilityWithoutIndexScans")
+    void largeChain_reachabilityWithoutIndexScans() {
+        Game game = new Game("Long Hall", "Many rooms.", Difficulty.MEDIUM, 30, 1);
+        int size = 5_000;
+        Room first = null;
+        Room previous = null;
+        for (int i = 0; i < size; i++) {
+            Room room = new Room(UUID.randomUUID(), "Room " + i, "");
+            game.addRoom(room);
+            if (previous != null) {
+                Door door = new Door("Door " + i, "", previous.getId(), room.getId());
+                door.setLocked(false);
+                game.addDoor(door);
+            } else {
+                first = room;
+            }
+            previous = room;
+        }
+
+        NavigationGraph graph = game.getNavigation();
+        assertEquals(size, graph.size());
+        assertTrue(graph.isReachable(first, previous));
+        assertSame(previous, game.getRoom(previous.getId()));
+    }
+}
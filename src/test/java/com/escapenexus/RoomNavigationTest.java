@@ -6,7 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +19,9 @@ import org.junit.jupiter.api.Test;
 // Test Plan:
 // - Coverage targets: Door.unlock/open ergonomics, Room.unlock behavior, User.moveTo safeguards, Game.advanceRoom guard rails.
 // - Happy path: unlocking with a matching key should allow the user to move and update the current room.
-// - Negative cases: locked doors reject opening attempts; null targets keep the user in place.
-// - Boundary cases: re-entering the same room is idempotent; game advancement without progress returns the current room.
+// - Negative cases: locked doors reject opening attempts; null targets keep the user in place; advancing skips locked rooms.
+// - Boundary cases: re-entering the same room is idempotent; game advancement without progress returns the current room;
+//   clearing a last room that has an exit completes the game.
 // - Invariants: unlocked doors remain open; EscapeGame cleanup avoids cross-test contamination.
 class RoomNavigationTest {
 
@@ -67,6 +71,7 @@ class RoomNavigationTest {
     @AfterEach
     void tearDown() {
         EscapeGame escapeGame = EscapeGame.getInstance();
+        escapeGame.setEventBus(null);
         escapeGame.resetProgress();
         escapeGame.logout();
     }
@@ -129,6 +134,59 @@ class RoomNavigationTest {
         assertSame(activeUser.getCurrentRoom(), afterSolve, "Advance moves in lockstep with user location");
     }
 
+    @Test
+    @DisplayName("advance_skipsLockedNeighbour_forUnlockedOne")
+    void advance_skipsLockedNeighbour_forUnlockedOne() {
+        EscapeGame escapeGame = EscapeGame.getInstance();
+        escapeGame.newSinglePlayerSession("detour", Difficulty.EASY);
+        Game game = escapeGame.getGame();
+        List<Room> rooms = game.getRooms();
+        game.addDoor(openDoor("Vault Door", rooms.get(0), rooms.get(2)));
+        game.addDoor(openDoor("Hall Door", rooms.get(0), rooms.get(1)));
+        game.addDoor(openDoor("Inner Door", rooms.get(1), rooms.get(2)));
+
+        solveLightPattern(escapeGame);
+
+        assertTrue(rooms.get(2).isLocked(), "The vault key comes from the transit hall");
+        assertSame(rooms.get(1), game.advanceRoom(rooms.get(0)));
+        assertSame(rooms.get(1), escapeGame.getUser().getCurrentRoom(), "The locked vault is never entered");
+        assertSame(rooms.get(1), game.getCurrentRoom());
+    }
+
+    @Test
+    @DisplayName("clearingLastRoom_withExit_completesGame")
+    void clearingLastRoom_withExit_completesGame() throws Exception {
+        EscapeGame escapeGame = EscapeGame.getInstance();
+        try (EventBus bus = new EventBus(64)) {
+            CountDownLatch completed = new CountDownLatch(1);
+            bus.subscribe("completion", event -> {
+                if (event.getType() == GameEvent.Type.GAME_COMPLETED) {
+                    completed.countDown();
+                }
+            });
+            escapeGame.setEventBus(bus);
+            escapeGame.newSinglePlayerSession("looper", Difficulty.EASY);
+            Game game = escapeGame.getGame();
+            List<Room> rooms = game.getRooms();
+            game.addDoor(openDoor("Hall Door", rooms.get(0), rooms.get(1)));
+            game.addDoor(openDoor("Inner Door", rooms.get(1), rooms.get(2)));
+            game.addDoor(openDoor("Return Door", rooms.get(2), rooms.get(0)));
+
+            solveLightPattern(escapeGame);
+            assertTrue(escapeGame.attemptCurrentPuzzle("river"));
+            assertTrue(escapeGame.attemptCurrentPuzzle(12.0));
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS), "Completion does not depend on the last room being a dead end");
+            assertSame(rooms.get(2), escapeGame.getUser().getCurrentRoom(), "Nobody walks back into a cleared room");
+        }
+    }
+
+    private static Door openDoor(String name, Room from, Room to) {
+        Door door = new Door(name, "", from.getId(), to.getId());
+        door.setLocked(false);
+        return door;
+    }
+
     private void solveLightPattern(EscapeGame escapeGame) {
         Puzzle puzzle = escapeGame.getNextPuzzle();
         assertTrue(puzzle instanceof LightPatternPuzzle);
@@ -0,0 +1,197 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: SessionExecutor submit/attempt/hint/move/useItem/closeSession, mailbox bounds, PlayerSession.move/useItem.
+// - Happy path: commands for one session run in submission order and play the default game through.
+// - Negative cases: unknown sessions and full mailboxes fail their futures instead of blocking.
+// - Boundary cases: closing a session runs after commands already queued for it.
+// - Invariants: concurrent producers never lose an update to unsynchronized session state; idle sessions get no mailbox,
+//   and sessions the registry closes lose theirs.
+class SessionExecutorTest {
+
+    private final SessionRegistry registry = new SessionRegistry();
+    private final SessionExecutor executor = new SessionExecutor(registry, 4, SessionExecutor.DEFAULT_MAILBOX_CAPACITY);
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("commands_runInOrder_perSession")
+    void commands_runInOrder_perSession() throws Exception {
+        PlayerSession session = registry.open("ordered", Difficulty.MEDIUM);
+        SessionState state = session.getState();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int round = 0; round < LightPatternPuzzle.TOTAL_ROUNDS; round++) {
+            List<LightColor> guess = new ArrayList<>();
+            for (int position = 0; position <= round; position++) {
+                guess.add(state.getLightColor(0, position));
+            }
+            results.add(executor.attempt(session.getId(), guess));
+        }
+        results.add(executor.attempt(session.getId(), "river"));
+        results.add(executor.attempt(session.getId(), 12.0));
+
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(GameStatus.COMPLETED, executor.submit(session.getId(), s -> s.getState().getStatus())
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("concurrentProducers_neverLoseUpdates")
+    void concurrentProducers_neverLoseUpdates() throws Exception {
+        int sessions = 500;
+        int producers = 8;
+        int perProducer = 20;
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            ids.add(registry.open("p" + i, Difficulty.EASY).getId());
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> submitted = new ArrayList<>();
+        List<List<CompletableFuture<Integer>>> perThread = new ArrayList<>();
+        for (int t = 0; t < producers; t++) {
+            List<CompletableFuture<Integer>> mine = new ArrayList<>();
+            perThread.add(mine);
+            submitted.add(clients.submit(() -> {
+                start.await();
+                for (int n = 0; n < perProducer; n++) {
+                    for (String id : ids) {
+                        // Read-modify-write on plain session state: only safe if commands never overlap.
+                        mine.add(executor.submit(id, s -> {
+                            SessionState state = s.getState();
+                            state.setItemState(0, ItemState.values()[(state.getItemState(0).ordinal() + 1) % 3]);
+                            return state.getItemState(0).ordinal();
+                        }));
+                        if (mine.size() % 32 == 0) {
+                            mine.get(mine.size() - 1).join();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : submitted) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+        for (List<CompletableFuture<Integer>> mine : perThread) {
+            CompletableFuture.allOf(mine.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        }
+
+        int expected = (producers * perProducer) % 3;
+        for (String id : ids) {
+            assertEquals(expected, executor.submit(id, s -> s.getState().getItemState(0).ordinal())
+                    .get(5, TimeUnit.SECONDS), "Every increment of session " + id + " was applied");
+        }
+    }
+
+    @Test
+    @DisplayName("fullMailbox_rejects_andUnknownSessionFails")
+    void fullMailbox_rejects_andUnknownSessionFails() throws Exception {
+        try (SessionExecutor small = new SessionExecutor(registry, 1, 2)) {
+            String id = registry.open("busy", Difficulty.EASY).getId();
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> blocked = small.submit(id, s -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    throw new IllegalStateException(exception);
+                }
+            });
+            CompletableFuture<String> queued = small.hint(id);
+            CompletableFuture<String> rejected = small.hint(id);
+
+            ExecutionException full = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, full.getCause());
+            release.countDown();
+            assertTrue(blocked.get(5, TimeUnit.SECONDS));
+            assertFalse(queued.get(5, TimeUnit.SECONDS).isBlank());
+
+            ExecutionException unknown = assertThrows(ExecutionException.class, () -> small.hint("missing").get());
+            assertInstanceOf(IllegalArgumentException.class, unknown.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("moveUseAndClose_runAfterQueuedCommands")
+    void moveUseAndClose_runAfterQueuedCommands() throws Exception {
+        PlayerSession session = registry.open("mover", Difficulty.MEDIUM);
+        String id = session.getId();
+        GameTemplate template = session.getTemplate();
+        int firstKey = template.getPuzzleKeyProvided(0);
+
+        assertFalse(executor.move(id, 1).get(5, TimeUnit.SECONDS), "Room 1 is locked");
+        assertFalse(executor.useItem(id, firstKey).get(5, TimeUnit.SECONDS), "Key is not held yet");
+        executor.submit(id, s -> s.getState().pickUp(firstKey)).get(5, TimeUnit.SECONDS);
+        assertTrue(executor.useItem(id, firstKey).get(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> moved = executor.move(id, 1);
+        CompletableFuture<Boolean> closed = executor.closeSession(id);
+
+        assertTrue(moved.get(5, TimeUnit.SECONDS));
+        assertTrue(closed.get(5, TimeUnit.SECONDS));
+        assertEquals(1, session.getState().getCurrentRoom());
+        assertEquals(ItemState.USED, session.getState().getItemState(firstKey));
+        assertTrue(registry.get(id).isEmpty());
+        assertEquals(0, executor.mailboxCount());
+    }
+
+    @Test
+    @DisplayName("idleSessions_getNoMailbox")
+    void idleSessions_getNoMailbox() throws Exception {
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(registry.open("idle", template, i).getId());
+        }
+        for (int i = 0; i < ids.size(); i += 1_000) {
+            executor.hint(ids.get(i)).get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(100, executor.mailboxCount());
+    }
+
+    @Test
+    @DisplayName("sessionsClosedElsewhere_dropTheirMailbox")
+    void sessionsClosedElsewhere_dropTheirMailbox() throws Exception {
+        String closedDirectly = registry.open("direct", Difficulty.EASY).getId();
+        String kept = registry.open("kept", Difficulty.EASY).getId();
+        executor.hint(closedDirectly).get(5, TimeUnit.SECONDS);
+        executor.hint(kept).get(5, TimeUnit.SECONDS);
+        assertEquals(2, executor.mailboxCount());
+
+        assertTrue(registry.close(closedDirectly));
+
+        assertEquals(1, executor.mailboxCount());
+        ExecutionException unknown = assertThrows(ExecutionException.class,
+                () -> executor.hint(closedDirectly).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, unknown.getCause());
+        assertEquals(1, executor.mailboxCount());
+    }
+}
@@ -0,0 +1,131 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: SessionRegistry open/get/close, PlayerSession attempt/advance/hints, Game.advanceRoom without EscapeGame.
+// - Happy path: a session plays the default game to completion while another session stays untouched.
+// - Negative cases: blank usernames, unknown ids and attempts on closed sessions are rejected.
+// - Boundary cases: light rounds keep the player in place until the whole sequence is solved.
+// - Invariants: tens of thousands of sessions fit in one registry within a small per-session allocation budget.
+class SessionRegistryTest {
+
+    private static final int MAX_BYTES_PER_SESSION = 1024;
+
+    @Test
+    @DisplayName("sessions_playIndependently_toCompletion")
+    void sessions_playIndependently_toCompletion() {
+        SessionRegistry registry = new SessionRegistry();
+        PlayerSession alice = registry.open("alice", Difficulty.MEDIUM);
+        PlayerSession bob = registry.open("bob", Difficulty.MEDIUM);
+        assertNotEquals(alice.getId(), bob.getId());
+        assertSame(alice.getTemplate(), bob.getTemplate(), "Sessions share the compiled default game");
+
+        solveLights(alice);
+        assertEquals(1, alice.getState().getCurrentRoom());
+        assertFalse(alice.attempt("mountain"));
+        assertTrue(alice.attempt("the river"));
+        assertEquals(2, alice.getState().getCurrentRoom());
+        assertTrue(alice.attempt("12"));
+        assertEquals(GameStatus.COMPLETED, alice.getState().getStatus());
+        assertEquals(-1, alice.currentPuzzle());
+
+        assertEquals(0, bob.getState().getCurrentRoom());
+        assertEquals(GameStatus.IN_PROGRESS, bob.getState().getStatus());
+        assertFalse(bob.getState().hasItem(alice.getTemplate().getPuzzleKeyProvided(0)));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    @DisplayName("close_forgetsSession_andRejectsFurtherPlay")
+    void close_forgetsSession_andRejectsFurtherPlay() {
+        SessionRegistry registry = new SessionRegistry();
+        PlayerSession session = registry.open("carol", Difficulty.EASY);
+        assertSame(session, registry.get(session.getId()).orElseThrow());
+
+        assertTrue(registry.close(session.getId()));
+        assertFalse(registry.close(session.getId()));
+        assertTrue(registry.get(session.getId()).isEmpty());
+        assertTrue(registry.get(null).isEmpty());
+        assertFalse(session.attempt(List.of(LightColor.RED)), "Closed sessions accept no attempts");
+        assertThrows(IllegalArgumentException.class, () -> registry.open(" ", Difficulty.EASY));
+    }
+
+    @Test
+    @DisplayName("lightRounds_keepPlayerInRoom_untilSolved")
+    void lightRounds_keepPlayerInRoom_untilSolved() {
+        PlayerSession session = new SessionRegistry().open("dave", Difficulty.HARD);
+        assertTrue(session.attempt(List.of(session.getState().getLightColor(0, 0))));
+        assertEquals(0, session.currentPuzzle());
+        assertEquals(0, session.getState().getCurrentRoom());
+        assertEquals(session.getTemplate().getHints(0).get(0), session.requestHint());
+    }
+
+    @Test
+    @DisplayName("advanceRoom_usesGameState_notEscapeGameSingleton")
+    void advanceRoom_usesGameState_notEscapeGameSingleton() {
+        EscapeGame.getInstance().logout();
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.MEDIUM);
+        List<Room> rooms = game.getRooms();
+
+        assertSame(rooms.get(0), game.advanceRoom(), "Uncleared room is kept");
+        rooms.get(0).getPuzzles().forEach(puzzle -> puzzle.setSolved(true));
+        assertSame(rooms.get(0), game.advanceRoom(), "Locked rooms are not entered");
+        game.unlockWith(rooms.get(0).getPuzzles().get(0).getKeyProvided());
+        assertSame(rooms.get(1), game.advanceRoom());
+        assertSame(rooms.get(1), game.advanceRoom(rooms.get(1)));
+        assertSame(rooms.get(0), game.advanceRoom(new Room("Elsewhere", "")), "Foreign rooms restart at the first room");
+    }
+
+    @Test
+    @DisplayName("tensOfThousandsOfSessions_fitWithinBudget")
+    void tensOfThousandsOfSessions_fitWithinBudget() {
+        SessionRegistry registry = new SessionRegistry();
+        GameTemplate template = GameFactory.defaultTemplate(Difficulty.MEDIUM);
+        for (int i = 0; i < 1_000; i++) {
+            registry.close(registry.open("warmup", template, i).getId());
+        }
+
+        // A guard only; SessionRegistryBenchmark.fill measures the footprint under JMH.
+        int count = 50_000;
+        List<PlayerSession> opened = new ArrayList<>(count);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < count; i++) {
+            opened.add(registry.open("player" + (i & 7), template, i));
+        }
+        long perSession = (threads.getThreadAllocatedBytes(threadId) - before) / count;
+
+        assertEquals(count, registry.size());
+        assertTrue(perSession <= MAX_BYTES_PER_SESSION, "Measured " + perSession + " bytes per session");
+        PlayerSession last = opened.get(count - 1);
+        assertTrue(last.attempt(List.of(last.getState().getLightColor(0, 0))));
+        assertEquals(0, opened.get(0).getState().getLightRound(0));
+    }
+
+    private static void solveLights(PlayerSession session) {
+        int guard = 0;
+        while (session.currentPuzzle() == 0) {
+            List<LightColor> guess = new ArrayList<>();
+            for (int position = 0; position <= session.getState().getLightRound(0); position++) {
+                guess.add(session.getState().getLightColor(0, position));
+            }
+            assertTrue(session.attempt(guess));
+            assertTrue(++guard <= 10, "Guard exceeded while solving lights");
+        }
+    }
+}
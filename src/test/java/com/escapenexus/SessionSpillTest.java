@@ -0,0 +1,192 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: SessionSpill write/read/stats, SessionRegistry passivateIdle/LRU trim/get/with/close, SessionExecutor on spilled sessions.
+// - Happy path: an idle session is spilled and comes back with its room, light round, inventory and hint budget.
+// - Negative cases: pinned and recently used sessions stay resident; closing a spilled session deletes its file;
+//   ids that are not registry UUIDs never resolve to a file; commands for an unreadable spill fail, not hang.
+// - Boundary cases: opening past maxResident spills the least recently used sessions only.
+// - Invariants: the resident set never exceeds its bound, and every spilled session can still be played.
+class SessionSpillTest {
+
+    private static final Duration IDLE = Duration.ofMinutes(10);
+
+    @TempDir
+    Path spillDir;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("idleSession_isSpilled_andRehydratedWithItsProgress")
+    void idleSession_isSpilled_andRehydratedWithItsProgress() {
+        SessionRegistry registry = registry(100);
+        PlayerSession idle = registry.open("idle", Difficulty.MEDIUM);
+        PlayerSession busy = registry.open("busy", Difficulty.MEDIUM);
+        solveLights(idle);
+        assertTrue(idle.attempt("river"));
+        idle.requestHint();
+        int round = idle.getState().getLightRound(0);
+        int hintsLeft = idle.getState().getHintsRemaining(2);
+
+        now.addAndGet(IDLE.toNanos() - 1);
+        registry.get(busy.getId());
+        now.addAndGet(1);
+        assertEquals(1, registry.passivateIdle());
+        assertEquals(1, registry.residentCount());
+        assertEquals(2, registry.size());
+        assertTrue(Files.exists(spillDir.resolve(idle.getId() + ".session")));
+
+        PlayerSession back = registry.get(idle.getId()).orElseThrow();
+        assertNotSame(idle, back);
+        assertEquals("idle", back.getUsername());
+        assertEquals(2, back.getState().getCurrentRoom());
+        assertEquals(round, back.getState().getLightRound(0));
+        assertEquals(hintsLeft, back.getState().getHintsRemaining(2));
+        assertTrue(back.getState().isLocked(1) == idle.getState().isLocked(1));
+        assertTrue(back.attempt("12"));
+        assertEquals(GameStatus.COMPLETED, back.getState().getStatus());
+        assertFalse(Files.exists(spillDir.resolve(idle.getId() + ".session")), "Rehydration deletes the file");
+
+        SessionSpill.Stats stats = registry.getSpill().orElseThrow().getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getPassivations());
+        assertEquals(1, stats.getRehydrations());
+    }
+
+    @Test
+    @DisplayName("residentSet_staysBounded_andSpillsLeastRecentlyUsed")
+    void residentSet_staysBounded_andSpillsLeastRecentlyUsed() {
+        SessionRegistry registry = registry(100);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            now.addAndGet(1);
+            ids.add(registry.open("player" + i, Difficulty.EASY).getId());
+            if (i >= 10) {
+                registry.get(ids.get(0));
+            }
+            assertTrue(registry.residentCount() <= 100, "Resident " + registry.residentCount() + " after " + i);
+        }
+        assertEquals(1_000, registry.size());
+        assertEquals(0, registry.getSpill().orElseThrow().getStats().getMisses(), "The hot session never left the heap");
+
+        for (String id : ids) {
+            PlayerSession session = registry.get(id).orElseThrow();
+            assertTrue(session.attempt(List.of(session.getState().getLightColor(0, 0))));
+        }
+        assertTrue(registry.residentCount() <= 100);
+        assertEquals(1_000, registry.size());
+    }
+
+    @Test
+    @DisplayName("pinnedSessions_stayResident_andClosedSpillsAreDeleted")
+    void pinnedSessions_stayResident_andClosedSpillsAreDeleted() throws Exception {
+        SessionRegistry registry = registry(100);
+        PlayerSession pinned = registry.open("pinned", Difficulty.HARD);
+        PlayerSession spilled = registry.open("spilled", Difficulty.HARD);
+        now.addAndGet(IDLE.toNanos());
+
+        registry.with(pinned.getId(), session -> {
+            assertEquals(1, registry.passivateIdle(), "Only the unpinned session is written out");
+            return null;
+        });
+        assertTrue(registry.contains(spilled.getId()));
+        assertEquals(1, registry.residentCount());
+
+        try (SessionExecutor executor = new SessionExecutor(registry, 2, 8)) {
+            List<LightColor> first = List.of(spilled.getState().getLightColor(0, 0));
+            assertTrue(executor.attempt(spilled.getId(), first).get(5, TimeUnit.SECONDS));
+            assertEquals(1, registry.with(spilled.getId(), s -> s.getState().getLightRound(0)).orElseThrow());
+        }
+
+        now.addAndGet(IDLE.toNanos());
+        assertEquals(2, registry.passivateIdle());
+        assertTrue(registry.close(spilled.getId()));
+        assertFalse(registry.contains(spilled.getId()));
+        assertFalse(registry.close(spilled.getId()));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("corruptSpill_failsQueuedCommands_insteadOfHanging")
+    void corruptSpill_failsQueuedCommands_insteadOfHanging() throws Exception {
+        SessionRegistry registry = registry(100);
+        PlayerSession corrupt = registry.open("corrupt", Difficulty.EASY);
+        now.addAndGet(IDLE.toNanos());
+        assertEquals(1, registry.passivateIdle());
+        try (Stream<Path> files = Files.list(spillDir)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[] {0, 0, 0, 1});
+        }
+
+        try (SessionExecutor executor = new SessionExecutor(registry, 1, 8)) {
+            for (int round = 0; round < 2; round++) {
+                List<CompletableFuture<String>> hints = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    hints.add(executor.hint(corrupt.getId()));
+                }
+                for (CompletableFuture<String> hint : hints) {
+                    ExecutionException failure = assertThrows(ExecutionException.class,
+                            () -> hint.get(5, TimeUnit.SECONDS));
+                    assertTrue(failure.getCause() instanceof IllegalStateException, failure.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("clientSuppliedIds_neverReachOutsideSpillDirectory")
+    void clientSuppliedIds_neverReachOutsideSpillDirectory() throws Exception {
+        Path victim = Files.writeString(spillDir.resolve("victim.session"), "not yours");
+        SessionRegistry registry = new SessionRegistry(null, null,
+                new SessionSpill(spillDir.resolve("spill"), IDLE, 100, now::get));
+        LineSession client = new LineSession(registry, LineSession.RANDOM_SEEDS, null);
+
+        for (String id : List.of("../victim", "..", "/tmp/victim", UUID.randomUUID().toString().toUpperCase())) {
+            assertFalse(registry.contains(id), id);
+            assertTrue(registry.get(id).isEmpty(), id);
+            assertFalse(registry.close(id), id);
+            assertEquals("ERR unknown session", client.execute("load " + id));
+        }
+        assertTrue(Files.exists(victim), "Nothing outside the spill directory was read or deleted");
+        assertFalse(SessionSpill.isSessionId("../victim"));
+        assertTrue(SessionSpill.isSessionId(registry.open("ok", Difficulty.EASY).getId()));
+    }
+
+    private SessionRegistry registry(int maxResident) {
+        return new SessionRegistry(null, null, new SessionSpill(spillDir, IDLE, maxResident, now::get));
+    }
+
+    private static void solveLights(PlayerSession session) {
+        int guard = 0;
+        while (session.currentPuzzle() == 0) {
+            List<LightColor> guess = new ArrayList<>();
+            for (int position = 0; position <= session.getState().getLightRound(0); position++) {
+                guess.add(session.getState().getLightColor(0, position));
+            }
+            assertTrue(session.attempt(guess));
+            assertTrue(++guard <= 10, "Guard exceeded while solving lights");
+        }
+    }
+}
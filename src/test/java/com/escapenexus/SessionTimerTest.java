@@ -0,0 +1,235 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Test Plan:
+// - Coverage targets: TimingWheel schedule/cancel/advance, SessionTimer warnings/pause/resume, SessionRegistry expiry.
+// - Happy path: a timed session gets its warnings in order, then expires, is marked LOST and closed after a grace period.
+// - Negative cases: cancelled timeouts and paused clocks never fire; completed sessions are not marked lost;
+//   spilled sessions are not read back to expire them; a throwing task is counted and the rest still fire.
+// - Boundary cases: deadlines several turns of the wheel away; warnings longer than the limit are skipped.
+// - Invariants: 100k pending timers cost a constant, small amount of memory each.
+class SessionTimerTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MAX_BYTES_PER_TIMER = 160;
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<TimingWheel> wheels = new ArrayList<>();
+
+    @Test
+    @DisplayName("wheel_firesDueTimeouts_acrossRounds_andSkipsCancelled")
+    void wheel_firesDueTimeouts_acrossRounds_andSkipsCancelled() {
+        TimingWheel wheel = manualWheel(8);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("far"), 2500, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> fired.add("near"), 300, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout cancelled = wheel.schedule(() -> fired.add("cancelled"), 200, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        advanceBy(Duration.ofMillis(299));
+        assertTrue(fired.isEmpty());
+        advanceBy(Duration.ofMillis(1));
+        assertEquals(List.of("near"), fired);
+
+        advanceBy(Duration.ofMillis(2100));
+        assertEquals(List.of("near"), fired, "Three turns of an 8-slot wheel have not passed yet");
+        advanceBy(Duration.ofMillis(100));
+        assertEquals(List.of("near", "far"), fired);
+        assertTrue(cancelled.isCancelled());
+        wheel.close();
+    }
+
+    @Test
+    @DisplayName("timer_warnsThenExpires_andPauseKeepsRemainingTime")
+    void timer_warnsThenExpires_andPauseKeepsRemainingTime() {
+        SessionTimer timer = new SessionTimer(manualWheel(64),
+                List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1)));
+        List<String> events = new ArrayList<>();
+        timer.start("s1", Duration.ofMinutes(10), listener(events));
+
+        advanceBy(Duration.ofMinutes(5));
+        assertEquals(List.of("warn s1 PT5M"), events, "The one-hour warning is longer than the limit");
+
+        assertTrue(timer.pause("s1"));
+        assertFalse(timer.pause("s1"));
+        advanceBy(Duration.ofHours(2));
+        assertEquals(1, events.size(), "A paused clock never fires");
+        assertEquals(Duration.ofMinutes(5), timer.remaining("s1").orElseThrow());
+
+        assertTrue(timer.resume("s1"));
+        advanceBy(Duration.ofMinutes(4));
+        assertEquals(List.of("warn s1 PT5M", "warn s1 PT1M"), events);
+        advanceBy(Duration.ofMinutes(1));
+        assertEquals("expired s1", events.get(2));
+        assertEquals(0, timer.size());
+
+        timer.start("s2", Duration.ofMinutes(2), listener(events));
+        assertTrue(timer.cancel("s2"));
+        advanceBy(Duration.ofMinutes(3));
+        assertEquals(3, events.size());
+        timer.close();
+    }
+
+    @Test
+    @DisplayName("registry_marksTimedOutSessionsLost_butNotCompletedOnes")
+    void registry_marksTimedOutSessionsLost_butNotCompletedOnes() {
+        SessionTimer timer = new SessionTimer(manualWheel(64), List.of(Duration.ofMinutes(1)));
+        List<String> events = new ArrayList<>();
+        SessionRegistry registry = new SessionRegistry(timer, listener(events));
+        PlayerSession slow = registry.open("slow", Difficulty.MEDIUM);
+        PlayerSession done = registry.open("done", Difficulty.MEDIUM);
+        done.getState().end();
+
+        advanceBy(Duration.ofMinutes(29));
+        assertEquals(2, events.size(), "Both sessions are warned a minute before the 30 minute limit");
+        advanceBy(Duration.ofMinutes(1));
+
+        assertEquals(GameStatus.LOST, slow.getState().getStatus());
+        assertEquals(GameStatus.COMPLETED, done.getState().getStatus());
+        assertEquals("expired " + slow.getId(), events.get(2));
+        assertEquals(3, events.size());
+        assertFalse(slow.attempt("anything"));
+        slow.getState().end();
+        assertEquals(GameStatus.LOST, slow.getState().getStatus(), "Ending a lost session does not win it");
+        timer.close();
+    }
+
+    @Test
+    @DisplayName("expiredSessions_closeAfterGrace_andSpilledOnesAreNotReadBack")
+    void expiredSessions_closeAfterGrace_andSpilledOnesAreNotReadBack(@TempDir Path spillDir) {
+        SessionTimer timer = new SessionTimer(manualWheel(64), List.of());
+        List<String> events = new ArrayList<>();
+        SessionSpill spill = new SessionSpill(spillDir, Duration.ofMinutes(10), 100, now::get);
+        SessionRegistry registry = new SessionRegistry(timer, listener(events), spill);
+        registry.setExpiredGrace(Duration.ofMinutes(2));
+        PlayerSession resident = registry.open("resident", Difficulty.MEDIUM);
+        String spilledId = registry.open("spilled", Difficulty.MEDIUM).getId();
+        advanceBy(Duration.ofMinutes(10));
+        registry.with(resident.getId(), session -> null);
+        assertEquals(1, registry.passivateIdle());
+
+        advanceBy(Duration.ofMinutes(20));
+
+        assertEquals(GameStatus.LOST, resident.getState().getStatus());
+        assertEquals(List.of("expired " + resident.getId()), events, "The spilled session is not read back yet");
+        assertEquals(0, spill.getStats().getRehydrations());
+        assertTrue(registry.contains(resident.getId()), "Lost sessions stay open for the grace period");
+
+        advanceBy(Duration.ofMinutes(2));
+        assertFalse(registry.contains(resident.getId()));
+
+        PlayerSession spilled = registry.get(spilledId).orElseThrow();
+        assertEquals(GameStatus.LOST, spilled.getState().getStatus(), "Expired when read back");
+        assertEquals("expired " + spilledId, events.get(1));
+        advanceBy(Duration.ofMinutes(2));
+        assertFalse(registry.contains(spilledId));
+        assertEquals(0, registry.size());
+        assertThrows(IllegalArgumentException.class, () -> registry.setExpiredGrace(Duration.ofSeconds(-1)));
+        timer.close();
+    }
+
+    @Test
+    @DisplayName("hundredThousandTimers_costConstantMemoryEach")
+    void hundredThousandTimers_costConstantMemoryEach() {
+        TimingWheel wheel = manualWheel(TimingWheel.DEFAULT_WHEEL_SIZE);
+        AtomicInteger fired = new AtomicInteger();
+        Runnable task = fired::incrementAndGet;
+        int count = 100_000;
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[count];
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = wheel.schedule(task, 1 + i % 7200, TimeUnit.SECONDS);
+        }
+        wheel.advance();
+        long perTimer = (threads.getThreadAllocatedBytes(threadId) - before) / count;
+        assertTrue(perTimer <= MAX_BYTES_PER_TIMER, "Measured " + perTimer + " bytes per timer");
+
+        for (int i = 0; i < count; i += 2) {
+            timeouts[i].cancel();
+        }
+        advanceBy(Duration.ofHours(2));
+        assertEquals(count / 2, fired.get());
+        wheel.close();
+    }
+
+    @Test
+    @DisplayName("failingTask_isCounted_andOthersStillFire")
+    void failingTask_isCounted_andOthersStillFire() {
+        TimingWheel wheel = manualWheel(8);
+        List<String> fired = new ArrayList<>();
+        long failures = EngineMetrics.TIMER_TASK_FAILURES.sum();
+        wheel.schedule(() -> {
+            throw new IllegalStateException("listener broke");
+        }, 100, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> fired.add("after"), 100, TimeUnit.MILLISECONDS);
+
+        advanceBy(Duration.ofMillis(100));
+        assertEquals(List.of("after"), fired);
+        assertEquals(failures + 1, EngineMetrics.TIMER_TASK_FAILURES.sum());
+        wheel.close();
+    }
+
+    @Test
+    @DisplayName("workerThread_firesOnItsOwn")
+    void workerThread_firesOnItsOwn() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5, TimeUnit.MILLISECONDS, 16)) {
+            CountDownLatch done = new CountDownLatch(1);
+            wheel.schedule(done::countDown, 20, TimeUnit.MILLISECONDS);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private TimingWheel manualWheel(int size) {
+        TimingWheel wheel = new TimingWheel(TICK, size, now::get, false);
+        wheels.add(wheel);
+        return wheel;
+    }
+
+    private void advanceBy(Duration duration) {
+        // Step tick by tick, the way the worker thread would.
+        long target = now.get() + duration.toNanos();
+        while (now.get() < target) {
+            now.set(Math.min(target, now.get() + TICK));
+            for (TimingWheel candidate : wheels) {
+                candidate.advance();
+            }
+        }
+    }
+
+    private static SessionTimer.Listener listener(List<String> events) {
+        return new SessionTimer.Listener() {
+            @Override
+            public void onWarning(String sessionId, Duration remaining) {
+                events.add("warn " + sessionId + " " + remaining);
+            }
+
+            @Override
+            public void onExpired(String sessionId) {
+                events.add("expired " + sessionId);
+            }
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package com.escapenexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Test Plan:
+// - Coverage targets: SolvabilityAnalyzer key-gated reachability, key cycles, dead ends, critical path.
+// - Happy path: the default game is solvable and every room lies on the critical path.
+// - Negative cases: keyless permanent locks and circular key dependencies make rooms unreachable;
+//   a key reached only through the room it opens is a cycle, a key that is nowhere is not.
+// - Boundary cases: side rooms behind doors are reported as dead ends and left off the critical path.
+// - Invariants: large generated chains are analyzed in linear time.
+class SolvabilityAnalyzerTest {
+
+    @Test
+    @DisplayName("defaultGame_isSolvable_withFullCriticalPath")
+    void defaultGame_isSolvable_withFullCriticalPath() {
+        Game game = GameFactory.createDefaultThreeRoomGame(Difficulty.MEDIUM);
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+
+        assertTrue(report.isSolvable());
+        assertTrue(report.getUnreachableRooms().isEmpty());
+        assertTrue(report.getCyclicRooms().isEmpty());
+        assertTrue(report.getDeadEnds().isEmpty());
+        assertEquals(game.getRooms(), report.getCriticalPath());
+    }
+
+    @Test
+    @DisplayName("permanentLock_withoutKey_isUnsolvable")
+    void permanentLock_withoutKey_isUnsolvable() throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_nav_locked.json").get(0);
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+
+        assertFalse(report.isSolvable());
+        assertEquals(List.of(game.getRooms().get(1)), report.getUnreachableRooms());
+        assertTrue(report.getCriticalPath().isEmpty());
+        assertEquals(List.of(game.getRooms().get(0)), report.getDeadEnds());
+    }
+
+    @Test
+    @DisplayName("doorGraph_sideRoomIsDeadEnd_andOffCriticalPath")
+    void doorGraph_sideRoomIsDeadEnd_andOffCriticalPath() throws IOException {
+        Game game = new DataLoader().loadGamesFromResource("level_nav_doors.json").get(0);
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+        List<Room> rooms = game.getRooms();
+
+        assertTrue(report.isSolvable());
+        assertTrue(report.getUnreachableRooms().isEmpty(), "West wing opens with the hub key");
+        assertEquals(List.of(rooms.get(1)), report.getDeadEnds());
+        assertEquals(List.of(rooms.get(0), rooms.get(2), rooms.get(3)), report.getCriticalPath());
+    }
+
+    @Test
+    @DisplayName("circularKeys_reportCycle_andUnreachableRooms")
+    void circularKeys_reportCycle_andUnreachableRooms() {
+        Game game = new Game("Loop", "Keys locked behind each other.", Difficulty.MEDIUM, 10, 1);
+        Item keyB = key("Key B");
+        Item keyC = key("Key C");
+        Room start = new Room("Start", "");
+        Room roomB = lockedRoom("Room B", keyB, keyC);
+        Room roomC = lockedRoom("Room C", keyC, keyB);
+        game.addRoom(start);
+        game.addRoom(roomB);
+        game.addRoom(roomC);
+
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+        assertFalse(report.isSolvable());
+        assertEquals(List.of(roomB, roomC), report.getUnreachableRooms());
+        assertEquals(List.of(roomB, roomC), report.getCyclicRooms());
+    }
+
+    @Test
+    @DisplayName("keyBeyondItsOwnLock_isReportedAsCycle")
+    void keyBeyondItsOwnLock_isReportedAsCycle() {
+        Game game = new Game("Behind", "The key lies past the door it opens.", Difficulty.MEDIUM, 10, 1);
+        Item keyB = key("Key B");
+        Room start = new Room("Start", "");
+        Room roomB = lockedRoom("Room B", keyB, null);
+        Room roomC = new Room("Room C", "");
+        Puzzle puzzle = new Puzzle("Room C Puzzle", "");
+        puzzle.setKeyProvided(keyB);
+        roomC.addPuzzle(puzzle);
+        game.addRoom(start);
+        game.addRoom(roomB);
+        game.addRoom(roomC);
+
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+        assertFalse(report.isSolvable());
+        assertEquals(List.of(roomB, roomC), report.getUnreachableRooms());
+        assertEquals(List.of(roomB, roomC), report.getCyclicRooms(), "Room C is only reached through Room B");
+    }
+
+    @Test
+    @DisplayName("missingKey_isUnreachable_butNotACycle")
+    void missingKey_isUnreachable_butNotACycle() {
+        Game game = new Game("Lost", "The key was never placed.", Difficulty.MEDIUM, 10, 1);
+        Room start = new Room("Start", "");
+        Room roomX = lockedRoom("Room X", key("Lost Key"), null);
+        Room roomY = new Room("Room Y", "");
+        game.addRoom(start);
+        game.addRoom(roomX);
+        game.addRoom(roomY);
+
+        SolvabilityReport report = SolvabilityAnalyzer.analyze(game);
+        assertEquals(List.of(roomX, roomY), report.getUnreachableRooms());
+        assertTrue(report.getCyclicRooms().isEmpty(), "Rooms X and Y lead to each other, but no key is behind them");
+    }
+
+    @Test
+    @DisplayName("largeGeneratedChain_isAnalyzedInLinearTime")
+    void largeGeneratedChain_isAnalyzedInLinearTime() {
+        int size = 100_000;
+        Game game = new Game("Generated", "Long keyed chain.", Difficulty.MEDIUM, 60, 1);
+        Item previousKey = null;
+        for (int i = 0; i < size; i++) {
+            Room room = new Room(new UUID(1L, i), "Room " + i, "");
+            Puzzle puzzle = new Puzzle(new UUID(2L, i), "Puzzle " + i, "");
+            Item key = new Item(new UUID(3L, i), "Key " + i, "", true, true, ItemState.NEW);
+            puzzle.setKeyProvided(key);
+            room.addPuzzle(puzzle);
+            if (previousKey != null) {
+                room.setLocked(true);
+                room.setKeyRequired(previousKey);
+            }
+            game.addRoom(room);
+            previousKey = key;
+        }
+
+        SolvabilityReport report = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> SolvabilityAnalyzer.analyze(game));
+        assertTrue(report.isSolvable());
+        assertEquals(size, report.getCriticalPath().size());
+    }
+
+    private static Item key(String name) {
+        return new Item(name, "", true, true, ItemState.NEW);
+    }
+
+    private static Room lockedRoom(String name, Item required, Item provided) {
+        Room room = new Room(name, "");
+        room.setLocked(true);
+        room.setKeyRequired(required);
+        Puzzle puzzle = new Puzzle(name + " Puzzle", "");
+        puzzle.setKeyProvided(provided);
+        room.addPuzzle(puzzle);
+        return room;
+    }
+}